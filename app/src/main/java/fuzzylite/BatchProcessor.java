@@ -0,0 +1,556 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.activation.General;
+import fuzzylite.hedge.Any;
+import fuzzylite.hedge.Hedge;
+import fuzzylite.hedge.HedgeFunction;
+import fuzzylite.norm.Norm;
+import fuzzylite.norm.TNorm;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Function;
+import fuzzylite.term.Linear;
+import fuzzylite.term.Term;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ The BatchProcessor class evaluates an Engine on columns of input values
+ utilizing Engine::processBatch(). The rows are processed in chunks, and for
+ each chunk the membership function values of the input terms are computed for
+ the whole column of each input variable, and the activation degrees of the
+ rules are computed column-wise by applying the hedges and the norms on
+ primitive arrays. Afterwards, the rules are triggered and the output variables
+ are defuzzified row by row on an EvaluationContext following the same order
+ of operations as Engine::process(), and hence the results are the same as
+ those obtained by processing the engine row by row.
+
+ The column-wise evaluation is utilized only when every enabled rule block is
+ activated by General and the antecedents of the rules depend only on the
+ values of the input variables. Otherwise, each row is processed utilizing
+ Engine::process(EvaluationContext).
+
+ @see Engine::processBatch(double[][], double[][], EvaluationContext)
+ @since 6.0
+ */
+final class BatchProcessor {
+
+    /**
+     Number of rows evaluated column-wise at once
+     */
+    static final int CHUNK_SIZE = 256;
+
+    /*
+     * Instructions of the tapes
+     */
+    private static final int OP_MEMBERSHIP = 0;
+    private static final int OP_CONSTANT = 1;
+    private static final int OP_CONJUNCTION = 2;
+    private static final int OP_DISJUNCTION = 3;
+
+    private final Engine engine;
+    private final EvaluationContext context;
+    private final boolean columnar;
+
+    private final InputVariable[] inputVariables;
+    private final OutputVariable[] outputVariables;
+
+    private final int[] membershipVariable;
+    private final Term[] membershipTerm;
+    private final double[][] inputValues;
+    private final double[][] memberships;
+
+    private final RuleBlock[] ruleBlocks;
+    private final double[][] activationDegrees;
+    private final boolean[][] triggered;
+    private final Rule[][] rules;
+    private final int[][] tapes;
+    private final int[] conjunctionCodes;
+    private final int[] disjunctionCodes;
+    private final Norm[] conjunctions;
+    private final Norm[] disjunctions;
+    private final double[][][] degrees;
+    private final double[][] stack;
+
+    private final int[] hedgeCodes;
+    private final Hedge[] hedges;
+    private final double[] constants;
+
+    BatchProcessor(Engine engine, EvaluationContext context) {
+        this.engine = engine;
+        this.context = context;
+        this.inputVariables = engine.getInputVariables().toArray(
+                new InputVariable[engine.numberOfInputVariables()]);
+        this.outputVariables = engine.getOutputVariables().toArray(
+                new OutputVariable[engine.numberOfOutputVariables()]);
+
+        List<RuleBlock> enabledBlocks = new ArrayList<RuleBlock>();
+        for (RuleBlock ruleBlock : engine.getRuleBlocks()) {
+            if (ruleBlock.isEnabled()) {
+                enabledBlocks.add(ruleBlock);
+            }
+        }
+        this.ruleBlocks = enabledBlocks.toArray(new RuleBlock[enabledBlocks.size()]);
+        this.columnar = isColumnar(ruleBlocks);
+
+        Map<Variable, Integer> variableIndexes = new IdentityHashMap<Variable, Integer>();
+        for (int i = 0; i < inputVariables.length; ++i) {
+            variableIndexes.put(inputVariables[i], i);
+        }
+        Map<Term, Integer> membershipIndexes = new IdentityHashMap<Term, Integer>();
+        List<Integer> membershipVariableList = new ArrayList<Integer>();
+        List<Term> membershipTermList = new ArrayList<Term>();
+        List<Integer> hedgeCodeList = new ArrayList<Integer>();
+        List<Hedge> hedgeList = new ArrayList<Hedge>();
+        List<Double> constantList = new ArrayList<Double>();
+
+        this.activationDegrees = new double[ruleBlocks.length][];
+        this.triggered = new boolean[ruleBlocks.length][];
+        this.rules = new Rule[ruleBlocks.length][];
+        this.conjunctionCodes = new int[ruleBlocks.length];
+        this.disjunctionCodes = new int[ruleBlocks.length];
+        this.conjunctions = new Norm[ruleBlocks.length];
+        this.disjunctions = new Norm[ruleBlocks.length];
+        this.degrees = new double[ruleBlocks.length][][];
+        List<int[]> tapeList = new ArrayList<int[]>();
+        int depth = 0;
+        for (int b = 0; b < ruleBlocks.length; ++b) {
+            RuleBlock ruleBlock = ruleBlocks[b];
+            activationDegrees[b] = context.activationDegrees(ruleBlock);
+            triggered[b] = context.triggered(ruleBlock);
+            rules[b] = ruleBlock.getRules().toArray(new Rule[ruleBlock.numberOfRules()]);
+            conjunctions[b] = ruleBlock.getConjunction();
+            disjunctions[b] = ruleBlock.getDisjunction();
+            conjunctionCodes[b] = CompiledEngine.normCode(conjunctions[b]);
+            disjunctionCodes[b] = CompiledEngine.normCode(disjunctions[b]);
+            degrees[b] = new double[rules[b].length][];
+            if (!columnar) {
+                continue;
+            }
+            for (int r = 0; r < rules[b].length; ++r) {
+                Rule rule = rules[b][r];
+                if (!rule.isLoaded()) {
+                    tapeList.add(null);
+                    continue;
+                }
+                degrees[b][r] = new double[CHUNK_SIZE];
+                List<Integer> tape = new ArrayList<Integer>();
+                depth = Math.max(depth, compile(rule.getAntecedent().getExpression(),
+                        tape, variableIndexes, membershipIndexes,
+                        membershipVariableList, membershipTermList,
+                        hedgeCodeList, hedgeList, constantList));
+                tapeList.add(toIntArray(tape));
+            }
+        }
+        this.tapes = tapeList.toArray(new int[tapeList.size()][]);
+
+        this.membershipVariable = toIntArray(membershipVariableList);
+        this.membershipTerm = membershipTermList.toArray(new Term[membershipTermList.size()]);
+        this.hedgeCodes = toIntArray(hedgeCodeList);
+        this.hedges = hedgeList.toArray(new Hedge[hedgeList.size()]);
+        this.constants = new double[constantList.size()];
+        for (int i = 0; i < constants.length; ++i) {
+            constants[i] = constantList.get(i);
+        }
+
+        this.inputValues = new double[columnar ? inputVariables.length : 0][CHUNK_SIZE];
+        this.memberships = new double[membershipTerm.length][CHUNK_SIZE];
+        this.stack = new double[depth][CHUNK_SIZE];
+    }
+
+    /**
+     Processes the engine for each row of the given columns of input values,
+     and stores the output values in the given columns of output values
+
+     @param inputsByVariable is the matrix of input values, where each row
+     contains the values of an input variable
+     @param outputsByVariable is the matrix where the output values are stored,
+     where each row contains the values of an output variable
+     @param from is the first evaluation to process (inclusive)
+     @param to is the last evaluation to process (exclusive)
+     */
+    void process(double[][] inputsByVariable, double[][] outputsByVariable, int from, int to) {
+        for (int offset = from; offset < to; offset += CHUNK_SIZE) {
+            final int length = Math.min(CHUNK_SIZE, to - offset);
+            if (columnar) {
+                evaluateColumns(inputsByVariable, offset, length);
+            }
+            for (int k = 0; k < length; ++k) {
+                final int row = offset + k;
+                for (int i = 0; i < inputVariables.length; ++i) {
+                    context.setInputValue(i, inputsByVariable[i][row]);
+                }
+                if (columnar) {
+                    processRow(k);
+                } else {
+                    engine.process(context);
+                }
+                for (int i = 0; i < outputVariables.length; ++i) {
+                    outputsByVariable[i][row] = context.getOutputValue(i);
+                }
+            }
+        }
+    }
+
+    /**
+     Computes the membership function values and the activation degrees of the
+     rules for the given range of rows
+
+     @param inputsByVariable is the matrix of input values
+     @param offset is the first row to evaluate
+     @param length is the number of rows to evaluate
+     */
+    private void evaluateColumns(double[][] inputsByVariable, int offset, int length) {
+        for (int i = 0; i < inputVariables.length; ++i) {
+            final InputVariable inputVariable = inputVariables[i];
+            final double[] source = inputsByVariable[i];
+            final double[] values = inputValues[i];
+            if (inputVariable.isLockValueInRange()) {
+                final double minimum = inputVariable.getMinimum();
+                final double maximum = inputVariable.getMaximum();
+                for (int k = 0; k < length; ++k) {
+                    values[k] = Op.bound(source[offset + k], minimum, maximum);
+                }
+            } else {
+                System.arraycopy(source, offset, values, 0, length);
+            }
+        }
+
+        for (int m = 0; m < membershipTerm.length; ++m) {
+            final Term term = membershipTerm[m];
+            final double[] values = inputValues[membershipVariable[m]];
+            final double[] result = memberships[m];
+            for (int k = 0; k < length; ++k) {
+                result[k] = term.membership(values[k]);
+            }
+        }
+
+        int tape = 0;
+        for (int b = 0; b < ruleBlocks.length; ++b) {
+            for (int r = 0; r < rules[b].length; ++r) {
+                final int[] instructions = tapes[tape++];
+                if (instructions == null) {
+                    continue;
+                }
+                execute(b, instructions, length);
+                final double weight = rules[b][r].getWeight();
+                final double[] result = stack[0];
+                final double[] target = degrees[b][r];
+                for (int k = 0; k < length; ++k) {
+                    target[k] = weight * result[k];
+                }
+            }
+        }
+    }
+
+    /**
+     Executes the tape of an antecedent leaving its activation degrees at the
+     bottom of the stack
+
+     @param block is the index of the rule block of the antecedent
+     @param tape is the tape of the antecedent
+     @param length is the number of rows to evaluate
+     */
+    private void execute(int block, int[] tape, int length) {
+        int top = -1;
+        int pc = 0;
+        while (pc < tape.length) {
+            final int op = tape[pc++];
+            if (op == OP_MEMBERSHIP) {
+                final double[] target = stack[++top];
+                System.arraycopy(memberships[tape[pc++]], 0, target, 0, length);
+                final int hedgeStart = tape[pc++];
+                final int hedgeEnd = tape[pc++];
+                hedge(hedgeStart, hedgeEnd, target, length);
+            } else if (op == OP_CONSTANT) {
+                Arrays.fill(stack[++top], 0, length, constants[tape[pc++]]);
+            } else {
+                final double[] b = stack[top--];
+                final double[] a = stack[top];
+                if (op == OP_CONJUNCTION) {
+                    norm(conjunctionCodes[block], conjunctions[block], a, b, length);
+                } else {
+                    norm(disjunctionCodes[block], disjunctions[block], a, b, length);
+                }
+            }
+        }
+    }
+
+    /**
+     Triggers the rules and defuzzifies the output variables for the given row
+     of the chunk, whose input values are already set in the context
+
+     @param k is the row of the chunk
+     */
+    private void processRow(int k) {
+        for (int i = 0; i < outputVariables.length; ++i) {
+            context.fuzzyOutput(i).clear();
+        }
+        for (int b = 0; b < ruleBlocks.length; ++b) {
+            final Rule[] blockRules = rules[b];
+            final double[] blockDegrees = activationDegrees[b];
+            final boolean[] blockTriggered = triggered[b];
+            final double[][] columns = degrees[b];
+            final TNorm implication = ruleBlocks[b].getImplication();
+            for (int r = 0; r < blockRules.length; ++r) {
+                blockDegrees[r] = 0.0;
+                blockTriggered[r] = false;
+                if (columns[r] != null) {
+                    blockDegrees[r] = columns[r][k];
+                    blockTriggered[r] = blockRules[r].trigger(blockDegrees[r], implication, context);
+                }
+            }
+        }
+        for (OutputVariable outputVariable : outputVariables) {
+            outputVariable.defuzzify(context);
+        }
+    }
+
+    private void hedge(int start, int end, double[] x, int length) {
+        for (int h = start; h < end; ++h) {
+            final int code = hedgeCodes[h];
+            if (code == CompiledEngine.HEDGE_NOT) {
+                for (int k = 0; k < length; ++k) {
+                    x[k] = 1.0 - x[k];
+                }
+            } else if (code == CompiledEngine.HEDGE_VERY) {
+                for (int k = 0; k < length; ++k) {
+                    x[k] = x[k] * x[k];
+                }
+            } else if (code == CompiledEngine.HEDGE_SOMEWHAT) {
+                for (int k = 0; k < length; ++k) {
+                    x[k] = Math.sqrt(x[k]);
+                }
+            } else {
+                final Hedge hedge = hedges[h];
+                for (int k = 0; k < length; ++k) {
+                    x[k] = hedge.hedge(x[k]);
+                }
+            }
+        }
+    }
+
+    private static void norm(int code, Norm norm, double[] a, double[] b, int length) {
+        if (code == CompiledEngine.NORM_MINIMUM) {
+            for (int k = 0; k < length; ++k) {
+                a[k] = a[k] == 0.0 ? a[k] : Op.min(a[k], b[k]);
+            }
+        } else if (code == CompiledEngine.NORM_MAXIMUM) {
+            for (int k = 0; k < length; ++k) {
+                a[k] = Op.max(a[k], b[k]);
+            }
+        } else if (code == CompiledEngine.NORM_ALGEBRAIC_PRODUCT) {
+            for (int k = 0; k < length; ++k) {
+                a[k] = a[k] == 0.0 ? a[k] : a[k] * b[k];
+            }
+        } else if (code == CompiledEngine.NORM_ALGEBRAIC_SUM) {
+            for (int k = 0; k < length; ++k) {
+                a[k] = a[k] + b[k] - (a[k] * b[k]);
+            }
+        } else {
+            for (int k = 0; k < length; ++k) {
+                a[k] = norm.compute(a[k], b[k]);
+            }
+        }
+    }
+
+    /**
+     Compiles the given expression into the tape in postfix order
+
+     @return the depth of the stack required to execute the expression
+     */
+    private int compile(Expression node, List<Integer> tape,
+            Map<Variable, Integer> variableIndexes, Map<Term, Integer> membershipIndexes,
+            List<Integer> membershipVariableList, List<Term> membershipTermList,
+            List<Integer> hedgeCodeList, List<Hedge> hedgeList, List<Double> constantList) {
+        if (node instanceof Proposition) {
+            Proposition proposition = (Proposition) node;
+            List<Hedge> propositionHedges = proposition.getHedges();
+            if (!proposition.getVariable().isEnabled()) {
+                tape.add(OP_CONSTANT);
+                tape.add(constantList.size());
+                constantList.add(0.0);
+                return 1;
+            }
+            if (!propositionHedges.isEmpty()
+                    && propositionHedges.get(propositionHedges.size() - 1) instanceof Any) {
+                ListIterator<Hedge> rit = propositionHedges.listIterator(propositionHedges.size());
+                double result = rit.previous().hedge(Double.NaN);
+                while (rit.hasPrevious()) {
+                    result = rit.previous().hedge(result);
+                }
+                tape.add(OP_CONSTANT);
+                tape.add(constantList.size());
+                constantList.add(result);
+                return 1;
+            }
+            Term term = proposition.getTerm();
+            Integer membership = membershipIndexes.get(term);
+            if (membership == null) {
+                membership = membershipTermList.size();
+                membershipIndexes.put(term, membership);
+                membershipTermList.add(term);
+                membershipVariableList.add(variableIndexes.get(proposition.getVariable()));
+            }
+            tape.add(OP_MEMBERSHIP);
+            tape.add(membership);
+            tape.add(hedgeList.size());
+            for (int h = propositionHedges.size() - 1; h >= 0; --h) {
+                Hedge hedge = propositionHedges.get(h);
+                hedgeList.add(hedge);
+                hedgeCodeList.add(CompiledEngine.hedgeCode(hedge));
+            }
+            tape.add(hedgeList.size());
+            return 1;
+        }
+        Operator operator = (Operator) node;
+        int left = compile(operator.getLeft(), tape, variableIndexes, membershipIndexes,
+                membershipVariableList, membershipTermList, hedgeCodeList, hedgeList, constantList);
+        int right = compile(operator.getRight(), tape, variableIndexes, membershipIndexes,
+                membershipVariableList, membershipTermList, hedgeCodeList, hedgeList, constantList);
+        tape.add(Rule.FL_AND.equals(operator.getName()) ? OP_CONJUNCTION : OP_DISJUNCTION);
+        return Math.max(left, right + 1);
+    }
+
+    /**
+     Indicates whether the given rule blocks can be evaluated column-wise
+
+     @param ruleBlocks are the enabled rule blocks
+     @return whether the rule blocks can be evaluated column-wise
+     */
+    private boolean isColumnar(RuleBlock[] ruleBlocks) {
+        for (RuleBlock ruleBlock : ruleBlocks) {
+            if (!(ruleBlock.getActivation() == null
+                    || ruleBlock.getActivation().getClass() == General.class)) {
+                return false;
+            }
+            for (Rule rule : ruleBlock.getRules()) {
+                if (rule.isLoaded() && !isColumnar(rule.getAntecedent().getExpression(),
+                        ruleBlock)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isColumnar(Expression node, RuleBlock ruleBlock) {
+        if (node instanceof Proposition) {
+            Proposition proposition = (Proposition) node;
+            for (Hedge hedge : proposition.getHedges()) {
+                if (hedge instanceof HedgeFunction) {
+                    return false;
+                }
+            }
+            if (!proposition.getVariable().isEnabled()) {
+                return true;
+            }
+            List<Hedge> propositionHedges = proposition.getHedges();
+            if (!propositionHedges.isEmpty()
+                    && propositionHedges.get(propositionHedges.size() - 1) instanceof Any) {
+                return true;
+            }
+            Term term = proposition.getTerm();
+            return proposition.getVariable() instanceof InputVariable
+                    && engine.getInputVariables().contains(proposition.getVariable())
+                    && !(term instanceof Linear || term instanceof Function);
+        }
+        if (node instanceof Operator) {
+            Operator operator = (Operator) node;
+            if (operator.getLeft() == null || operator.getRight() == null) {
+                return false;
+            }
+            if (Rule.FL_AND.equals(operator.getName())) {
+                if (ruleBlock.getConjunction() == null) {
+                    return false;
+                }
+            } else if (Rule.FL_OR.equals(operator.getName())) {
+                if (ruleBlock.getDisjunction() == null) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            return isColumnar(operator.getLeft(), ruleBlock)
+                    && isColumnar(operator.getRight(), ruleBlock);
+        }
+        return false;
+    }
+
+    /**
+     The Task class is a RecursiveAction that splits a range of evaluations in
+     halves until the range is not greater than the threshold, and then
+     processes the range utilizing a BatchProcessor on its own
+     EvaluationContext. The output values are stored in the positions of their
+     input values, and hence the outputs are in the same order as the inputs.
+     */
+    static final class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Engine engine;
+        private final double[][] inputsByVariable;
+        private final double[][] outputsByVariable;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        Task(Engine engine, double[][] inputsByVariable, double[][] outputsByVariable,
+                int from, int to, int threshold) {
+            this.engine = engine;
+            this.inputsByVariable = inputsByVariable;
+            this.outputsByVariable = outputsByVariable;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                new BatchProcessor(engine, new EvaluationContext(engine))
+                        .process(inputsByVariable, outputsByVariable, from, to);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new Task(engine, inputsByVariable, outputsByVariable, from, middle, threshold),
+                    new Task(engine, inputsByVariable, outputsByVariable, middle, to, threshold));
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+}
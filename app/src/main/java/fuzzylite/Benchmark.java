@@ -16,8 +16,12 @@
  */
 package fuzzylite;
 
+import fuzzylite.defuzzifier.AdaptiveQuadrature;
+import fuzzylite.defuzzifier.IntegralDefuzzifier;
 import fuzzylite.imex.FldExporter;
+import fuzzylite.imex.MappedFldReader;
 import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Aggregated;
 import fuzzylite.variable.InputVariable;
 import fuzzylite.variable.OutputVariable;
 
@@ -27,6 +31,13 @@ import java.io.Reader;
 import java.io.StringWriter;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  The Benchmark class is designed to evaluate the performance of an Engine.
@@ -307,6 +318,107 @@ public class Benchmark {
         }
     }
 
+    /**
+     Reads and loads into memory the set of expected values from the engine
+     utilizing the given memory-mapped reader, which avoids decoding the lines
+     into strings
+
+     @param reader is the reader of a set of lines containing space-separated
+     values
+     @throws IOException if the reader cannot be read
+     */
+    public void prepare(MappedFldReader reader) throws IOException {
+        prepare(reader, null);
+    }
+
+    /**
+     Reads and loads into memory the set of expected values from the engine
+     utilizing the given memory-mapped reader, which is split into as many
+     line-aligned regions as the parallelism of the given pool such that the
+     regions are parsed concurrently. The expected values are in the same order
+     as in the reader.
+
+     @param reader is the reader of a set of lines containing space-separated
+     values
+     @param pool is the pool to parse the regions of the reader, or `null` to
+     parse the reader in the calling thread
+     @throws IOException if the reader cannot be read
+     */
+    public void prepare(MappedFldReader reader, ForkJoinPool pool) throws IOException {
+        if (pool == null || pool.getParallelism() <= 1) {
+            this.expected = read(reader);
+            return;
+        }
+        List<Future<List<double[]>>> regions = new ArrayList<Future<List<double[]>>>();
+        for (final MappedFldReader region : reader.split(pool.getParallelism())) {
+            regions.add(pool.submit(new Callable<List<double[]>>() {
+                @Override
+                public List<double[]> call() throws Exception {
+                    try {
+                        return read(region);
+                    } finally {
+                        region.close();
+                    }
+                }
+            }));
+        }
+        try {
+            List<List<double[]>> values = new ArrayList<List<double[]>>(regions.size());
+            int size = 0;
+            for (Future<List<double[]>> region : regions) {
+                values.add(region.get());
+                size += values.get(values.size() - 1).size();
+            }
+            this.expected = new ArrayList<double[]>(size);
+            for (List<double[]> region : values) {
+                this.expected.addAll(region);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("[benchmark error] interrupted while "
+                    + "reading the expected values", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException("[benchmark error] failed to read the "
+                    + "expected values: " + ex.getCause(), ex.getCause());
+        }
+    }
+
+    /**
+     Reads the expected values from the given memory-mapped reader, ignoring
+     blank lines, comments, and the first line of the file if it cannot be
+     parsed (i.e., a header)
+
+     @param reader is the reader of a set of lines containing space-separated
+     values
+     @return the expected values read
+     @throws IOException if the reader cannot be read
+     */
+    private static List<double[]> read(MappedFldReader reader) throws IOException {
+        List<double[]> result = new ArrayList<double[]>();
+        while (reader.nextLine()) {
+            int values;
+            if (reader.isFirstLine()) { //automatic detection of header.
+                try {
+                    values = reader.parse();
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+            } else {
+                values = reader.parse();
+            }
+            if (values > 0) {
+                result.add(Arrays.copyOf(reader.getValues(), values));
+            }
+        }
+        return result;
+    }
+
     /**
      Runs the benchmark on the engine only once
 
@@ -318,7 +430,10 @@ public class Benchmark {
     }
 
     /**
-     Runs the benchmark on the engine multiple times
+     Runs the benchmark on the engine multiple times. The obtained values of
+     each run are stored in the arrays of Benchmark::getObtained(), which are
+     only allocated if their dimensions do not match the expected values and
+     the engine.
 
      @param times is the number of times to run the benchmark on the engine
      @return vector of the time in nanoseconds required by each run, which is
@@ -331,12 +446,15 @@ public class Benchmark {
 
         double[] runtimes = new double[times];
         final int offset = engine.getInputVariables().size();
-        for (int t = 0; t < times; ++t) {
+        final int columns = engine.numberOfInputVariables() + engine.numberOfOutputVariables();
+        if (obtained == null || obtained == expected || obtained.size() != expected.size()
+                || (!obtained.isEmpty() && obtained.get(0).length != columns)) {
             obtained = new ArrayList<double[]>(expected.size());
             for (int i = 0; i < expected.size(); ++i) {
-                obtained.add(new double[engine.numberOfInputVariables()
-                        + engine.numberOfOutputVariables()]);
+                obtained.add(new double[columns]);
             }
+        }
+        for (int t = 0; t < times; ++t) {
             engine.restart();
             long start = System.nanoTime();
 
@@ -374,6 +492,171 @@ public class Benchmark {
         return runtimes;
     }
 
+    /**
+     Runs the benchmark on the engine multiple times utilizing
+     Engine::processBatch(), which evaluates all the input values of the
+     benchmark column-wise. The expected values are transposed into columns
+     before timing each run, and the obtained values are the same as those of
+     Benchmark::run().
+
+     @param times is the number of times to run the benchmark on the engine
+     @return vector of the time in nanoseconds required by each run, which is
+     also appended to the times stored in Benchmark::getTimes()
+     */
+    public double[] runBatch(int times) {
+        return runBatch(times, null);
+    }
+
+    /**
+     Runs the benchmark on the engine multiple times utilizing
+     Engine::processBatch(double[][], double[][], ForkJoinPool), which splits
+     the input values of the benchmark across the workers of the given pool. The
+     obtained values are in the same order as the expected values, and are the
+     same as those of Benchmark::runBatch(int).
+
+     @param times is the number of times to run the benchmark on the engine
+     @param pool is the pool to evaluate the engine, or `null` to evaluate the
+     engine in the calling thread
+     @return vector of the time in nanoseconds required by each run, which is
+     also appended to the times stored in Benchmark::getTimes()
+     */
+    public double[] runBatch(int times, ForkJoinPool pool) {
+        if (engine == null) {
+            throw new RuntimeException("[benchmark error] engine not set for benchmark");
+        }
+        final int inputs = engine.numberOfInputVariables();
+        final int outputs = engine.numberOfOutputVariables();
+        final int rows = expected.size();
+        double[][] inputsByVariable = new double[inputs][rows];
+        for (int evaluation = 0; evaluation < rows; ++evaluation) {
+            double[] expectedValues = expected.get(evaluation);
+            if (expectedValues.length < inputs) {
+                throw new RuntimeException(MessageFormat.format(
+                        "[benchmark error] the number of input values given <{0}> "
+                        + "at line <{1}> must be at least the same number of input variables "
+                        + "<{2}> in the engine",
+                        expectedValues.length, evaluation + 1, inputs));
+            }
+            for (int i = 0; i < inputs; ++i) {
+                inputsByVariable[i][evaluation] = expectedValues[i];
+            }
+        }
+
+        double[] runtimes = new double[times];
+        double[][] outputsByVariable = new double[outputs][rows];
+        for (int t = 0; t < times; ++t) {
+            long start = System.nanoTime();
+            engine.processBatch(inputsByVariable, outputsByVariable, pool);
+            long end = System.nanoTime();
+            runtimes[t] = end - start;
+        }
+
+        obtained = new ArrayList<double[]>(rows);
+        for (int evaluation = 0; evaluation < rows; ++evaluation) {
+            double[] obtainedValues = new double[inputs + outputs];
+            for (int i = 0; i < inputs; ++i) {
+                obtainedValues[i] = inputsByVariable[i][evaluation];
+            }
+            for (int i = 0; i < outputs; ++i) {
+                obtainedValues[i + inputs] = outputsByVariable[i][evaluation];
+            }
+            obtained.add(obtainedValues);
+        }
+
+        for (double x : runtimes) {
+            this.times.add(x);
+        }
+        return runtimes;
+    }
+
+    /**
+     Computes the number of bytes allocated by the current thread per evaluation
+     of the engine utilizing Engine::process() on the expected values in steady
+     state, that is, after evaluating the engine on the expected values the
+     given number of times. The bytes are measured utilizing
+     `com.sun.management.ThreadMXBean::getThreadAllocatedBytes()`, which is
+     accessed by reflection because it is not available in every platform (e.g.,
+     Android). The bytes are measured over three further evaluations of the
+     expected values, of which the minimum is returned, such that the memory
+     allocated once by the virtual machine (e.g., when deoptimizing compiled
+     code) is not accounted for.
+
+     @param warmups is the number of times to evaluate the engine on the
+     expected values before measuring the allocated bytes
+     @return the number of bytes allocated per evaluation of the engine, or
+     `NaN` if the allocated bytes cannot be measured in the platform
+     @throws RuntimeException if the engine is not set
+     */
+    public double allocatedBytes(int warmups) {
+        if (engine == null) {
+            throw new RuntimeException("[benchmark error] engine not set for benchmark");
+        }
+        final Object threadBean;
+        final java.lang.reflect.Method allocatedBytes;
+        final long thread = Thread.currentThread().getId();
+        try {
+            threadBean = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean").invoke(null);
+            allocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long.class);
+            if (((Long) allocatedBytes.invoke(threadBean, thread)) < 0) {
+                return Double.NaN;
+            }
+        } catch (Exception ex) {
+            return Double.NaN;
+        }
+
+        final int measurements = 3;
+        long minimum = Long.MAX_VALUE;
+        engine.restart();
+        for (int run = 0; run < warmups + measurements; ++run) {
+            long start = 0;
+            try {
+                if (run >= warmups) {
+                    long overhead = (Long) allocatedBytes.invoke(threadBean, thread);
+                    overhead = (Long) allocatedBytes.invoke(threadBean, thread) - overhead;
+                    start = (Long) allocatedBytes.invoke(threadBean, thread) + overhead;
+                }
+            } catch (Exception ex) {
+                return Double.NaN;
+            }
+            for (int evaluation = 0; evaluation < expected.size(); ++evaluation) {
+                double[] expectedValues = expected.get(evaluation);
+                for (int i = 0; i < engine.numberOfInputVariables(); ++i) {
+                    engine.getInputVariable(i).setValue(expectedValues[i]);
+                }
+                engine.process();
+            }
+            if (run >= warmups) {
+                try {
+                    long bytes = (Long) allocatedBytes.invoke(threadBean, thread) - start;
+                    minimum = Math.min(minimum, Math.max(0, bytes));
+                } catch (Exception ex) {
+                    return Double.NaN;
+                }
+            }
+        }
+        return minimum / (double) Math.max(1, expected.size());
+    }
+
+    /**
+     Computes the number of evaluations of the engine per second over the times
+     of the runs, which are those of Benchmark::run() or Benchmark::runBatch()
+
+     @return the number of evaluations of the engine per second, or `NaN` if
+     the benchmark has not been run
+     */
+    public double rowsPerSecond() {
+        double total = 0.0;
+        for (Double time : times) {
+            total += time;
+        }
+        if (times.isEmpty() || !Op.isGt(total, 0.0)) {
+            return Double.NaN;
+        }
+        return expected.size() * times.size() / convert(total, TimeUnit.NanoSeconds, TimeUnit.Seconds);
+    }
+
     /**
      Resets the benchmark to be ready to run again
      */
@@ -589,6 +872,210 @@ public class Benchmark {
         return errors;
     }
 
+    /**
+     Computes the largest absolute difference between the value of the given
+     output variable defuzzified by its IntegralDefuzzifier and the value
+     defuzzified by the same defuzzifier utilizing
+     IntegralDefuzzifier.Integration::Sampling, over the input values of the
+     benchmark. The engine is processed for each of the input values, and the
+     defuzzified values that are not finite are not considered.
+
+     @param outputVariable is the output variable to compute the error for
+     @return the largest absolute difference between the integrated and the
+     sampled values of the output variable, or `NaN` if the output variable does
+     not have an IntegralDefuzzifier
+     */
+    public double integrationError(OutputVariable outputVariable) {
+        if (engine == null) {
+            throw new RuntimeException("[benchmark error] engine not set for benchmark");
+        }
+        if (!(outputVariable.getDefuzzifier() instanceof IntegralDefuzzifier)) {
+            return Double.NaN;
+        }
+        IntegralDefuzzifier defuzzifier = (IntegralDefuzzifier) outputVariable.getDefuzzifier();
+        //the sampling defuzzifier is a clone, so the engine is not modified and
+        //the caches of the engines are not invalidated
+        IntegralDefuzzifier sampling;
+        FuzzyLite.suspendModifications();
+        try {
+            sampling = defuzzifier.clone();
+            sampling.setIntegration(IntegralDefuzzifier.Integration.Sampling);
+        } catch (CloneNotSupportedException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
+        final int inputs = engine.numberOfInputVariables();
+        double error = 0.0;
+        for (double[] values : expected) {
+            for (int i = 0; i < inputs; ++i) {
+                engine.getInputVariable(i).setValue(values[i]);
+            }
+            engine.process();
+            Aggregated fuzzyOutput = outputVariable.fuzzyOutput();
+            if (fuzzyOutput.getTerms().isEmpty()) {
+                continue;
+            }
+            final double minimum = outputVariable.getMinimum();
+            final double maximum = outputVariable.getMaximum();
+            final double integrated = defuzzifier.defuzzify(fuzzyOutput, minimum, maximum);
+            final double sampled = sampling.defuzzify(fuzzyOutput, minimum, maximum);
+            final double difference = Math.abs(integrated - sampled);
+            if (Op.isFinite(difference)) {
+                error = Math.max(error, difference);
+            }
+        }
+        return error;
+    }
+
+    /**
+     Computes the mean number of evaluations of the membership function of the
+     fuzzy output per defuzzification of the given output variable utilizing
+     IntegralDefuzzifier.Integration::Adaptive with the tolerance and maximum
+     number of evaluations of its IntegralDefuzzifier, over the input values of
+     the benchmark
+
+     @param outputVariable is the output variable to compute the evaluations for
+     @return the mean number of evaluations per defuzzification, or `NaN` if the
+     output variable does not have an IntegralDefuzzifier
+     */
+    public double adaptiveEvaluations(OutputVariable outputVariable) {
+        return adaptiveStatistics(outputVariable)[0];
+    }
+
+    /**
+     Computes the largest error estimated by the AdaptiveQuadrature of the area
+     under the fuzzy output of the given output variable, relative to the range
+     of the output variable, over the input values of the benchmark. The error
+     against sampling is computed by Benchmark::integrationError().
+
+     @param outputVariable is the output variable to compute the error for
+     @return the largest estimated relative error of the adaptive integration,
+     or `NaN` if the output variable does not have an IntegralDefuzzifier
+     */
+    public double adaptiveError(OutputVariable outputVariable) {
+        return adaptiveStatistics(outputVariable)[1];
+    }
+
+    private double[] adaptiveStatistics(OutputVariable outputVariable) {
+        if (engine == null) {
+            throw new RuntimeException("[benchmark error] engine not set for benchmark");
+        }
+        if (!(outputVariable.getDefuzzifier() instanceof IntegralDefuzzifier)) {
+            return new double[]{Double.NaN, Double.NaN};
+        }
+        IntegralDefuzzifier defuzzifier = (IntegralDefuzzifier) outputVariable.getDefuzzifier();
+        final int inputs = engine.numberOfInputVariables();
+        long evaluations = 0;
+        int defuzzifications = 0;
+        double error = 0.0;
+        for (double[] values : expected) {
+            for (int i = 0; i < inputs; ++i) {
+                engine.getInputVariable(i).setValue(values[i]);
+            }
+            engine.process();
+            Aggregated fuzzyOutput = outputVariable.fuzzyOutput();
+            if (fuzzyOutput.getTerms().isEmpty()) {
+                continue;
+            }
+            final double minimum = outputVariable.getMinimum();
+            final double maximum = outputVariable.getMaximum();
+            AdaptiveQuadrature quadrature = AdaptiveQuadrature.create(fuzzyOutput,
+                    minimum, maximum, defuzzifier.getTolerance(),
+                    defuzzifier.getMaximumEvaluations());
+            if (quadrature == null) {
+                continue;
+            }
+            quadrature.defuzzify(defuzzifier);
+            evaluations += quadrature.evaluations();
+            ++defuzzifications;
+            if (maximum > minimum) {
+                error = Math.max(error, quadrature.error() / (maximum - minimum));
+            }
+        }
+        return new double[]{
+            defuzzifications == 0 ? 0.0 : evaluations / (double) defuzzifications,
+            error};
+    }
+
+    /**
+     Computes the number of output values that differ between a sequential
+     evaluation of the engine utilizing Engine::process() and concurrent
+     evaluations of the engine from the given number of threads, where each
+     thread evaluates all the input values of the benchmark utilizing its own
+     EvaluationContext. The values are compared bitwise, and two `NaN` values
+     are considered equal.
+
+     @param threads is the number of threads to evaluate the engine concurrently
+     @return the number of output values over all the threads that differ from
+     the sequential evaluation
+     @throws RuntimeException if the engine is not set or a thread fails
+     */
+    public int concurrencyErrors(int threads) {
+        if (engine == null) {
+            throw new RuntimeException("[benchmark error] engine not set for benchmark");
+        }
+        final int inputs = engine.numberOfInputVariables();
+        final int outputs = engine.numberOfOutputVariables();
+        final double[][] sequential = new double[expected.size()][outputs];
+        engine.restart();
+        for (int row = 0; row < expected.size(); ++row) {
+            double[] values = expected.get(row);
+            for (int i = 0; i < inputs; ++i) {
+                engine.getInputVariable(i).setValue(values[i]);
+            }
+            engine.process();
+            for (int i = 0; i < outputs; ++i) {
+                sequential[row][i] = engine.getOutputVariable(i).getValue();
+            }
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>(threads);
+        try {
+            for (int t = 0; t < threads; ++t) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        EvaluationContext context = new EvaluationContext(engine);
+                        start.await();
+                        int errors = 0;
+                        for (int row = 0; row < expected.size(); ++row) {
+                            double[] values = expected.get(row);
+                            for (int i = 0; i < inputs; ++i) {
+                                context.setInputValue(i, values[i]);
+                            }
+                            engine.process(context);
+                            for (int i = 0; i < outputs; ++i) {
+                                if (Double.doubleToLongBits(sequential[row][i])
+                                        != Double.doubleToLongBits(context.getOutputValue(i))) {
+                                    ++errors;
+                                }
+                            }
+                        }
+                        return errors;
+                    }
+                }));
+            }
+            start.countDown();
+            int errors = 0;
+            for (Future<Integer> result : results) {
+                errors += result.get();
+            }
+            return errors;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("[benchmark error] interrupted while "
+                    + "evaluating the engine concurrently", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("[benchmark error] failed to evaluate the "
+                    + "engine concurrently: " + ex.getCause(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      Returns the factor of the given unit from NanoSeconds
 
@@ -0,0 +1,1039 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.activation.General;
+import fuzzylite.hedge.Any;
+import fuzzylite.hedge.Extremely;
+import fuzzylite.hedge.Hedge;
+import fuzzylite.hedge.Not;
+import fuzzylite.hedge.Seldom;
+import fuzzylite.hedge.Somewhat;
+import fuzzylite.hedge.Very;
+import fuzzylite.norm.Norm;
+import fuzzylite.norm.SNorm;
+import fuzzylite.norm.TNorm;
+import fuzzylite.norm.s.AlgebraicSum;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.AlgebraicProduct;
+import fuzzylite.norm.t.Minimum;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Activated;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Function;
+import fuzzylite.term.Linear;
+import fuzzylite.term.Term;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ The CompiledEngine class is an evaluation plan of an Engine in which the
+ expression trees of the rules are lowered into flat instruction tapes of
+ primitive arrays. The antecedents are evaluated by a stack machine without
+ recursion, string comparisons or iterators, the membership function values of
+ the input terms are computed at most once per call, and the Activated terms of
+ the consequents are preallocated, so that CompiledEngine::process() does not
+ allocate objects in steady state. The results are the same as those of
+ Engine::process().
+
+ The compiled engine is a snapshot of the structure of the engine (variables,
+ terms, rules and operators), and hence it must be compiled again after such
+ structure changes. The values of the input variables are read from the engine,
+ and the output values are stored in the engine as in Engine::process().
+
+ Rule blocks whose activation method is other than General are activated by
+ their own activation method. In the compiled rule blocks, the activation
+ degrees of the rules are updated, but Rule::isTriggered() is not.
+
+ The compiled engine also indexes the dependencies from each input variable to
+ the propositions and rules that reference it, which are utilized by
+ CompiledEngine::processIncremental() to evaluate only the propositions and
+ rules affected by the input values that changed since the previous call, and
+ to defuzzify only the output variables whose fuzzy outputs changed.
+
+ @see Engine
+ @see RuleBlock
+ @see fuzzylite.rule.Antecedent
+ @since 6.0
+ */
+public class CompiledEngine {
+
+    /*
+     * Instructions of the tapes
+     */
+    static final int OP_PROPOSITION = 0;
+    static final int OP_CONJUNCTION = 1;
+    static final int OP_DISJUNCTION = 2;
+    static final int OP_RULE = 3;
+
+    /*
+     * Norms computed inline
+     */
+    static final int NORM_OBJECT = 0;
+    static final int NORM_MINIMUM = 1;
+    static final int NORM_MAXIMUM = 2;
+    static final int NORM_ALGEBRAIC_PRODUCT = 3;
+    static final int NORM_ALGEBRAIC_SUM = 4;
+
+    /*
+     * Hedges computed inline
+     */
+    static final int HEDGE_OBJECT = 0;
+    static final int HEDGE_ANY = 1;
+    static final int HEDGE_NOT = 2;
+    static final int HEDGE_VERY = 3;
+    static final int HEDGE_SOMEWHAT = 4;
+    static final int HEDGE_SELDOM = 5;
+    static final int HEDGE_EXTREMELY = 6;
+
+    /*
+     * Kinds of propositions in the antecedents
+     */
+    static final int PROPOSITION_INPUT = 0;
+    static final int PROPOSITION_OUTPUT = 1;
+    static final int PROPOSITION_ANY = 2;
+
+    /*
+     * Dependencies of the terms of the conclusions on the values of variables
+     * other than the activation degrees of the rules
+     */
+    static final int DEPENDENCY_NONE = 0;
+    static final int DEPENDENCY_INPUTS = 1;
+    static final int DEPENDENCY_ANY = 2;
+
+    private final Engine engine;
+    private final InputVariable[] inputVariables;
+    private final OutputVariable[] outputVariables;
+
+    private final RuleBlock[] ruleBlocks;
+    private final boolean[] compiledBlocks;
+    private final int[][] tapes;
+    private final int[] blockRuleStart;
+    private final int[] blockRuleEnd;
+    private final int[] conjunctionCodes;
+    private final int[] disjunctionCodes;
+    private final Norm[] conjunctions;
+    private final Norm[] disjunctions;
+
+    private final Rule[] rules;
+    private final int[] ruleBlockIndex;
+    private final int[] ruleTapeStart;
+    private final int[] ruleTapeEnd;
+    private final int[] conclusionStart;
+    private final int[] conclusionEnd;
+
+    private final int[] propositionKind;
+    private final Variable[] propositionVariable;
+    private final int[] propositionMembership;
+    private final Term[] propositionTerm;
+    private final int[] propositionHedgeStart;
+    private final int[] propositionHedgeEnd;
+
+    private final Variable[] conclusionVariable;
+    private final int[] conclusionOutput;
+    private final Activated[] conclusionTerm;
+    private final int[] conclusionHedgeStart;
+    private final int[] conclusionHedgeEnd;
+
+    private final int[] hedgeCodes;
+    private final Hedge[] hedges;
+
+    private final Term[] membershipTerm;
+    private final Variable[] membershipVariable;
+    private final double[] membershipValue;
+    private final int[] membershipStamp;
+    private int stamp;
+
+    private final double[] stack;
+
+    /*
+     * Dependency index in compressed rows: input variable -> memberships ->
+     * rules, and output variable -> conclusions
+     */
+    private final boolean incremental;
+    private final int[] inputMembershipStart;
+    private final int[] inputMemberships;
+    private final int[] membershipRuleStart;
+    private final int[] membershipRules;
+    private final int[] outputConclusionStart;
+    private final int[] outputConclusions;
+    private final int[] outputDependency;
+    private final Map<InputVariable, List<Proposition>> inputPropositions;
+    private final Map<InputVariable, List<Rule>> inputRules;
+
+    /*
+     * State of the incremental evaluation
+     */
+    private final double[] inputValue;
+    private final boolean[] inputEnabled;
+    private final boolean[] conclusionActive;
+    private final double[] conclusionDegree;
+    private final boolean[] dirtyRule;
+    private final int[] dirtyRules;
+    private final boolean[] dirtyOutput;
+    private boolean stale;
+
+    /**
+     Compiles the given engine, whose rules must be loaded
+
+     @param engine is the engine to compile
+     @throws RuntimeException if a rule requires an operator that is not
+     configured in its rule block
+     */
+    public CompiledEngine(Engine engine) {
+        this.engine = engine;
+        this.inputVariables = engine.getInputVariables().toArray(
+                new InputVariable[engine.numberOfInputVariables()]);
+        this.outputVariables = engine.getOutputVariables().toArray(
+                new OutputVariable[engine.numberOfOutputVariables()]);
+
+        final int numberOfBlocks = engine.numberOfRuleBlocks();
+        this.ruleBlocks = engine.getRuleBlocks().toArray(new RuleBlock[numberOfBlocks]);
+        this.compiledBlocks = new boolean[numberOfBlocks];
+        this.tapes = new int[numberOfBlocks][];
+        this.conjunctionCodes = new int[numberOfBlocks];
+        this.disjunctionCodes = new int[numberOfBlocks];
+        this.conjunctions = new Norm[numberOfBlocks];
+        this.disjunctions = new Norm[numberOfBlocks];
+        this.blockRuleStart = new int[numberOfBlocks];
+        this.blockRuleEnd = new int[numberOfBlocks];
+
+        Compiler compiler = new Compiler();
+        for (int b = 0; b < numberOfBlocks; ++b) {
+            RuleBlock ruleBlock = ruleBlocks[b];
+            compiledBlocks[b] = ruleBlock.getActivation() == null
+                    || ruleBlock.getActivation().getClass() == General.class;
+            blockRuleStart[b] = compiler.rules.size();
+            if (compiledBlocks[b]) {
+                conjunctions[b] = ruleBlock.getConjunction();
+                disjunctions[b] = ruleBlock.getDisjunction();
+                conjunctionCodes[b] = normCode(ruleBlock.getConjunction());
+                disjunctionCodes[b] = normCode(ruleBlock.getDisjunction());
+                tapes[b] = compiler.compile(ruleBlock, b);
+            }
+            blockRuleEnd[b] = compiler.rules.size();
+        }
+
+        this.rules = compiler.rules.toArray(new Rule[compiler.rules.size()]);
+        this.ruleBlockIndex = toIntArray(compiler.ruleBlockIndex);
+        this.ruleTapeStart = toIntArray(compiler.ruleTapeStart);
+        this.ruleTapeEnd = toIntArray(compiler.ruleTapeEnd);
+        this.conclusionStart = toIntArray(compiler.conclusionStart);
+        this.conclusionEnd = toIntArray(compiler.conclusionEnd);
+
+        this.propositionKind = toIntArray(compiler.propositionKind);
+        this.propositionVariable = compiler.propositionVariable.toArray(
+                new Variable[compiler.propositionVariable.size()]);
+        this.propositionMembership = toIntArray(compiler.propositionMembership);
+        this.propositionTerm = compiler.propositionTerm.toArray(
+                new Term[compiler.propositionTerm.size()]);
+        this.propositionHedgeStart = toIntArray(compiler.propositionHedgeStart);
+        this.propositionHedgeEnd = toIntArray(compiler.propositionHedgeEnd);
+
+        this.conclusionVariable = compiler.conclusionVariable.toArray(
+                new Variable[compiler.conclusionVariable.size()]);
+        this.conclusionTerm = compiler.conclusionTerm.toArray(
+                new Activated[compiler.conclusionTerm.size()]);
+        this.conclusionHedgeStart = toIntArray(compiler.conclusionHedgeStart);
+        this.conclusionHedgeEnd = toIntArray(compiler.conclusionHedgeEnd);
+
+        this.hedgeCodes = toIntArray(compiler.hedgeCodes);
+        this.hedges = compiler.hedges.toArray(new Hedge[compiler.hedges.size()]);
+
+        this.membershipTerm = compiler.membershipTerm.toArray(
+                new Term[compiler.membershipTerm.size()]);
+        this.membershipVariable = compiler.membershipVariable.toArray(
+                new Variable[compiler.membershipVariable.size()]);
+        this.membershipValue = new double[membershipTerm.length];
+        this.membershipStamp = new int[membershipTerm.length];
+        this.stamp = 0;
+
+        this.stack = new double[Math.max(1, compiler.maximumDepth)];
+
+        /*
+         * Dependency index
+         */
+        Map<Variable, Integer> outputIndex = new IdentityHashMap<Variable, Integer>();
+        for (int o = 0; o < outputVariables.length; ++o) {
+            outputIndex.put(outputVariables[o], o);
+        }
+        this.conclusionOutput = new int[conclusionVariable.length];
+        for (int c = 0; c < conclusionVariable.length; ++c) {
+            Integer o = outputIndex.get(conclusionVariable[c]);
+            if (o == null) {
+                throw new RuntimeException(String.format("[compilation error] "
+                        + "output variable <%s> not registered in engine",
+                        conclusionVariable[c].getName()));
+            }
+            conclusionOutput[c] = o;
+        }
+
+        boolean canIncrement = true;
+        for (int b = 0; b < numberOfBlocks; ++b) {
+            canIncrement &= compiledBlocks[b];
+        }
+        for (int p = 0; p < propositionKind.length; ++p) {
+            canIncrement &= propositionKind[p] != PROPOSITION_OUTPUT;
+        }
+
+        Map<Variable, Integer> inputIndex = new IdentityHashMap<Variable, Integer>();
+        for (int i = 0; i < inputVariables.length; ++i) {
+            inputIndex.put(inputVariables[i], i);
+        }
+        List<List<Integer>> membershipsByInput = new ArrayList<List<Integer>>();
+        for (int i = 0; i < inputVariables.length; ++i) {
+            membershipsByInput.add(new ArrayList<Integer>());
+        }
+        for (int m = 0; m < membershipTerm.length; ++m) {
+            Term term = membershipTerm[m];
+            Integer i = inputIndex.get(membershipVariable[m]);
+            if (i == null || term instanceof Function) {
+                //the term depends on variables that are not tracked
+                canIncrement = false;
+            } else if (term instanceof Linear) {
+                //the term depends on the values of every input variable
+                for (List<Integer> memberships : membershipsByInput) {
+                    memberships.add(m);
+                }
+            } else {
+                membershipsByInput.get(i).add(m);
+            }
+        }
+        this.incremental = canIncrement;
+        this.inputMembershipStart = new int[inputVariables.length + 1];
+        List<Integer> inputMembershipList = new ArrayList<Integer>();
+        for (int i = 0; i < inputVariables.length; ++i) {
+            inputMembershipStart[i] = inputMembershipList.size();
+            inputMembershipList.addAll(membershipsByInput.get(i));
+        }
+        inputMembershipStart[inputVariables.length] = inputMembershipList.size();
+        this.inputMemberships = toIntArray(inputMembershipList);
+
+        List<List<Integer>> rulesByMembership = new ArrayList<List<Integer>>();
+        for (int m = 0; m < membershipTerm.length; ++m) {
+            rulesByMembership.add(new ArrayList<Integer>());
+        }
+        for (int r = 0; r < rules.length; ++r) {
+            for (int k = compiler.ruleMembershipStart.get(r);
+                    k < compiler.ruleMembershipEnd.get(r); ++k) {
+                List<Integer> membershipRuleList = rulesByMembership.get(
+                        compiler.ruleMemberships.get(k));
+                if (membershipRuleList.isEmpty()
+                        || membershipRuleList.get(membershipRuleList.size() - 1) != r) {
+                    membershipRuleList.add(r);
+                }
+            }
+        }
+        this.membershipRuleStart = new int[membershipTerm.length + 1];
+        List<Integer> membershipRuleList = new ArrayList<Integer>();
+        for (int m = 0; m < membershipTerm.length; ++m) {
+            membershipRuleStart[m] = membershipRuleList.size();
+            membershipRuleList.addAll(rulesByMembership.get(m));
+        }
+        membershipRuleStart[membershipTerm.length] = membershipRuleList.size();
+        this.membershipRules = toIntArray(membershipRuleList);
+
+        this.outputConclusionStart = new int[outputVariables.length + 1];
+        List<Integer> outputConclusionList = new ArrayList<Integer>();
+        for (int o = 0; o < outputVariables.length; ++o) {
+            outputConclusionStart[o] = outputConclusionList.size();
+            for (int c = 0; c < conclusionOutput.length; ++c) {
+                if (conclusionOutput[c] == o) {
+                    outputConclusionList.add(c);
+                }
+            }
+        }
+        outputConclusionStart[outputVariables.length] = outputConclusionList.size();
+        this.outputConclusions = toIntArray(outputConclusionList);
+
+        this.outputDependency = new int[outputVariables.length];
+        for (int c = 0; c < conclusionTerm.length; ++c) {
+            final int o = conclusionOutput[c];
+            Term term = conclusionTerm[c].getTerm();
+            if (term instanceof Function) {
+                //the term may depend on the values of any variable
+                outputDependency[o] = DEPENDENCY_ANY;
+            } else if (term instanceof Linear) {
+                outputDependency[o] = Math.max(outputDependency[o], DEPENDENCY_INPUTS);
+            }
+        }
+
+        this.inputPropositions = new IdentityHashMap<InputVariable, List<Proposition>>();
+        this.inputRules = new IdentityHashMap<InputVariable, List<Rule>>();
+        for (InputVariable inputVariable : inputVariables) {
+            List<Proposition> propositions = new ArrayList<Proposition>();
+            List<Rule> dependentRules = new ArrayList<Rule>();
+            for (int r = 0; r < rules.length; ++r) {
+                boolean dependent = false;
+                for (int k = compiler.rulePropositionStart.get(r);
+                        k < compiler.rulePropositionEnd.get(r); ++k) {
+                    Proposition proposition = compiler.propositions.get(k);
+                    if (proposition.getVariable() == inputVariable) {
+                        propositions.add(proposition);
+                        dependent = true;
+                    }
+                }
+                if (dependent) {
+                    dependentRules.add(rules[r]);
+                }
+            }
+            inputPropositions.put(inputVariable, Collections.unmodifiableList(propositions));
+            inputRules.put(inputVariable, Collections.unmodifiableList(dependentRules));
+        }
+
+        this.inputValue = new double[inputVariables.length];
+        this.inputEnabled = new boolean[inputVariables.length];
+        this.conclusionActive = new boolean[conclusionVariable.length];
+        this.conclusionDegree = new double[conclusionVariable.length];
+        this.dirtyRule = new boolean[rules.length];
+        this.dirtyRules = new int[rules.length];
+        this.dirtyOutput = new boolean[outputVariables.length];
+        this.stale = true;
+    }
+
+    /**
+     Gets the engine that was compiled
+
+     @return the engine that was compiled
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     Returns the number of rules lowered into the instruction tapes
+
+     @return the number of rules lowered into the instruction tapes
+     */
+    public int numberOfRules() {
+        return rules.length;
+    }
+
+    /**
+     Returns the number of distinct input terms whose membership function values
+     are computed (at most once) per call to CompiledEngine::process()
+
+     @return the number of distinct input terms referenced by the rules
+     */
+    public int numberOfMemberships() {
+        return membershipTerm.length;
+    }
+
+    /**
+     Indicates whether CompiledEngine::processIncremental() evaluates the engine
+     incrementally, which requires every rule block to be compiled, the
+     antecedents of the rules to not refer to output variables, and the input
+     terms to not be Function terms
+
+     @return whether the engine can be evaluated incrementally
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     Gets the propositions in the antecedents of the compiled rules that refer
+     to the given input variable
+
+     @param inputVariable is the input variable
+     @return the unmodifiable list of propositions that refer to the input
+     variable, which is empty if the variable is not registered in the engine
+     */
+    public List<Proposition> getPropositions(InputVariable inputVariable) {
+        List<Proposition> result = inputPropositions.get(inputVariable);
+        return result == null ? Collections.<Proposition>emptyList() : result;
+    }
+
+    /**
+     Gets the compiled rules whose antecedents refer to the given input variable
+
+     @param inputVariable is the input variable
+     @return the unmodifiable list of rules whose antecedents refer to the input
+     variable, which is empty if the variable is not registered in the engine
+     */
+    public List<Rule> getRules(InputVariable inputVariable) {
+        List<Rule> result = inputRules.get(inputVariable);
+        return result == null ? Collections.<Rule>emptyList() : result;
+    }
+
+    /**
+     Invalidates the state of the incremental evaluation, so that the next call
+     to CompiledEngine::processIncremental() evaluates the engine entirely. The
+     state must be invalidated after changing anything in the engine other than
+     the values of the input variables (e.g., the weights of the rules, the
+     rule blocks or the variables enabled, or the parameters of the terms), or
+     after processing the engine utilizing Engine::process().
+     */
+    public void invalidate() {
+        this.stale = true;
+    }
+
+    /**
+     Processes the engine as follows: (a) Clears the aggregated fuzzy output
+     variables, (b) Activates the rule blocks utilizing the instruction tapes,
+     and (c) Defuzzifies the output variables
+
+     @see Engine::process()
+     */
+    public void process() {
+        stale = true;
+        for (int i = 0; i < outputVariables.length; ++i) {
+            outputVariables[i].fuzzyOutput().clear();
+        }
+        if (++stamp == 0) {
+            Arrays.fill(membershipStamp, 0);
+            stamp = 1;
+        }
+
+        for (int b = 0; b < ruleBlocks.length; ++b) {
+            RuleBlock ruleBlock = ruleBlocks[b];
+            if (ruleBlock.isEnabled()) {
+                if (compiledBlocks[b]) {
+                    activate(b);
+                } else {
+                    ruleBlock.activate();
+                }
+            }
+        }
+
+        for (int i = 0; i < outputVariables.length; ++i) {
+            outputVariables[i].defuzzify();
+        }
+    }
+
+    /**
+     Processes the engine incrementally as follows: (a) Computes the membership
+     function values of the input terms of the input variables whose values
+     changed since the previous call, (b) Activates the rules that depend on
+     such input variables, (c) Aggregates the fuzzy output variables for which
+     the activation degree of a conclusion changed, as well as those whose
+     terms depend on the values of other variables (i.e., Linear and Function
+     terms), and (d) Defuzzifies such output variables, whereas the values of
+     the remaining output variables are kept as they are. The results are the
+     same as those of CompiledEngine::process(), provided that only the values
+     of the input variables change between calls (see
+     CompiledEngine::invalidate()). The first call after compiling,
+     invalidating, or processing the engine otherwise evaluates the engine
+     entirely.
+
+     If the engine cannot be evaluated incrementally (see
+     CompiledEngine::isIncremental()), this method utilizes
+     CompiledEngine::process().
+     */
+    public void processIncremental() {
+        if (!incremental) {
+            process();
+            return;
+        }
+        final boolean all = stale;
+        boolean changed = all;
+        int dirty = 0;
+        if (all) {
+            if (++stamp == 0) {
+                Arrays.fill(membershipStamp, 0);
+                stamp = 1;
+            }
+            for (int rule = 0; rule < rules.length; ++rule) {
+                dirtyRule[rule] = true;
+                dirtyRules[dirty++] = rule;
+            }
+        }
+
+        for (int i = 0; i < inputVariables.length; ++i) {
+            final InputVariable inputVariable = inputVariables[i];
+            final double value = inputVariable.getValue();
+            final boolean enabled = inputVariable.isEnabled();
+            if (!all && enabled == inputEnabled[i]
+                    && Double.doubleToLongBits(value) == Double.doubleToLongBits(inputValue[i])) {
+                continue;
+            }
+            inputValue[i] = value;
+            inputEnabled[i] = enabled;
+            changed = true;
+            for (int k = inputMembershipStart[i]; k < inputMembershipStart[i + 1]; ++k) {
+                final int membership = inputMemberships[k];
+                membershipValue[membership] = membershipTerm[membership].membership(
+                        membershipVariable[membership].getValue());
+                membershipStamp[membership] = stamp;
+                for (int j = membershipRuleStart[membership];
+                        j < membershipRuleStart[membership + 1]; ++j) {
+                    final int rule = membershipRules[j];
+                    if (!dirtyRule[rule]) {
+                        dirtyRule[rule] = true;
+                        dirtyRules[dirty++] = rule;
+                    }
+                }
+            }
+        }
+
+        for (int d = 0; d < dirty; ++d) {
+            final int rule = dirtyRules[d];
+            dirtyRule[rule] = false;
+            update(rule, all);
+        }
+
+        for (int o = 0; o < outputVariables.length; ++o) {
+            final OutputVariable outputVariable = outputVariables[o];
+            if (all || dirtyOutput[o] || outputDependency[o] == DEPENDENCY_ANY
+                    || (changed && outputDependency[o] == DEPENDENCY_INPUTS)) {
+                dirtyOutput[o] = false;
+                final Aggregated fuzzyOutput = outputVariable.fuzzyOutput();
+                fuzzyOutput.clear();
+                for (int k = outputConclusionStart[o]; k < outputConclusionStart[o + 1]; ++k) {
+                    final int conclusion = outputConclusions[k];
+                    if (conclusionActive[conclusion]) {
+                        Activated term = conclusionTerm[conclusion];
+                        term.setDegree(conclusionDegree[conclusion]);
+                        fuzzyOutput.getTerms().add(term);
+                    }
+                }
+                outputVariable.defuzzify();
+            } else if (outputVariable.isEnabled() && Op.isFinite(outputVariable.getValue())) {
+                //same as defuzzifying the unchanged fuzzy output
+                outputVariable.setPreviousValue(outputVariable.getValue());
+            }
+        }
+        stale = false;
+    }
+
+    /**
+     Activates the given rule and stores the activation degrees of its
+     conclusions, marking the output variables of the conclusions whose
+     activation degrees changed
+
+     @param rule is the index of the rule
+     @param all indicates whether to mark the output variables regardless
+     */
+    private void update(int rule, boolean all) {
+        boolean triggered = false;
+        double activationDegree = 0.0;
+        if (ruleBlocks[ruleBlockIndex[rule]].isEnabled()) {
+            activationDegree = rules[rule].getWeight() * antecedent(rule);
+            rules[rule].setActivationDegree(activationDegree);
+            triggered = rules[rule].isEnabled() && Op.isGt(activationDegree, 0.0);
+        }
+        for (int c = conclusionStart[rule]; c < conclusionEnd[rule]; ++c) {
+            final boolean active = triggered && conclusionVariable[c].isEnabled();
+            if (active) {
+                activationDegree = hedge(conclusionHedgeStart[c],
+                        conclusionHedgeEnd[c], activationDegree);
+            }
+            if (all || active != conclusionActive[c] || (active
+                    && Double.doubleToLongBits(activationDegree)
+                    != Double.doubleToLongBits(conclusionDegree[c]))) {
+                conclusionActive[c] = active;
+                conclusionDegree[c] = activationDegree;
+                dirtyOutput[conclusionOutput[c]] = true;
+            }
+        }
+    }
+
+    /**
+     Activates the rule block at the given index utilizing its instruction tape
+
+     @param block is the index of the rule block
+     */
+    private void activate(int block) {
+        for (int rule = blockRuleStart[block]; rule < blockRuleEnd[block]; ++rule) {
+            final double activationDegree = rules[rule].getWeight() * antecedent(rule);
+            rules[rule].setActivationDegree(activationDegree);
+            if (rules[rule].isEnabled() && Op.isGt(activationDegree, 0.0)) {
+                trigger(rule, activationDegree);
+            }
+        }
+    }
+
+    /**
+     Computes the activation degree of the antecedent of the given rule by
+     running its segment of the instruction tape of its rule block
+
+     @param rule is the index of the rule
+     @return the activation degree of the antecedent
+     */
+    private double antecedent(int rule) {
+        final int block = ruleBlockIndex[rule];
+        final int[] tape = tapes[block];
+        final int conjunctionCode = conjunctionCodes[block];
+        final int disjunctionCode = disjunctionCodes[block];
+        final Norm conjunction = conjunctions[block];
+        final Norm disjunction = disjunctions[block];
+        final double[] stack = this.stack;
+        final int end = ruleTapeEnd[rule];
+        int top = -1;
+        int pc = ruleTapeStart[rule];
+        while (pc < end) {
+            final int instruction = tape[pc++];
+            if (instruction == OP_PROPOSITION) {
+                stack[++top] = proposition(tape[pc++]);
+            } else if (instruction == OP_CONJUNCTION) {
+                double right = stack[top--];
+                stack[top] = norm(conjunctionCode, conjunction, stack[top], right);
+            } else { //OP_DISJUNCTION
+                double right = stack[top--];
+                stack[top] = norm(disjunctionCode, disjunction, stack[top], right);
+            }
+        }
+        return stack[top];
+    }
+
+    /**
+     Computes the activation degree of the given proposition
+
+     @param proposition is the index of the proposition
+     @return the activation degree of the proposition
+     */
+    private double proposition(int proposition) {
+        if (!propositionVariable[proposition].isEnabled()) {
+            return 0.0;
+        }
+        final int kind = propositionKind[proposition];
+        double result;
+        if (kind == PROPOSITION_INPUT) {
+            final int index = propositionMembership[proposition];
+            if (membershipStamp[index] != stamp) {
+                membershipValue[index] = membershipTerm[index].membership(
+                        membershipVariable[index].getValue());
+                membershipStamp[index] = stamp;
+            }
+            result = membershipValue[index];
+        } else if (kind == PROPOSITION_OUTPUT) {
+            result = ((OutputVariable) propositionVariable[proposition]).fuzzyOutput()
+                    .activationDegree(propositionTerm[proposition]);
+        } else { //PROPOSITION_ANY
+            result = Double.NaN;
+        }
+        return hedge(propositionHedgeStart[proposition],
+                propositionHedgeEnd[proposition], result);
+    }
+
+    /**
+     Triggers the consequent of the given rule with the activation degree, as in
+     Consequent::modify(), utilizing the preallocated Activated terms
+
+     @param rule is the index of the rule
+     @param activationDegree is the activation degree of the rule
+     */
+    private void trigger(int rule, double activationDegree) {
+        for (int c = conclusionStart[rule]; c < conclusionEnd[rule]; ++c) {
+            final Variable variable = conclusionVariable[c];
+            if (variable.isEnabled()) {
+                activationDegree = hedge(conclusionHedgeStart[c],
+                        conclusionHedgeEnd[c], activationDegree);
+                Activated term = conclusionTerm[c];
+                term.setDegree(activationDegree);
+                ((OutputVariable) variable).fuzzyOutput().getTerms().add(term);
+            }
+        }
+    }
+
+    /**
+     Applies the hedges in the given range of the hedge tape, which are stored in
+     the order in which they are to be applied
+
+     @param start is the first index of the hedges (inclusive)
+     @param end is the last index of the hedges (exclusive)
+     @param x is the value to hedge
+     @return the hedged value
+     */
+    private double hedge(int start, int end, double x) {
+        for (int h = start; h < end; ++h) {
+            final int code = hedgeCodes[h];
+            if (code == HEDGE_ANY) {
+                x = 1.0;
+            } else if (code == HEDGE_NOT) {
+                x = 1.0 - x;
+            } else if (code == HEDGE_VERY) {
+                x = x * x;
+            } else if (code == HEDGE_SOMEWHAT) {
+                x = Math.sqrt(x);
+            } else if (code == HEDGE_SELDOM) {
+                x = Op.isLE(x, 0.5)
+                        ? Math.sqrt(x / 2.0)
+                        : 1.0 - Math.sqrt((1.0 - x) / 2.0);
+            } else if (code == HEDGE_EXTREMELY) {
+                x = Op.isLE(x, 0.5)
+                        ? 2.0 * x * x
+                        : 1.0 - 2.0 * (1.0 - x) * (1.0 - x);
+            } else {
+                x = hedges[h].hedge(x);
+            }
+        }
+        return x;
+    }
+
+    /**
+     Computes the norm identified by the given code, where the conjunctions
+     Minimum and AlgebraicProduct of a zero left-hand side are zero as in
+     fuzzylite.rule.Antecedent
+
+     @param code is the code of the norm
+     @param norm is the norm to compute if the code is NORM_OBJECT
+     @param a is a membership function value
+     @param b is a membership function value
+     @return the norm between `a` and `b`
+     */
+    private static double norm(int code, Norm norm, double a, double b) {
+        if (code == NORM_MINIMUM) {
+            return a == 0.0 ? a : Op.min(a, b);
+        }
+        if (code == NORM_MAXIMUM) {
+            return Op.max(a, b);
+        }
+        if (code == NORM_ALGEBRAIC_PRODUCT) {
+            return a == 0.0 ? a : a * b;
+        }
+        if (code == NORM_ALGEBRAIC_SUM) {
+            return a + b - (a * b);
+        }
+        return norm.compute(a, b);
+    }
+
+    static int normCode(Norm norm) {
+        if (norm == null) {
+            return NORM_OBJECT;
+        }
+        Class<?> type = norm.getClass();
+        if (type == Minimum.class) {
+            return NORM_MINIMUM;
+        }
+        if (type == Maximum.class) {
+            return NORM_MAXIMUM;
+        }
+        if (type == AlgebraicProduct.class) {
+            return NORM_ALGEBRAIC_PRODUCT;
+        }
+        if (type == AlgebraicSum.class) {
+            return NORM_ALGEBRAIC_SUM;
+        }
+        return NORM_OBJECT;
+    }
+
+    static int hedgeCode(Hedge hedge) {
+        Class<?> type = hedge.getClass();
+        if (type == Any.class) {
+            return HEDGE_ANY;
+        }
+        if (type == Not.class) {
+            return HEDGE_NOT;
+        }
+        if (type == Very.class) {
+            return HEDGE_VERY;
+        }
+        if (type == Somewhat.class) {
+            return HEDGE_SOMEWHAT;
+        }
+        if (type == Seldom.class) {
+            return HEDGE_SELDOM;
+        }
+        if (type == Extremely.class) {
+            return HEDGE_EXTREMELY;
+        }
+        return HEDGE_OBJECT;
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     The Compiler class lowers the expression trees of the rules into the
+     instruction tapes and the tables of propositions, conclusions and hedges.
+     */
+    private static class Compiler {
+
+        final List<Rule> rules = new ArrayList<Rule>();
+        final List<Integer> ruleBlockIndex = new ArrayList<Integer>();
+        final List<Integer> ruleTapeStart = new ArrayList<Integer>();
+        final List<Integer> ruleTapeEnd = new ArrayList<Integer>();
+        final List<Integer> rulePropositionStart = new ArrayList<Integer>();
+        final List<Integer> rulePropositionEnd = new ArrayList<Integer>();
+        final List<Integer> ruleMembershipStart = new ArrayList<Integer>();
+        final List<Integer> ruleMembershipEnd = new ArrayList<Integer>();
+        final List<Integer> ruleMemberships = new ArrayList<Integer>();
+        final List<Integer> conclusionStart = new ArrayList<Integer>();
+        final List<Integer> conclusionEnd = new ArrayList<Integer>();
+
+        final List<Proposition> propositions = new ArrayList<Proposition>();
+        final List<Integer> propositionKind = new ArrayList<Integer>();
+        final List<Variable> propositionVariable = new ArrayList<Variable>();
+        final List<Integer> propositionMembership = new ArrayList<Integer>();
+        final List<Term> propositionTerm = new ArrayList<Term>();
+        final List<Integer> propositionHedgeStart = new ArrayList<Integer>();
+        final List<Integer> propositionHedgeEnd = new ArrayList<Integer>();
+
+        final List<Variable> conclusionVariable = new ArrayList<Variable>();
+        final List<Activated> conclusionTerm = new ArrayList<Activated>();
+        final List<Integer> conclusionHedgeStart = new ArrayList<Integer>();
+        final List<Integer> conclusionHedgeEnd = new ArrayList<Integer>();
+
+        final List<Integer> hedgeCodes = new ArrayList<Integer>();
+        final List<Hedge> hedges = new ArrayList<Hedge>();
+
+        final List<Term> membershipTerm = new ArrayList<Term>();
+        final List<Variable> membershipVariable = new ArrayList<Variable>();
+        final Map<Variable, Map<Term, Integer>> membershipIndex
+                = new IdentityHashMap<Variable, Map<Term, Integer>>();
+
+        int maximumDepth = 0;
+
+        int[] compile(RuleBlock ruleBlock, int block) {
+            List<Integer> tape = new ArrayList<Integer>();
+            for (Rule rule : ruleBlock.getRules()) {
+                if (!rule.isLoaded()) {
+                    continue;
+                }
+                ruleTapeStart.add(tape.size());
+                rulePropositionStart.add(propositions.size());
+                ruleMembershipStart.add(ruleMemberships.size());
+                int depth = compile(rule.getAntecedent().getExpression(),
+                        ruleBlock, rule, tape);
+                maximumDepth = Math.max(maximumDepth, depth);
+                ruleTapeEnd.add(tape.size());
+                rulePropositionEnd.add(propositions.size());
+                ruleMembershipEnd.add(ruleMemberships.size());
+
+                tape.add(OP_RULE);
+                tape.add(rules.size());
+                rules.add(rule);
+                ruleBlockIndex.add(block);
+                conclusionStart.add(conclusionVariable.size());
+                for (Proposition proposition : rule.getConsequent().getConclusions()) {
+                    conclusionVariable.add(proposition.getVariable());
+                    conclusionTerm.add(new Activated(proposition.getTerm(), 0.0,
+                            ruleBlock.getImplication()));
+                    conclusionHedgeStart.add(hedgeCodes.size());
+                    addHedges(proposition.getHedges());
+                    conclusionHedgeEnd.add(hedgeCodes.size());
+                }
+                conclusionEnd.add(conclusionVariable.size());
+            }
+            return toIntArray(tape);
+        }
+
+        /**
+         Lowers the expression into the tape in postfix order
+
+         @return the depth of the stack required to evaluate the expression
+         */
+        int compile(Expression node, RuleBlock ruleBlock, Rule rule, List<Integer> tape) {
+            if (node.type() == Expression.Type.Proposition) {
+                tape.add(OP_PROPOSITION);
+                tape.add(addProposition((Proposition) node));
+                return 1;
+            }
+            Operator operator = (Operator) node;
+            if (operator.getLeft() == null || operator.getRight() == null) {
+                throw new RuntimeException("[syntax error] left and right operators cannot be null");
+            }
+            int left = compile(operator.getLeft(), ruleBlock, rule, tape);
+            int right = compile(operator.getRight(), ruleBlock, rule, tape);
+            if (Rule.FL_AND.equals(operator.getName())) {
+                if (ruleBlock.getConjunction() == null) {
+                    throw new RuntimeException(String.format("[conjunction error] "
+                            + "the following rule requires a conjunction operator:\n%s",
+                            rule.getAntecedent().getText()));
+                }
+                tape.add(OP_CONJUNCTION);
+            } else if (Rule.FL_OR.equals(operator.getName())) {
+                if (ruleBlock.getDisjunction() == null) {
+                    throw new RuntimeException(String.format("[disjunction error] "
+                            + "the following rule requires a disjunction operator:\n%s",
+                            rule.getAntecedent().getText()));
+                }
+                tape.add(OP_DISJUNCTION);
+            } else {
+                throw new RuntimeException(String.format(
+                        "[syntax error] operator <%s> not recognized",
+                        operator.getName()));
+            }
+            return Math.max(left, right + 1);
+        }
+
+        int addProposition(Proposition proposition) {
+            final int index = propositionKind.size();
+            Variable variable = proposition.getVariable();
+            List<Hedge> propositionHedges = proposition.getHedges();
+            boolean any = !propositionHedges.isEmpty()
+                    && propositionHedges.get(propositionHedges.size() - 1) instanceof Any;
+
+            int membership = -1;
+            if (any) {
+                propositionKind.add(PROPOSITION_ANY);
+            } else if (variable.type() == Variable.Type.Input) {
+                propositionKind.add(PROPOSITION_INPUT);
+                membership = addMembership(variable, proposition.getTerm());
+                ruleMemberships.add(membership);
+            } else if (variable.type() == Variable.Type.Output) {
+                propositionKind.add(PROPOSITION_OUTPUT);
+            } else {
+                propositionKind.add(PROPOSITION_ANY);
+            }
+            propositions.add(proposition);
+            propositionVariable.add(variable);
+            propositionMembership.add(membership);
+            propositionTerm.add(proposition.getTerm());
+            propositionHedgeStart.add(hedgeCodes.size());
+            addHedges(propositionHedges);
+            propositionHedgeEnd.add(hedgeCodes.size());
+            return index;
+        }
+
+        int addMembership(Variable variable, Term term) {
+            Map<Term, Integer> terms = membershipIndex.get(variable);
+            if (terms == null) {
+                terms = new IdentityHashMap<Term, Integer>();
+                membershipIndex.put(variable, terms);
+            }
+            Integer index = terms.get(term);
+            if (index == null) {
+                index = membershipTerm.size();
+                membershipTerm.add(term);
+                membershipVariable.add(variable);
+                terms.put(term, index);
+            }
+            return index;
+        }
+
+        /**
+         Adds the hedges in reverse order, which is the order in which they are
+         applied to the membership function value
+         */
+        void addHedges(List<Hedge> propositionHedges) {
+            for (int i = propositionHedges.size() - 1; i >= 0; --i) {
+                Hedge hedge = propositionHedges.get(i);
+                hedgeCodes.add(hedgeCode(hedge));
+                hedges.add(hedge);
+            }
+        }
+    }
+}
@@ -36,6 +36,7 @@ import fuzzylite.variable.OutputVariable;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 
 /**
@@ -83,6 +84,10 @@ public class Console {
     public static final String KW_DATA_EXPORT_HEADER = "-dheader";
     /*Keyword for exporting input values in FLD*/
     public static final String KW_DATA_EXPORT_INPUTS = "-dinputs";
+    /*Keyword for the number of threads to evaluate the engine*/
+    public static final String KW_THREADS = "-threads";
+    /*Keyword for reading the input data utilizing a memory-mapped file*/
+    public static final String KW_DATA_MAPPED = "-dmapped";
 
     /**
      Returns a string representation of the usage of the command-line tool
@@ -102,6 +107,8 @@ public class Console {
         options.add(new Option(KW_DATA_VALUES_SCOPE, "scope", "if exporting to fld without datafile, scope of " + KW_DATA_VALUES + ": [EachVariable|AllVariables]"));
         options.add(new Option(KW_DATA_EXPORT_HEADER, "boolean", "if true and exporting to fld, include headers"));
         options.add(new Option(KW_DATA_EXPORT_INPUTS, "boolean", "if true and exporting to fld, include input values"));
+        options.add(new Option(KW_THREADS, "number", "if exporting to fld with datafile or benchmarking, number of threads to evaluate your engine"));
+        options.add(new Option(KW_DATA_MAPPED, "boolean", "if true and exporting to fld with datafile or benchmarking, read the data utilizing a memory-mapped file"));
 
         StringBuilder result = new StringBuilder();
         result.append("=========================================\n");
@@ -111,8 +118,8 @@ public class Console {
         result.append(String.format("license: %s\n", FuzzyLite.LICENSE));
         result.append("=========================================\n");
         result.append("usage: java -jar jfuzzylite.jar inputfile outputfile\n");
-        result.append("   or: java -jar jfuzzylite.jar benchmark engine.fll input.fld runs [output.tsv]\n");
-        result.append("   or: java -jar jfuzzylite.jar benchmark fllFiles.txt fldFiles.txt runs [output.tsv]\n");
+        result.append("   or: java -jar jfuzzylite.jar benchmark engine.fll input.fld runs [output.tsv] [-threads number] [-dmapped boolean]\n");
+        result.append("   or: java -jar jfuzzylite.jar benchmarks fllFiles.txt fldFiles.txt runs [output.tsv] [-threads number] [-dmapped boolean]\n");
         result.append("   or: java -jar jfuzzylite.jar ");
         for (Option option : options) {
             result.append(String.format("[%s %s] ", option.key, option.value));
@@ -170,6 +177,8 @@ public class Console {
             validOptions.add(KW_DATA_VALUES);
             validOptions.add(KW_DATA_VALUES_SCOPE);
             validOptions.add(KW_DECIMALS);
+            validOptions.add(KW_THREADS);
+            validOptions.add(KW_DATA_MAPPED);
             for (String option : options.keySet()) {
                 if (!validOptions.contains(option)) {
                     throw new RuntimeException(String.format(
@@ -302,6 +311,9 @@ public class Console {
             }
             fldExporter.setExportHeader(exportHeaders);
             fldExporter.setExportInputValues(exportInputValues);
+            if (options.containsKey(KW_THREADS)) {
+                fldExporter.setThreads(Integer.parseInt(options.get(KW_THREADS)));
+            }
 
             String filename = options.get(KW_DATA_INPUT_FILE);
             if (filename != null) {
@@ -310,14 +322,25 @@ public class Console {
                     throw new RuntimeException("[export error] file <" + filename + "> "
                             + "does not exist");
                 }
-                InputStreamReader reader = new InputStreamReader(
-                        new FileInputStream(dataFile), FuzzyLite.UTF_8);
-                try {
-                    fldExporter.write(engine, writer, reader);
-                } catch (Exception ex) {
-                    throw ex;
-                } finally {
-                    reader.close();
+                if ("true".equals(options.get(KW_DATA_MAPPED))) {
+                    MappedFldReader reader = new MappedFldReader(dataFile);
+                    try {
+                        fldExporter.write(engine, writer, reader);
+                    } catch (Exception ex) {
+                        throw ex;
+                    } finally {
+                        reader.close();
+                    }
+                } else {
+                    InputStreamReader reader = new InputStreamReader(
+                            new FileInputStream(dataFile), FuzzyLite.UTF_8);
+                    try {
+                        fldExporter.write(engine, writer, reader);
+                    } catch (Exception ex) {
+                        throw ex;
+                    } finally {
+                        reader.close();
+                    }
                 }
 
             } else if (options.containsKey(KW_DATA_VALUES)) {
@@ -926,15 +949,77 @@ public class Console {
      */
     public void benchmark(File fllFile, File fldFile, int runs, Writer writer)
             throws Exception {
+        benchmark(fllFile, fldFile, runs, writer, 1);
+    }
+
+    /**
+     Benchmarks the engine described in the FLL file against the dataset
+     contained in the FLD file. If the number of threads is greater than one,
+     the scaling of the evaluations from one thread to the given number of
+     threads is also reported.
+
+     @param fllFile is the file describing the engine in FLL format
+     @param fldFile is the file containing the dataset in FLD format
+     @param runs is the number of runs to evaluate the benchmarks
+     @param writer is the output where the results will be written to
+     @param threads is the maximum number of threads to evaluate the engine
+     @throws Exception if something goes wrong reading the files, importing the
+     engines or evaluating the benchmark
+     @see Console::scaling(Benchmark, int, int)
+     */
+    public void benchmark(File fllFile, File fldFile, int runs, Writer writer,
+            int threads) throws Exception {
+        benchmark(fllFile, fldFile, runs, writer, threads, false);
+    }
+
+    /**
+     Benchmarks the engine described in the FLL file against the dataset
+     contained in the FLD file, reading the dataset utilizing a memory-mapped
+     file if requested. If the number of threads is greater than one, the
+     memory-mapped dataset is parsed in parallel, and the scaling of the
+     evaluations from one thread to the given number of threads is also
+     reported.
+
+     @param fllFile is the file describing the engine in FLL format
+     @param fldFile is the file containing the dataset in FLD format
+     @param runs is the number of runs to evaluate the benchmarks
+     @param writer is the output where the results will be written to
+     @param threads is the maximum number of threads to evaluate the engine
+     @param mapped indicates whether to read the dataset utilizing a
+     MappedFldReader instead of a BufferedReader
+     @throws Exception if something goes wrong reading the files, importing the
+     engines or evaluating the benchmark
+     @see Benchmark::prepare(MappedFldReader, ForkJoinPool)
+     */
+    public void benchmark(File fllFile, File fldFile, int runs, Writer writer,
+            int threads, boolean mapped) throws Exception {
         Engine engine = new FllImporter().fromFile(fllFile);
-        Reader reader = new InputStreamReader(new FileInputStream(fldFile), FuzzyLite.UTF_8);
+        Closeable reader;
+        if (mapped) {
+            reader = new MappedFldReader(fldFile);
+        } else {
+            reader = new InputStreamReader(new FileInputStream(fldFile), FuzzyLite.UTF_8);
+        }
 
         try {
             Benchmark benchmark = new Benchmark(engine.getName(), engine);
-            benchmark.prepare(reader);
+            long start = System.nanoTime();
+            if (mapped) {
+                ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+                try {
+                    benchmark.prepare((MappedFldReader) reader, pool);
+                } finally {
+                    if (pool != null) {
+                        pool.shutdown();
+                    }
+                }
+            } else {
+                benchmark.prepare((Reader) reader);
+            }
             if (writer != null) {
-                FuzzyLite.logger().log(Level.INFO, "\tEvaluating on {0} values read from {1}",
-                        new Object[]{benchmark.getExpected().size(), fldFile.getAbsolutePath()});
+                FuzzyLite.logger().log(Level.INFO, "\tEvaluating on {0} values read from {1} in {2} ms",
+                        new Object[]{benchmark.getExpected().size(), fldFile.getAbsolutePath(),
+                            Op.str((System.nanoTime() - start) / 1e6)});
             }
             for (int i = 0; i < runs; ++i) {
                 benchmark.runOnce();
@@ -955,6 +1040,9 @@ public class Console {
             } else {
                 System.out.println(results);
             }
+            if (threads > 1) {
+                scaling(benchmark, runs, threads);
+            }
 
         } catch (Exception ex) {
             throw ex;
@@ -963,6 +1051,37 @@ public class Console {
         }
     }
 
+    /**
+     Reports the number of evaluations per second of the benchmark utilizing
+     Benchmark::runBatch(int, ForkJoinPool) on pools from one thread to the
+     given number of threads, together with the speedup with respect to one
+     thread. The times of the benchmark are reset before each number of
+     threads.
+
+     @param benchmark is the prepared benchmark
+     @param runs is the number of runs for each number of threads
+     @param threads is the maximum number of threads
+     */
+    public void scaling(Benchmark benchmark, int runs, int threads) {
+        double baseline = Double.NaN;
+        for (int i = 1; i <= threads; ++i) {
+            ForkJoinPool pool = new ForkJoinPool(i);
+            try {
+                benchmark.reset();
+                benchmark.runBatch(runs, pool);
+            } finally {
+                pool.shutdown();
+            }
+            double rowsPerSecond = benchmark.rowsPerSecond();
+            if (i == 1) {
+                baseline = rowsPerSecond;
+            }
+            FuzzyLite.logger().log(Level.INFO, "\tThreads={0}\tRows/s={1}\tSpeedup={2}",
+                    new Object[]{String.valueOf(i), Op.str(rowsPerSecond),
+                        Op.str(rowsPerSecond / baseline)});
+        }
+    }
+
     /**
      Benchmarks the list of engines against the list of datasets, both described
      as absolute or relative paths
@@ -977,6 +1096,49 @@ public class Console {
      engines or evaluating the benchmark
      */
     public void benchmarks(File fllFileList, File fldFileList, int runs, Writer writer) throws Exception {
+        benchmarks(fllFileList, fldFileList, runs, writer, 1);
+    }
+
+    /**
+     Benchmarks the list of engines against the list of datasets, both described
+     as absolute or relative paths, reporting the scaling of the evaluations up
+     to the given number of threads
+
+     @param fllFileList is the file containing the list of paths of engines in
+     FLL format
+     @param fldFileList is the file containing the list of paths of datasets in
+     FLD format
+     @param runs is the number of runs to evaluate the benchmarks
+     @param writer is the output where the results will be written to
+     @param threads is the maximum number of threads to evaluate the engines
+     @throws Exception if something goes wrong reading the files, importing the
+     engines or evaluating the benchmark
+     */
+    public void benchmarks(File fllFileList, File fldFileList, int runs, Writer writer,
+            int threads) throws Exception {
+        benchmarks(fllFileList, fldFileList, runs, writer, threads, false);
+    }
+
+    /**
+     Benchmarks the list of engines against the list of datasets, both described
+     as absolute or relative paths, reporting the scaling of the evaluations up
+     to the given number of threads, and reading the datasets utilizing
+     memory-mapped files if requested
+
+     @param fllFileList is the file containing the list of paths of engines in
+     FLL format
+     @param fldFileList is the file containing the list of paths of datasets in
+     FLD format
+     @param runs is the number of runs to evaluate the benchmarks
+     @param writer is the output where the results will be written to
+     @param threads is the maximum number of threads to evaluate the engines
+     @param mapped indicates whether to read the datasets utilizing a
+     MappedFldReader instead of a BufferedReader
+     @throws Exception if something goes wrong reading the files, importing the
+     engines or evaluating the benchmark
+     */
+    public void benchmarks(File fllFileList, File fldFileList, int runs, Writer writer,
+            int threads, boolean mapped) throws Exception {
         List<String> fllFiles = new ArrayList<String>();
         List<String> fldFiles = new ArrayList<String>();
         {
@@ -1016,7 +1178,7 @@ public class Console {
                 FuzzyLite.logger().log(Level.INFO, "Benchmark {0}/{1}: {2}",
                         new Object[]{i + 1, fllFiles.size(), fllFiles.get(i)});
             }
-            benchmark(new File(fllFiles.get(i)), new File(fldFiles.get(i)), runs, writer);
+            benchmark(new File(fllFiles.get(i)), new File(fldFiles.get(i)), runs, writer, threads, mapped);
         }
     }
 
@@ -1067,6 +1229,25 @@ public class Console {
             return;
         }
 
+        int threads = 1;
+        boolean mapped = false;
+        if ("benchmark".equals(args[0]) || "benchmarks".equals(args[0])) {
+            List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+            int index = arguments.indexOf(KW_THREADS);
+            if (index >= 0 && index + 1 < arguments.size()) {
+                threads = Integer.parseInt(arguments.get(index + 1));
+                arguments.remove(index + 1);
+                arguments.remove(index);
+            }
+            index = arguments.indexOf(KW_DATA_MAPPED);
+            if (index >= 0 && index + 1 < arguments.size()) {
+                mapped = "true".equals(arguments.get(index + 1));
+                arguments.remove(index + 1);
+                arguments.remove(index);
+            }
+            args = arguments.toArray(new String[arguments.size()]);
+        }
+
         if ("benchmark".equals(args[0])) {
             if (args.length < 4) {
                 System.out.println("[error] not enough arguments");
@@ -1097,7 +1278,7 @@ public class Console {
                 } else {
                     System.out.println(Op.join(new Benchmark().header(runs, true), "\t"));
                 }
-                console.benchmark(fllFile, fldFile, runs, writer);
+                console.benchmark(fllFile, fldFile, runs, writer, threads, mapped);
                 if (writer != null) {
                     writer.close();
                 }
@@ -1135,7 +1316,7 @@ public class Console {
             }
 
             try {
-                console.benchmarks(fllFiles, fldFiles, runs, writer);
+                console.benchmarks(fllFiles, fldFiles, runs, writer, threads, mapped);
                 if (writer != null) {
                     writer.close();
                 }
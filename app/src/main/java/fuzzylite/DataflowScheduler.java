@@ -0,0 +1,525 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Function;
+import fuzzylite.term.Term;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ The DataflowScheduler class processes an Engine whose rule blocks feed each
+ other through their output variables, such as hierarchical controllers where
+ the antecedents of a rule block refer to output variables whose terms are
+ activated by other rule blocks. The scheduler builds a directed acyclic graph
+ whose nodes are the enabled rule blocks and the output variables, where:
+
+ - a rule block precedes each output variable in the conclusions of its rules,
+
+ - an output variable precedes each rule block whose antecedents refer to the
+ output variable, either directly or through a Function term, and
+
+ - an output variable precedes each output variable having Function terms
+ that refer to its value.
+
+ The nodes are ordered into stages such that each node is in the stage after
+ the last of its predecessors. Hence, each output variable is defuzzified just
+ in time, that is, right after the stage in which the last rule block that
+ activates its terms, and before the rule blocks that depend on it. A single
+ call to DataflowScheduler::process() then yields the output values that
+ Engine::process() yields only after processing the engine as many times as
+ stages there are, regardless of the order of the rule blocks in the engine.
+ If the rule blocks are already ordered by their dependencies and no Function
+ term refers to output values, both yield the same output values.
+
+ The nodes within a stage are independent from each other, and they are
+ processed in parallel when a ForkJoinPool is given, except for rule blocks
+ that activate terms of the same output variable, which are processed one
+ after the other in the order of the engine. The scheduler does not utilize
+ the result cache or the metrics of the engine, and it processes every stage
+ in the current thread when an InferenceListener is set.
+
+ The scheduler is created for the current structure of the engine, and it
+ must be created again whenever variables, terms, rule blocks or rules change.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see Engine::process()
+ @see Engine::process(EvaluationContext)
+ @since 6.0
+ */
+public class DataflowScheduler {
+
+    private final Engine engine;
+    private final RuleBlock[] ruleBlocks;
+    private final OutputVariable[] outputVariables;
+    /**
+     Nodes of each group of each stage, where a node `n` refers to the rule
+     block `n` if `n < ruleBlocks.length`, and otherwise to the output
+     variable `n - ruleBlocks.length`
+     */
+    private final int[][][] stages;
+
+    /**
+     Creates a scheduler for the current structure of the given engine
+
+     @param engine is the engine to process
+     @throws RuntimeException if the dependencies between the rule blocks and
+     the output variables form a cycle
+     */
+    public DataflowScheduler(Engine engine) {
+        this.engine = engine;
+        this.ruleBlocks = engine.getRuleBlocks().toArray(
+                new RuleBlock[engine.numberOfRuleBlocks()]);
+        this.outputVariables = engine.getOutputVariables().toArray(
+                new OutputVariable[engine.numberOfOutputVariables()]);
+        this.stages = schedule();
+    }
+
+    /**
+     Gets the engine for which the scheduler was created
+
+     @return the engine for which the scheduler was created
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     Gets the number of stages
+
+     @return the number of stages
+     */
+    public int numberOfStages() {
+        return stages.length;
+    }
+
+    /**
+     Gets the rule blocks activated in the given stage
+
+     @param stage is the index of the stage
+     @return the rule blocks activated in the given stage
+     */
+    public List<RuleBlock> getRuleBlocks(int stage) {
+        List<RuleBlock> result = new ArrayList<RuleBlock>();
+        for (int[] group : stages[stage]) {
+            for (int node : group) {
+                if (node < ruleBlocks.length) {
+                    result.add(ruleBlocks[node]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     Gets the output variables defuzzified in the given stage
+
+     @param stage is the index of the stage
+     @return the output variables defuzzified in the given stage
+     */
+    public List<OutputVariable> getOutputVariables(int stage) {
+        List<OutputVariable> result = new ArrayList<OutputVariable>();
+        for (int[] group : stages[stage]) {
+            for (int node : group) {
+                if (node >= ruleBlocks.length) {
+                    result.add(outputVariables[node - ruleBlocks.length]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     Builds the graph of dependencies and orders its nodes into stages
+
+     @return the groups of nodes of each stage
+     @throws RuntimeException if the dependencies form a cycle
+     */
+    private int[][][] schedule() {
+        final int blocks = ruleBlocks.length;
+        final int nodes = blocks + outputVariables.length;
+        Map<Variable, Integer> outputIndexes = new IdentityHashMap<Variable, Integer>();
+        for (int i = 0; i < outputVariables.length; ++i) {
+            outputIndexes.put(outputVariables[i], i);
+        }
+        List<Set<Integer>> successors = new ArrayList<Set<Integer>>(nodes);
+        for (int i = 0; i < nodes; ++i) {
+            successors.add(new LinkedHashSet<Integer>());
+        }
+        List<Set<Integer>> writes = new ArrayList<Set<Integer>>(blocks);
+        for (int b = 0; b < blocks; ++b) {
+            Set<Integer> written = new LinkedHashSet<Integer>();
+            writes.add(written);
+            if (!ruleBlocks[b].isEnabled()) {
+                continue;
+            }
+            Set<Integer> read = new LinkedHashSet<Integer>();
+            for (Rule rule : ruleBlocks[b].getRules()) {
+                if (!rule.isLoaded()) {
+                    continue;
+                }
+                collectReads(rule.getAntecedent().getExpression(), outputIndexes, read);
+                for (Proposition proposition : rule.getConsequent().getConclusions()) {
+                    Integer output = outputIndexes.get(proposition.getVariable());
+                    if (output != null) {
+                        written.add(output);
+                    }
+                }
+            }
+            for (Integer output : read) {
+                successors.get(blocks + output).add(b);
+            }
+            for (Integer output : written) {
+                successors.get(b).add(blocks + output);
+            }
+        }
+        for (int o = 0; o < outputVariables.length; ++o) {
+            Set<Integer> read = new LinkedHashSet<Integer>();
+            for (Term term : outputVariables[o].getTerms()) {
+                collectReads(term, read);
+            }
+            read.remove(o); //the output value of itself is the previous value
+            for (Integer output : read) {
+                successors.get(blocks + output).add(blocks + o);
+            }
+        }
+
+        //Kahn's algorithm assigning each node the stage after its predecessors
+        int[] predecessors = new int[nodes];
+        for (int n = 0; n < nodes; ++n) {
+            for (Integer successor : successors.get(n)) {
+                ++predecessors[successor];
+            }
+        }
+        int[] stageOf = new int[nodes];
+        int[] queue = new int[nodes];
+        int head = 0, tail = 0, numberOfStages = 0;
+        for (int n = 0; n < nodes; ++n) {
+            if (predecessors[n] == 0 && isScheduled(n)) {
+                queue[tail++] = n;
+            }
+        }
+        while (head < tail) {
+            final int node = queue[head++];
+            numberOfStages = Math.max(numberOfStages, stageOf[node] + 1);
+            for (Integer successor : successors.get(node)) {
+                stageOf[successor] = Math.max(stageOf[successor], stageOf[node] + 1);
+                if (--predecessors[successor] == 0) {
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        List<String> cycle = new ArrayList<String>();
+        for (int n = 0; n < nodes; ++n) {
+            if (predecessors[n] > 0) {
+                cycle.add(n < blocks ? "RuleBlock " + ruleBlocks[n].getName()
+                        : "OutputVariable " + outputVariables[n - blocks].getName());
+            }
+        }
+        if (!cycle.isEmpty()) {
+            throw new RuntimeException("[dataflow error] the following rule blocks "
+                    + "and output variables depend on each other in a cycle: "
+                    + Op.join(cycle, ", "));
+        }
+
+        //groups the rule blocks of each stage that activate the same outputs
+        List<List<List<Integer>>> result = new ArrayList<List<List<Integer>>>(numberOfStages);
+        for (int s = 0; s < numberOfStages; ++s) {
+            result.add(new ArrayList<List<Integer>>());
+        }
+        for (int n = 0; n < nodes; ++n) {
+            if (!isScheduled(n)) {
+                continue;
+            }
+            List<List<Integer>> groups = result.get(stageOf[n]);
+            List<Integer> target = null;
+            if (n < blocks) {
+                for (List<Integer> group : groups) {
+                    for (Integer node : group) {
+                        if (node < blocks && intersects(writes.get(node), writes.get(n))) {
+                            target = group;
+                            break;
+                        }
+                    }
+                    if (target != null) {
+                        break;
+                    }
+                }
+            }
+            if (target == null) {
+                target = new ArrayList<Integer>();
+                groups.add(target);
+            }
+            target.add(n);
+        }
+        int[][][] stages = new int[numberOfStages][][];
+        for (int s = 0; s < numberOfStages; ++s) {
+            List<List<Integer>> groups = result.get(s);
+            stages[s] = new int[groups.size()][];
+            for (int g = 0; g < groups.size(); ++g) {
+                List<Integer> group = groups.get(g);
+                stages[s][g] = new int[group.size()];
+                for (int i = 0; i < group.size(); ++i) {
+                    stages[s][g][i] = group.get(i);
+                }
+            }
+        }
+        return stages;
+    }
+
+    private boolean isScheduled(int node) {
+        return node >= ruleBlocks.length || ruleBlocks[node].isEnabled();
+    }
+
+    private static boolean intersects(Set<Integer> a, Set<Integer> b) {
+        for (Integer x : a) {
+            if (b.contains(x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     Collects the indexes of the output variables read by the given node of an
+     antecedent
+
+     @param node is the node of the expression tree of the antecedent
+     @param outputIndexes is the map of output variables to their indexes
+     @param result is the set where the indexes are collected
+     */
+    private void collectReads(Expression node, Map<Variable, Integer> outputIndexes,
+            Set<Integer> result) {
+        if (node instanceof Proposition) {
+            Proposition proposition = (Proposition) node;
+            Integer output = outputIndexes.get(proposition.getVariable());
+            if (output != null) {
+                result.add(output);
+            }
+            if (proposition.getTerm() != null) {
+                collectReads(proposition.getTerm(), result);
+            }
+        } else if (node instanceof Operator) {
+            collectReads(((Operator) node).getLeft(), outputIndexes, result);
+            collectReads(((Operator) node).getRight(), outputIndexes, result);
+        }
+    }
+
+    /**
+     Collects the indexes of the output variables whose values are read by the
+     given term, which are those named in the formula of a Function term
+
+     @param term is the term
+     @param result is the set where the indexes are collected
+     */
+    private void collectReads(Term term, Set<Integer> result) {
+        if (term instanceof Function && ((Function) term).getRoot() != null) {
+            collectReads(((Function) term).getRoot(), result);
+        }
+    }
+
+    private void collectReads(Function.Node node, Set<Integer> result) {
+        if (node == null) {
+            return;
+        }
+        if (node.variable != null && !node.variable.isEmpty()) {
+            int output = engine.indexOfOutputVariable(node.variable);
+            if (output >= 0) {
+                result.add(output);
+            }
+        }
+        collectReads(node.left, result);
+        collectReads(node.right, result);
+    }
+
+    /**
+     Processes the engine in its current state stage by stage in the current
+     thread
+
+     @see DataflowScheduler::process(ForkJoinPool)
+     */
+    public void process() {
+        process((ForkJoinPool) null);
+    }
+
+    /**
+     Processes the engine in its current state as follows: (a) Clears the
+     aggregated fuzzy output variables, and (b) for each stage, activates its
+     rule blocks and defuzzifies its output variables utilizing the given pool
+
+     @param pool is the pool to process the nodes of each stage in parallel, or
+     `null` to process them in the current thread
+     */
+    public void process(ForkJoinPool pool) {
+        for (OutputVariable outputVariable : outputVariables) {
+            outputVariable.fuzzyOutput().clear();
+        }
+        run(null, pool);
+    }
+
+    /**
+     Processes the engine utilizing the values stored in the given evaluation
+     context stage by stage in the current thread
+
+     @param context is the evaluation context created for the engine
+     @see DataflowScheduler::process(EvaluationContext, ForkJoinPool)
+     */
+    public void process(EvaluationContext context) {
+        process(context, null);
+    }
+
+    /**
+     Processes the engine utilizing the values stored in the given evaluation
+     context as follows: (a) Clears the aggregated fuzzy output values of the
+     context, and (b) for each stage, activates its rule blocks and defuzzifies
+     its output variables utilizing the given pool. The state of the engine is
+     not modified.
+
+     @param context is the evaluation context created for the engine
+     @param pool is the pool to process the nodes of each stage in parallel, or
+     `null` to process them in the current thread
+     @throws RuntimeException if the evaluation context was created for a
+     different engine
+     */
+    public void process(EvaluationContext context, ForkJoinPool pool) {
+        if (context.getEngine() != engine) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "evaluation context was not created for engine <%s>", engine.getName()));
+        }
+        for (int i = 0; i < outputVariables.length; ++i) {
+            context.fuzzyOutput(i).clear();
+        }
+        run(context, pool);
+    }
+
+    private void run(EvaluationContext context, ForkJoinPool pool) {
+        final InferenceListener listener = FuzzyLite.getInferenceListener();
+        if (listener != null) {
+            pool = null;
+            listener.inferenceStarted(engine);
+            for (int i = 0; i < engine.numberOfInputVariables(); ++i) {
+                InputVariable inputVariable = engine.getInputVariable(i);
+                if (inputVariable.isEnabled()) {
+                    listener.inputSet(inputVariable, context == null
+                            ? inputVariable.getValue() : context.getInputValue(i));
+                }
+            }
+        }
+        for (int[][] stage : stages) {
+            if (pool == null || stage.length == 1) {
+                for (int[] group : stage) {
+                    process(group, context);
+                }
+            } else {
+                pool.invoke(new StageTask(stage, 0, stage.length, context));
+            }
+        }
+        if (listener != null) {
+            for (int i = 0; i < outputVariables.length; ++i) {
+                if (outputVariables[i].isEnabled()) {
+                    listener.outputDefuzzified(outputVariables[i], context == null
+                            ? outputVariables[i].getValue() : context.getOutputValue(i));
+                }
+            }
+        }
+    }
+
+    private void process(int[] group, EvaluationContext context) {
+        for (int node : group) {
+            if (node < ruleBlocks.length) {
+                if (context == null) {
+                    ruleBlocks[node].activate();
+                } else {
+                    ruleBlocks[node].activate(context);
+                }
+            } else if (context == null) {
+                outputVariables[node - ruleBlocks.length].defuzzify();
+            } else {
+                outputVariables[node - ruleBlocks.length].defuzzify(context);
+            }
+        }
+    }
+
+    /**
+     The StageTask class processes a range of the groups of a stage, splitting
+     the range into halves until it contains a single group.
+     */
+    private final class StageTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[][] stage;
+        private final int from;
+        private final int to;
+        private final EvaluationContext context;
+
+        StageTask(int[][] stage, int from, int to, EvaluationContext context) {
+            this.stage = stage;
+            this.from = from;
+            this.to = to;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                process(stage[from], context);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new StageTask(stage, from, middle, context),
+                    new StageTask(stage, middle, to, context));
+        }
+    }
+
+    /**
+     Returns a string representation of the stages
+
+     @return a string representation of the stages
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int s = 0; s < stages.length; ++s) {
+            List<String> names = new ArrayList<String>();
+            for (RuleBlock ruleBlock : getRuleBlocks(s)) {
+                names.add("RuleBlock " + ruleBlock.getName());
+            }
+            for (OutputVariable outputVariable : getOutputVariables(s)) {
+                names.add("OutputVariable " + outputVariable.getName());
+            }
+            result.append("stage ").append(s + 1).append(": ")
+                    .append(Op.join(names, ", ")).append("\n");
+        }
+        return result.toString();
+    }
+}
@@ -38,9 +38,11 @@ import fuzzylite.variable.OutputVariable;
 import fuzzylite.variable.Variable;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  The Engine class is the core class of the library as it groups the necessary
@@ -59,6 +61,12 @@ public class Engine implements Op.Cloneable {
     private List<InputVariable> inputVariables;
     private List<OutputVariable> outputVariables;
     private List<RuleBlock> ruleBlocks;
+    private ResultCache resultCache;
+    private Metrics metrics;
+    private NameIndex<InputVariable> inputVariableIndex;
+    private NameIndex<OutputVariable> outputVariableIndex;
+    private NameIndex<RuleBlock> ruleBlockIndex;
+    private long modifications;
 
     public enum Type {
         /**
@@ -108,6 +116,9 @@ public class Engine implements Op.Cloneable {
         this.inputVariables = new ArrayList<InputVariable>();
         this.outputVariables = new ArrayList<OutputVariable>();
         this.ruleBlocks = new ArrayList<RuleBlock>();
+        this.inputVariableIndex = NameIndex.ofVariables();
+        this.outputVariableIndex = NameIndex.ofVariables();
+        this.ruleBlockIndex = NameIndex.ofRuleBlocks();
     }
 
     /**
@@ -325,84 +336,281 @@ public class Engine implements Op.Cloneable {
     /**
      Processes the engine in its current state as follows: (a) Clears the
      aggregated fuzzy output variables, (b) Activates the rule blocks, and (c)
-     Defuzzifies the output variables
+     Defuzzifies the output variables. If the engine has a result cache, the
+     output values are retrieved from the cache when available. If the engine
+     has metrics, the latencies of the stages are recorded.
 
      @see fuzzylite.term.Aggregated::clear()
      @see RuleBlock ::activate()
      @see OutputVariable ::defuzzify()
+     @see ResultCache
+     @see Metrics
      */
     public void process() {
-        for (OutputVariable outputVariable : outputVariables) {
-            outputVariable.fuzzyOutput().clear();
+        if (metrics != null) {
+            metrics.process(this);
+        } else if (resultCache != null) {
+            resultCache.process(this);
+        } else {
+            infer();
         }
-        /*
-         * BEGIN: Debug information
-         */
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "===============");
-            FuzzyLite.logger().log(Level.FINE, "CURRENT INPUTS:");
+    }
+
+    /**
+     Processes the engine in its current state without utilizing the result
+     cache
+
+     @see Engine::process()
+     */
+    void infer() {
+        for (int i = 0; i < outputVariables.size(); ++i) {
+            outputVariables.get(i).fuzzyOutput().clear();
+        }
+        final InferenceListener listener = FuzzyLite.getInferenceListener();
+        if (listener != null) {
+            listener.inferenceStarted(this);
             for (InputVariable inputVariable : this.inputVariables) {
-                double inputValue = inputVariable.getValue();
                 if (inputVariable.isEnabled()) {
-                    FuzzyLite.logger().fine(String.format(
-                            "%s.input = %s\n%s.fuzzy = %s",
-                            inputVariable.getName(), Op.str(inputValue),
-                            inputVariable.getName(), inputVariable.fuzzify(inputValue)));
-                } else {
-                    FuzzyLite.logger().fine(String.format(
-                            "%s.enabled = false", inputVariable.getName()));
+                    listener.inputSet(inputVariable, inputVariable.getValue());
                 }
             }
         }
-        /*
-         * END: Debug information
-         */
 
-        for (RuleBlock ruleBlock : this.ruleBlocks) {
+        final Metrics metrics = this.metrics;
+        for (int i = 0; i < ruleBlocks.size(); ++i) {
+            RuleBlock ruleBlock = ruleBlocks.get(i);
             if (ruleBlock.isEnabled()) {
-                if (FuzzyLite.isDebugging()) {
-                    FuzzyLite.logger().log(Level.FINE, "===============");
-                    FuzzyLite.logger().log(Level.FINE, "RULE BLOCK: {0}", ruleBlock.getName());
+                if (metrics != null) {
+                    metrics.activate(ruleBlock, i);
+                } else {
+                    ruleBlock.activate();
                 }
-                ruleBlock.activate();
             }
         }
 
-        for (OutputVariable outputVariable : this.outputVariables) {
-            outputVariable.defuzzify();
+        for (int i = 0; i < outputVariables.size(); ++i) {
+            if (metrics != null) {
+                metrics.defuzzify(outputVariables.get(i), i);
+            } else {
+                outputVariables.get(i).defuzzify();
+            }
         }
 
-        /*
-         * BEGIN: Debug information
-         */
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "===============");
-            FuzzyLite.logger().log(Level.FINE, "CURRENT OUTPUTS:");
+        if (listener != null) {
             for (OutputVariable outputVariable : this.outputVariables) {
                 if (outputVariable.isEnabled()) {
-                    FuzzyLite.logger().fine(String.format("%s.default = %s",
-                            outputVariable.getName(), Op.str(outputVariable.getDefaultValue())));
-                    FuzzyLite.logger().fine(String.format("%s.lockValueInRange = %s",
-                            outputVariable.getName(), String.valueOf(outputVariable.isLockValueInRange())));
-                    FuzzyLite.logger().fine(String.format("%s.lockPreviousValue= %s",
-                            outputVariable.getName(), String.valueOf(outputVariable.isLockPreviousValue())));
-
-                    //no locking is ever performed during this debugging block;
-                    double outputValue = outputVariable.getValue();
-                    FuzzyLite.logger().fine(String.format("%s.output = %s",
-                            outputVariable.getName(), Op.str(outputValue)));
-                    FuzzyLite.logger().fine(String.format("%s.fuzzy = %s",
-                            outputVariable.getName(), outputVariable.fuzzify(outputValue)));
-                    FuzzyLite.logger().fine(outputVariable.fuzzyOutput().toString());
-                    FuzzyLite.logger().fine("==========================");
+                    listener.outputDefuzzified(outputVariable, outputVariable.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     Processes the engine utilizing the values stored in the given evaluation
+     context as follows: (a) Clears the aggregated fuzzy output values of the
+     context, (b) Activates the rule blocks, and (c) Defuzzifies the output
+     variables. The state of the engine is not modified, and hence the engine
+     can be processed concurrently as long as each thread utilizes its own
+     evaluation context and the structure of the engine does not change.
+
+     @param context is the evaluation context created for this engine
+     @throws RuntimeException if the evaluation context was created for a
+     different engine
+
+     @see RuleBlock::activate(EvaluationContext)
+     @see OutputVariable::defuzzify(EvaluationContext)
+     */
+    public void process(EvaluationContext context) {
+        if (context.getEngine() != this) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "evaluation context was not created for engine <%s>", getName()));
+        }
+        if (metrics != null) {
+            metrics.process(this, context);
+        } else {
+            infer(context);
+        }
+    }
+
+    /**
+     Processes the engine utilizing the values stored in the given evaluation
+     context without checking whether the context was created for the engine
+
+     @param context is the evaluation context created for this engine
+     @see Engine::process(EvaluationContext)
+     */
+    void infer(EvaluationContext context) {
+        for (int i = 0; i < outputVariables.size(); ++i) {
+            context.fuzzyOutput(i).clear();
+        }
+        final InferenceListener listener = FuzzyLite.getInferenceListener();
+        if (listener != null) {
+            listener.inferenceStarted(this);
+            for (int i = 0; i < inputVariables.size(); ++i) {
+                if (inputVariables.get(i).isEnabled()) {
+                    listener.inputSet(inputVariables.get(i), context.getInputValue(i));
+                }
+            }
+        }
+
+        final Metrics metrics = this.metrics;
+        for (int i = 0; i < ruleBlocks.size(); ++i) {
+            RuleBlock ruleBlock = ruleBlocks.get(i);
+            if (ruleBlock.isEnabled()) {
+                if (metrics != null) {
+                    metrics.activate(ruleBlock, i, context);
                 } else {
-                    FuzzyLite.logger().fine(String.format("%s.enabled = false", outputVariable.getName()));
+                    ruleBlock.activate(context);
                 }
             }
         }
-        /*
-         * END: Debug information
-         */
+
+        for (int i = 0; i < outputVariables.size(); ++i) {
+            if (metrics != null) {
+                metrics.defuzzify(outputVariables.get(i), i, context);
+            } else {
+                outputVariables.get(i).defuzzify(context);
+            }
+        }
+        if (listener != null) {
+            for (int i = 0; i < outputVariables.size(); ++i) {
+                if (outputVariables.get(i).isEnabled()) {
+                    listener.outputDefuzzified(outputVariables.get(i), context.getOutputValue(i));
+                }
+            }
+        }
+    }
+
+    /**
+     Processes the engine for each row of the given columns of input values
+     utilizing a new EvaluationContext, and stores the output values in the
+     given columns of output values. The variables of the engine are not
+     modified, and the output values are the same as those obtained by
+     restarting the engine and processing it row by row utilizing
+     Engine::process().
+
+     @param inputsByVariable is the matrix of input values, where the row `i`
+     contains the values of the input variable `i` for each evaluation
+     @param outputsByVariable is the matrix where the output values are stored,
+     where the row `i` contains the values of the output variable `i` for each
+     evaluation
+     @throws RuntimeException if the dimensions of the matrices do not match the
+     engine
+     @see Engine::processBatch(double[][], double[][], EvaluationContext)
+     */
+    public void processBatch(double[][] inputsByVariable, double[][] outputsByVariable) {
+        processBatch(inputsByVariable, outputsByVariable, new EvaluationContext(this));
+    }
+
+    /**
+     Processes the engine for each row of the given columns of input values
+     utilizing the given EvaluationContext, and stores the output values in the
+     given columns of output values. The membership function values of the input
+     terms and the activation degrees of the rules are computed column-wise, and
+     the output values are the same as those obtained by processing the engine
+     row by row utilizing Engine::process(EvaluationContext). After processing,
+     the context contains the state of the last evaluation.
+
+     @param inputsByVariable is the matrix of input values, where the row `i`
+     contains the values of the input variable `i` for each evaluation
+     @param outputsByVariable is the matrix where the output values are stored,
+     where the row `i` contains the values of the output variable `i` for each
+     evaluation
+     @param context is the evaluation context
+     @throws RuntimeException if the dimensions of the matrices do not match the
+     engine, or if the context was not created for the engine
+     */
+    public void processBatch(double[][] inputsByVariable, double[][] outputsByVariable,
+            EvaluationContext context) {
+        if (context.getEngine() != this) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "evaluation context was not created for engine <%s>", getName()));
+        }
+        int rows = batchSize(inputsByVariable, outputsByVariable);
+        new BatchProcessor(this, context).process(inputsByVariable, outputsByVariable, 0, rows);
+    }
+
+    /**
+     Processes the engine for each row of the given columns of input values
+     utilizing the given pool, and stores the output values in the given columns
+     of output values. The rows are split in ranges that are processed in
+     parallel utilizing Engine::processBatch() on a new EvaluationContext for
+     each range, and the output values are stored in the same order as the input
+     values. The variables of the engine are not modified, and the output values
+     are the same as those obtained by Engine::processBatch(double[][],
+     double[][]).
+
+     If any output variable locks its previous value, the output values depend
+     on the preceding evaluations, and hence the rows are processed
+     sequentially in the calling thread.
+
+     @param inputsByVariable is the matrix of input values, where the row `i`
+     contains the values of the input variable `i` for each evaluation
+     @param outputsByVariable is the matrix where the output values are stored,
+     where the row `i` contains the values of the output variable `i` for each
+     evaluation
+     @param pool is the pool to process the rows, or `null` to process the rows
+     sequentially in the calling thread
+     @throws RuntimeException if the dimensions of the matrices do not match the
+     engine
+     */
+    public void processBatch(double[][] inputsByVariable, double[][] outputsByVariable,
+            ForkJoinPool pool) {
+        int rows = batchSize(inputsByVariable, outputsByVariable);
+        boolean sequential = pool == null || rows <= BatchProcessor.CHUNK_SIZE;
+        for (OutputVariable outputVariable : this.outputVariables) {
+            sequential |= outputVariable.isLockPreviousValue();
+        }
+        if (sequential) {
+            new BatchProcessor(this, new EvaluationContext(this))
+                    .process(inputsByVariable, outputsByVariable, 0, rows);
+            return;
+        }
+        int threshold = Math.max(BatchProcessor.CHUNK_SIZE,
+                rows / (4 * pool.getParallelism()) + 1);
+        pool.invoke(new BatchProcessor.Task(this, inputsByVariable, outputsByVariable,
+                0, rows, threshold));
+    }
+
+    /**
+     Gets the number of evaluations in the given columns of input values after
+     validating the dimensions of the columns of input and output values
+
+     @param inputsByVariable is the matrix of input values
+     @param outputsByVariable is the matrix where the output values are stored
+     @return the number of evaluations in the columns of input values
+     @throws RuntimeException if the dimensions of the matrices do not match the
+     engine
+     */
+    private int batchSize(double[][] inputsByVariable, double[][] outputsByVariable) {
+        if (inputsByVariable.length < numberOfInputVariables()) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "the number of columns of input values <%d> must be at least "
+                    + "the number of input variables <%d>",
+                    inputsByVariable.length, numberOfInputVariables()));
+        }
+        if (outputsByVariable.length < numberOfOutputVariables()) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "the number of columns of output values <%d> must be at least "
+                    + "the number of output variables <%d>",
+                    outputsByVariable.length, numberOfOutputVariables()));
+        }
+        int rows = inputsByVariable.length > 0 ? inputsByVariable[0].length : 0;
+        for (int i = 0; i < numberOfInputVariables(); ++i) {
+            if (inputsByVariable[i].length != rows) {
+                throw new RuntimeException(String.format("[engine error] "
+                        + "the column of input values <%d> has <%d> values, but <%d> "
+                        + "values were expected", i, inputsByVariable[i].length, rows));
+            }
+        }
+        for (int i = 0; i < numberOfOutputVariables(); ++i) {
+            if (outputsByVariable[i].length < rows) {
+                throw new RuntimeException(String.format("[engine error] "
+                        + "the column of output values <%d> has <%d> values, but at "
+                        + "least <%d> values were expected", i, outputsByVariable[i].length, rows));
+            }
+        }
+        return rows;
     }
 
     /**
@@ -441,6 +649,58 @@ public class Engine implements Op.Cloneable {
         this.description = description;
     }
 
+    /**
+     Gets the number of modifications made to the engine, which is incremented
+     whenever its variables or rule blocks are added, removed or set. The
+     modifications made to the components of the engine are counted by
+     FuzzyLite::getModifications() instead.
+
+     @return the number of modifications made to the engine
+     @see ResultCache
+     */
+    public long getModifications() {
+        return modifications;
+    }
+
+    /**
+     Gets the cache of output values utilized by Engine::process()
+
+     @return the cache of output values, or `null` if the engine does not cache
+     its output values
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     Sets the cache of output values utilized by Engine::process()
+
+     @param resultCache is the cache of output values, or `null` to not cache
+     the output values
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     Gets the metrics recorded by Engine::process()
+
+     @return the metrics recorded by Engine::process(), or `null` if the engine
+     does not record metrics
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     Sets the metrics recorded by Engine::process()
+
+     @param metrics is the metrics to record, or `null` to not record metrics
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      Returns a string representation of the engine in the FuzzyLite Language
 
@@ -584,31 +844,53 @@ public class Engine implements Op.Cloneable {
      */
     @Override
     public Engine clone() throws CloneNotSupportedException {
-        Engine result = (Engine) super.clone();
-        result.inputVariables = new ArrayList<InputVariable>(this.inputVariables.size());
-        for (InputVariable inputVariable : this.inputVariables) {
-            result.inputVariables.add(inputVariable.clone());
-        }
-        result.outputVariables = new ArrayList<OutputVariable>(this.outputVariables.size());
-        for (OutputVariable outputVariable : this.outputVariables) {
-            result.outputVariables.add(outputVariable.clone());
-        }
-        for (Variable variable : this.variables()) {
-            for (Term term : variable.getTerms()) {
-                term.updateReference(result);
+        //the components of the clone are new, so they do not invalidate the
+        //caches of the existing engines
+        FuzzyLite.suspendModifications();
+        try {
+            Engine result = (Engine) super.clone();
+            result.resultCache = this.resultCache == null ? null : this.resultCache.clone();
+            result.metrics = this.metrics == null ? null : new Metrics();
+            result.inputVariableIndex = NameIndex.ofVariables();
+            result.outputVariableIndex = NameIndex.ofVariables();
+            result.ruleBlockIndex = NameIndex.ofRuleBlocks();
+            result.inputVariables = new ArrayList<InputVariable>(this.inputVariables.size());
+            for (InputVariable inputVariable : this.inputVariables) {
+                result.inputVariables.add(inputVariable.clone());
             }
-        }
-        result.ruleBlocks = new ArrayList<RuleBlock>(this.ruleBlocks.size());
-        for (RuleBlock ruleBlock : this.ruleBlocks) {
-            RuleBlock ruleBlockClone = ruleBlock.clone();
-            try {
-                ruleBlockClone.loadRules(result);
-            } finally {
-                result.ruleBlocks.add(ruleBlockClone);
+            result.outputVariables = new ArrayList<OutputVariable>(this.outputVariables.size());
+            for (OutputVariable outputVariable : this.outputVariables) {
+                result.outputVariables.add(outputVariable.clone());
+            }
+            //maps the components of this engine to their clones, such that the
+            //loaded rules are copied into the clone without parsing them again
+            Map<Variable, Variable> variables = new IdentityHashMap<Variable, Variable>();
+            Map<Term, Term> terms = new IdentityHashMap<Term, Term>();
+            List<Variable> sourceVariables = this.variables();
+            List<Variable> clonedVariables = result.variables();
+            for (int i = 0; i < clonedVariables.size(); ++i) {
+                Variable source = sourceVariables.get(i);
+                Variable clone = clonedVariables.get(i);
+                variables.put(source, clone);
+                for (int t = 0; t < clone.numberOfTerms(); ++t) {
+                    terms.put(source.getTerm(t), clone.getTerm(t));
+                    clone.getTerm(t).updateReference(result);
+                }
+            }
+            result.ruleBlocks = new ArrayList<RuleBlock>(this.ruleBlocks.size());
+            for (RuleBlock ruleBlock : this.ruleBlocks) {
+                RuleBlock ruleBlockClone = ruleBlock.clone();
+                try {
+                    ruleBlockClone.loadRules(result, ruleBlock, variables, terms);
+                } finally {
+                    result.ruleBlocks.add(ruleBlockClone);
+                }
             }
-        }
 
-        return result;
+            return result;
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
     }
 
     /**
@@ -626,9 +908,8 @@ public class Engine implements Op.Cloneable {
     }
 
     /**
-     Sets the value of the given input variable. The cost of this method is
-     O(n), where n is the number of input variables in the engine. For
-     performance, please get the variables by index.
+     Sets the value of the given input variable. The input variable is found
+     utilizing an index of the input variables by name, whose cost is O(1).
 
      @param name is the name of the input variable
      @param value is the value for the input variable
@@ -639,23 +920,44 @@ public class Engine implements Op.Cloneable {
     }
 
     /**
-     Gets the input variable of the given name after iterating the input
-     variables. The cost of this method is O(n), where n is the number of input
-     variables in the engine. For performance, please get the variables by
-     index.
+     Sets the value of the input variable at the given index, which can be
+     obtained once utilizing Engine::indexOfInputVariable(String)
+
+     @param index is the index of the input variable
+     @param value is the value for the input variable
+     */
+    public void setInputValue(int index, double value) {
+        this.inputVariables.get(index).setValue(value);
+    }
+
+    /**
+     Gets the index of the input variable of the given name utilizing an index
+     of the input variables by name. The index remains valid until input
+     variables are inserted or removed.
+
+     @param name is the name of the input variable
+     @return the index of the input variable of the given name, or `-1` if
+     there is no input variable of the given name
+     */
+    public int indexOfInputVariable(String name) {
+        return inputVariableIndex.indexOf(this.inputVariables, name);
+    }
+
+    /**
+     Gets the input variable of the given name utilizing an index of the input
+     variables by name, whose cost is O(1)
 
      @param name is the name of the input variable
      @return input variable of the given name
      @throws RuntimeException if there is no variable with the given name
      */
     public InputVariable getInputVariable(String name) {
-        for (InputVariable inputVariable : this.inputVariables) {
-            if (name.equals(inputVariable.getName())) {
-                return inputVariable;
-            }
+        int index = indexOfInputVariable(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no input variable by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no input variable by name <%s>", name));
+        return this.inputVariables.get(index);
     }
 
     /**
@@ -674,7 +976,9 @@ public class Engine implements Op.Cloneable {
      @param inputVariable is the input variable
      */
     public void addInputVariable(InputVariable inputVariable) {
+        ++this.modifications;
         this.inputVariables.add(inputVariable);
+        this.inputVariableIndex.invalidate();
     }
 
     /**
@@ -685,6 +989,8 @@ public class Engine implements Op.Cloneable {
      variables
      */
     public boolean removeInputVariable(InputVariable inputVariable) {
+        ++this.modifications;
+        this.inputVariableIndex.invalidate();
         return this.inputVariables.remove(inputVariable);
     }
 
@@ -696,15 +1002,13 @@ public class Engine implements Op.Cloneable {
      @throws RuntimeException if there is no variable with the given name
      */
     public InputVariable removeInputVariable(String name) {
-        for (Iterator<InputVariable> it = this.inputVariables.iterator(); it.hasNext();) {
-            InputVariable inputVariable = it.next();
-            if (inputVariable.getName().equals(name)) {
-                it.remove();
-                return inputVariable;
-            }
+        ++this.modifications;
+        int index = indexOfInputVariable(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no input variable by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no input variable by name <%s>", name));
+        return removeInputVariable(index);
     }
 
     /**
@@ -714,8 +1018,9 @@ public class Engine implements Op.Cloneable {
      @return the input variable at the given index
      */
     public InputVariable removeInputVariable(int index) {
+        ++this.modifications;
+        this.inputVariableIndex.invalidate();
         return this.inputVariables.remove(index);
-
     }
 
     /**
@@ -726,12 +1031,7 @@ public class Engine implements Op.Cloneable {
      @return whether an input variable is registered with the given name
      */
     public boolean hasInputVariable(String name) {
-        for (InputVariable inputVariable : this.inputVariables) {
-            if (inputVariable.getName().equals(name)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOfInputVariable(name) >= 0;
     }
 
     /**
@@ -758,13 +1058,14 @@ public class Engine implements Op.Cloneable {
      @param inputVariables is the list of input variables
      */
     public void setInputVariables(List<InputVariable> inputVariables) {
+        ++this.modifications;
         this.inputVariables = inputVariables;
+        this.inputVariableIndex.invalidate();
     }
 
     /**
-     Gets the value of the given output variable. The cost of this method is
-     O(n), where n is the number of output variables in the engine. For
-     performance, please get the variables by index.
+     Gets the value of the given output variable. The output variable is found
+     utilizing an index of the output variables by name, whose cost is O(1).
 
      @param name is the name of the output variable
      @return the value of the given output variable
@@ -774,23 +1075,44 @@ public class Engine implements Op.Cloneable {
     }
 
     /**
-     Gets the output variable of the given name after iterating the output
-     variables. The cost of this method is O(n), where n is the number of output
-     variables in the engine. For performance, please get the variables by
-     index.
+     Gets the value of the output variable at the given index, which can be
+     obtained once utilizing Engine::indexOfOutputVariable(String)
+
+     @param index is the index of the output variable
+     @return the value of the output variable at the given index
+     */
+    public double getOutputValue(int index) {
+        return this.outputVariables.get(index).getValue();
+    }
+
+    /**
+     Gets the index of the output variable of the given name utilizing an
+     index of the output variables by name. The index remains valid until
+     output variables are inserted or removed.
+
+     @param name is the name of the output variable
+     @return the index of the output variable of the given name, or `-1` if
+     there is no output variable of the given name
+     */
+    public int indexOfOutputVariable(String name) {
+        return outputVariableIndex.indexOf(this.outputVariables, name);
+    }
+
+    /**
+     Gets the output variable of the given name utilizing an index of the
+     output variables by name, whose cost is O(1)
 
      @param name is the name of the output variable
      @return output variable of the given name
      @throws RuntimeException if there is no variable with the given name
      */
     public OutputVariable getOutputVariable(String name) {
-        for (OutputVariable outputVariable : this.outputVariables) {
-            if (outputVariable.getName().equals(name)) {
-                return outputVariable;
-            }
+        int index = indexOfOutputVariable(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no output variable by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no output variable by name <%s>", name));
+        return this.outputVariables.get(index);
     }
 
     /**
@@ -809,7 +1131,9 @@ public class Engine implements Op.Cloneable {
      @param outputVariable is the output variable
      */
     public void addOutputVariable(OutputVariable outputVariable) {
+        ++this.modifications;
         this.outputVariables.add(outputVariable);
+        this.outputVariableIndex.invalidate();
     }
 
     /**
@@ -820,6 +1144,8 @@ public class Engine implements Op.Cloneable {
      variables
      */
     public boolean removeOutputVariable(OutputVariable outputVariable) {
+        ++this.modifications;
+        this.outputVariableIndex.invalidate();
         return this.outputVariables.remove(outputVariable);
     }
 
@@ -831,15 +1157,13 @@ public class Engine implements Op.Cloneable {
      @throws RuntimeException if there is no variable with the given name
      */
     public OutputVariable removeOutputVariable(String name) {
-        for (Iterator<OutputVariable> it = this.outputVariables.iterator(); it.hasNext();) {
-            OutputVariable outputVariable = it.next();
-            if (outputVariable.getName().equals(name)) {
-                it.remove();
-                return outputVariable;
-            }
+        ++this.modifications;
+        int index = indexOfOutputVariable(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no output variable by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no output variable by name <%s>", name));
+        return removeOutputVariable(index);
     }
 
     /**
@@ -849,6 +1173,8 @@ public class Engine implements Op.Cloneable {
      @return the output variable at the given index
      */
     public OutputVariable removeOutputVariable(int index) {
+        ++this.modifications;
+        this.outputVariableIndex.invalidate();
         return this.outputVariables.remove(index);
     }
 
@@ -860,12 +1186,7 @@ public class Engine implements Op.Cloneable {
      @return whether an output variable is registered with the given name
      */
     public boolean hasOutputVariable(String name) {
-        for (OutputVariable outputVariable : this.outputVariables) {
-            if (outputVariable.getName().equals(name)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOfOutputVariable(name) >= 0;
     }
 
     /**
@@ -892,26 +1213,39 @@ public class Engine implements Op.Cloneable {
      @param outputVariables is the vector of output variables
      */
     public void setOutputVariables(List<OutputVariable> outputVariables) {
+        ++this.modifications;
         this.outputVariables = outputVariables;
+        this.outputVariableIndex.invalidate();
+    }
+
+    /**
+     Gets the index of the rule block of the given name utilizing an index of
+     the rule blocks by name. The index remains valid until rule blocks are
+     inserted or removed.
+
+     @param name is the name of the rule block
+     @return the index of the rule block of the given name, or `-1` if there is
+     no rule block of the given name
+     */
+    public int indexOfRuleBlock(String name) {
+        return ruleBlockIndex.indexOf(this.ruleBlocks, name);
     }
 
     /**
-     Gets the rule block of the given name after iterating the rule blocks. The
-     cost of this method is O(n), where n is the number of rule blocks in the
-     engine. For performance, please get the rule blocks by index.
+     Gets the rule block of the given name utilizing an index of the rule
+     blocks by name, whose cost is O(1)
 
      @param name is the name of the rule block
      @return rule block of the given name
      @throws RuntimeException if there is no block with the given name
      */
     public RuleBlock getRuleBlock(String name) {
-        for (RuleBlock ruleBlock : this.ruleBlocks) {
-            if (ruleBlock.getName().equals(name)) {
-                return ruleBlock;
-            }
+        int index = indexOfRuleBlock(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no rule block by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no rule block by name <%s>", name));
+        return this.ruleBlocks.get(index);
     }
 
     /**
@@ -930,7 +1264,9 @@ public class Engine implements Op.Cloneable {
      @param ruleBlock is the rule block
      */
     public void addRuleBlock(RuleBlock ruleBlock) {
+        ++this.modifications;
         this.ruleBlocks.add(ruleBlock);
+        this.ruleBlockIndex.invalidate();
     }
 
     /**
@@ -940,6 +1276,8 @@ public class Engine implements Op.Cloneable {
      @return whether the rule block was contained in the list of rule blocks
      */
     public boolean removeRuleBlock(RuleBlock ruleBlock) {
+        ++this.modifications;
+        this.ruleBlockIndex.invalidate();
         return this.ruleBlocks.remove(ruleBlock);
     }
 
@@ -951,15 +1289,13 @@ public class Engine implements Op.Cloneable {
      @throws RuntimeException if there is no rule block with the given name
      */
     public RuleBlock removeRuleBlock(String name) {
-        for (Iterator<RuleBlock> it = this.ruleBlocks.iterator(); it.hasNext();) {
-            RuleBlock ruleBlock = it.next();
-            if (ruleBlock.getName().equals(name)) {
-                it.remove();
-                return ruleBlock;
-            }
+        ++this.modifications;
+        int index = indexOfRuleBlock(name);
+        if (index < 0) {
+            throw new RuntimeException(String.format(
+                    "[engine error] no rule block by name <%s>", name));
         }
-        throw new RuntimeException(String.format(
-                "[engine error] no rule block by name <%s>", name));
+        return removeRuleBlock(index);
     }
 
     /**
@@ -969,6 +1305,8 @@ public class Engine implements Op.Cloneable {
      @return the rule block at the given index
      */
     public RuleBlock removeRuleBlock(int index) {
+        ++this.modifications;
+        this.ruleBlockIndex.invalidate();
         return this.ruleBlocks.remove(index);
     }
 
@@ -980,12 +1318,7 @@ public class Engine implements Op.Cloneable {
      @throws RuntimeException if there is no block with the given name
      */
     public boolean hasRuleBlock(String name) {
-        for (RuleBlock ruleBlock : this.ruleBlocks) {
-            if (ruleBlock.getName().equals(name)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOfRuleBlock(name) >= 0;
     }
 
     /**
@@ -1012,6 +1345,8 @@ public class Engine implements Op.Cloneable {
      @param ruleBlocks is the list of rule blocks
      */
     public void setRuleBlocks(List<RuleBlock> ruleBlocks) {
+        ++this.modifications;
         this.ruleBlocks = ruleBlocks;
+        this.ruleBlockIndex.invalidate();
     }
 }
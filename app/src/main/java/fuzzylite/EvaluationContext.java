@@ -0,0 +1,429 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Aggregated;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ The EvaluationContext class stores the state of an evaluation of an Engine,
+ namely the input values, the output values, the previous output values, the
+ fuzzy output values, and the activation degrees of the rules, such that the
+ Engine can be processed utilizing Engine::process(EvaluationContext) without
+ modifying its variables, rules, or terms. Hence, a single Engine can be
+ processed concurrently by multiple threads provided that each thread utilizes
+ its own EvaluationContext and the structure of the engine does not change.
+
+ An EvaluationContext is created for a given Engine, and must be created again
+ whenever variables or rule blocks are added to or removed from the engine. The
+ EvaluationContext is not thread-safe.
+
+ @see Engine::process(EvaluationContext)
+ @since 6.0
+ */
+public class EvaluationContext {
+
+    private final Engine engine;
+    private final Map<Variable, Integer> inputIndexes;
+    private final Map<Variable, Integer> outputIndexes;
+    private final InputVariable[] inputVariables;
+    private final OutputVariable[] outputVariables;
+    private final double[] inputValues;
+    private final double[] outputValues;
+    private final double[] previousOutputValues;
+    private final Aggregated[] fuzzyOutputs;
+    private final RuleBlock[] ruleBlocks;
+    private final double[][] activationDegrees;
+    private final boolean[][] triggered;
+    private final int[][] ruleIndexes;
+    private final Object[] activationStates;
+    private EvaluationContext[] accumulators;
+
+    public EvaluationContext(Engine engine) {
+        this.engine = engine;
+        this.inputVariables = engine.getInputVariables().toArray(
+                new InputVariable[engine.numberOfInputVariables()]);
+        this.outputVariables = engine.getOutputVariables().toArray(
+                new OutputVariable[engine.numberOfOutputVariables()]);
+        this.inputIndexes = new IdentityHashMap<Variable, Integer>();
+        for (int i = 0; i < inputVariables.length; ++i) {
+            inputIndexes.put(inputVariables[i], i);
+        }
+        this.outputIndexes = new IdentityHashMap<Variable, Integer>();
+        for (int i = 0; i < outputVariables.length; ++i) {
+            outputIndexes.put(outputVariables[i], i);
+        }
+        this.inputValues = new double[inputVariables.length];
+        this.outputValues = new double[outputVariables.length];
+        this.previousOutputValues = new double[outputVariables.length];
+        this.fuzzyOutputs = new Aggregated[outputVariables.length];
+        for (int i = 0; i < outputVariables.length; ++i) {
+            Aggregated fuzzyOutput = outputVariables[i].fuzzyOutput();
+            fuzzyOutputs[i] = new Aggregated(fuzzyOutput.getName(),
+                    fuzzyOutput.getMinimum(), fuzzyOutput.getMaximum(),
+                    fuzzyOutput.getAggregation());
+            fuzzyOutputs[i].reserve(fuzzyOutput.capacity());
+        }
+        this.ruleBlocks = engine.getRuleBlocks().toArray(
+                new RuleBlock[engine.numberOfRuleBlocks()]);
+        this.activationDegrees = new double[ruleBlocks.length][];
+        this.triggered = new boolean[ruleBlocks.length][];
+        this.ruleIndexes = new int[ruleBlocks.length][];
+        this.activationStates = new Object[ruleBlocks.length];
+        for (int i = 0; i < ruleBlocks.length; ++i) {
+            activationDegrees[i] = new double[ruleBlocks[i].numberOfRules()];
+            triggered[i] = new boolean[ruleBlocks[i].numberOfRules()];
+            ruleIndexes[i] = new int[ruleBlocks[i].numberOfRules()];
+        }
+        restart();
+    }
+
+    /**
+     Creates a context that shares the values and the activation degrees of the
+     given context, but accumulates its own fuzzy output values, such that
+     multiple rule blocks can be activated concurrently and their fuzzy output
+     values merged afterwards
+
+     @param context is the context whose values are shared
+     @see ParallelInference
+     */
+    private EvaluationContext(EvaluationContext context) {
+        this.engine = context.engine;
+        this.inputIndexes = context.inputIndexes;
+        this.outputIndexes = context.outputIndexes;
+        this.inputVariables = context.inputVariables;
+        this.outputVariables = context.outputVariables;
+        this.inputValues = context.inputValues;
+        this.outputValues = context.outputValues;
+        this.previousOutputValues = context.previousOutputValues;
+        this.fuzzyOutputs = new Aggregated[context.fuzzyOutputs.length];
+        for (int i = 0; i < fuzzyOutputs.length; ++i) {
+            Aggregated fuzzyOutput = context.fuzzyOutputs[i];
+            fuzzyOutputs[i] = new Aggregated(fuzzyOutput.getName(),
+                    fuzzyOutput.getMinimum(), fuzzyOutput.getMaximum(),
+                    fuzzyOutput.getAggregation());
+        }
+        this.ruleBlocks = context.ruleBlocks;
+        this.activationDegrees = context.activationDegrees;
+        this.triggered = context.triggered;
+        this.ruleIndexes = context.ruleIndexes;
+        this.activationStates = context.activationStates;
+    }
+
+    /**
+     Gets the contexts in which each rule block of the engine accumulates its
+     fuzzy output values when activated concurrently, which share the values
+     and the activation degrees of this context. The contexts are created when
+     first requested.
+
+     @return the context of each rule block of the engine
+     @see ParallelInference
+     */
+    EvaluationContext[] accumulators() {
+        if (accumulators == null) {
+            EvaluationContext[] result = new EvaluationContext[ruleBlocks.length];
+            for (int i = 0; i < result.length; ++i) {
+                result[i] = new EvaluationContext(this);
+            }
+            accumulators = result;
+        }
+        return accumulators;
+    }
+
+    /**
+     Gets the engine for which the context was created
+
+     @return the engine for which the context was created
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     Restarts the context by setting the input values, the output values and
+     the previous output values to fl::nan, and clearing the fuzzy output values
+     and the activation degrees of the rules
+
+     @see Engine::restart()
+     */
+    public void restart() {
+        Arrays.fill(inputValues, Double.NaN);
+        Arrays.fill(outputValues, Double.NaN);
+        Arrays.fill(previousOutputValues, Double.NaN);
+        for (Aggregated fuzzyOutput : fuzzyOutputs) {
+            fuzzyOutput.clear();
+        }
+        for (int i = 0; i < ruleBlocks.length; ++i) {
+            Arrays.fill(activationDegrees[i], 0.0);
+            Arrays.fill(triggered[i], false);
+        }
+    }
+
+    /**
+     Gets the index of the given input variable
+
+     @param inputVariable is the input variable
+     @return the index of the input variable
+     @throws RuntimeException if the input variable is not in the engine
+     */
+    public int indexOf(InputVariable inputVariable) {
+        Integer index = inputIndexes.get(inputVariable);
+        if (index == null) {
+            throw new RuntimeException(String.format(
+                    "[context error] no input variable <%s> in the engine",
+                    inputVariable.getName()));
+        }
+        return index;
+    }
+
+    /**
+     Gets the index of the given output variable
+
+     @param outputVariable is the output variable
+     @return the index of the output variable
+     @throws RuntimeException if the output variable is not in the engine
+     */
+    public int indexOf(OutputVariable outputVariable) {
+        Integer index = outputIndexes.get(outputVariable);
+        if (index == null) {
+            throw new RuntimeException(String.format(
+                    "[context error] no output variable <%s> in the engine",
+                    outputVariable.getName()));
+        }
+        return index;
+    }
+
+    /**
+     Gets the value of the input variable at the given index
+
+     @param index is the index of the input variable
+     @return the value of the input variable
+     */
+    public double getInputValue(int index) {
+        return inputValues[index];
+    }
+
+    /**
+     Sets the value of the input variable at the given index, which is bounded
+     to the range of the variable if Variable::isLockValueInRange()
+
+     @param index is the index of the input variable
+     @param value is the value of the input variable
+     */
+    public void setInputValue(int index, double value) {
+        inputValues[index] = bound(inputVariables[index], value);
+    }
+
+    /**
+     Sets the value of the input variable of the given name
+
+     @param name is the name of the input variable
+     @param value is the value of the input variable
+     @throws RuntimeException if there is no input variable by the given name
+     */
+    public void setInputValue(String name, double value) {
+        setInputValue(indexOf(engine.getInputVariable(name)), value);
+    }
+
+    /**
+     Gets the value of the output variable at the given index
+
+     @param index is the index of the output variable
+     @return the value of the output variable
+     */
+    public double getOutputValue(int index) {
+        return outputValues[index];
+    }
+
+    /**
+     Gets the value of the output variable of the given name
+
+     @param name is the name of the output variable
+     @return the value of the output variable
+     @throws RuntimeException if there is no output variable by the given name
+     */
+    public double getOutputValue(String name) {
+        return outputValues[indexOf(engine.getOutputVariable(name))];
+    }
+
+    /**
+     Sets the value of the output variable at the given index, which is bounded
+     to the range of the variable if Variable::isLockValueInRange()
+
+     @param index is the index of the output variable
+     @param value is the value of the output variable
+     */
+    public void setOutputValue(int index, double value) {
+        outputValues[index] = bound(outputVariables[index], value);
+    }
+
+    /**
+     Gets the previous value of the output variable at the given index
+
+     @param index is the index of the output variable
+     @return the previous value of the output variable
+     */
+    public double getPreviousOutputValue(int index) {
+        return previousOutputValues[index];
+    }
+
+    /**
+     Sets the previous value of the output variable at the given index
+
+     @param index is the index of the output variable
+     @param value is the previous value of the output variable
+     */
+    public void setPreviousOutputValue(int index, double value) {
+        previousOutputValues[index] = value;
+    }
+
+    /**
+     Gets the value of the given variable, which is either an input variable or
+     an output variable of the engine
+
+     @param variable is the variable
+     @return the value of the variable
+     @throws RuntimeException if the variable is not in the engine
+     */
+    public double getValue(Variable variable) {
+        Integer index = inputIndexes.get(variable);
+        if (index != null) {
+            return inputValues[index];
+        }
+        index = outputIndexes.get(variable);
+        if (index != null) {
+            return outputValues[index];
+        }
+        throw new RuntimeException(String.format(
+                "[context error] no variable <%s> in the engine", variable.getName()));
+    }
+
+    /**
+     Gets the fuzzy output value of the output variable at the given index
+
+     @param index is the index of the output variable
+     @return the fuzzy output value of the output variable
+     */
+    public Aggregated fuzzyOutput(int index) {
+        return fuzzyOutputs[index];
+    }
+
+    /**
+     Gets the fuzzy output value of the given output variable
+
+     @param outputVariable is the output variable
+     @return the fuzzy output value of the output variable
+     @throws RuntimeException if the output variable is not in the engine
+     */
+    public Aggregated fuzzyOutput(OutputVariable outputVariable) {
+        return fuzzyOutputs[indexOf(outputVariable)];
+    }
+
+    /**
+     Gets the activation degrees of the rules in the given rule block, where the
+     index of each activation degree corresponds to the index of the rule
+
+     @param ruleBlock is the rule block
+     @return the activation degrees of the rules in the rule block
+     @throws RuntimeException if the rule block is not in the engine
+     */
+    public double[] activationDegrees(RuleBlock ruleBlock) {
+        return activationDegrees[indexOf(ruleBlock)];
+    }
+
+    /**
+     Gets whether the rules in the given rule block were triggered, where the
+     index of each flag corresponds to the index of the rule
+
+     @param ruleBlock is the rule block
+     @return whether the rules in the rule block were triggered
+     @throws RuntimeException if the rule block is not in the engine
+     */
+    public boolean[] triggered(RuleBlock ruleBlock) {
+        return triggered[indexOf(ruleBlock)];
+    }
+
+    /**
+     Gets a vector with capacity for the indexes of the rules in the given rule
+     block, which the activation methods utilize to sort or select the rules
+     without allocating memory. The contents of the vector are not part of the
+     state of the evaluation.
+
+     @param ruleBlock is the rule block
+     @return a vector with capacity for the indexes of the rules in the rule
+     block
+     @throws RuntimeException if the rule block is not in the engine
+     */
+    public int[] ruleIndexes(RuleBlock ruleBlock) {
+        return ruleIndexes[indexOf(ruleBlock)];
+    }
+
+    /**
+     Gets the state that the activation method of the given rule block stored
+     in the context to activate the rules without allocating memory, for
+     example, the vectors utilized by Sparse. The state is not part of the
+     state of the evaluation.
+
+     @param ruleBlock is the rule block
+     @return the state of the activation method of the rule block, or `null`
+     if no state has been stored
+     @throws RuntimeException if the rule block is not in the engine
+     */
+    public Object activationState(RuleBlock ruleBlock) {
+        return activationStates[indexOf(ruleBlock)];
+    }
+
+    /**
+     Sets the state that the activation method of the given rule block stores
+     in the context to activate the rules without allocating memory
+
+     @param ruleBlock is the rule block
+     @param state is the state of the activation method of the rule block
+     @throws RuntimeException if the rule block is not in the engine
+     */
+    public void setActivationState(RuleBlock ruleBlock, Object state) {
+        activationStates[indexOf(ruleBlock)] = state;
+    }
+
+    private int indexOf(RuleBlock ruleBlock) {
+        for (int i = 0; i < ruleBlocks.length; ++i) {
+            if (ruleBlocks[i] == ruleBlock) {
+                if (activationDegrees[i].length != ruleBlock.numberOfRules()) {
+                    throw new RuntimeException(String.format(
+                            "[context error] the number of rules in rule block <%s> "
+                            + "changed after creating the context", ruleBlock.getName()));
+                }
+                return i;
+            }
+        }
+        throw new RuntimeException(String.format(
+                "[context error] no rule block <%s> in the engine", ruleBlock.getName()));
+    }
+
+    private static double bound(Variable variable, double value) {
+        return variable.isLockValueInRange()
+                ? Op.bound(value, variable.getMinimum(), variable.getMaximum())
+                : value;
+    }
+}
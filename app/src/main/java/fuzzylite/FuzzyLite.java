@@ -19,6 +19,7 @@ package fuzzylite;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
@@ -35,6 +36,8 @@ public class FuzzyLite {
     private static int decimals = 3;
     protected static double macheps = 1e-6; //Machine epsilon to differentiate numbers
     private static boolean debugging = false;
+    private static InferenceListener inferenceListener = null;
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
 
     public static class ThreadSafeDecimalFormat extends ThreadLocal<DecimalFormat> {
 
@@ -45,6 +48,13 @@ public class FuzzyLite {
     }
 
     private static final ThreadSafeDecimalFormat FORMATTER = new ThreadSafeDecimalFormat();
+    private static final ThreadLocal<ScalarFormat> SCALAR_FORMAT = new ThreadLocal<ScalarFormat>();
+    private static final ThreadLocal<int[]> SUSPENSIONS = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
 
     public static final Charset UTF_8 = Charset.forName("UTF-8");
 
@@ -102,6 +112,25 @@ public class FuzzyLite {
         return FORMATTER.get();
     }
 
+    /**
+     Gets the scalar format of the current thread, which formats floating-point
+     values exactly as the default formatter into character or byte buffers.
+     The scalar format is created from the default formatter of the current
+     thread, and it is created again after FuzzyLite::setDecimals() changes
+     the default formatter.
+
+     @return the scalar format of the current thread
+     */
+    public static ScalarFormat getScalarFormat() {
+        final DecimalFormat formatter = FORMATTER.get();
+        ScalarFormat result = SCALAR_FORMAT.get();
+        if (result == null || result.getFormatter() != formatter) {
+            result = new ScalarFormat(formatter);
+            SCALAR_FORMAT.set(result);
+        }
+        return result;
+    }
+
     /**
      Returns the number of decimals utilized when formatting scalar values
 
@@ -147,6 +176,7 @@ public class FuzzyLite {
      are considered equivalent (default is 1e-6)
      */
     public static void setMachEps(double macheps) {
+        MODIFICATIONS.incrementAndGet();
         FuzzyLite.macheps = macheps;
     }
 
@@ -194,4 +224,77 @@ public class FuzzyLite {
         return FuzzyLite.debugging;
     }
 
+    /**
+     Gets the listener of the events of the inference performed by the engines
+
+     @return the listener of the events of the inference, or `null` if no
+     listener is set
+     */
+    public static InferenceListener getInferenceListener() {
+        return FuzzyLite.inferenceListener;
+    }
+
+    /**
+     Sets the listener of the events of the inference performed by the engines
+
+     @param inferenceListener is the listener of the events of the inference,
+     or `null` to not notify the events
+     */
+    public static void setInferenceListener(InferenceListener inferenceListener) {
+        FuzzyLite.inferenceListener = inferenceListener;
+    }
+
+    /**
+     Gets the number of modifications made to the structure of the components
+     of the engines, which is incremented whenever any variable, term, rule
+     block, rule, activation method or defuzzifier is configured. The values
+     of the variables and the state of the inference are not part of the
+     structure, and the variables and rule blocks added to or removed from an
+     engine are counted by Engine::getModifications() instead.
+
+     @return the number of modifications made to the structure of the
+     components of the engines
+     @see ResultCache
+     */
+    public static long getModifications() {
+        return MODIFICATIONS.get();
+    }
+
+    /**
+     Records a modification to the structure of a component of an engine,
+     unless the modifications are suspended in the current thread (see
+     FuzzyLite::suspendModifications()). The modifiers of the library call
+     this method, but modifications made directly on the lists and maps
+     returned by the accessors (e.g., Variable::getTerms(),
+     Linear::getCoefficients(), or Function::getVariables()) must be recorded
+     by calling this method.
+     */
+    public static void modified() {
+        if (SUSPENSIONS.get()[0] == 0) {
+            MODIFICATIONS.incrementAndGet();
+        }
+    }
+
+    /**
+     Suspends the recording of modifications in the current thread until
+     FuzzyLite::resumeModifications() is called, which is utilized while
+     building new components that no engine refers to yet (e.g., upon cloning
+     or importing an engine), such that they do not invalidate the caches of
+     the existing engines. The suspensions can be nested.
+     */
+    public static void suspendModifications() {
+        ++SUSPENSIONS.get()[0];
+    }
+
+    /**
+     Resumes the recording of modifications in the current thread suspended by
+     FuzzyLite::suspendModifications()
+     */
+    public static void resumeModifications() {
+        final int[] suspensions = SUSPENSIONS.get();
+        if (suspensions[0] > 0) {
+            --suspensions[0];
+        }
+    }
+
 }
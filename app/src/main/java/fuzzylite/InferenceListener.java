@@ -0,0 +1,83 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.Rule;
+import fuzzylite.term.Term;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+
+/**
+ The InferenceListener interface receives the events of the inference
+ performed by Engine::process() and Engine::process(EvaluationContext), which
+ is set via FuzzyLite::setInferenceListener(). The events carry references to
+ the objects involved and primitive values, so that no objects are allocated
+ to notify them, and no events are created when no listener is set.
+
+ The events are notified from the thread that processes the engine, and hence
+ a listener shared by concurrent evaluations utilizing EvaluationContext%s must
+ be thread-safe. The events are not notified when the output values are
+ retrieved from a ResultCache, nor by the CompiledEngine, the
+ LookupTableEngine, or the BatchProcessor.
+
+ @see FuzzyLite::setInferenceListener()
+ @see InferenceTrace
+ @since 6.0
+ */
+public interface InferenceListener {
+
+    /**
+     Notifies that the engine started to process its input values
+
+     @param engine is the engine
+     */
+    void inferenceStarted(Engine engine);
+
+    /**
+     Notifies the value of an enabled input variable utilized in the inference
+
+     @param inputVariable is the input variable
+     @param value is the input value
+     */
+    void inputSet(InputVariable inputVariable, double value);
+
+    /**
+     Notifies that a rule was activated and its implication is triggered
+
+     @param rule is the rule
+     @param activationDegree is the activation degree of the rule
+     */
+    void ruleActivated(Rule rule, double activationDegree);
+
+    /**
+     Notifies that a term was activated and aggregated into the fuzzy output
+     value of an output variable
+
+     @param outputVariable is the output variable
+     @param term is the term of the output variable
+     @param degree is the activation degree of the term after the hedges
+     */
+    void termAggregated(OutputVariable outputVariable, Term term, double degree);
+
+    /**
+     Notifies the value of an output variable after its defuzzification
+
+     @param outputVariable is the output variable
+     @param value is the output value
+     */
+    void outputDefuzzified(OutputVariable outputVariable, double value);
+}
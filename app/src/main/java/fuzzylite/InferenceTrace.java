@@ -0,0 +1,254 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.Rule;
+import fuzzylite.term.Term;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+/**
+ The InferenceTrace class is an InferenceListener that records the most recent
+ events of the inference into a ring buffer of fixed capacity for post-mortem
+ analysis, overwriting the oldest events when the buffer is full. The events
+ are stored in preallocated arrays, and hence recording an event does not
+ allocate memory. The trace is thread-safe, and the string representation of
+ the trace is only created when requested.
+
+ @see InferenceListener
+ @see FuzzyLite::setInferenceListener()
+ @since 6.0
+ */
+public class InferenceTrace implements InferenceListener {
+
+    /**
+     The Kind enum indicates the kind of event recorded in the trace
+     */
+    public enum Kind {
+        /**
+         Started: the engine started to process its input values
+         */
+        Started,
+        /**
+         Input: the value of an input variable utilized in the inference
+         */
+        Input,
+        /**
+         Rule: a rule was activated with an activation degree
+         */
+        Rule,
+        /**
+         Term: a term was aggregated into a fuzzy output value with a degree
+         */
+        Term,
+        /**
+         Output: the defuzzified value of an output variable
+         */
+        Output
+    }
+
+    private final Kind[] kinds;
+    private final Object[] subjects;
+    private final Term[] terms;
+    private final double[] values;
+    private long recorded;
+
+    public InferenceTrace() {
+        this(1024);
+    }
+
+    public InferenceTrace(int capacity) {
+        if (capacity <= 0) {
+            throw new RuntimeException(String.format(
+                    "[trace error] expected a positive capacity, but got <%d>", capacity));
+        }
+        this.kinds = new Kind[capacity];
+        this.subjects = new Object[capacity];
+        this.terms = new Term[capacity];
+        this.values = new double[capacity];
+        this.recorded = 0;
+    }
+
+    private synchronized void record(Kind kind, Object subject, Term term, double value) {
+        final int index = (int) (recorded % kinds.length);
+        kinds[index] = kind;
+        subjects[index] = subject;
+        terms[index] = term;
+        values[index] = value;
+        ++recorded;
+    }
+
+    @Override
+    public void inferenceStarted(Engine engine) {
+        record(Kind.Started, engine, null, Double.NaN);
+    }
+
+    @Override
+    public void inputSet(InputVariable inputVariable, double value) {
+        record(Kind.Input, inputVariable, null, value);
+    }
+
+    @Override
+    public void ruleActivated(Rule rule, double activationDegree) {
+        record(Kind.Rule, rule, null, activationDegree);
+    }
+
+    @Override
+    public void termAggregated(OutputVariable outputVariable, Term term, double degree) {
+        record(Kind.Term, outputVariable, term, degree);
+    }
+
+    @Override
+    public void outputDefuzzified(OutputVariable outputVariable, double value) {
+        record(Kind.Output, outputVariable, null, value);
+    }
+
+    /**
+     Gets the maximum number of events stored in the trace
+
+     @return the maximum number of events stored in the trace
+     */
+    public int capacity() {
+        return kinds.length;
+    }
+
+    /**
+     Gets the number of events stored in the trace
+
+     @return the number of events stored in the trace
+     */
+    public synchronized int size() {
+        return (int) Math.min(recorded, kinds.length);
+    }
+
+    /**
+     Gets the number of events recorded since the trace was created or
+     cleared, including the events that were overwritten
+
+     @return the number of events recorded
+     */
+    public synchronized long recorded() {
+        return recorded;
+    }
+
+    /**
+     Gets the kind of the event at the given position, where the oldest event
+     stored is at position zero
+
+     @param position is the position of the event
+     @return the kind of the event
+     */
+    public synchronized Kind kind(int position) {
+        return kinds[index(position)];
+    }
+
+    /**
+     Gets the subject of the event at the given position, which is the Engine,
+     the InputVariable, the Rule, or the OutputVariable of the event
+
+     @param position is the position of the event
+     @return the subject of the event
+     */
+    public synchronized Object subject(int position) {
+        return subjects[index(position)];
+    }
+
+    /**
+     Gets the term of the event at the given position
+
+     @param position is the position of the event
+     @return the term aggregated in a Kind::Term event, or `null` otherwise
+     */
+    public synchronized Term term(int position) {
+        return terms[index(position)];
+    }
+
+    /**
+     Gets the value of the event at the given position, which is the input
+     value, the activation degree, or the output value of the event
+
+     @param position is the position of the event
+     @return the value of the event
+     */
+    public synchronized double value(int position) {
+        return values[index(position)];
+    }
+
+    private int index(int position) {
+        final int size = (int) Math.min(recorded, kinds.length);
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "[trace error] position <%d> out of bounds <%d>", position, size));
+        }
+        return (int) ((recorded - size + position) % kinds.length);
+    }
+
+    /**
+     Removes the events stored in the trace
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < kinds.length; ++i) {
+            kinds[i] = null;
+            subjects[i] = null;
+            terms[i] = null;
+        }
+        recorded = 0;
+    }
+
+    /**
+     Returns a string representation of the events stored in the trace, one
+     event per line, from the oldest to the most recent
+
+     @return a string representation of the events stored in the trace
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder result = new StringBuilder();
+        final int size = size();
+        for (int position = 0; position < size; ++position) {
+            final int index = index(position);
+            final Object subject = subjects[index];
+            switch (kinds[index]) {
+                case Started:
+                    result.append("engine: ").append(((Engine) subject).getName());
+                    break;
+                case Input:
+                    result.append(((Variable) subject).getName()).append(".input = ")
+                            .append(Op.str(values[index]));
+                    break;
+                case Rule:
+                    result.append("[firing with ").append(Op.str(values[index]))
+                            .append("] ").append(((Rule) subject).getText());
+                    break;
+                case Term:
+                    result.append("aggregating ").append(Op.str(values[index]))
+                            .append("/").append(terms[index].getName())
+                            .append(" into ").append(((Variable) subject).getName());
+                    break;
+                case Output:
+                    result.append(((Variable) subject).getName()).append(".output = ")
+                            .append(Op.str(values[index]));
+                    break;
+                default:
+                    break;
+            }
+            result.append("\n");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,680 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.imex.FldExporter;
+import fuzzylite.variable.InputVariable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ The LookupTableEngine class is a surrogate of an Engine that stores the output
+ values of the engine sampled on a regular grid of the input space, and answers
+ queries by multilinear interpolation of the output values at the `2^d`
+ vertices of the grid cell that contains the input values, where `d` is the
+ number of input variables. The grid is iterated as in
+ Benchmark::prepare(int, FldExporter::ScopeOfValues) utilizing Op::increment(),
+ and the output values are stored in a flat vector in which the output values
+ of each vertex are contiguous.
+
+ The lookup table is suitable for engines with few input variables and smooth
+ response surfaces, whose output values at the vertices of the grid are exact
+ and whose output values elsewhere are approximated. The accuracy of the
+ approximation can be estimated with
+ LookupTableEngine::deviation(Engine, int, FldExporter::ScopeOfValues), and the
+ lookup table can be saved to and loaded from a compact binary format.
+
+ The lookup table is immutable, and hence it can be queried concurrently.
+
+ @see Engine
+ @see Benchmark
+ @see FldExporter.ScopeOfValues
+ @since 6.0
+ */
+public class LookupTableEngine {
+
+    /**
+     The Deviation class contains the absolute differences between the output
+     values of a lookup table and the output values of its engine.
+     */
+    public static class Deviation {
+
+        private final String[] outputNames;
+        private final double[] maximum;
+        private final double[] mean;
+        private final int[] undefined;
+        private final int samples;
+
+        Deviation(String[] outputNames, double[] maximum, double[] mean,
+                int[] undefined, int samples) {
+            this.outputNames = outputNames;
+            this.maximum = maximum;
+            this.mean = mean;
+            this.undefined = undefined;
+            this.samples = samples;
+        }
+
+        /**
+         Gets the maximum absolute error of the given output variable
+
+         @param output is the index of the output variable
+         @return the maximum absolute error of the given output variable
+         */
+        public double getMaximum(int output) {
+            return maximum[output];
+        }
+
+        /**
+         Gets the mean absolute error of the given output variable
+
+         @param output is the index of the output variable
+         @return the mean absolute error of the given output variable
+         */
+        public double getMean(int output) {
+            return mean[output];
+        }
+
+        /**
+         Gets the number of samples of the given output variable in which only
+         one of the output values is `NaN`, which are excluded from the errors
+
+         @param output is the index of the output variable
+         @return the number of samples of the given output variable in which
+         only one of the output values is `NaN`
+         */
+        public int getUndefined(int output) {
+            return undefined[output];
+        }
+
+        /**
+         Gets the number of samples on which the errors were computed
+
+         @return the number of samples on which the errors were computed
+         */
+        public int getSamples() {
+            return samples;
+        }
+
+        /**
+         Gets the number of output variables
+
+         @return the number of output variables
+         */
+        public int numberOfOutputVariables() {
+            return outputNames.length;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < outputNames.length; ++i) {
+                if (i > 0) {
+                    result.append("\n");
+                }
+                result.append(String.format("%s: max=%s mean=%s (samples=%d, undefined=%d)",
+                        outputNames[i], Op.str(maximum[i]), Op.str(mean[i]),
+                        samples, undefined[i]));
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     Identifier of the binary format of the lookup table
+     */
+    public static final int MAGIC = 0x464c5554; //FLUT
+    /**
+     Version of the binary format of the lookup table
+     */
+    public static final int VERSION = 1;
+
+    /*
+     * Number of rows of the batches utilized to sample the engine
+     */
+    private static final int BATCH_SIZE = 4096;
+    /*
+     * Maximum number of input variables, given by the vertices of a grid cell
+     */
+    private static final int MAXIMUM_INPUTS = 30;
+
+    private final String[] inputNames;
+    private final String[] outputNames;
+    private final double[] minimum;
+    private final double[] maximum;
+    private final int[] points;
+    private final int[] strides;
+    private final double[] table;
+
+    /**
+     Creates the lookup table of the engine sampled on a grid of values
+     distributed as in Benchmark::prepare(int, FldExporter::ScopeOfValues)
+
+     @param engine is the engine to sample
+     @param values is the number of values to sample
+     @param scope is the scope of the values to sample
+     */
+    public LookupTableEngine(Engine engine, int values, FldExporter.ScopeOfValues scope) {
+        this(engine, gridPoints(engine, values, scope));
+    }
+
+    /**
+     Creates the lookup table of the engine sampled on a grid with the given
+     number of points for each input variable, which are equally spaced from
+     the minimum to the maximum of the input variable (inclusive)
+
+     @param engine is the engine to sample
+     @param points is the number of points for each input variable
+     @throws RuntimeException if the number of points does not match the number
+     of input variables, or if any number of points is less than one
+     */
+    public LookupTableEngine(Engine engine, int[] points) {
+        if (points.length != engine.numberOfInputVariables()) {
+            throw new RuntimeException(String.format("[lookup table error] "
+                    + "expected the number of points of <%d> input variables, but got <%d>",
+                    engine.numberOfInputVariables(), points.length));
+        }
+        if (points.length > MAXIMUM_INPUTS) {
+            throw new RuntimeException(String.format("[lookup table error] "
+                    + "expected at most <%d> input variables, but got <%d>",
+                    MAXIMUM_INPUTS, points.length));
+        }
+        final int inputs = engine.numberOfInputVariables();
+        final int outputs = engine.numberOfOutputVariables();
+        this.inputNames = new String[inputs];
+        this.outputNames = new String[outputs];
+        this.minimum = new double[inputs];
+        this.maximum = new double[inputs];
+        this.points = points.clone();
+        for (int i = 0; i < inputs; ++i) {
+            InputVariable inputVariable = engine.getInputVariable(i);
+            inputNames[i] = inputVariable.getName();
+            minimum[i] = inputVariable.getMinimum();
+            maximum[i] = inputVariable.getMaximum();
+        }
+        for (int i = 0; i < outputs; ++i) {
+            outputNames[i] = engine.getOutputVariable(i).getName();
+        }
+        this.strides = strides(this.points, outputs);
+        this.table = new double[size(this.points, outputs)];
+        sample(engine);
+    }
+
+    private LookupTableEngine(String[] inputNames, String[] outputNames,
+            double[] minimum, double[] maximum, int[] points, double[] table) {
+        this.inputNames = inputNames;
+        this.outputNames = outputNames;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.points = points;
+        this.strides = strides(points, outputNames.length);
+        this.table = table;
+    }
+
+    private static int[] gridPoints(Engine engine, int values, FldExporter.ScopeOfValues scope) {
+        int resolution;
+        if (scope == FldExporter.ScopeOfValues.AllVariables) {
+            resolution = -1 + (int) Math.max(1.0, Math.pow(
+                    values, 1.0 / engine.numberOfInputVariables()));
+        } else {//if (scope == EachVariable
+            resolution = values - 1;
+        }
+        int[] result = new int[engine.numberOfInputVariables()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = Math.max(1, resolution + 1);
+        }
+        return result;
+    }
+
+    private static int[] strides(int[] points, int outputs) {
+        int[] result = new int[points.length];
+        int stride = outputs;
+        for (int i = points.length - 1; i >= 0; --i) {
+            result[i] = stride;
+            stride *= points[i];
+        }
+        return result;
+    }
+
+    private static int size(int[] points, int outputs) {
+        long result = outputs;
+        for (int i = 0; i < points.length; ++i) {
+            if (points[i] < 1) {
+                throw new RuntimeException(String.format("[lookup table error] "
+                        + "expected at least one point for input variable <%d>, but got <%d>",
+                        i, points[i]));
+            }
+            result *= points[i];
+        }
+        if (result > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException(String.format("[lookup table error] "
+                    + "the lookup table of <%d> values is too large", result));
+        }
+        return (int) result;
+    }
+
+    /**
+     Samples the engine at each vertex of the grid in batches utilizing
+     Engine::processBatch(), whereby the vertices are iterated utilizing
+     Op::increment()
+
+     @param engine is the engine to sample
+     */
+    private void sample(Engine engine) {
+        final int inputs = inputNames.length;
+        final int outputs = outputNames.length;
+        final int vertices = outputs == 0 ? 0 : table.length / outputs;
+        int[] sampleValues = new int[inputs];
+        int[] minSampleValues = new int[inputs];
+        int[] maxSampleValues = new int[inputs];
+        for (int i = 0; i < inputs; ++i) {
+            maxSampleValues[i] = points[i] - 1;
+        }
+        EvaluationContext context = new EvaluationContext(engine);
+        int vertex = 0;
+        while (vertex < vertices) {
+            final int rows = Math.min(BATCH_SIZE, vertices - vertex);
+            double[][] inputValues = new double[inputs][rows];
+            double[][] outputValues = new double[outputs][rows];
+            for (int row = 0; row < rows; ++row) {
+                for (int i = 0; i < inputs; ++i) {
+                    inputValues[i][row] = valueAt(i, sampleValues[i]);
+                }
+                Op.increment(sampleValues, minSampleValues, maxSampleValues);
+            }
+            engine.processBatch(inputValues, outputValues, context);
+            for (int row = 0; row < rows; ++row) {
+                final int offset = (vertex + row) * outputs;
+                for (int o = 0; o < outputs; ++o) {
+                    table[offset + o] = outputValues[o][row];
+                }
+            }
+            vertex += rows;
+        }
+    }
+
+    private double valueAt(int input, int point) {
+        return minimum[input]
+                + point * (maximum[input] - minimum[input]) / Math.max(1, points[input] - 1);
+    }
+
+    /**
+     Computes the output values for the given input values by multilinear
+     interpolation of the output values at the vertices of the grid cell that
+     contains the input values. Input values outside the range of the input
+     variables are clamped to the range, and input values that are `NaN` result
+     in output values that are `NaN`.
+
+     @param inputValues is the vector of input values, one for each input
+     variable
+     @param outputValues is the vector where the output values are stored, one
+     for each output variable
+     */
+    public void process(double[] inputValues, double[] outputValues) {
+        final int inputs = inputNames.length;
+        final int outputs = outputNames.length;
+        for (int o = 0; o < outputs; ++o) {
+            outputValues[o] = 0.0;
+        }
+        double[] fraction = new double[inputs];
+        int base = 0;
+        for (int i = 0; i < inputs; ++i) {
+            final double x = inputValues[i];
+            if (Double.isNaN(x)) {
+                for (int o = 0; o < outputs; ++o) {
+                    outputValues[o] = Double.NaN;
+                }
+                return;
+            }
+            if (points[i] == 1) {
+                fraction[i] = 0.0;
+                continue;
+            }
+            final double range = maximum[i] - minimum[i];
+            double position = range > 0.0
+                    ? (x - minimum[i]) / range * (points[i] - 1) : 0.0;
+            if (position < 0.0) {
+                position = 0.0;
+            } else if (position > points[i] - 1) {
+                position = points[i] - 1;
+            }
+            int cell = (int) position;
+            if (cell == points[i] - 1) {
+                --cell;
+            }
+            fraction[i] = position - cell;
+            base += cell * strides[i];
+        }
+
+        final int vertices = 1 << inputs;
+        for (int vertex = 0; vertex < vertices; ++vertex) {
+            double weight = 1.0;
+            int offset = base;
+            for (int i = 0; i < inputs && weight != 0.0; ++i) {
+                if ((vertex & (1 << (inputs - 1 - i))) != 0) {
+                    weight *= fraction[i];
+                    offset += strides[i];
+                } else {
+                    weight *= 1.0 - fraction[i];
+                }
+            }
+            if (weight != 0.0) {
+                for (int o = 0; o < outputs; ++o) {
+                    outputValues[o] += weight * table[offset + o];
+                }
+            }
+        }
+    }
+
+    /**
+     Computes the output value of the given output variable for the given input
+     values by multilinear interpolation
+
+     @param inputValues is the vector of input values, one for each input
+     variable
+     @param output is the index of the output variable
+     @return the output value of the given output variable
+     @see LookupTableEngine::process(double[], double[])
+     */
+    public double process(double[] inputValues, int output) {
+        double[] outputValues = new double[outputNames.length];
+        process(inputValues, outputValues);
+        return outputValues[output];
+    }
+
+    /**
+     Computes the absolute differences between the output values of the lookup
+     table and the output values of the given engine on a grid of values
+     distributed as in Benchmark::prepare(int, FldExporter::ScopeOfValues), but
+     shifted by half a step so that the values are at the centres of the grid
+     cells rather than at the vertices. Pairs of output values that are both
+     `NaN` are considered equal, and pairs where only one of the output values
+     is `NaN` are counted as undefined and excluded from the errors.
+
+     @param engine is the engine whose lookup table is this
+     @param values is the number of values to compare
+     @param scope is the scope of the values to compare
+     @return the maximum and mean absolute errors of each output variable
+     @throws RuntimeException if the engine does not have the same number of
+     input and output variables as the lookup table
+     */
+    public Deviation deviation(Engine engine, int values, FldExporter.ScopeOfValues scope) {
+        final int inputs = inputNames.length;
+        final int outputs = outputNames.length;
+        if (engine.numberOfInputVariables() != inputs
+                || engine.numberOfOutputVariables() != outputs) {
+            throw new RuntimeException(String.format("[lookup table error] "
+                    + "expected an engine with <%d> input variables and <%d> output "
+                    + "variables, but got <%d> and <%d>", inputs, outputs,
+                    engine.numberOfInputVariables(), engine.numberOfOutputVariables()));
+        }
+        int[] samplePoints = gridPoints(engine, values, scope);
+        long total = 1;
+        for (int i = 0; i < inputs; ++i) {
+            total *= samplePoints[i];
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new RuntimeException(String.format("[lookup table error] "
+                    + "the number of samples <%d> is too large", total));
+        }
+        final int samples = (int) total;
+        int[] sampleValues = new int[inputs];
+        int[] minSampleValues = new int[inputs];
+        int[] maxSampleValues = new int[inputs];
+        for (int i = 0; i < inputs; ++i) {
+            maxSampleValues[i] = samplePoints[i] - 1;
+        }
+
+        double[] maximumError = new double[outputs];
+        double[] meanError = new double[outputs];
+        int[] undefined = new int[outputs];
+        double[] inputValues = new double[inputs];
+        double[] approximation = new double[outputs];
+        EvaluationContext context = new EvaluationContext(engine);
+        int sample = 0;
+        while (sample < samples) {
+            final int rows = Math.min(BATCH_SIZE, samples - sample);
+            double[][] inputColumns = new double[inputs][rows];
+            double[][] outputColumns = new double[outputs][rows];
+            for (int row = 0; row < rows; ++row) {
+                for (int i = 0; i < inputs; ++i) {
+                    inputColumns[i][row] = minimum[i] + (sampleValues[i] + 0.5)
+                            * (maximum[i] - minimum[i]) / samplePoints[i];
+                }
+                Op.increment(sampleValues, minSampleValues, maxSampleValues);
+            }
+            engine.processBatch(inputColumns, outputColumns, context);
+            for (int row = 0; row < rows; ++row) {
+                for (int i = 0; i < inputs; ++i) {
+                    inputValues[i] = inputColumns[i][row];
+                }
+                process(inputValues, approximation);
+                for (int o = 0; o < outputs; ++o) {
+                    final double expected = outputColumns[o][row];
+                    final double obtained = approximation[o];
+                    double error;
+                    if (Double.isNaN(expected) && Double.isNaN(obtained)) {
+                        error = 0.0;
+                    } else if (Double.isNaN(expected) || Double.isNaN(obtained)) {
+                        ++undefined[o];
+                        continue;
+                    } else {
+                        error = Math.abs(expected - obtained);
+                    }
+                    maximumError[o] = Math.max(maximumError[o], error);
+                    meanError[o] += error;
+                }
+            }
+            sample += rows;
+        }
+        for (int o = 0; o < outputs; ++o) {
+            final int defined = samples - undefined[o];
+            meanError[o] = defined == 0 ? Double.NaN : meanError[o] / defined;
+        }
+        return new Deviation(outputNames.clone(), maximumError, meanError,
+                undefined, samples);
+    }
+
+    /**
+     Saves the lookup table to the given file in binary format
+
+     @param file is the file to save the lookup table to
+     @throws IOException if the file cannot be written
+     @see LookupTableEngine::save(OutputStream)
+     */
+    public void save(File file) throws IOException {
+        OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            save(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     Saves the lookup table to the given stream in a binary format, which
+     contains the identifier LookupTableEngine::MAGIC, the version, the number
+     of input and output variables, the name, range and number of points of
+     each input variable, the name of each output variable, and the output
+     values as big-endian doubles
+
+     @param stream is the stream to save the lookup table to, which is not
+     closed
+     @throws IOException if the stream cannot be written
+     */
+    public void save(OutputStream stream) throws IOException {
+        DataOutputStream writer = new DataOutputStream(stream);
+        writer.writeInt(MAGIC);
+        writer.writeInt(VERSION);
+        writer.writeInt(inputNames.length);
+        writer.writeInt(outputNames.length);
+        for (int i = 0; i < inputNames.length; ++i) {
+            writer.writeUTF(inputNames[i]);
+            writer.writeDouble(minimum[i]);
+            writer.writeDouble(maximum[i]);
+            writer.writeInt(points[i]);
+        }
+        for (int i = 0; i < outputNames.length; ++i) {
+            writer.writeUTF(outputNames[i]);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8 * BATCH_SIZE);
+        for (int i = 0; i < table.length; i += BATCH_SIZE) {
+            final int length = Math.min(BATCH_SIZE, table.length - i);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(table, i, length);
+            writer.write(buffer.array(), 0, 8 * length);
+        }
+        writer.flush();
+    }
+
+    /**
+     Loads a lookup table from the given file in binary format
+
+     @param file is the file to load the lookup table from
+     @return the lookup table
+     @throws IOException if the file cannot be read or is not a lookup table
+     @see LookupTableEngine::load(InputStream)
+     */
+    public static LookupTableEngine load(File file) throws IOException {
+        InputStream stream = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return load(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     Loads a lookup table from the given stream in the binary format of
+     LookupTableEngine::save(OutputStream)
+
+     @param stream is the stream to load the lookup table from, which is not
+     closed
+     @return the lookup table
+     @throws IOException if the stream cannot be read or is not a lookup table
+     */
+    public static LookupTableEngine load(InputStream stream) throws IOException {
+        DataInputStream reader = new DataInputStream(stream);
+        if (reader.readInt() != MAGIC) {
+            throw new IOException("[lookup table error] the stream does not contain a lookup table");
+        }
+        int version = reader.readInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("[lookup table error] "
+                    + "version <%d> of lookup table not supported", version));
+        }
+        final int inputs = reader.readInt();
+        final int outputs = reader.readInt();
+        if (inputs < 0 || inputs > MAXIMUM_INPUTS || outputs < 0) {
+            throw new IOException(String.format("[lookup table error] "
+                    + "invalid number of input <%d> or output <%d> variables", inputs, outputs));
+        }
+        String[] inputNames = new String[inputs];
+        double[] minimum = new double[inputs];
+        double[] maximum = new double[inputs];
+        int[] points = new int[inputs];
+        for (int i = 0; i < inputs; ++i) {
+            inputNames[i] = reader.readUTF();
+            minimum[i] = reader.readDouble();
+            maximum[i] = reader.readDouble();
+            points[i] = reader.readInt();
+        }
+        String[] outputNames = new String[outputs];
+        for (int i = 0; i < outputs; ++i) {
+            outputNames[i] = reader.readUTF();
+        }
+        double[] table;
+        try {
+            table = new double[size(points, outputs)];
+        } catch (RuntimeException ex) {
+            throw new IOException(ex.getMessage());
+        }
+        byte[] bytes = new byte[8 * BATCH_SIZE];
+        for (int i = 0; i < table.length; i += BATCH_SIZE) {
+            final int length = Math.min(BATCH_SIZE, table.length - i);
+            reader.readFully(bytes, 0, 8 * length);
+            ByteBuffer.wrap(bytes, 0, 8 * length).asDoubleBuffer().get(table, i, length);
+        }
+        return new LookupTableEngine(inputNames, outputNames, minimum, maximum, points, table);
+    }
+
+    /**
+     Gets the number of input variables
+
+     @return the number of input variables
+     */
+    public int numberOfInputVariables() {
+        return inputNames.length;
+    }
+
+    /**
+     Gets the number of output variables
+
+     @return the number of output variables
+     */
+    public int numberOfOutputVariables() {
+        return outputNames.length;
+    }
+
+    /**
+     Gets the name of the given input variable
+
+     @param input is the index of the input variable
+     @return the name of the given input variable
+     */
+    public String getInputName(int input) {
+        return inputNames[input];
+    }
+
+    /**
+     Gets the name of the given output variable
+
+     @param output is the index of the output variable
+     @return the name of the given output variable
+     */
+    public String getOutputName(int output) {
+        return outputNames[output];
+    }
+
+    /**
+     Gets the number of points of the grid for the given input variable
+
+     @param input is the index of the input variable
+     @return the number of points of the grid for the given input variable
+     */
+    public int getPoints(int input) {
+        return points[input];
+    }
+
+    /**
+     Gets the number of output values stored in the lookup table
+
+     @return the number of output values stored in the lookup table
+     */
+    public int size() {
+        return table.length;
+    }
+}
@@ -0,0 +1,589 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.variable.OutputVariable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ The Metrics class records the time spent by Engine::process() (and
+ Engine::process(EvaluationContext)) in each of its stages, which is utilized
+ when set via Engine::setMetrics(). The metrics consist of the latency of each
+ call to process the engine, the latency of the activation of each rule block,
+ the latency of the defuzzification of each output variable, the number of
+ rules fired, and the number of evaluations of the membership functions of the
+ fuzzy output values (or of their activated terms) during defuzzification. The
+ evaluations are counted by the defuzzifiers (see
+ Defuzzifier::defuzzify(Term, double, double, AtomicLong)), except for those
+ that do not override such a method.
+
+ The latencies are recorded in Metrics.Histogram%s of logarithmic buckets with
+ eight linear sub-buckets each, and hence the percentiles are accurate to
+ within 12.5%. The counters are atomic, and hence the metrics can be shared by
+ concurrent evaluations utilizing EvaluationContext%s. When the engine has no
+ metrics, the cost of the metrics is a single branch per stage.
+
+ The metrics can be read at any time utilizing Metrics::snapshot(), and they
+ can be registered in the platform MBean server where available (see
+ MetricsMBean). The metrics are not recorded by the CompiledEngine, the
+ LookupTableEngine, or the BatchProcessor.
+
+ @see Engine::setMetrics()
+ @see MetricsMBean
+ @since 6.0
+ */
+public class Metrics implements MetricsMBean {
+
+    private final Histogram process;
+    private volatile Histogram[] activations;
+    private volatile Histogram[] defuzzifications;
+    private final AtomicLong rulesFired;
+    private final AtomicLong membershipEvaluations;
+
+    public Metrics() {
+        this.process = new Histogram();
+        this.activations = new Histogram[0];
+        this.defuzzifications = new Histogram[0];
+        this.rulesFired = new AtomicLong();
+        this.membershipEvaluations = new AtomicLong();
+    }
+
+    /**
+     Gets the histogram of the latency of Engine::process()
+
+     @return the histogram of the latency of Engine::process()
+     */
+    public Histogram process() {
+        return process;
+    }
+
+    /**
+     Gets the histogram of the latency of the activation of the rule block at
+     the given index of the engine
+
+     @param index is the index of the rule block in the engine
+     @return the histogram of the latency of the activation of the rule block
+     */
+    public Histogram activation(int index) {
+        Histogram[] histograms = this.activations;
+        if (index >= histograms.length) {
+            histograms = grow(index, true);
+        }
+        return histograms[index];
+    }
+
+    /**
+     Gets the histogram of the latency of the defuzzification of the output
+     variable at the given index of the engine
+
+     @param index is the index of the output variable in the engine
+     @return the histogram of the latency of the defuzzification of the output
+     variable
+     */
+    public Histogram defuzzification(int index) {
+        Histogram[] histograms = this.defuzzifications;
+        if (index >= histograms.length) {
+            histograms = grow(index, false);
+        }
+        return histograms[index];
+    }
+
+    private synchronized Histogram[] grow(int index, boolean activation) {
+        Histogram[] histograms = activation ? this.activations : this.defuzzifications;
+        if (index < histograms.length) {
+            return histograms;
+        }
+        Histogram[] result = new Histogram[index + 1];
+        System.arraycopy(histograms, 0, result, 0, histograms.length);
+        for (int i = histograms.length; i < result.length; ++i) {
+            result[i] = new Histogram();
+        }
+        if (activation) {
+            this.activations = result;
+        } else {
+            this.defuzzifications = result;
+        }
+        return result;
+    }
+
+    /**
+     Processes the engine as in Engine::process() recording its latency
+
+     @param engine is the engine to process
+     */
+    void process(Engine engine) {
+        final long start = System.nanoTime();
+        if (engine.getResultCache() != null) {
+            engine.getResultCache().process(engine);
+        } else {
+            engine.infer();
+        }
+        process.record(System.nanoTime() - start);
+    }
+
+    /**
+     Processes the engine as in Engine::process(EvaluationContext) recording
+     its latency
+
+     @param engine is the engine to process
+     @param context is the evaluation context
+     */
+    void process(Engine engine, EvaluationContext context) {
+        final long start = System.nanoTime();
+        engine.infer(context);
+        process.record(System.nanoTime() - start);
+    }
+
+    /**
+     Activates the rule block recording its latency and the number of rules
+     fired
+
+     @param ruleBlock is the rule block to activate
+     @param index is the index of the rule block in the engine
+     */
+    void activate(RuleBlock ruleBlock, int index) {
+        final long start = System.nanoTime();
+        ruleBlock.activate();
+        activation(index).record(System.nanoTime() - start);
+        long fired = 0;
+        for (Rule rule : ruleBlock.getRules()) {
+            if (rule.isTriggered()) {
+                ++fired;
+            }
+        }
+        rulesFired.addAndGet(fired);
+    }
+
+    /**
+     Activates the rule block utilizing the evaluation context recording its
+     latency and the number of rules fired
+
+     @param ruleBlock is the rule block to activate
+     @param index is the index of the rule block in the engine
+     @param context is the evaluation context
+     */
+    void activate(RuleBlock ruleBlock, int index, EvaluationContext context) {
+        final long start = System.nanoTime();
+        ruleBlock.activate(context);
+        activation(index).record(System.nanoTime() - start);
+        long fired = 0;
+        for (boolean triggered : context.triggered(ruleBlock)) {
+            if (triggered) {
+                ++fired;
+            }
+        }
+        rulesFired.addAndGet(fired);
+    }
+
+    /**
+     Defuzzifies the output variable recording its latency and the number of
+     evaluations of the membership functions performed by its defuzzifier
+
+     @param outputVariable is the output variable to defuzzify
+     @param index is the index of the output variable in the engine
+     */
+    void defuzzify(OutputVariable outputVariable, int index) {
+        final long start = System.nanoTime();
+        outputVariable.defuzzify(membershipEvaluations);
+        defuzzification(index).record(System.nanoTime() - start);
+    }
+
+    /**
+     Defuzzifies the output variable utilizing the evaluation context recording
+     its latency and the number of evaluations of the membership functions
+     performed by its defuzzifier
+
+     @param outputVariable is the output variable to defuzzify
+     @param index is the index of the output variable in the engine
+     @param context is the evaluation context
+     */
+    void defuzzify(OutputVariable outputVariable, int index, EvaluationContext context) {
+        final long start = System.nanoTime();
+        outputVariable.defuzzify(context, membershipEvaluations);
+        defuzzification(index).record(System.nanoTime() - start);
+    }
+
+    /**
+     Creates a snapshot of the metrics. The snapshot is not atomic with respect
+     to concurrent evaluations, but each of its values is consistent.
+
+     @return a snapshot of the metrics
+     */
+    public Snapshot snapshot() {
+        Histogram[] activations = this.activations;
+        Histogram[] defuzzifications = this.defuzzifications;
+        Statistics[] activationStatistics = new Statistics[activations.length];
+        for (int i = 0; i < activations.length; ++i) {
+            activationStatistics[i] = activations[i].statistics();
+        }
+        Statistics[] defuzzificationStatistics = new Statistics[defuzzifications.length];
+        for (int i = 0; i < defuzzifications.length; ++i) {
+            defuzzificationStatistics[i] = defuzzifications[i].statistics();
+        }
+        return new Snapshot(process.statistics(), activationStatistics,
+                defuzzificationStatistics, rulesFired.get(), membershipEvaluations.get());
+    }
+
+    @Override
+    public long getProcessCount() {
+        return process.getCount();
+    }
+
+    @Override
+    public double getProcessMeanNanos() {
+        return process.mean();
+    }
+
+    @Override
+    public long getProcessMedianNanos() {
+        return process.percentile(50.0);
+    }
+
+    @Override
+    public long getProcess99thPercentileNanos() {
+        return process.percentile(99.0);
+    }
+
+    @Override
+    public long getProcessMaximumNanos() {
+        return process.getMaximum();
+    }
+
+    @Override
+    public long getActivationNanos() {
+        long result = 0;
+        for (Histogram histogram : activations) {
+            result += histogram.getTotal();
+        }
+        return result;
+    }
+
+    @Override
+    public long getDefuzzificationNanos() {
+        long result = 0;
+        for (Histogram histogram : defuzzifications) {
+            result += histogram.getTotal();
+        }
+        return result;
+    }
+
+    @Override
+    public long getRulesFired() {
+        return rulesFired.get();
+    }
+
+    @Override
+    public long getMembershipEvaluations() {
+        return membershipEvaluations.get();
+    }
+
+    @Override
+    public synchronized void reset() {
+        process.reset();
+        this.activations = new Histogram[0];
+        this.defuzzifications = new Histogram[0];
+        rulesFired.set(0);
+        membershipEvaluations.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     The Histogram class records non-negative values (e.g., latencies in
+     nanoseconds) in logarithmic buckets of base two, each divided into eight
+     linear sub-buckets, utilizing atomic counters.
+     */
+    public static class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts;
+        private final AtomicLong count;
+        private final AtomicLong total;
+        private final AtomicLong maximum;
+
+        public Histogram() {
+            this.counts = new AtomicLongArray(BUCKETS);
+            this.count = new AtomicLong();
+            this.total = new AtomicLong();
+            this.maximum = new AtomicLong();
+        }
+
+        /**
+         Records the given value, where negative values are recorded as zero
+
+         @param value is the value to record
+         */
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            counts.incrementAndGet(bucket(value));
+            count.incrementAndGet();
+            total.addAndGet(value);
+            long current = maximum.get();
+            while (value > current && !maximum.compareAndSet(current, value)) {
+                current = maximum.get();
+            }
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            final int exponent = 63 - Long.numberOfLeadingZeros(value);
+            final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            final long subBucket = bucket % SUB_BUCKETS;
+            final long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+            return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        /**
+         Gets the number of values recorded
+
+         @return the number of values recorded
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         Gets the sum of the values recorded
+
+         @return the sum of the values recorded
+         */
+        public long getTotal() {
+            return total.get();
+        }
+
+        /**
+         Gets the maximum value recorded
+
+         @return the maximum value recorded, or zero if no values are recorded
+         */
+        public long getMaximum() {
+            return maximum.get();
+        }
+
+        /**
+         Computes the mean of the values recorded
+
+         @return the mean of the values recorded, or `NaN` if no values are
+         recorded
+         */
+        public double mean() {
+            final long count = this.count.get();
+            return count == 0 ? Double.NaN : total.get() / (double) count;
+        }
+
+        /**
+         Computes the given percentile of the values recorded as the upper bound
+         of the bucket that contains it, which is at most the maximum value
+
+         @param percentile is the percentile in `[0, 100]`
+         @return the percentile of the values recorded, or zero if no values are
+         recorded
+         */
+        public long percentile(double percentile) {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                count += counts.get(i);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long accumulated = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                accumulated += counts.get(i);
+                if (accumulated >= rank) {
+                    return Math.min(upperBound(i), maximum.get());
+                }
+            }
+            return maximum.get();
+        }
+
+        /**
+         Computes the statistics of the values recorded
+
+         @return the statistics of the values recorded
+         */
+        public Statistics statistics() {
+            return new Statistics(getCount(), getTotal(), mean(),
+                    percentile(50.0), percentile(90.0), percentile(99.0), getMaximum());
+        }
+
+        /**
+         Resets the histogram
+         */
+        public void reset() {
+            for (int i = 0; i < BUCKETS; ++i) {
+                counts.set(i, 0);
+            }
+            count.set(0);
+            total.set(0);
+            maximum.set(0);
+        }
+    }
+
+    /**
+     The Statistics class is an immutable summary of a Metrics.Histogram
+     */
+    public static class Statistics {
+
+        private final long count;
+        private final long total;
+        private final double mean;
+        private final long median;
+        private final long percentile90;
+        private final long percentile99;
+        private final long maximum;
+
+        public Statistics(long count, long total, double mean, long median,
+                long percentile90, long percentile99, long maximum) {
+            this.count = count;
+            this.total = total;
+            this.mean = mean;
+            this.median = median;
+            this.percentile90 = percentile90;
+            this.percentile99 = percentile99;
+            this.maximum = maximum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getMedian() {
+            return median;
+        }
+
+        public long getPercentile90() {
+            return percentile90;
+        }
+
+        public long getPercentile99() {
+            return percentile99;
+        }
+
+        public long getMaximum() {
+            return maximum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%s p50=%d p90=%d p99=%d max=%d",
+                    count, Op.str(mean), median, percentile90, percentile99, maximum);
+        }
+    }
+
+    /**
+     The Snapshot class is an immutable copy of the Metrics, where the
+     latencies of the rule blocks and output variables are indexed as in the
+     engine.
+     */
+    public static class Snapshot {
+
+        private final Statistics process;
+        private final Statistics[] activations;
+        private final Statistics[] defuzzifications;
+        private final long rulesFired;
+        private final long membershipEvaluations;
+
+        public Snapshot(Statistics process, Statistics[] activations,
+                Statistics[] defuzzifications, long rulesFired,
+                long membershipEvaluations) {
+            this.process = process;
+            this.activations = activations;
+            this.defuzzifications = defuzzifications;
+            this.rulesFired = rulesFired;
+            this.membershipEvaluations = membershipEvaluations;
+        }
+
+        public Statistics getProcess() {
+            return process;
+        }
+
+        public Statistics[] getActivations() {
+            return activations.clone();
+        }
+
+        public Statistics[] getDefuzzifications() {
+            return defuzzifications.clone();
+        }
+
+        public long getRulesFired() {
+            return rulesFired;
+        }
+
+        public long getMembershipEvaluations() {
+            return membershipEvaluations;
+        }
+
+        /**
+         Computes the mean number of rules fired per call to process the engine
+
+         @return the mean number of rules fired per call to process the engine
+         */
+        public double rulesFiredPerProcess() {
+            return process.getCount() == 0 ? Double.NaN
+                    : rulesFired / (double) process.getCount();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            result.append("process: ").append(process).append("\n");
+            for (int i = 0; i < activations.length; ++i) {
+                result.append("ruleBlock[").append(i).append("]: ")
+                        .append(activations[i]).append("\n");
+            }
+            for (int i = 0; i < defuzzifications.length; ++i) {
+                result.append("outputVariable[").append(i).append("]: ")
+                        .append(defuzzifications[i]).append("\n");
+            }
+            result.append("rulesFired: ").append(rulesFired).append("\n");
+            result.append("membershipEvaluations: ").append(membershipEvaluations);
+            return result.toString();
+        }
+    }
+}
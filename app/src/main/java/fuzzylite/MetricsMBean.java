@@ -0,0 +1,107 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+/**
+ The MetricsMBean interface is the management interface of the Metrics of an
+ Engine following the naming conventions of standard MBeans, such that the
+ metrics can be registered in the platform MBean server of the Java Virtual
+ Machine (where available) as follows:
+
+ `ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new
+ ObjectName("fuzzylite:type=Metrics,name=" + engine.getName()));`
+
+ The times are given in nanoseconds.
+
+ @see Metrics
+ @since 6.0
+ */
+public interface MetricsMBean {
+
+    /**
+     Gets the number of times the engine has been processed
+
+     @return the number of times the engine has been processed
+     */
+    long getProcessCount();
+
+    /**
+     Gets the mean time to process the engine
+
+     @return the mean time to process the engine in nanoseconds
+     */
+    double getProcessMeanNanos();
+
+    /**
+     Gets the median time to process the engine
+
+     @return the median time to process the engine in nanoseconds
+     */
+    long getProcessMedianNanos();
+
+    /**
+     Gets the 99th percentile of the time to process the engine
+
+     @return the 99th percentile of the time to process the engine in
+     nanoseconds
+     */
+    long getProcess99thPercentileNanos();
+
+    /**
+     Gets the maximum time to process the engine
+
+     @return the maximum time to process the engine in nanoseconds
+     */
+    long getProcessMaximumNanos();
+
+    /**
+     Gets the total time spent activating the rule blocks
+
+     @return the total time spent activating the rule blocks in nanoseconds
+     */
+    long getActivationNanos();
+
+    /**
+     Gets the total time spent defuzzifying the output variables
+
+     @return the total time spent defuzzifying the output variables in
+     nanoseconds
+     */
+    long getDefuzzificationNanos();
+
+    /**
+     Gets the total number of rules fired
+
+     @return the total number of rules fired
+     */
+    long getRulesFired();
+
+    /**
+     Gets the total number of evaluations of the membership functions of the
+     fuzzy output values (or of their activated terms) during
+     defuzzification, as counted by the defuzzifiers
+
+     @return the total number of evaluations of the membership functions of the
+     fuzzy output values
+     */
+    long getMembershipEvaluations();
+
+    /**
+     Resets the metrics
+     */
+    void reset();
+}
@@ -0,0 +1,213 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Term;
+import fuzzylite.variable.Variable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ The NameIndex class maps the names of the items in a list to their indexes
+ such that the items are found by name in constant time. The index is built
+ when first utilized after being invalidated, and the index found for a name
+ is validated against the name of the item in the list. Like the linear
+ search, the first item of a given name is found. When the index is built, it
+ is registered in the NameIndex.Registry of each item, such that renaming a
+ variable, term or rule block invalidates only the indexes that contain it.
+
+ The owners of the list invalidate the index when they modify it. If the list
+ is modified directly (e.g., via Engine::getInputVariables()), the items found
+ are still correct when items are added or removed, but replacing an item by
+ another of the same name as a later item requires setting the list again
+ (e.g., via Engine::setInputVariables()) to invalidate the index.
+
+ The index is safe to utilize from multiple threads as long as the list is
+ not modified concurrently.
+
+ @param <T> is the type of the items
+ @author Juan Rada-Vilela, Ph.D.
+ @see Engine
+ @see Variable
+ @since 6.0
+ */
+public abstract class NameIndex<T> {
+
+    private volatile Map<String, Integer> indexes;
+
+    /**
+     Gets the name of the given item
+
+     @param item is the item
+     @return the name of the item
+     */
+    protected abstract String nameOf(T item);
+
+    /**
+     Gets the registry of the indexes that contain the given item
+
+     @param item is the item
+     @return the registry of the indexes that contain the item
+     */
+    protected abstract Registry registryOf(T item);
+
+    /**
+     Invalidates the index, which is built again when next utilized
+     */
+    public void invalidate() {
+        this.indexes = null;
+    }
+
+    /**
+     Finds the index of the first item of the given name in the list
+
+     @param items is the list of items to which this index corresponds
+     @param name is the name of the item
+     @return the index of the first item of the given name, or `-1` if there
+     is no item of the given name
+     */
+    public int indexOf(List<T> items, String name) {
+        if (name == null) {
+            return -1;
+        }
+        Map<String, Integer> indexes = this.indexes;
+        if (indexes == null) {
+            indexes = build(items);
+        }
+        Integer index = indexes.get(name);
+        if (index != null && index < items.size()
+                && name.equals(nameOf(items.get(index)))) {
+            return index;
+        }
+        //the index is outdated if the item is somewhere else in the list
+        for (int i = 0; i < items.size(); ++i) {
+            if (name.equals(nameOf(items.get(i)))) {
+                build(items);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Map<String, Integer> build(List<T> items) {
+        Map<String, Integer> result = new HashMap<String, Integer>(
+                Math.max(16, 2 * items.size()));
+        for (int i = items.size() - 1; i >= 0; --i) {
+            T item = items.get(i);
+            registryOf(item).register(this);
+            result.put(nameOf(item), i);
+        }
+        this.indexes = result;
+        return result;
+    }
+
+    /**
+     The Registry class holds the indexes that contain an item, which are
+     invalidated when the item is renamed. Each variable, term and rule block
+     has its own registry.
+     */
+    public static final class Registry {
+
+        private static final NameIndex<?>[] NONE = new NameIndex<?>[0];
+
+        private NameIndex<?>[] indexes = NONE;
+
+        synchronized void register(NameIndex<?> index) {
+            for (NameIndex<?> registered : indexes) {
+                if (registered == index) {
+                    return;
+                }
+            }
+            indexes = Arrays.copyOf(indexes, indexes.length + 1);
+            indexes[indexes.length - 1] = index;
+        }
+
+        /**
+         Invalidates the indexes that contain the item, which has been
+         renamed. The setters of the names call this method.
+         */
+        public synchronized void renamed() {
+            for (NameIndex<?> index : indexes) {
+                index.invalidate();
+            }
+            indexes = NONE;
+        }
+    }
+
+    /**
+     Creates an index of variables by name
+
+     @param <T> is the type of the variables
+     @return an index of variables by name
+     */
+    public static <T extends Variable> NameIndex<T> ofVariables() {
+        return new NameIndex<T>() {
+            @Override
+            protected String nameOf(T item) {
+                return item.getName();
+            }
+
+            @Override
+            protected Registry registryOf(T item) {
+                return item.nameIndexes();
+            }
+        };
+    }
+
+    /**
+     Creates an index of terms by name
+
+     @return an index of terms by name
+     */
+    public static NameIndex<Term> ofTerms() {
+        return new NameIndex<Term>() {
+            @Override
+            protected String nameOf(Term item) {
+                return item.getName();
+            }
+
+            @Override
+            protected Registry registryOf(Term item) {
+                return item.nameIndexes();
+            }
+        };
+    }
+
+    /**
+     Creates an index of rule blocks by name
+
+     @return an index of rule blocks by name
+     */
+    public static NameIndex<RuleBlock> ofRuleBlocks() {
+        return new NameIndex<RuleBlock>() {
+            @Override
+            protected String nameOf(RuleBlock item) {
+                return item.getName();
+            }
+
+            @Override
+            protected Registry registryOf(RuleBlock item) {
+                return item.nameIndexes();
+            }
+        };
+    }
+
+}
@@ -676,6 +676,89 @@ public class Op {
         return Double.parseDouble(x);
     }
 
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     Parses the ASCII characters of the given range into a scalar value
+     without creating a string. Decimal values with at most 18 significant
+     digits that can be exactly represented as `m * 10^e` with `m <= 2^53` and
+     `|e| <= 22` are parsed directly, which yields the same correctly rounded
+     value as Op::toDouble(String). The remaining values (including `nan` and
+     `inf`) are parsed utilizing Op::toDouble(String).
+
+     @param x is the array of ASCII characters
+     @param start is the index of the first character of the value
+     @param end is the index after the last character of the value
+     @return the given characters into a scalar value
+     @throws NumberFormatException if the characters do not contain a scalar
+     value
+     */
+    public static double toDouble(byte[] x, int start, int end) throws NumberFormatException {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (x[i] == '-' || x[i] == '+')) {
+            negative = x[i] == '-';
+            ++i;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean exact = true;
+        for (; i < end && x[i] >= '0' && x[i] <= '9'; ++i) {
+            any = true;
+            if (mantissa != 0 || x[i] != '0') {
+                if (++digits > 18) {
+                    exact = false;
+                    break;
+                }
+                mantissa = 10 * mantissa + (x[i] - '0');
+            }
+        }
+        if (exact && i < end && x[i] == '.') {
+            for (++i; i < end && x[i] >= '0' && x[i] <= '9'; ++i) {
+                any = true;
+                if (mantissa != 0 || x[i] != '0') {
+                    if (++digits > 18) {
+                        exact = false;
+                        break;
+                    }
+                    mantissa = 10 * mantissa + (x[i] - '0');
+                }
+                --exponent;
+            }
+        }
+        if (exact && any && i < end && (x[i] == 'e' || x[i] == 'E')) {
+            ++i;
+            boolean negativeExponent = false;
+            if (i < end && (x[i] == '-' || x[i] == '+')) {
+                negativeExponent = x[i] == '-';
+                ++i;
+            }
+            int power = 0;
+            final int powerStart = i;
+            for (; i < end && x[i] >= '0' && x[i] <= '9' && power < 1000; ++i) {
+                power = 10 * power + (x[i] - '0');
+            }
+            exact = i > powerStart;
+            exponent += negativeExponent ? -power : power;
+        }
+        if (exact && any && i == end && mantissa <= (1L << 53)
+                && exponent >= -22 && exponent <= 22) {
+            double result = mantissa;
+            if (exponent < 0) {
+                result /= POWERS_OF_TEN[-exponent];
+            } else {
+                result *= POWERS_OF_TEN[exponent];
+            }
+            return negative ? -result : result;
+        }
+        return toDouble(new String(x, start, end - start, FuzzyLite.UTF_8));
+    }
+
     /**
      Parses the given string into an array of scalar values
 
@@ -787,9 +870,34 @@ public class Op {
      @return a string representation of the given value
      */
     public static <T extends Number> String str(T x) {
+        if (x instanceof Double || x instanceof Float) {
+            return FuzzyLite.getScalarFormat().format(x.doubleValue());
+        }
         return str(x, FuzzyLite.getFormatter());
     }
 
+    /**
+     Returns a string representation of the given value utilizing the scalar
+     format of the current thread
+
+     @param x is the value
+     @return a string representation of the given value
+     @see FuzzyLite::getScalarFormat()
+     */
+    public static String str(double x) {
+        return FuzzyLite.getScalarFormat().format(x);
+    }
+
+    /**
+     Returns a string representation of the given value
+
+     @param x is the value
+     @return a string representation of the given value
+     */
+    public static String str(long x) {
+        return str(Long.valueOf(x), FuzzyLite.getFormatter());
+    }
+
     /**
      Returns a string representation of the given value
 
@@ -888,9 +996,10 @@ public class Op {
      separator
      */
     public static String join(double[] x, String separator) {
+        final ScalarFormat scalarFormat = FuzzyLite.getScalarFormat();
         StringBuilder result = new StringBuilder();
         for (int i = 0; i < x.length; ++i) {
-            result.append(str(x[i]));
+            scalarFormat.format(x[i], result);
             if (i + 1 < x.length) {
                 result.append(separator);
             }
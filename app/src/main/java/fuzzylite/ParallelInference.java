@@ -0,0 +1,472 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.defuzzifier.IntegralDefuzzifier;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Function;
+import fuzzylite.term.Term;
+import fuzzylite.variable.OutputVariable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ The ParallelInference class processes an Engine like Engine::process(), but
+ activating its rule blocks concurrently and defuzzifying its output variables
+ concurrently utilizing a ForkJoinPool, which reduces the latency of a single
+ evaluation of large engines having multiple rule blocks or multiple output
+ variables whose defuzzification is expensive.
+
+ The rule blocks are activated concurrently only if no antecedent refers to an
+ output variable, whose fuzzy output value would otherwise depend on the order
+ in which the rule blocks are activated. When processing an EvaluationContext,
+ each rule block accumulates its fuzzy output values in a private context, and
+ the activated terms are afterwards merged into each Aggregated following the
+ order of the rule blocks in the engine. When processing the state of the
+ engine, the rule blocks that activate terms of the same output variable are
+ activated one after the other in the order of the engine. The output variables
+ are defuzzified concurrently only if no term of an output variable is a
+ Function that refers to the value of another output variable. Hence, the
+ output values are the same as those obtained by Engine::process().
+
+ Each stage is processed in parallel only if its estimated work reaches the
+ threshold, where the work of activating a rule block is the number of
+ propositions in its rules, and the work of defuzzifying an output variable is
+ the resolution of its defuzzifier (if any) times the number of terms that can
+ be activated. Otherwise, the stage is processed in the calling thread. The
+ engine is processed utilizing Engine::process() if the engine has a result
+ cache or metrics, or if an InferenceListener is set.
+
+ The ParallelInference is created for the current structure of the engine, and
+ it must be created again whenever variables, terms, rule blocks or rules
+ change.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see Engine::process()
+ @see Engine::process(EvaluationContext)
+ @see DataflowScheduler
+ @since 6.0
+ */
+public class ParallelInference {
+
+    /**
+     Default minimum estimated work of a stage to be processed in parallel
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private static final int ACTIVATE = 0;
+    private static final int ACTIVATE_GROUP = 1;
+    private static final int DEFUZZIFY = 2;
+
+    private final Engine engine;
+    private final RuleBlock[] ruleBlocks;
+    private final int[] ruleBlockIndexes;
+    private final int[][] outputsOfRuleBlocks;
+    private final int[][] groups;
+    private final OutputVariable[] outputVariables;
+    private final boolean independentRuleBlocks;
+    private final boolean independentOutputVariables;
+    private final long activationWork;
+    private final long defuzzificationWork;
+    private int threshold;
+
+    /**
+     Creates the parallel inference for the current structure of the given
+     engine utilizing the default threshold
+
+     @param engine is the engine to process
+     */
+    public ParallelInference(Engine engine) {
+        this(engine, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     Creates the parallel inference for the current structure of the given
+     engine
+
+     @param engine is the engine to process
+     @param threshold is the minimum estimated work of a stage to be processed
+     in parallel
+     */
+    public ParallelInference(Engine engine, int threshold) {
+        this.engine = engine;
+        this.threshold = threshold;
+        Map<OutputVariable, Integer> outputIndexes = new IdentityHashMap<OutputVariable, Integer>();
+        List<OutputVariable> enabledOutputs = new ArrayList<OutputVariable>();
+        for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
+            outputIndexes.put(engine.getOutputVariable(i), i);
+            if (engine.getOutputVariable(i).isEnabled()) {
+                enabledOutputs.add(engine.getOutputVariable(i));
+            }
+        }
+        this.outputVariables = enabledOutputs.toArray(new OutputVariable[enabledOutputs.size()]);
+
+        List<RuleBlock> enabledBlocks = new ArrayList<RuleBlock>();
+        List<Integer> enabledIndexes = new ArrayList<Integer>();
+        List<int[]> outputs = new ArrayList<int[]>();
+        boolean independent = true;
+        long work = 0;
+        for (int b = 0; b < engine.numberOfRuleBlocks(); ++b) {
+            RuleBlock ruleBlock = engine.getRuleBlock(b);
+            if (!ruleBlock.isEnabled()) {
+                continue;
+            }
+            Set<Integer> written = new LinkedHashSet<Integer>();
+            for (Rule rule : ruleBlock.getRules()) {
+                if (!rule.isLoaded()) {
+                    continue;
+                }
+                independent &= !readsOutputVariables(rule.getAntecedent().getExpression());
+                work += propositions(rule.getAntecedent().getExpression());
+                for (Proposition proposition : rule.getConsequent().getConclusions()) {
+                    written.add(outputIndexes.get((OutputVariable) proposition.getVariable()));
+                    ++work;
+                }
+            }
+            enabledBlocks.add(ruleBlock);
+            enabledIndexes.add(b);
+            int[] writes = new int[written.size()];
+            int i = 0;
+            for (Integer output : written) {
+                writes[i++] = output;
+            }
+            outputs.add(writes);
+        }
+        this.ruleBlocks = enabledBlocks.toArray(new RuleBlock[enabledBlocks.size()]);
+        this.ruleBlockIndexes = new int[enabledIndexes.size()];
+        for (int i = 0; i < ruleBlockIndexes.length; ++i) {
+            ruleBlockIndexes[i] = enabledIndexes.get(i);
+        }
+        this.outputsOfRuleBlocks = outputs.toArray(new int[outputs.size()][]);
+        this.groups = group(outputsOfRuleBlocks);
+        this.independentRuleBlocks = independent;
+        this.activationWork = work;
+
+        independent = true;
+        work = 0;
+        for (OutputVariable outputVariable : outputVariables) {
+            for (Term term : outputVariable.getTerms()) {
+                if (term instanceof Function) {
+                    independent &= !readsOtherOutputVariables(
+                            ((Function) term).getRoot(), outputVariable);
+                }
+            }
+            long terms = Math.max(1, outputVariable.fuzzyOutput().capacity());
+            if (outputVariable.getDefuzzifier() instanceof IntegralDefuzzifier) {
+                work += terms * ((IntegralDefuzzifier) outputVariable.getDefuzzifier()).getResolution();
+            } else {
+                work += terms;
+            }
+        }
+        this.independentOutputVariables = independent;
+        this.defuzzificationWork = work;
+    }
+
+    /**
+     Groups the rule blocks that activate terms of the same output variables
+
+     @param outputsOfRuleBlocks is the indexes of the output variables whose
+     terms each rule block activates
+     @return the indexes of the rule blocks in each group, in ascending order
+     */
+    private static int[][] group(int[][] outputsOfRuleBlocks) {
+        final int blocks = outputsOfRuleBlocks.length;
+        int[] parent = new int[blocks];
+        Map<Integer, Integer> firstWriter = new HashMap<Integer, Integer>();
+        for (int b = 0; b < blocks; ++b) {
+            parent[b] = b;
+            for (int output : outputsOfRuleBlocks[b]) {
+                Integer first = firstWriter.get(output);
+                if (first == null) {
+                    firstWriter.put(output, b);
+                } else {
+                    parent[root(parent, b)] = root(parent, first);
+                }
+            }
+        }
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        Map<Integer, List<Integer>> byRoot = new HashMap<Integer, List<Integer>>();
+        for (int b = 0; b < blocks; ++b) {
+            int root = root(parent, b);
+            List<Integer> group = byRoot.get(root);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                byRoot.put(root, group);
+                result.add(group);
+            }
+            group.add(b);
+        }
+        int[][] groups = new int[result.size()][];
+        for (int g = 0; g < groups.length; ++g) {
+            List<Integer> group = result.get(g);
+            groups[g] = new int[group.size()];
+            for (int i = 0; i < group.size(); ++i) {
+                groups[g][i] = group.get(i);
+            }
+        }
+        return groups;
+    }
+
+    private static int root(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private static boolean readsOutputVariables(Expression node) {
+        if (node instanceof Proposition) {
+            return ((Proposition) node).getVariable() instanceof OutputVariable;
+        }
+        if (node instanceof Operator) {
+            return readsOutputVariables(((Operator) node).getLeft())
+                    || readsOutputVariables(((Operator) node).getRight());
+        }
+        return false;
+    }
+
+    private static int propositions(Expression node) {
+        if (node instanceof Operator) {
+            return propositions(((Operator) node).getLeft())
+                    + propositions(((Operator) node).getRight());
+        }
+        return node == null ? 0 : 1;
+    }
+
+    private boolean readsOtherOutputVariables(Function.Node node, OutputVariable self) {
+        if (node == null) {
+            return false;
+        }
+        if (node.variable != null && !node.variable.isEmpty()
+                && !node.variable.equals(self.getName())
+                && engine.hasOutputVariable(node.variable)) {
+            return true;
+        }
+        return readsOtherOutputVariables(node.left, self)
+                || readsOtherOutputVariables(node.right, self);
+    }
+
+    /**
+     Gets the engine for which the parallel inference was created
+
+     @return the engine for which the parallel inference was created
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     Gets the minimum estimated work of a stage to be processed in parallel
+
+     @return the minimum estimated work of a stage to be processed in parallel
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     Sets the minimum estimated work of a stage to be processed in parallel
+
+     @param threshold is the minimum estimated work of a stage to be processed
+     in parallel
+     */
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     Indicates whether the rule blocks are activated in parallel, which, when
+     processing the state of the engine, applies to the groups of rule blocks
+     that activate terms of different output variables
+
+     @return whether the rule blocks are activated in parallel
+     */
+    public boolean isParallelActivation() {
+        return independentRuleBlocks && ruleBlocks.length > 1
+                && activationWork >= threshold;
+    }
+
+    /**
+     Indicates whether the output variables are defuzzified in parallel
+
+     @return whether the output variables are defuzzified in parallel
+     */
+    public boolean isParallelDefuzzification() {
+        return independentOutputVariables && outputVariables.length > 1
+                && defuzzificationWork >= threshold;
+    }
+
+    /**
+     Processes the engine in its current state as follows: (a) Clears the
+     aggregated fuzzy output variables, (b) Activates the rule blocks, and (c)
+     Defuzzifies the output variables, where the rule blocks and the output
+     variables are processed in parallel utilizing the given pool as described
+     in the class documentation
+
+     @param pool is the pool to process the engine, or `null` to process the
+     engine utilizing Engine::process()
+     */
+    public void process(ForkJoinPool pool) {
+        if (pool == null || engine.getResultCache() != null || engine.getMetrics() != null
+                || FuzzyLite.getInferenceListener() != null) {
+            engine.process();
+            return;
+        }
+        for (OutputVariable outputVariable : engine.getOutputVariables()) {
+            outputVariable.fuzzyOutput().clear();
+        }
+        if (isParallelActivation() && groups.length > 1) {
+            pool.invoke(new Task(ACTIVATE_GROUP, 0, groups.length, null));
+        } else {
+            for (RuleBlock ruleBlock : ruleBlocks) {
+                ruleBlock.activate();
+            }
+        }
+        if (isParallelDefuzzification()) {
+            pool.invoke(new Task(DEFUZZIFY, 0, outputVariables.length, null));
+        } else {
+            for (OutputVariable outputVariable : outputVariables) {
+                outputVariable.defuzzify();
+            }
+        }
+    }
+
+    /**
+     Processes the engine utilizing the values stored in the given evaluation
+     context as follows: (a) Clears the aggregated fuzzy output values of the
+     context, (b) Activates the rule blocks, and (c) Defuzzifies the output
+     variables, where the rule blocks and the output variables are processed in
+     parallel utilizing the given pool as described in the class documentation.
+     The state of the engine is not modified.
+
+     @param context is the evaluation context created for the engine
+     @param pool is the pool to process the engine, or `null` to process the
+     engine utilizing Engine::process(EvaluationContext)
+     @throws RuntimeException if the evaluation context was created for a
+     different engine
+     */
+    public void process(EvaluationContext context, ForkJoinPool pool) {
+        if (pool == null || engine.getMetrics() != null
+                || FuzzyLite.getInferenceListener() != null) {
+            engine.process(context);
+            return;
+        }
+        if (context.getEngine() != engine) {
+            throw new RuntimeException(String.format("[engine error] "
+                    + "evaluation context was not created for engine <%s>", engine.getName()));
+        }
+        for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
+            context.fuzzyOutput(i).clear();
+        }
+        if (isParallelActivation()) {
+            EvaluationContext[] accumulators = context.accumulators();
+            pool.invoke(new Task(ACTIVATE, 0, ruleBlocks.length, context));
+            for (int b = 0; b < ruleBlocks.length; ++b) {
+                EvaluationContext accumulator = accumulators[ruleBlockIndexes[b]];
+                for (int output : outputsOfRuleBlocks[b]) {
+                    Aggregated fuzzyOutput = context.fuzzyOutput(output);
+                    fuzzyOutput.getTerms().addAll(accumulator.fuzzyOutput(output).getTerms());
+                }
+            }
+        } else {
+            for (RuleBlock ruleBlock : ruleBlocks) {
+                ruleBlock.activate(context);
+            }
+        }
+        if (isParallelDefuzzification()) {
+            pool.invoke(new Task(DEFUZZIFY, 0, outputVariables.length, context));
+        } else {
+            for (OutputVariable outputVariable : outputVariables) {
+                outputVariable.defuzzify(context);
+            }
+        }
+    }
+
+    private void run(int stage, int index, EvaluationContext context) {
+        switch (stage) {
+            case ACTIVATE: {
+                EvaluationContext accumulator = context.accumulators()[ruleBlockIndexes[index]];
+                for (int output : outputsOfRuleBlocks[index]) {
+                    accumulator.fuzzyOutput(output).clear();
+                }
+                ruleBlocks[index].activate(accumulator);
+                break;
+            }
+            case ACTIVATE_GROUP:
+                for (int b : groups[index]) {
+                    ruleBlocks[b].activate();
+                }
+                break;
+            case DEFUZZIFY:
+                if (context == null) {
+                    outputVariables[index].defuzzify();
+                } else {
+                    outputVariables[index].defuzzify(context);
+                }
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     The Task class processes a range of the rule blocks, groups of rule
+     blocks, or output variables, splitting the range into halves until it
+     contains a single item.
+     */
+    private final class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int stage;
+        private final int from;
+        private final int to;
+        private final EvaluationContext context;
+
+        Task(int stage, int from, int to, EvaluationContext context) {
+            this.stage = stage;
+            this.from = from;
+            this.to = to;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                run(stage, from, context);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new Task(stage, from, middle, context),
+                    new Task(stage, middle, to, context));
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+
+/**
+ The ResultCache class is a bounded cache of the output values of an Engine
+ keyed by the values of its input variables, which is utilized by
+ Engine::process() when set via Engine::setResultCache(). The input values can
+ be quantized to multiples of a quantum, in which case the engine is processed
+ with the input values rounded to the nearest multiple of the quantum, and every
+ input value in the same interval shares the same output values.
+
+ The keys and output values are stored in primitive vectors of a hash table
+ with chaining, and the least recently used entry is evicted when the cache is
+ full. The cache is invalidated automatically when the structure of the engine
+ changes, that is, when any variable, term, rule block, rule, operator,
+ activation method or defuzzifier of the engine is added, removed or modified,
+ which is detected in each call by comparing the number of modifications of
+ the engine given by Engine::getModifications() and the number of
+ modifications of the components given by FuzzyLite::getModifications(). The
+ latter is shared by every engine, but it is not incremented while engines are
+ cloned or imported. Hence, modifications made directly on the lists and maps
+ returned by the accessors must be recorded utilizing FuzzyLite::modified(),
+ or otherwise the cache must be cleared.
+
+ On a cache hit, the output values (and previous output values) of the output
+ variables are updated as in OutputVariable::defuzzify(), but the fuzzy output
+ values and the activation degrees of the rules are not. The cache is bypassed
+ when any output variable locks its previous value, as the output values depend
+ on the preceding evaluations. The cache is not thread-safe, just like
+ Engine::process().
+
+ @see Engine::setResultCache()
+ @see Engine::process()
+ @since 6.0
+ */
+public class ResultCache implements Cloneable {
+
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final double quantum;
+
+    private Engine engine;
+    private long modifications;
+    private long engineModifications;
+    private int inputs;
+    private int outputs;
+    private long[] keys;
+    private double[] values;
+    private int[] hashes;
+    private int[] buckets;
+    private int[] chain;
+    private int[] previous;
+    private int[] next;
+    private int head;
+    private int tail;
+    private int size;
+
+    private long[] key;
+    private double[] inputValues;
+    private double[] originalValues;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     Creates a cache of the given capacity that keys the exact input values
+
+     @param capacity is the maximum number of entries in the cache
+     */
+    public ResultCache(int capacity) {
+        this(capacity, 0.0);
+    }
+
+    /**
+     Creates a cache of the given capacity that keys the input values quantized
+     to the given quantum
+
+     @param capacity is the maximum number of entries in the cache
+     @param quantum is the quantum to which the input values are rounded, or
+     zero to key the exact input values
+     @throws RuntimeException if the capacity is not positive or the quantum is
+     negative or not finite
+     */
+    public ResultCache(int capacity, double quantum) {
+        if (capacity < 1) {
+            throw new RuntimeException(String.format("[cache error] "
+                    + "expected a positive capacity, but got <%d>", capacity));
+        }
+        if (!(quantum >= 0.0 && Op.isFinite(quantum))) {
+            throw new RuntimeException(String.format("[cache error] "
+                    + "expected a non-negative quantum, but got <%s>", Op.str(quantum)));
+        }
+        this.capacity = capacity;
+        this.quantum = quantum;
+        this.engine = null;
+        this.modifications = 0L;
+        this.engineModifications = 0L;
+        this.inputs = NONE;
+        this.outputs = NONE;
+    }
+
+    /**
+     Gets the maximum number of entries in the cache
+
+     @return the maximum number of entries in the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     Gets the quantum to which the input values are rounded
+
+     @return the quantum to which the input values are rounded, or zero if the
+     exact input values are keyed
+     */
+    public double getQuantum() {
+        return quantum;
+    }
+
+    /**
+     Gets the number of entries in the cache
+
+     @return the number of entries in the cache
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     Gets the number of calls whose output values were found in the cache
+
+     @return the number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     Gets the number of calls whose output values were not found in the cache
+
+     @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     Gets the number of entries evicted to make room for new entries
+
+     @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     Gets the number of times the cache was invalidated after the structure of
+     the engine changed
+
+     @return the number of invalidations
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     Removes the entries from the cache, keeping the counters
+     */
+    public void clear() {
+        if (buckets != null) {
+            for (int i = 0; i < buckets.length; ++i) {
+                buckets[i] = NONE;
+            }
+        }
+        head = NONE;
+        tail = NONE;
+        size = 0;
+    }
+
+    /**
+     Resets the counters of hits, misses, evictions and invalidations
+     */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        invalidations = 0;
+    }
+
+    /**
+     Processes the engine utilizing the cache, that is, sets the output values
+     of the engine from the cache if the input values are found therein, or
+     otherwise processes the engine and stores its output values in the cache
+
+     @param engine is the engine to process
+     */
+    void process(Engine engine) {
+        for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
+            if (engine.getOutputVariable(i).isLockPreviousValue()) {
+                engine.infer();
+                return;
+            }
+        }
+        final long currentModifications = FuzzyLite.getModifications();
+        if (currentModifications != modifications || engine != this.engine
+                || engine.getModifications() != engineModifications
+                || inputs != engine.numberOfInputVariables()
+                || outputs != engine.numberOfOutputVariables()) {
+            if (inputs != NONE) {
+                ++invalidations;
+            }
+            allocate(engine.numberOfInputVariables(), engine.numberOfOutputVariables());
+            this.engine = engine;
+            this.modifications = currentModifications;
+            this.engineModifications = engine.getModifications();
+        }
+
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < inputs; ++i) {
+            final double value = engine.getInputVariable(i).getValue();
+            final double keyValue = (quantum > 0.0
+                    ? quantum * Math.rint(value / quantum) : value) + 0.0;
+            inputValues[i] = keyValue;
+            key[i] = Double.doubleToLongBits(keyValue);
+            hash = 31 * hash + (int) (key[i] ^ (key[i] >>> 32));
+        }
+        hash ^= hash >>> 16;
+
+        int entry = find(hash);
+        if (entry != NONE) {
+            ++hits;
+            moveToFront(entry);
+            final int offset = entry * outputs;
+            for (int i = 0; i < outputs; ++i) {
+                OutputVariable outputVariable = engine.getOutputVariable(i);
+                if (outputVariable.isEnabled()) {
+                    if (Op.isFinite(outputVariable.getValue())) {
+                        outputVariable.setPreviousValue(outputVariable.getValue());
+                    }
+                    outputVariable.setValue(values[offset + i]);
+                }
+            }
+            return;
+        }
+
+        ++misses;
+        if (quantum > 0.0) {
+            for (int i = 0; i < inputs; ++i) {
+                InputVariable inputVariable = engine.getInputVariable(i);
+                originalValues[i] = inputVariable.getValue();
+                inputVariable.setValue(inputValues[i]);
+            }
+            try {
+                engine.infer();
+            } finally {
+                for (int i = 0; i < inputs; ++i) {
+                    engine.getInputVariable(i).setValue(originalValues[i]);
+                }
+            }
+        } else {
+            engine.infer();
+        }
+        store(hash, engine);
+    }
+
+    private void allocate(int inputs, int outputs) {
+        if (this.inputs != inputs || this.outputs != outputs || keys == null) {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.keys = new long[capacity * inputs];
+            this.values = new double[capacity * outputs];
+            this.hashes = new int[capacity];
+            this.chain = new int[capacity];
+            this.previous = new int[capacity];
+            this.next = new int[capacity];
+            this.key = new long[inputs];
+            this.inputValues = new double[inputs];
+            this.originalValues = new double[inputs];
+            int bucketCount = 1;
+            while (bucketCount < 2 * capacity && bucketCount < (1 << 30)) {
+                bucketCount <<= 1;
+            }
+            this.buckets = new int[bucketCount];
+        }
+        clear();
+    }
+
+    private int find(int hash) {
+        int entry = buckets[hash & (buckets.length - 1)];
+        while (entry != NONE) {
+            if (hashes[entry] == hash) {
+                final int offset = entry * inputs;
+                boolean equal = true;
+                for (int i = 0; i < inputs && equal; ++i) {
+                    equal = keys[offset + i] == key[i];
+                }
+                if (equal) {
+                    return entry;
+                }
+            }
+            entry = chain[entry];
+        }
+        return NONE;
+    }
+
+    private void store(int hash, Engine engine) {
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = tail;
+            unlink(entry);
+            removeFromBucket(entry);
+            ++evictions;
+        }
+        hashes[entry] = hash;
+        System.arraycopy(key, 0, keys, entry * inputs, inputs);
+        final int offset = entry * outputs;
+        for (int i = 0; i < outputs; ++i) {
+            values[offset + i] = engine.getOutputVariable(i).getValue();
+        }
+        final int bucket = hash & (buckets.length - 1);
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry;
+        linkFirst(entry);
+    }
+
+    private void removeFromBucket(int entry) {
+        final int bucket = hashes[entry] & (buckets.length - 1);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = chain[entry];
+            return;
+        }
+        int current = buckets[bucket];
+        while (chain[current] != entry) {
+            current = chain[current];
+        }
+        chain[current] = chain[entry];
+    }
+
+    private void moveToFront(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+    }
+
+    private void linkFirst(int entry) {
+        previous[entry] = NONE;
+        next[entry] = head;
+        if (head != NONE) {
+            previous[head] = entry;
+        }
+        head = entry;
+        if (tail == NONE) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        if (previous[entry] != NONE) {
+            next[previous[entry]] = next[entry];
+        } else {
+            head = next[entry];
+        }
+        if (next[entry] != NONE) {
+            previous[next[entry]] = previous[entry];
+        } else {
+            tail = previous[entry];
+        }
+    }
+
+    /**
+     Creates an empty cache with the same capacity and quantum as this cache
+
+     @return an empty cache with the same capacity and quantum as this cache
+     */
+    @Override
+    public ResultCache clone() {
+        return new ResultCache(capacity, quantum);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d hits=%d misses=%d evictions=%d invalidations=%d",
+                size, capacity, hits, misses, evictions, invalidations);
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ The ScalarFormat class formats scalar values with a fixed number of decimals
+ directly into character or byte buffers, producing exactly the same text as
+ Op::str(). The fixed-decimal patterns of FuzzyLite::setDecimals() are
+ formatted with integer arithmetic, whereas values near a rounding tie, values
+ too large to scale exactly, and any other pattern are delegated to the
+ DecimalFormat from which the ScalarFormat was created.
+
+ A ScalarFormat reads the configuration of its DecimalFormat upon
+ construction, and hence further changes to the DecimalFormat are not
+ reflected. Like DecimalFormat, a ScalarFormat is not thread-safe, and
+ FuzzyLite::getScalarFormat() provides one for the current thread.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see Op::str()
+ @see FuzzyLite::getScalarFormat()
+ @since 6.0
+ */
+public final class ScalarFormat {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+        1e21, 1e22
+    };
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+        100000000L, 1000000000L, 10000000000L, 100000000000L,
+        1000000000000L, 10000000000000L, 100000000000000L,
+        1000000000000000L, 10000000000000000L, 100000000000000000L,
+        1000000000000000000L
+    };
+    /**
+     Scaled values must be below 2^50 such that their fractional part and the
+     bound on the rounding error of the scaling are exact
+     */
+    private static final double MAXIMUM_SCALED = 0x1p50;
+
+    private final DecimalFormat formatter;
+    private final boolean fixed;
+    private final boolean ascii;
+    private final int decimals;
+    private final boolean decimalSeparatorShown;
+    private final char decimalSeparator;
+    private final char minusSign;
+    private final char zeroDigit;
+    private final char[] buffer;
+
+    /**
+     Creates a ScalarFormat from the current configuration of the given
+     formatter
+
+     @param formatter is the decimal formatter of scalar values
+     */
+    public ScalarFormat(DecimalFormat formatter) {
+        this.formatter = formatter;
+        DecimalFormatSymbols symbols = formatter.getDecimalFormatSymbols();
+        this.decimals = formatter.getMaximumFractionDigits();
+        this.decimalSeparatorShown = decimals > 0
+                || formatter.isDecimalSeparatorAlwaysShown();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.fixed = decimals < LONG_POWERS_OF_TEN.length
+                && formatter.getMinimumFractionDigits() == decimals
+                && formatter.getMinimumIntegerDigits() == 1
+                && formatter.getMaximumIntegerDigits() >= 309
+                && !formatter.isGroupingUsed()
+                && formatter.getMultiplier() == 1
+                && formatter.getRoundingMode() == RoundingMode.HALF_EVEN
+                && formatter.getPositivePrefix().isEmpty()
+                && formatter.getPositiveSuffix().isEmpty()
+                && formatter.getNegativePrefix().equals(String.valueOf(minusSign))
+                && formatter.getNegativeSuffix().isEmpty();
+        this.ascii = decimalSeparator < 0x80 && minusSign < 0x80
+                && zeroDigit + 9 < 0x80;
+        //room for the sign, the integer digits of Double.MAX_VALUE, and the
+        //decimal separator, such that the fallback of fixed patterns also fits
+        this.buffer = new char[312 + decimals];
+    }
+
+    /**
+     Gets the decimal formatter from which this ScalarFormat was created
+
+     @return the decimal formatter from which this ScalarFormat was created
+     */
+    public DecimalFormat getFormatter() {
+        return formatter;
+    }
+
+    /**
+     Gets the number of decimals of the formatted values
+
+     @return the number of decimals of the formatted values
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     Returns a string representation of the given value
+
+     @param x is the value
+     @return a string representation of the given value
+     */
+    public String format(double x) {
+        int end = format(x, buffer, 0);
+        if (end < 0) {
+            return fallback(x);
+        }
+        return new String(buffer, 0, end);
+    }
+
+    /**
+     Appends the string representation of the given value to the given result
+
+     @param x is the value
+     @param result is the string builder to append the value to
+     @return the given string builder
+     */
+    public StringBuilder format(double x, StringBuilder result) {
+        int end = format(x, buffer, 0);
+        if (end < 0) {
+            return result.append(fallback(x));
+        }
+        return result.append(buffer, 0, end);
+    }
+
+    /**
+     Writes the string representation of the given value into the given writer
+
+     @param x is the value
+     @param writer is the writer to write the value to
+     @throws IOException if any error occurs upon writing to the writer
+     */
+    public void write(double x, Writer writer) throws IOException {
+        int end = format(x, buffer, 0);
+        if (end < 0) {
+            writer.write(fallback(x));
+        } else {
+            writer.write(buffer, 0, end);
+        }
+    }
+
+    /**
+     Formats the given value into the given buffer starting at the given offset
+
+     @param x is the value
+     @param buffer is the buffer to write the characters to
+     @param offset is the index of the buffer at which to write the first
+     character
+     @return the index of the buffer after the last character written, or `-1`
+     if the buffer does not have enough room for the value, in which case the
+     buffer is left unchanged
+     */
+    public int format(double x, char[] buffer, int offset) {
+        if (Double.isNaN(x)) {
+            return copy("nan", buffer, offset);
+        }
+        if (Double.isInfinite(x)) {
+            return copy(x < 0.0 ? "-inf" : "inf", buffer, offset);
+        }
+        final long scaled = scale(x);
+        if (scaled < 0) {
+            return copy(fallback(x), buffer, offset);
+        }
+        final long integer = scaled / LONG_POWERS_OF_TEN[decimals];
+        long fraction = scaled - integer * LONG_POWERS_OF_TEN[decimals];
+        final boolean negative = Double.doubleToRawLongBits(x) < 0;
+        final int integerDigits = digits(integer);
+        final int end = offset + (negative ? 1 : 0) + integerDigits
+                + (decimalSeparatorShown ? 1 : 0) + decimals;
+        if (end > buffer.length) {
+            return -1;
+        }
+        int position = end;
+        for (int i = 0; i < decimals; ++i) {
+            buffer[--position] = (char) (zeroDigit + (int) (fraction % 10));
+            fraction /= 10;
+        }
+        if (decimalSeparatorShown) {
+            buffer[--position] = decimalSeparator;
+        }
+        long value = integer;
+        for (int i = 0; i < integerDigits; ++i) {
+            buffer[--position] = (char) (zeroDigit + (int) (value % 10));
+            value /= 10;
+        }
+        if (negative) {
+            buffer[--position] = minusSign;
+        }
+        return end;
+    }
+
+    /**
+     Formats the given value into the given buffer starting at the given offset
+     utilizing the UTF-8 encoding
+
+     @param x is the value
+     @param buffer is the buffer to write the bytes to
+     @param offset is the index of the buffer at which to write the first byte
+     @return the index of the buffer after the last byte written, or `-1` if
+     the buffer does not have enough room for the value, in which case the
+     buffer is left unchanged
+     */
+    public int format(double x, byte[] buffer, int offset) {
+        if (!ascii) {
+            return copy(format(x).getBytes(FuzzyLite.UTF_8), buffer, offset);
+        }
+        int end = format(x, this.buffer, 0);
+        if (end < 0) {
+            String text = fallback(x);
+            for (int i = 0; i < text.length(); ++i) {
+                if (text.charAt(i) >= 0x80) {
+                    return copy(text.getBytes(FuzzyLite.UTF_8), buffer, offset);
+                }
+            }
+            if (offset + text.length() > buffer.length) {
+                return -1;
+            }
+            for (int i = 0; i < text.length(); ++i) {
+                buffer[offset + i] = (byte) text.charAt(i);
+            }
+            return offset + text.length();
+        }
+        if (offset + end > buffer.length) {
+            return -1;
+        }
+        for (int i = 0; i < end; ++i) {
+            buffer[offset + i] = (byte) this.buffer[i];
+        }
+        return offset + end;
+    }
+
+    /**
+     Computes the absolute value of the given value rounded to an integer after
+     scaling it by the number of decimals, provided the rounding is guaranteed
+     to match the one of the decimal formatter
+
+     @param x is the finite value
+     @return the absolute value scaled and rounded to an integer, or `-1` if
+     the value must be formatted by the decimal formatter
+     */
+    private long scale(double x) {
+        if (!fixed || decimals >= POWERS_OF_TEN.length) {
+            return -1;
+        }
+        //The power of ten is exact, and so the scaled value differs from the
+        //exact product by at most half an ulp
+        final double scaled = Math.abs(x) * POWERS_OF_TEN[decimals];
+        if (!(scaled < MAXIMUM_SCALED)) {
+            return -1;
+        }
+        final double floor = Math.floor(scaled);
+        final double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= Math.ulp(scaled)) {
+            return -1;
+        }
+        return (long) floor + (fraction > 0.5 ? 1 : 0);
+    }
+
+    private String fallback(double x) {
+        return formatter.format(x);
+    }
+
+    private static int digits(long x) {
+        int result = 1;
+        while (result < LONG_POWERS_OF_TEN.length && x >= LONG_POWERS_OF_TEN[result]) {
+            ++result;
+        }
+        return result;
+    }
+
+    private static int copy(String text, char[] buffer, int offset) {
+        if (offset + text.length() > buffer.length) {
+            return -1;
+        }
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+
+    private static int copy(byte[] bytes, byte[] buffer, int offset) {
+        if (offset + bytes.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+}
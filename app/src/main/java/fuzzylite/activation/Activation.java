@@ -16,6 +16,7 @@
  */
 package fuzzylite.activation;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.Op;
 import fuzzylite.rule.Rule;
 import fuzzylite.rule.RuleBlock;
@@ -63,6 +64,22 @@ public abstract class Activation implements Op.Cloneable {
      */
     public abstract void activate(RuleBlock ruleBlock);
 
+    /**
+     Activates the rule block utilizing the values stored in the evaluation
+     context, where the activation degrees of the rules and the fuzzy output
+     values are stored, without modifying the state of the rules.
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     @throws RuntimeException if the activation method does not support
+     evaluation contexts
+     */
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        throw new RuntimeException(String.format("[activation error] "
+                + "activation <%s> does not support evaluation contexts",
+                getClass().getSimpleName()));
+    }
+
     /**
      Clones the activation method.
 
@@ -16,13 +16,13 @@
  */
 package fuzzylite.activation;
 
-import fuzzylite.FuzzyLite;
+import fuzzylite.EvaluationContext;
 import fuzzylite.norm.SNorm;
 import fuzzylite.norm.TNorm;
 import fuzzylite.rule.Rule;
 import fuzzylite.rule.RuleBlock;
 
-import java.util.logging.Level;
+import java.util.List;
 
 /**
  The General class is a RuleBlock Activation method that activates every rule
@@ -67,15 +67,13 @@ public class General extends Activation {
      */
     @Override
     public void activate(RuleBlock ruleBlock) {
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "Activation: {0} {1}",
-                    new String[]{getClass().getName(), parameters()});
-        }
         TNorm conjunction = ruleBlock.getConjunction();
         SNorm disjunction = ruleBlock.getDisjunction();
         TNorm implication = ruleBlock.getImplication();
 
-        for (Rule rule : ruleBlock.getRules()) {
+        final List<Rule> rules = ruleBlock.getRules();
+        for (int i = 0; i < rules.size(); ++i) {
+            Rule rule = rules.get(i);
             rule.deactivate();
             if (rule.isLoaded()) {
                 rule.activateWith(conjunction, disjunction);
@@ -84,6 +82,32 @@ public class General extends Activation {
         }
     }
 
+    /**
+     Activates every rule in the given rule block utilizing the values stored
+     in the evaluation context
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+
+        for (int i = 0; i < activationDegrees.length; ++i) {
+            Rule rule = ruleBlock.getRule(i);
+            activationDegrees[i] = 0.0;
+            triggered[i] = false;
+            if (rule.isLoaded()) {
+                activationDegrees[i] = rule.activationDegree(conjunction, disjunction, context);
+                triggered[i] = rule.trigger(activationDegrees[i], implication, context);
+            }
+        }
+    }
+
     @Override
     public General clone() throws CloneNotSupportedException {
         return (General) super.clone();
@@ -16,6 +16,7 @@
  */
 package fuzzylite.activation;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.norm.SNorm;
@@ -26,7 +27,6 @@ import fuzzylite.rule.RuleBlock;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.logging.Level;
 
 /**
  The Last class is a RuleBlock Activation method that activates the last
@@ -102,10 +102,6 @@ public class Last extends Activation {
      */
     @Override
     public void activate(RuleBlock ruleBlock) {
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "Activation: {0} {1}",
-                    new String[]{getClass().getName(), parameters()});
-        }
         TNorm conjunction = ruleBlock.getConjunction();
         SNorm disjunction = ruleBlock.getDisjunction();
         TNorm implication = ruleBlock.getImplication();
@@ -129,6 +125,39 @@ public class Last extends Activation {
         }
     }
 
+    /**
+     Activates the last rules whose activation degrees are greater than or equal
+     to the threshold utilizing the values stored in the evaluation context
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+
+        int activated = 0;
+        for (int i = activationDegrees.length - 1; i >= 0; --i) {
+            Rule rule = ruleBlock.getRule(i);
+            activationDegrees[i] = 0.0;
+            triggered[i] = false;
+
+            if (rule.isLoaded()) {
+                activationDegrees[i] = rule.activationDegree(conjunction, disjunction, context);
+                if (activated < numberOfRules
+                        && Op.isGt(activationDegrees[i], 0.0)
+                        && Op.isGE(activationDegrees[i], threshold)) {
+                    triggered[i] = rule.trigger(activationDegrees[i], implication, context);
+                    ++activated;
+                }
+            }
+        }
+    }
+
     /**
      Gets the number of rules for the activation degree
 
@@ -144,6 +173,7 @@ public class Last extends Activation {
      @param numberOfRules is the number of rules for the activation degree
      */
     public void setNumberOfRules(int numberOfRules) {
+        FuzzyLite.modified();
         this.numberOfRules = numberOfRules;
     }
 
@@ -162,6 +192,7 @@ public class Last extends Activation {
      @param threshold is the threshold for the activation degree
      */
     public void setThreshold(double threshold) {
+        FuzzyLite.modified();
         this.threshold = threshold;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.activation;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.norm.SNorm;
@@ -26,8 +27,6 @@ import fuzzylite.rule.RuleBlock;
 import java.text.MessageFormat;
 import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.logging.Level;
 
 /**
  The Lowest class is a RuleBlock Activation method that activates a given number
@@ -43,6 +42,8 @@ import java.util.logging.Level;
 public class Lowest extends Activation {
 
     private int numberOfRules;
+    private int[] heap;
+    private double[] degrees;
 
     public Lowest() {
         this(1);
@@ -100,31 +101,67 @@ public class Lowest extends Activation {
      */
     @Override
     public void activate(RuleBlock ruleBlock) {
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "Activation: {0} {1}",
-                    new String[]{getClass().getName(), parameters()});
-        }
         TNorm conjunction = ruleBlock.getConjunction();
         SNorm disjunction = ruleBlock.getDisjunction();
         TNorm implication = ruleBlock.getImplication();
 
-        PriorityQueue<Rule> rulesToActivate = new PriorityQueue<Rule>(
-                numberOfRules, new Ascending());
-
-        for (Rule rule : ruleBlock.getRules()) {
+        final int rules = ruleBlock.numberOfRules();
+        if (heap == null || heap.length < rules) {
+            heap = new int[rules];
+            degrees = new double[rules];
+        }
+        int size = 0;
+        for (int i = 0; i < rules; ++i) {
+            Rule rule = ruleBlock.getRule(i);
             rule.deactivate();
-
+            degrees[i] = 0.0;
             if (rule.isLoaded()) {
-                double activationDegree = rule.activateWith(conjunction, disjunction);
-                if (Op.isGt(activationDegree, 0.0)) {
-                    rulesToActivate.offer(rule);
+                degrees[i] = rule.activateWith(conjunction, disjunction);
+                if (Op.isGt(degrees[i], 0.0)) {
+                    size = RuleHeap.offer(heap, size, i, degrees, false);
                 }
             }
         }
 
         int activated = 0;
-        while (!rulesToActivate.isEmpty() && activated++ < numberOfRules) {
-            rulesToActivate.poll().trigger(implication);
+        while (size > 0 && activated++ < numberOfRules) {
+            ruleBlock.getRule(RuleHeap.poll(heap, size--, degrees, false)).trigger(implication);
+        }
+    }
+
+    /**
+     Activates the rules with the lowest activation degrees in the given rule
+     block utilizing the values stored in the evaluation context
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+
+        int[] heap = context.ruleIndexes(ruleBlock);
+        int size = 0;
+        for (int i = 0; i < activationDegrees.length; ++i) {
+            Rule rule = ruleBlock.getRule(i);
+            activationDegrees[i] = 0.0;
+            triggered[i] = false;
+            if (rule.isLoaded()) {
+                activationDegrees[i] = rule.activationDegree(conjunction, disjunction, context);
+                if (Op.isGt(activationDegrees[i], 0.0)) {
+                    size = RuleHeap.offer(heap, size, i, activationDegrees, false);
+                }
+            }
+        }
+        int activated = 0;
+        while (size > 0 && activated++ < numberOfRules) {
+            int i = RuleHeap.poll(heap, size--, activationDegrees, false);
+            triggered[i] = ruleBlock.getRule(i).trigger(activationDegrees[i],
+                    implication, context);
         }
     }
 
@@ -143,11 +180,15 @@ public class Lowest extends Activation {
      @param numberOfRules is the number of rules to activate
      */
     public void setNumberOfRules(int numberOfRules) {
+        FuzzyLite.modified();
         this.numberOfRules = numberOfRules;
     }
 
     @Override
-    public Highest clone() throws CloneNotSupportedException {
-        return (Highest) super.clone();
+    public Lowest clone() throws CloneNotSupportedException {
+        Lowest result = (Lowest) super.clone();
+        result.heap = null;
+        result.degrees = null;
+        return result;
     }
 }
@@ -16,7 +16,7 @@
  */
 package fuzzylite.activation;
 
-import fuzzylite.FuzzyLite;
+import fuzzylite.EvaluationContext;
 import fuzzylite.norm.SNorm;
 import fuzzylite.norm.TNorm;
 import fuzzylite.rule.Rule;
@@ -24,7 +24,6 @@ import fuzzylite.rule.RuleBlock;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
 
 /**
  The Proportional class is a RuleBlock Activation method that activates the
@@ -70,10 +69,6 @@ public class Proportional extends Activation {
      */
     @Override
     public void activate(RuleBlock ruleBlock) {
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "Activation: {0} {1}",
-                    new String[]{getClass().getName(), parameters()});
-        }
         TNorm conjunction = ruleBlock.getConjunction();
         SNorm disjunction = ruleBlock.getDisjunction();
         TNorm implication = ruleBlock.getImplication();
@@ -95,6 +90,41 @@ public class Proportional extends Activation {
         }
     }
 
+    /**
+     Activates the rules utilizing activation degrees proportional to the sum
+     of the activation degrees of the rules, utilizing the values stored in the
+     evaluation context
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+
+        double sumActivationDegrees = 0.0;
+        for (int i = 0; i < activationDegrees.length; ++i) {
+            Rule rule = ruleBlock.getRule(i);
+            activationDegrees[i] = 0.0;
+            triggered[i] = false;
+            if (rule.isLoaded()) {
+                activationDegrees[i] = rule.activationDegree(conjunction, disjunction, context);
+                sumActivationDegrees += activationDegrees[i];
+            }
+        }
+        for (int i = 0; i < activationDegrees.length; ++i) {
+            Rule rule = ruleBlock.getRule(i);
+            if (rule.isLoaded()) {
+                activationDegrees[i] /= sumActivationDegrees;
+                triggered[i] = rule.trigger(activationDegrees[i], implication, context);
+            }
+        }
+    }
+
     @Override
     public Proportional clone() throws CloneNotSupportedException {
         return (Proportional) super.clone();
@@ -0,0 +1,117 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.activation;
+
+/**
+ The RuleHeap class is a binary heap of the indexes of the rules in a rule
+ block stored in a primitive vector, whose order is given by the activation
+ degrees of the rules stored in another vector. The heap is manipulated
+ utilizing the same sifting rules as java.util.PriorityQueue, and hence the
+ rules are polled in the same order as a PriorityQueue utilizing the
+ comparators of Highest and Lowest, including the rules with the same
+ activation degree, but without allocating memory.
+
+ @see Highest
+ @see Lowest
+ @since 6.0
+ */
+final class RuleHeap {
+
+    private RuleHeap() {
+        throw new AssertionError();
+    }
+
+    /**
+     Compares the rules at the given indexes by their activation degrees
+
+     @param degrees is the vector of activation degrees of the rules
+     @param a is the index of a rule
+     @param b is the index of another rule
+     @param descending indicates whether the rules are compared in descending
+     order (as Highest) or in ascending order (as Lowest)
+     @return a negative number, zero, or a positive number if the rule `a` is
+     polled before, together with, or after the rule `b`
+     */
+    static int compare(double[] degrees, int a, int b, boolean descending) {
+        double result = descending
+                ? Math.signum(degrees[b] - degrees[a])
+                : Math.signum(degrees[a] - degrees[b]);
+        return Double.isNaN(result) ? -1 : (int) result;
+    }
+
+    /**
+     Inserts the index of a rule into the heap
+
+     @param heap is the vector of the heap, whose capacity must be greater than
+     the size
+     @param size is the number of indexes in the heap
+     @param index is the index of the rule to insert
+     @param degrees is the vector of activation degrees of the rules
+     @param descending indicates whether the heap is in descending order
+     @return the number of indexes in the heap after inserting the index
+     */
+    static int offer(int[] heap, int size, int index, double[] degrees, boolean descending) {
+        int k = size;
+        while (k > 0) {
+            final int parent = (k - 1) >>> 1;
+            final int e = heap[parent];
+            if (compare(degrees, index, e, descending) >= 0) {
+                break;
+            }
+            heap[k] = e;
+            k = parent;
+        }
+        heap[k] = index;
+        return size + 1;
+    }
+
+    /**
+     Removes the index of the first rule from the heap, after which the heap
+     contains `size - 1` indexes
+
+     @param heap is the vector of the heap
+     @param size is the number of indexes in the heap, which must be positive
+     @param degrees is the vector of activation degrees of the rules
+     @param descending indicates whether the heap is in descending order
+     @return the index of the first rule
+     */
+    static int poll(int[] heap, int size, double[] degrees, boolean descending) {
+        final int result = heap[0];
+        final int n = size - 1;
+        if (n > 0) {
+            final int x = heap[n];
+            final int half = n >>> 1;
+            int k = 0;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int c = heap[child];
+                final int right = child + 1;
+                if (right < n && compare(degrees, c, heap[right], descending) > 0) {
+                    child = right;
+                    c = heap[child];
+                }
+                if (compare(degrees, x, c, descending) <= 0) {
+                    break;
+                }
+                heap[k] = c;
+                k = child;
+            }
+            heap[k] = x;
+        }
+        return result;
+    }
+}
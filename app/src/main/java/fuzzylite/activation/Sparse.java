@@ -0,0 +1,666 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.activation;
+
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
+import fuzzylite.hedge.Extremely;
+import fuzzylite.hedge.Hedge;
+import fuzzylite.hedge.Seldom;
+import fuzzylite.hedge.Somewhat;
+import fuzzylite.hedge.Very;
+import fuzzylite.norm.SNorm;
+import fuzzylite.norm.TNorm;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Ramp;
+import fuzzylite.term.Rectangle;
+import fuzzylite.term.Term;
+import fuzzylite.term.Trapezoid;
+import fuzzylite.term.Triangle;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ The Sparse class is a RuleBlock Activation method that activates the same
+ rules as General, but enumerates only the rules whose antecedents can have a
+ non-zero activation degree given the values of the input variables.
+
+ The rules whose antecedents are conjunctions of propositions on input
+ variables, with terms of bounded support (i.e., Triangle, Trapezoid,
+ Rectangle, and Ramp) and hedges that preserve zero (i.e., Very, Somewhat,
+ Seldom, and Extremely), are indexed by the terms of their propositions. Upon
+ activation, the terms whose supports contain the value of each input variable
+ are found by binary search on the bounds of the supports, and only the rules
+ whose terms are all active are activated, in the order in which the rules
+ were added to the rule block. The remaining rules are activated as in General.
+ Hence, the rules that are not enumerated are deactivated, that is, their
+ activation degrees are zero (whereas General may compute `-0.0` or values
+ within the tolerance of zero) and they are not triggered, which is also the
+ case in General, and so the outputs are the same as with General. Every term
+ of an input variable whose value is `NaN` is considered active.
+
+ The index is created upon the first activation of the rule block, and it is
+ created again when the rules of the rule block are replaced or (re)loaded, or
+ when the number of modifications given by FuzzyLite::getModifications()
+ changes, for example, after changing the parameters of the input terms.
+
+ @see General
+ @see Rule
+ @see RuleBlock
+ @see fuzzylite.factory.ActivationFactory
+ @since 6.0
+ */
+public class Sparse extends Activation {
+
+    /**
+     Maximum number of combinations of terms indexed for the rules that refer
+     to the same input variables, beyond which such rules are activated as in
+     General
+     */
+    public static final int MAXIMUM_KEYS = 1 << 20;
+
+    private static final int[] NONE = new int[0];
+
+    private volatile Index index;
+    private Index activatedIndex;
+    private int[][] active;
+    private int[] odometer;
+    private int[] candidates;
+    private int[] activated;
+    private int numberOfActivated;
+
+    public Sparse() {
+    }
+
+    /**
+     No parameters are required to configure the activation method.
+
+     @return an empty string
+     */
+    @Override
+    public String parameters() {
+        return "";
+    }
+
+    /**
+     No parameters are required to configure the activation method.
+
+     @param parameters is an empty string
+     */
+    @Override
+    public void configure(String parameters) {
+        //do nothing...
+    }
+
+    /**
+     Invalidates the index of the rules, which will be created again upon the
+     next activation. The index is invalidated automatically upon modifying
+     the components, so this method is only needed after changing the
+     components in ways that are not counted by FuzzyLite::getModifications()
+     */
+    public void invalidate() {
+        this.index = null;
+    }
+
+    /**
+     Gets the index of the rules of the given rule block, creating it if it does
+     not exist or is not up to date. The index is immutable and published
+     through a volatile field, hence concurrent activations utilizing
+     EvaluationContext%s may create the index more than once, but always read a
+     complete index without locking.
+
+     @param ruleBlock is the rule block
+     @return the index of the rules of the rule block
+     */
+    private Index indexOf(RuleBlock ruleBlock) {
+        Index result = this.index;
+        if (result == null || !result.isIndexOf(ruleBlock)) {
+            result = new Index(ruleBlock);
+            this.index = result;
+        }
+        return result;
+    }
+
+    /**
+     Activates the rules in the given rule block whose antecedents can have a
+     non-zero activation degree, following the order in which the rules were
+     added.
+
+     @param ruleBlock is the rule block to activate
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+
+        final Index current = indexOf(ruleBlock);
+        if (current != activatedIndex) {
+            activatedIndex = current;
+            for (Rule rule : ruleBlock.getRules()) {
+                rule.deactivate();
+            }
+            active = new int[current.variables.length][];
+            odometer = new int[current.maximumSlots];
+            candidates = new int[current.rules.length];
+            activated = new int[current.rules.length];
+            numberOfActivated = 0;
+        }
+
+        for (int i = 0; i < numberOfActivated; ++i) {
+            current.rules[activated[i]].deactivate();
+        }
+
+        for (int v = 0; v < active.length; ++v) {
+            InputVariable variable = current.variables[v];
+            active[v] = variable.isEnabled()
+                    ? current.activeTerms(v, variable.getValue()) : NONE;
+        }
+        final int count = current.candidates(active, odometer, candidates);
+
+        for (int i = 0; i < count; ++i) {
+            Rule rule = current.rules[candidates[i]];
+            rule.activateWith(conjunction, disjunction);
+            rule.trigger(implication);
+        }
+
+        int[] swap = activated;
+        activated = candidates;
+        candidates = swap;
+        numberOfActivated = count;
+    }
+
+    /**
+     Activates the rules in the given rule block whose antecedents can have a
+     non-zero activation degree utilizing the values stored in the evaluation
+     context, following the order in which the rules were added.
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+        Arrays.fill(activationDegrees, 0.0);
+        Arrays.fill(triggered, false);
+
+        final Index current = indexOf(ruleBlock);
+        final Object state = context.activationState(ruleBlock);
+        Scratch scratch = state instanceof Scratch ? (Scratch) state : null;
+        if (scratch == null || scratch.index != current) {
+            scratch = new Scratch(current);
+            context.setActivationState(ruleBlock, scratch);
+        }
+
+        final int[][] activeTerms = scratch.active;
+        for (int v = 0; v < activeTerms.length; ++v) {
+            InputVariable variable = current.variables[v];
+            activeTerms[v] = variable.isEnabled()
+                    ? current.activeTerms(v, context.getValue(variable)) : NONE;
+        }
+        final int[] ruleIndexes = context.ruleIndexes(ruleBlock);
+        final int count = current.candidates(activeTerms, scratch.odometer, ruleIndexes);
+
+        for (int i = 0; i < count; ++i) {
+            final int index = ruleIndexes[i];
+            Rule rule = current.rules[index];
+            activationDegrees[index] = rule.activationDegree(conjunction, disjunction, context);
+            triggered[index] = rule.trigger(activationDegrees[index], implication, context);
+        }
+    }
+
+    @Override
+    public Sparse clone() throws CloneNotSupportedException {
+        Sparse result = (Sparse) super.clone();
+        result.index = null;
+        result.activatedIndex = null;
+        result.active = null;
+        result.odometer = null;
+        result.candidates = null;
+        result.activated = null;
+        result.numberOfActivated = 0;
+        return result;
+    }
+
+    /**
+     Computes the bounds of the support of the given term, that is, the
+     interval out of which the membership function value of the term is zero,
+     considering the tolerance of the comparisons of the term
+
+     @param term is the term
+     @param tolerance is the tolerance of the comparisons
+     @return the bounds of the support of the term, or `null` if the support of
+     the term is not known to be bounded
+     */
+    static double[] support(Term term, double tolerance) {
+        Class<?> type = term.getClass();
+        double minimum = Double.NEGATIVE_INFINITY;
+        double maximum = Double.POSITIVE_INFINITY;
+        if (type == Triangle.class) {
+            Triangle triangle = (Triangle) term;
+            minimum = Math.min(triangle.getVertexA(), triangle.getVertexC());
+            maximum = Math.max(triangle.getVertexA(), triangle.getVertexC());
+        } else if (type == Trapezoid.class) {
+            Trapezoid trapezoid = (Trapezoid) term;
+            minimum = Math.min(trapezoid.getVertexA(), trapezoid.getVertexD());
+            maximum = Math.max(trapezoid.getVertexA(), trapezoid.getVertexD());
+        } else if (type == Rectangle.class) {
+            Rectangle rectangle = (Rectangle) term;
+            minimum = Math.min(rectangle.getStart(), rectangle.getEnd());
+            maximum = Math.max(rectangle.getStart(), rectangle.getEnd());
+        } else if (type == Ramp.class) {
+            Ramp ramp = (Ramp) term;
+            if (ramp.getStart() < ramp.getEnd()) {
+                minimum = ramp.getStart();
+            } else {
+                maximum = ramp.getStart();
+            }
+        } else {
+            return null;
+        }
+        if (Double.isNaN(minimum) || Double.isNaN(maximum)
+                || (minimum == Double.NEGATIVE_INFINITY && maximum == Double.POSITIVE_INFINITY)) {
+            return null;
+        }
+        return new double[]{minimum - tolerance, maximum + tolerance};
+    }
+
+    /**
+     The Scratch class contains the vectors utilized to activate the rules of
+     an index in an EvaluationContext, which are stored in the context to
+     activate the rules without allocating memory.
+     */
+    private static class Scratch {
+
+        private final Index index;
+        private final int[][] active;
+        private final int[] odometer;
+
+        Scratch(Index index) {
+            this.index = index;
+            this.active = new int[index.variables.length][];
+            this.odometer = new int[index.maximumSlots];
+        }
+    }
+
+    /**
+     The Index class is the immutable index of the rules of a rule block, which
+     maps the value of each input variable to the terms whose supports contain
+     the value, and the combinations of such terms to the rules that refer to
+     them.
+     */
+    private static class Index {
+
+        private final RuleBlock ruleBlock;
+        private final long modifications;
+        private final Rule[] rules;
+        private final Expression[] expressions;
+
+        private final InputVariable[] variables;
+        /**
+         Sorted bounds of the supports of the terms of each variable
+         */
+        private final double[][] bounds;
+        /**
+         Terms whose supports intersect each region of each variable, where the
+         regions `2i+1` are the bounds and the regions `2i` are the open
+         intervals between them
+         */
+        private final int[][][] regions;
+        private final int[][] allTerms;
+
+        private final int[] denseRules;
+        private final int[][] groupVariables;
+        private final int[][] groupStrides;
+        private final int[][] groupBucketStart;
+        private final int[][] groupBucketRules;
+        private final int maximumSlots;
+
+        Index(RuleBlock ruleBlock) {
+            this.ruleBlock = ruleBlock;
+            this.modifications = FuzzyLite.getModifications();
+            this.rules = ruleBlock.getRules().toArray(new Rule[ruleBlock.numberOfRules()]);
+            this.expressions = new Expression[rules.length];
+            final double tolerance = FuzzyLite.getMachEps();
+
+            List<InputVariable> variableList = new ArrayList<InputVariable>();
+            Map<Variable, Integer> variableIndex = new IdentityHashMap<Variable, Integer>();
+            List<List<double[]>> supports = new ArrayList<List<double[]>>();
+            List<Map<Term, Integer>> termIndex = new ArrayList<Map<Term, Integer>>();
+
+            List<Integer> dense = new ArrayList<Integer>();
+            Map<String, List<int[]>> groups = new LinkedHashMap<String, List<int[]>>();
+            List<Proposition> propositions = new ArrayList<Proposition>();
+            for (int r = 0; r < rules.length; ++r) {
+                Rule rule = rules[r];
+                if (!rule.isLoaded()) {
+                    continue;
+                }
+                expressions[r] = rule.getAntecedent().getExpression();
+                propositions.clear();
+                if (!conjunctions(expressions[r], propositions)) {
+                    dense.add(r);
+                    continue;
+                }
+                //slots are pairs of variable and term, sorted by variable
+                int[][] slots = new int[propositions.size()][];
+                for (int p = 0; p < slots.length; ++p) {
+                    Proposition proposition = propositions.get(p);
+                    Variable variable = proposition.getVariable();
+                    Integer v = variableIndex.get(variable);
+                    if (v == null) {
+                        v = variableList.size();
+                        variableIndex.put(variable, v);
+                        variableList.add((InputVariable) variable);
+                        supports.add(new ArrayList<double[]>());
+                        termIndex.add(new IdentityHashMap<Term, Integer>());
+                    }
+                    Integer t = termIndex.get(v).get(proposition.getTerm());
+                    if (t == null) {
+                        t = supports.get(v).size();
+                        supports.get(v).add(support(proposition.getTerm(), tolerance));
+                        termIndex.get(v).put(proposition.getTerm(), t);
+                    }
+                    slots[p] = new int[]{v, t};
+                }
+                Arrays.sort(slots, new Comparator<int[]>() {
+                    @Override
+                    public int compare(int[] a, int[] b) {
+                        return a[0] != b[0] ? a[0] - b[0] : a[1] - b[1];
+                    }
+                });
+                StringBuilder signature = new StringBuilder();
+                int[] entry = new int[1 + slots.length];
+                entry[0] = r;
+                for (int s = 0; s < slots.length; ++s) {
+                    signature.append(slots[s][0]).append(' ');
+                    entry[s + 1] = slots[s][1];
+                }
+                List<int[]> group = groups.get(signature.toString());
+                if (group == null) {
+                    group = new ArrayList<int[]>();
+                    groups.put(signature.toString(), group);
+                }
+                group.add(entry);
+            }
+
+            this.variables = variableList.toArray(new InputVariable[variableList.size()]);
+            this.bounds = new double[variables.length][];
+            this.regions = new int[variables.length][][];
+            this.allTerms = new int[variables.length][];
+            for (int v = 0; v < variables.length; ++v) {
+                index(v, supports.get(v));
+                allTerms[v] = new int[supports.get(v).size()];
+                for (int t = 0; t < allTerms[v].length; ++t) {
+                    allTerms[v][t] = t;
+                }
+            }
+
+            List<int[]> groupVariableList = new ArrayList<int[]>();
+            List<int[]> groupStrideList = new ArrayList<int[]>();
+            List<int[]> groupBucketStartList = new ArrayList<int[]>();
+            List<int[]> groupBucketRuleList = new ArrayList<int[]>();
+            for (Map.Entry<String, List<int[]>> entry : groups.entrySet()) {
+                String[] tokens = entry.getKey().trim().split(" ");
+                int[] groupVariable = new int[tokens.length];
+                int[] stride = new int[tokens.length];
+                long keys = 1;
+                for (int s = tokens.length - 1; s >= 0; --s) {
+                    groupVariable[s] = Integer.parseInt(tokens[s]);
+                    stride[s] = (int) keys;
+                    keys *= Math.max(1, supports.get(groupVariable[s]).size());
+                    if (keys > MAXIMUM_KEYS) {
+                        break;
+                    }
+                }
+                List<int[]> groupRules = entry.getValue();
+                if (keys > MAXIMUM_KEYS) {
+                    for (int[] rule : groupRules) {
+                        dense.add(rule[0]);
+                    }
+                    continue;
+                }
+                int[] bucketStart = new int[(int) keys + 1];
+                int[] ruleKeys = new int[groupRules.size()];
+                for (int k = 0; k < ruleKeys.length; ++k) {
+                    int[] rule = groupRules.get(k);
+                    for (int s = 0; s < stride.length; ++s) {
+                        ruleKeys[k] += rule[s + 1] * stride[s];
+                    }
+                    ++bucketStart[ruleKeys[k] + 1];
+                }
+                for (int key = 0; key < keys; ++key) {
+                    bucketStart[key + 1] += bucketStart[key];
+                }
+                int[] bucketRules = new int[ruleKeys.length];
+                int[] next = Arrays.copyOf(bucketStart, bucketStart.length);
+                for (int k = 0; k < ruleKeys.length; ++k) {
+                    bucketRules[next[ruleKeys[k]]++] = groupRules.get(k)[0];
+                }
+                groupVariableList.add(groupVariable);
+                groupStrideList.add(stride);
+                groupBucketStartList.add(bucketStart);
+                groupBucketRuleList.add(bucketRules);
+            }
+            this.groupVariables = groupVariableList.toArray(new int[groupVariableList.size()][]);
+            this.groupStrides = groupStrideList.toArray(new int[groupStrideList.size()][]);
+            this.groupBucketStart = groupBucketStartList.toArray(new int[groupBucketStartList.size()][]);
+            this.groupBucketRules = groupBucketRuleList.toArray(new int[groupBucketRuleList.size()][]);
+            this.denseRules = new int[dense.size()];
+            for (int i = 0; i < denseRules.length; ++i) {
+                denseRules[i] = dense.get(i);
+            }
+            Arrays.sort(denseRules);
+            int slots = 0;
+            for (int[] groupVariable : groupVariables) {
+                slots = Math.max(slots, groupVariable.length);
+            }
+            this.maximumSlots = slots;
+        }
+
+        /**
+         Collects the propositions of the given expression if it is a
+         conjunction of propositions on input variables whose terms have
+         bounded supports and whose hedges preserve zero
+
+         @return whether the expression is such a conjunction
+         */
+        private static boolean conjunctions(Expression node, List<Proposition> propositions) {
+            if (node instanceof Operator) {
+                Operator operator = (Operator) node;
+                return Rule.FL_AND.equals(operator.getName())
+                        && operator.getLeft() != null && operator.getRight() != null
+                        && conjunctions(operator.getLeft(), propositions)
+                        && conjunctions(operator.getRight(), propositions);
+            }
+            if (!(node instanceof Proposition)) {
+                return false;
+            }
+            Proposition proposition = (Proposition) node;
+            if (!(proposition.getVariable() instanceof InputVariable)
+                    || proposition.getTerm() == null
+                    || support(proposition.getTerm(), 0.0) == null) {
+                return false;
+            }
+            for (Hedge hedge : proposition.getHedges()) {
+                Class<?> type = hedge.getClass();
+                if (!(type == Very.class || type == Somewhat.class
+                        || type == Seldom.class || type == Extremely.class)) {
+                    return false;
+                }
+            }
+            propositions.add(proposition);
+            return true;
+        }
+
+        /**
+         Indexes the regions of the given variable from the supports of its
+         terms
+         */
+        private void index(int variable, List<double[]> supports) {
+            double[] values = new double[2 * supports.size()];
+            int size = 0;
+            for (double[] support : supports) {
+                for (double bound : support) {
+                    if (!Double.isInfinite(bound)) {
+                        values[size++] = bound + 0.0;
+                    }
+                }
+            }
+            Arrays.sort(values, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; ++i) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            final double[] points = Arrays.copyOf(values, unique);
+            final int[][] terms = new int[2 * unique + 1][];
+            int[] buffer = new int[supports.size()];
+            for (int region = 0; region < terms.length; ++region) {
+                int count = 0;
+                for (int t = 0; t < supports.size(); ++t) {
+                    double[] support = supports.get(t);
+                    boolean intersects;
+                    if (region % 2 == 1) {
+                        double point = points[region / 2];
+                        intersects = support[0] <= point && point <= support[1];
+                    } else {
+                        double lower = region == 0 ? Double.NEGATIVE_INFINITY : points[region / 2 - 1];
+                        double upper = region == terms.length - 1 ? Double.POSITIVE_INFINITY : points[region / 2];
+                        intersects = support[0] < upper && support[1] > lower;
+                    }
+                    if (intersects) {
+                        buffer[count++] = t;
+                    }
+                }
+                terms[region] = Arrays.copyOf(buffer, count);
+            }
+            this.bounds[variable] = points;
+            this.regions[variable] = terms;
+        }
+
+        /**
+         Indicates whether the index is up to date with the rules of the given
+         rule block and with the modifications of the components
+         */
+        boolean isIndexOf(RuleBlock ruleBlock) {
+            if (this.ruleBlock != ruleBlock || modifications != FuzzyLite.getModifications()
+                    || rules.length != ruleBlock.numberOfRules()) {
+                return false;
+            }
+            List<Rule> ruleList = ruleBlock.getRules();
+            for (int i = 0; i < rules.length; ++i) {
+                Rule rule = ruleList.get(i);
+                if (rule != rules[i] || (rule.isLoaded()
+                        ? rule.getAntecedent().getExpression() : null) != expressions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         Gets the indexes of the terms of the given variable whose supports
+         contain the given value
+
+         @param variable is the index of the variable
+         @param x is the value of the variable
+         @return the indexes of the terms whose supports contain the value
+         */
+        int[] activeTerms(int variable, double x) {
+            if (Double.isNaN(x)) {
+                //the membership function values are NaN, which some conjunctions ignore
+                return allTerms[variable];
+            }
+            int position = Arrays.binarySearch(bounds[variable], x + 0.0);
+            int region = position >= 0 ? 2 * position + 1 : -2 * (position + 1);
+            return regions[variable][region];
+        }
+
+        /**
+         Collects the indexes of the rules to activate in ascending order, which
+         are the rules that are not indexed and the rules whose terms are all
+         active
+
+         @param active contains the active terms of each variable
+         @param odometer is the vector to enumerate the combinations of active
+         terms, whose length must be at least Index::maximumSlots
+         @param result is the vector to store the indexes of the rules, or
+         `null` to only count them
+         @return the number of rules to activate
+         */
+        int candidates(int[][] active, int[] odometer, int[] result) {
+            int count = denseRules.length;
+            if (result != null) {
+                System.arraycopy(denseRules, 0, result, 0, count);
+            }
+            groups:
+            for (int g = 0; g < groupVariables.length; ++g) {
+                final int[] groupVariable = groupVariables[g];
+                final int[] stride = groupStrides[g];
+                final int[] bucketStart = groupBucketStart[g];
+                final int[] bucketRules = groupBucketRules[g];
+                for (int v : groupVariable) {
+                    if (active[v].length == 0) {
+                        continue groups;
+                    }
+                }
+                Arrays.fill(odometer, 0, groupVariable.length, 0);
+                while (true) {
+                    int key = 0;
+                    for (int s = 0; s < groupVariable.length; ++s) {
+                        key += active[groupVariable[s]][odometer[s]] * stride[s];
+                    }
+                    for (int i = bucketStart[key]; i < bucketStart[key + 1]; ++i) {
+                        if (result != null) {
+                            result[count] = bucketRules[i];
+                        }
+                        ++count;
+                    }
+                    int s = groupVariable.length - 1;
+                    while (s >= 0 && ++odometer[s] == active[groupVariable[s]].length) {
+                        odometer[s--] = 0;
+                    }
+                    if (s < 0) {
+                        break;
+                    }
+                }
+            }
+            if (result != null && count > denseRules.length) {
+                Arrays.sort(result, 0, count);
+            }
+            return count;
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package fuzzylite.activation;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.norm.SNorm;
@@ -25,7 +26,6 @@ import fuzzylite.rule.RuleBlock;
 
 import java.text.MessageFormat;
 import java.util.List;
-import java.util.logging.Level;
 
 /**
  The Threshold class is a RuleBlock Activation method that activates the rules
@@ -128,6 +128,7 @@ public class Threshold extends Activation {
      @param comparison is the operator for the activation method
      */
     public void setComparison(Comparison comparison) {
+        FuzzyLite.modified();
         this.comparison = comparison;
     }
 
@@ -146,6 +147,7 @@ public class Threshold extends Activation {
      @param value is the threshold value for activation degrees
      */
     public void setValue(double value) {
+        FuzzyLite.modified();
         this.value = value;
     }
 
@@ -156,6 +158,7 @@ public class Threshold extends Activation {
      @param value is the threshold of the activation method
      */
     public void setThreshold(Comparison comparison, double value) {
+        FuzzyLite.modified();
         setComparison(comparison);
         setValue(value);
     }
@@ -232,10 +235,6 @@ public class Threshold extends Activation {
      */
     @Override
     public void activate(RuleBlock ruleBlock) {
-        if (FuzzyLite.isDebugging()) {
-            FuzzyLite.logger().log(Level.FINE, "Activation: {0} {1}",
-                    new String[]{getClass().getName(), parameters()});
-        }
         TNorm conjunction = ruleBlock.getConjunction();
         SNorm disjunction = ruleBlock.getDisjunction();
         TNorm implication = ruleBlock.getImplication();
@@ -251,6 +250,35 @@ public class Threshold extends Activation {
         }
     }
 
+    /**
+     Activates the rules whose activation degrees satisfy the comparison
+     against the threshold utilizing the values stored in the evaluation
+     context
+
+     @param ruleBlock is the rule block to activate
+     @param context is the evaluation context
+     */
+    @Override
+    public void activate(RuleBlock ruleBlock, EvaluationContext context) {
+        TNorm conjunction = ruleBlock.getConjunction();
+        SNorm disjunction = ruleBlock.getDisjunction();
+        TNorm implication = ruleBlock.getImplication();
+        double[] activationDegrees = context.activationDegrees(ruleBlock);
+        boolean[] triggered = context.triggered(ruleBlock);
+
+        for (int i = 0; i < activationDegrees.length; ++i) {
+            Rule rule = ruleBlock.getRule(i);
+            activationDegrees[i] = 0.0;
+            triggered[i] = false;
+            if (rule.isLoaded()) {
+                activationDegrees[i] = rule.activationDegree(conjunction, disjunction, context);
+                if (activatesWith(activationDegrees[i])) {
+                    triggered[i] = rule.trigger(activationDegrees[i], implication, context);
+                }
+            }
+        }
+    }
+
     @Override
     public Threshold clone() throws CloneNotSupportedException {
         return (Threshold) super.clone();
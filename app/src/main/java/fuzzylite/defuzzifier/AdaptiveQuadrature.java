@@ -0,0 +1,484 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.defuzzifier;
+
+import fuzzylite.Op;
+import fuzzylite.term.Activated;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Term;
+
+import java.util.Arrays;
+
+/**
+ The AdaptiveQuadrature class integrates the membership function of a fuzzy set
+ within the range `[minimum,maximum]` utilizing the adaptive Simpson's rule
+ (https://en.wikipedia.org/wiki/Adaptive_Simpson%27s_method), which samples
+ the fuzzy set densely only where its membership function is not well
+ approximated by a parabola. The range is first split at the bounds of the
+ supports of the terms (see Term::supportMinimum()), so that narrow terms are
+ not missed, and each panel is then bisected until its estimated error is
+ within its share of the tolerance or the maximum number of evaluations of the
+ membership function is reached.
+
+ The integral defuzzifiers utilize the accepted panels to compute the
+ centroid and the bisector, and utilize the sampled points refined by
+ bisection to compute the maxima.
+
+ @see IntegralDefuzzifier
+ @see IntegralDefuzzifier.Integration
+ @since 6.0
+ */
+public final class AdaptiveQuadrature {
+
+    /**
+     Minimum number of times that each initial panel is bisected before its
+     estimated error is considered
+     */
+    public static final int MINIMUM_DEPTH = 3;
+
+    private final Term term;
+    private final double minimum;
+    private final double maximum;
+    private final double tolerance;
+    private final int maximumEvaluations;
+    private int evaluations;
+    private double error;
+    //accepted panels as consecutive tuples (a, b, f(a), f((a+b)/2), f(b))
+    private double[] panels;
+    private int size;
+
+    private AdaptiveQuadrature(Term term, double minimum, double maximum,
+            double tolerance, int maximumEvaluations) {
+        this.term = term;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.tolerance = tolerance * (maximum - minimum);
+        this.maximumEvaluations = maximumEvaluations;
+        this.evaluations = 0;
+        this.error = 0.0;
+        this.panels = new double[5 * 16];
+        this.size = 0;
+    }
+
+    /**
+     Integrates the given term within the range `[minimum,maximum]`
+
+     @param term is the fuzzy set
+     @param minimum is the minimum value of the range
+     @param maximum is the maximum value of the range
+     @param tolerance is the tolerance of the estimated error of the integral
+     relative to the range `maximum - minimum`, which is also the tolerance of
+     the location of the maxima relative to the range
+     @param maximumEvaluations is the maximum number of evaluations of the
+     membership function of the term
+     @return the quadrature of the term, or `null` if the range is not finite
+     */
+    public static AdaptiveQuadrature create(Term term, double minimum, double maximum,
+            double tolerance, int maximumEvaluations) {
+        if (!(Op.isFinite(minimum) && Op.isFinite(maximum)) || minimum > maximum) {
+            return null;
+        }
+        AdaptiveQuadrature result = new AdaptiveQuadrature(
+                term, minimum, maximum, tolerance, maximumEvaluations);
+        result.integrate(result.breakpoints());
+        return result;
+    }
+
+    /**
+     Gets the number of evaluations of the membership function of the term
+     performed so far, which includes the evaluations performed to refine the
+     maxima
+
+     @return the number of evaluations of the membership function of the term
+     */
+    public int evaluations() {
+        return evaluations;
+    }
+
+    /**
+     Gets the estimated absolute error of the area under the membership
+     function of the term
+
+     @return the estimated absolute error of the area
+     */
+    public double error() {
+        return error;
+    }
+
+    /**
+     Gets the number of accepted panels
+
+     @return the number of accepted panels
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     Computes the area under the membership function of the term
+
+     @return the area under the membership function of the term
+     */
+    public double area() {
+        double result = 0.0;
+        for (int i = 0; i < 5 * size; i += 5) {
+            result += simpson(panels[i], panels[i + 1],
+                    panels[i + 2], panels[i + 3], panels[i + 4]);
+        }
+        return result;
+    }
+
+    /**
+     Computes the `x`-coordinate of the centroid of the term
+
+     @return the `x`-coordinate of the centroid, or `NaN` if the area is zero
+     */
+    public double centroid() {
+        double area = 0.0, moment = 0.0;
+        for (int i = 0; i < 5 * size; i += 5) {
+            final double a = panels[i], b = panels[i + 1];
+            final double m = 0.5 * (a + b);
+            area += simpson(a, b, panels[i + 2], panels[i + 3], panels[i + 4]);
+            moment += simpson(a, b, a * panels[i + 2], m * panels[i + 3], b * panels[i + 4]);
+        }
+        return moment / area;
+    }
+
+    /**
+     Computes the `x`-coordinate that divides the area under the membership
+     function of the term into two halves, where the location within the panel
+     is found on the parabola that interpolates the panel
+
+     @return the `x`-coordinate of the bisector, or `NaN` if the area is zero
+     */
+    public double bisector() {
+        final double area = area();
+        if (!(area > 0.0)) {
+            return Double.NaN;
+        }
+        final double half = 0.5 * area;
+        double accumulated = 0.0;
+        for (int i = 0; i < 5 * size; i += 5) {
+            final double a = panels[i], b = panels[i + 1];
+            final double fa = panels[i + 2], fm = panels[i + 3], fb = panels[i + 4];
+            final double panel = simpson(a, b, fa, fm, fb);
+            if (accumulated + panel < half && i + 5 < 5 * size) {
+                accumulated += panel;
+                continue;
+            }
+            //integral from a to a + t (b - a) of the interpolating parabola
+            final double c1 = -3.0 * fa + 4.0 * fm - fb;
+            final double c2 = 2.0 * fa - 4.0 * fm + 2.0 * fb;
+            final double target = (half - accumulated) / (b - a);
+            double low = 0.0, high = 1.0;
+            for (int iteration = 0; iteration < 64 && high - low > Math.ulp(1.0); ++iteration) {
+                final double t = 0.5 * (low + high);
+                if (t * (fa + t * (0.5 * c1 + t * c2 / 3.0)) < target) {
+                    low = t;
+                } else {
+                    high = t;
+                }
+            }
+            return a + 0.5 * (low + high) * (b - a);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     Computes the smallest `x`-coordinate at which the membership function of
+     the term reaches its maximum, refined by bisection between the first
+     sampled point at the maximum and its predecessor
+
+     @return the smallest `x`-coordinate at the maximum
+     */
+    public double smallestOfMaximum() {
+        final int points = points();
+        if (points == 0) {
+            return minimum;
+        }
+        final double ymax = maximum(points);
+        int first = 0;
+        while (!Op.isEq(y(first), ymax)) {
+            ++first;
+        }
+        return first == 0 ? x(0) : refine(x(first - 1), x(first), ymax);
+    }
+
+    /**
+     Computes the largest `x`-coordinate at which the membership function of
+     the term reaches its maximum, refined by bisection between the last
+     sampled point at the maximum and its successor
+
+     @return the largest `x`-coordinate at the maximum
+     */
+    public double largestOfMaximum() {
+        final int points = points();
+        if (points == 0) {
+            return maximum;
+        }
+        final double ymax = maximum(points);
+        int last = points - 1;
+        while (!Op.isEq(y(last), ymax)) {
+            --last;
+        }
+        return last == points - 1 ? x(last) : refine(x(last + 1), x(last), ymax);
+    }
+
+    /**
+     Computes the mean of the smallest and largest `x`-coordinates of the first
+     plateau at which the membership function of the term reaches its maximum,
+     where the plateau is the sequence of consecutive sampled points at the
+     maximum, and its edges are refined by bisection
+
+     @return the mean `x`-coordinate of the first plateau at the maximum
+     */
+    public double meanOfMaximum() {
+        final int points = points();
+        if (points == 0) {
+            return 0.5 * (minimum + maximum);
+        }
+        final double ymax = maximum(points);
+        int first = 0;
+        while (!Op.isEq(y(first), ymax)) {
+            ++first;
+        }
+        int last = first;
+        while (last + 1 < points && Op.isEq(y(last + 1), ymax)) {
+            ++last;
+        }
+        final double smallest = first == 0 ? x(0) : refine(x(first - 1), x(first), ymax);
+        final double largest = last == points - 1 ? x(last) : refine(x(last + 1), x(last), ymax);
+        return 0.5 * (smallest + largest);
+    }
+
+    /**
+     Computes the defuzzified value of the term utilizing the given integral
+     defuzzifier
+
+     @param defuzzifier is the integral defuzzifier
+     @return the defuzzified value of the term, or `NaN` if the defuzzifier is
+     not supported
+     */
+    public double defuzzify(IntegralDefuzzifier defuzzifier) {
+        if (defuzzifier instanceof Centroid) {
+            return centroid();
+        }
+        if (defuzzifier instanceof Bisector) {
+            return bisector();
+        }
+        if (defuzzifier instanceof MeanOfMaximum) {
+            return meanOfMaximum();
+        }
+        if (defuzzifier instanceof SmallestOfMaximum) {
+            return smallestOfMaximum();
+        }
+        if (defuzzifier instanceof LargestOfMaximum) {
+            return largestOfMaximum();
+        }
+        return Double.NaN;
+    }
+
+    private double membership(double x) {
+        ++evaluations;
+        return term.membership(x);
+    }
+
+    private static double simpson(double a, double b, double fa, double fm, double fb) {
+        return (b - a) / 6.0 * (fa + 4.0 * fm + fb);
+    }
+
+    /**
+     Computes the sorted and distinct bounds of the supports of the terms
+     within the range, including the minimum and the maximum of the range
+     */
+    private double[] breakpoints() {
+        double[] result;
+        int count = 0;
+        if (term instanceof Aggregated) {
+            Aggregated aggregated = (Aggregated) term;
+            result = new double[2 * aggregated.getTerms().size() + 2];
+            for (Activated activated : aggregated.getTerms()) {
+                result[count++] = activated.supportMinimum();
+                result[count++] = activated.supportMaximum();
+            }
+        } else {
+            result = new double[4];
+            result[count++] = term.supportMinimum();
+            result[count++] = term.supportMaximum();
+        }
+        int size = 0;
+        for (int i = 0; i < count; ++i) {
+            if (result[i] > minimum && result[i] < maximum) {
+                result[size++] = result[i];
+            }
+        }
+        result[size++] = minimum;
+        result[size++] = maximum;
+        Arrays.sort(result, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; ++i) {
+            if (distinct == 0 || result[i] != result[distinct - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     Integrates the panels between consecutive breakpoints, bisecting the
+     panels depth-first from left to right so that the accepted panels are
+     sorted by `x`
+     */
+    private void integrate(double[] breakpoints) {
+        if (breakpoints.length < 2) {
+            final double f = membership(minimum);
+            accept(minimum, maximum, f, f, f);
+            return;
+        }
+        //stack of pending panels as tuples (a, b, f(a), f(m), f(b), depth)
+        double[] stack = new double[6 * 64];
+        double fb = membership(breakpoints[breakpoints.length - 1]);
+        int top = 0;
+        for (int k = breakpoints.length - 2; k >= 0; --k) {
+            final double a = breakpoints[k], b = breakpoints[k + 1];
+            final double fm = membership(0.5 * (a + b));
+            final double fa = membership(a);
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            stack[top++] = a;
+            stack[top++] = b;
+            stack[top++] = fa;
+            stack[top++] = fm;
+            stack[top++] = fb;
+            stack[top++] = 0;
+            fb = fa;
+        }
+        final double range = maximum - minimum;
+        while (top > 0) {
+            top -= 6;
+            final double a = stack[top], b = stack[top + 1];
+            final double fa = stack[top + 2], fm = stack[top + 3], fb2 = stack[top + 4];
+            final int depth = (int) stack[top + 5];
+            final double m = 0.5 * (a + b);
+            if (evaluations + 2 > maximumEvaluations || !(m > a && m < b)) {
+                accept(a, b, fa, fm, fb2);
+                continue;
+            }
+            final double flm = membership(0.5 * (a + m));
+            final double frm = membership(0.5 * (m + b));
+            final double whole = simpson(a, b, fa, fm, fb2);
+            final double left = simpson(a, m, fa, flm, fm);
+            final double right = simpson(m, b, fm, frm, fb2);
+            final double difference = Math.abs(left + right - whole);
+            final double share = range > 0.0 ? tolerance * (b - a) / range : 0.0;
+            if (depth >= MINIMUM_DEPTH && difference <= 15.0 * share) {
+                error += difference / 15.0;
+                accept(a, m, fa, flm, fm);
+                accept(m, b, fm, frm, fb2);
+                continue;
+            }
+            if (top + 12 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            //right panel first so that the left panel is processed first
+            stack[top++] = m;
+            stack[top++] = b;
+            stack[top++] = fm;
+            stack[top++] = frm;
+            stack[top++] = fb2;
+            stack[top++] = depth + 1;
+            stack[top++] = a;
+            stack[top++] = m;
+            stack[top++] = fa;
+            stack[top++] = flm;
+            stack[top++] = fm;
+            stack[top++] = depth + 1;
+        }
+    }
+
+    private void accept(double a, double b, double fa, double fm, double fb) {
+        if (5 * (size + 1) > panels.length) {
+            panels = Arrays.copyOf(panels, 2 * panels.length);
+        }
+        final int i = 5 * size;
+        panels[i] = a;
+        panels[i + 1] = b;
+        panels[i + 2] = fa;
+        panels[i + 3] = fm;
+        panels[i + 4] = fb;
+        ++size;
+    }
+
+    /**
+     Gets the number of sampled points, which are the start and middle points
+     of the accepted panels and the end point of the last panel
+     */
+    private int points() {
+        return size == 0 ? 0 : 2 * size + 1;
+    }
+
+    private double x(int point) {
+        if (point == 2 * size) {
+            return panels[5 * size - 4];
+        }
+        final int i = 5 * (point / 2);
+        return (point % 2 == 0) ? panels[i] : 0.5 * (panels[i] + panels[i + 1]);
+    }
+
+    private double y(int point) {
+        if (point == 2 * size) {
+            return panels[5 * size - 1];
+        }
+        return panels[5 * (point / 2) + 2 + (point % 2)];
+    }
+
+    private double maximum(int points) {
+        double result = -1.0;
+        for (int i = 0; i < points; ++i) {
+            if (Op.isGt(y(i), result)) {
+                result = y(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     Bisects the interval between the given points to find the point closest
+     to the outer point at which the membership function reaches the maximum
+
+     @param outer is the point whose membership is below the maximum
+     @param inner is the point whose membership is at the maximum
+     @param ymax is the maximum membership
+     @return the point closest to the outer point at the maximum
+     */
+    private double refine(double outer, double inner, double ymax) {
+        final double precision = tolerance;
+        while (Math.abs(inner - outer) > precision && evaluations < maximumEvaluations) {
+            final double middle = 0.5 * (outer + inner);
+            if (!(middle != outer && middle != inner)) {
+                break;
+            }
+            if (Op.isGE(membership(middle), ymax)) {
+                inner = middle;
+            } else {
+                outer = middle;
+            }
+        }
+        return inner;
+    }
+}
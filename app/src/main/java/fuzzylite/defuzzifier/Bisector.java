@@ -19,6 +19,8 @@ package fuzzylite.defuzzifier;
 import fuzzylite.Op;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The Bisector class is an IntegralDefuzzifier that computes the bisector of a
  fuzzy set represented in a Term.
@@ -43,7 +45,12 @@ public class Bisector extends IntegralDefuzzifier {
      Computes the bisector of a fuzzy set. The defuzzification process
      integrates over the fuzzy set utilizing the boundaries given as parameters.
      The integration algorithm is the midpoint rectangle method
-     (https://en.wikipedia.org/wiki/Rectangle_method).
+     (https://en.wikipedia.org/wiki/Rectangle_method), unless the integration is
+     Integration::Exact and the fuzzy set is piecewise-linear, in which case the
+     area is computed in closed form. If the integration is
+     Integration::Support, only the midpoints within the support of the fuzzy
+     set are sampled. If the integration is Integration::Adaptive, the
+     fuzzy set is integrated utilizing the AdaptiveQuadrature.
 
      @param term is the fuzzy set
      @param minimum is the minimum value of the fuzzy set
@@ -52,25 +59,68 @@ public class Bisector extends IntegralDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         if (!Op.isFinite(minimum + maximum)) {
             return Double.NaN;
         }
-        final double dx = (maximum - minimum) / getResolution();
-        int counter = getResolution();
+        PiecewiseLinear polygon = polygon(term, minimum, maximum);
+        if (polygon != null) {
+            return polygon.bisector();
+        }
+        AdaptiveQuadrature quadrature = quadrature(term, minimum, maximum);
+        if (quadrature != null) {
+            final double result = quadrature.bisector();
+            count(evaluations, quadrature.evaluations());
+            return result;
+        }
+        final int resolution = getResolution();
+        final double dx = (maximum - minimum) / resolution;
+        //samples out of the ranges are zero, so the side that is behind skips
+        //them at once, which is equivalent to adding them one at a time
+        final int[] samples = samples(term, minimum, maximum, resolution);
+        int lower = 0, upper = samples.length - 2;
         int left = 0, right = 0;
+        int sampled = 0;
         double leftArea = 0, rightArea = 0;
         double xLeft = minimum, xRight = maximum;
-        while (counter-- > 0) {
+        while (left + right < resolution) {
             if (Op.isLE(leftArea, rightArea)) {
-                xLeft = minimum + (left + 0.5) * dx;
-                leftArea += term.membership(xLeft);
-                left++;
+                while (lower < samples.length && samples[lower + 1] <= left) {
+                    lower += 2;
+                }
+                if (lower < samples.length && samples[lower] <= left) {
+                    xLeft = minimum + (left + 0.5) * dx;
+                    leftArea += term.membership(xLeft);
+                    left++;
+                    sampled++;
+                } else {
+                    int next = lower < samples.length ? samples[lower] : resolution;
+                    left = Math.min(next, resolution - right);
+                    xLeft = minimum + (left - 0.5) * dx;
+                }
             } else {
-                xRight = maximum - (right + 0.5) * dx;
-                rightArea += term.membership(xRight);
-                right++;
+                final int index = resolution - 1 - right;
+                while (upper >= 0 && samples[upper] > index) {
+                    upper -= 2;
+                }
+                if (upper >= 0 && samples[upper + 1] > index) {
+                    xRight = maximum - (right + 0.5) * dx;
+                    rightArea += term.membership(xRight);
+                    right++;
+                    sampled++;
+                } else {
+                    int next = upper >= 0 ? samples[upper + 1] - 1 : -1;
+                    right = resolution - 1 - Math.max(next, left - 1);
+                    xRight = maximum - (right - 0.5) * dx;
+                }
             }
         }
+        count(evaluations, sampled);
         //Inverse weighted average to compensate
         return (leftArea * xRight + rightArea * xLeft) / (leftArea + rightArea);
     }
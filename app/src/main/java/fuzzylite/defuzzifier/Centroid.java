@@ -19,6 +19,8 @@ package fuzzylite.defuzzifier;
 import fuzzylite.Op;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The Centroid class is an IntegralDefuzzifier that computes the centroid of a
  fuzzy set represented in a Term.
@@ -43,7 +45,12 @@ public class Centroid extends IntegralDefuzzifier {
      Computes the centroid of a fuzzy set. The defuzzification process
      integrates over the fuzzy set utilizing the boundaries given as parameters.
      The integration algorithm is the midpoint rectangle method
-     (https://en.wikipedia.org/wiki/Rectangle_method).
+     (https://en.wikipedia.org/wiki/Rectangle_method), unless the integration is
+     Integration::Exact and the fuzzy set is piecewise-linear, in which case the
+     area is computed in closed form. If the integration is
+     Integration::Support, only the midpoints within the support of the fuzzy
+     set are sampled. If the integration is Integration::Adaptive, the
+     fuzzy set is integrated utilizing the AdaptiveQuadrature.
 
      @param term is the fuzzy set
      @param minimum is the minimum value of the fuzzy set
@@ -52,9 +59,25 @@ public class Centroid extends IntegralDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         if (!Op.isFinite(minimum + maximum)) {
             return Double.NaN;
         }
+        PiecewiseLinear polygon = polygon(term, minimum, maximum);
+        if (polygon != null) {
+            return polygon.centroid();
+        }
+        AdaptiveQuadrature quadrature = quadrature(term, minimum, maximum);
+        if (quadrature != null) {
+            final double result = quadrature.centroid();
+            count(evaluations, quadrature.evaluations());
+            return result;
+        }
 
         final int resolution = getResolution();
         final double dx = (maximum - minimum) / resolution;
@@ -63,14 +86,19 @@ public class Centroid extends IntegralDefuzzifier {
         double xcentroid = 0;
 
         //double ycentroid = 0;
-        for (int i = 0; i < resolution; ++i) {
-            x = minimum + (i + 0.5) * dx;
-            y = term.membership(x);
+        //samples out of the ranges are zero and contribute nothing
+        final int[] samples = samples(term, minimum, maximum, resolution);
+        for (int k = 0; k < samples.length; k += 2) {
+            for (int i = samples[k]; i < samples[k + 1]; ++i) {
+                x = minimum + (i + 0.5) * dx;
+                y = term.membership(x);
 
-            xcentroid += y * x;
-            //ycentroid += y * y;
-            area += y;
+                xcentroid += y * x;
+                //ycentroid += y * y;
+                area += y;
+            }
         }
+        count(evaluations, numberOfSamples(samples));
         //Final results not computed for efficiency
         //xcentroid /= area;
         //ycentroid /= 2 * area;
@@ -19,6 +19,8 @@ package fuzzylite.defuzzifier;
 import fuzzylite.Op;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The Defuzzifier class is the abstract class for defuzzifiers.
 
@@ -39,6 +41,39 @@ public abstract class Defuzzifier implements Op.Cloneable {
      */
     public abstract double defuzzify(Term term, double minimum, double maximum);
 
+    /**
+     Defuzzifies the given fuzzy term utilizing the range `[minimum,maximum]`,
+     and adds to the given counter the number of evaluations of the membership
+     functions of the term (or of its activated terms) performed to defuzzify
+     it. The defuzzifiers that do not override this method do not count their
+     evaluations.
+
+     @param term is the term to defuzzify, typically an Aggregated term
+     @param minimum is the minimum value of the range
+     @param maximum is the maximum value of the range
+     @param evaluations is the counter of evaluations, or `null` to not count
+     them
+     @return the defuzzified value of the given fuzzy term
+     @see fuzzylite.Metrics
+     */
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
+        return defuzzify(term, minimum, maximum);
+    }
+
+    /**
+     Adds the given number of evaluations to the given counter
+
+     @param evaluations is the counter of evaluations, or `null` to not count
+     them
+     @param count is the number of evaluations to add
+     */
+    protected static void count(AtomicLong evaluations, long count) {
+        if (evaluations != null && count != 0) {
+            evaluations.addAndGet(count);
+        }
+    }
+
     /**
      Creates a clone of the defuzzifier
 
@@ -16,6 +16,10 @@
  */
 package fuzzylite.defuzzifier;
 
+import fuzzylite.FuzzyLite;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Term;
+
 /**
  The IntegralDefuzzifier class is the base class for defuzzifiers which
  integrate over the fuzzy set.
@@ -25,8 +29,42 @@ package fuzzylite.defuzzifier;
  */
 public abstract class IntegralDefuzzifier extends Defuzzifier {
 
+    /**
+     Method to integrate over the fuzzy set
+     */
+    public enum Integration {
+        /**
+         Sampling: the fuzzy set is sampled at the midpoints of the divisions of
+         the range given by the resolution
+         */
+        Sampling,
+        /**
+         Exact: the fuzzy set is integrated in closed form if it can be
+         represented as a PiecewiseLinear polygon, and it is sampled otherwise
+         */
+        Exact,
+        /**
+         Support: the fuzzy set is sampled at the same midpoints as in
+         Integration::Sampling, but only within the support of the fuzzy set
+         (see Term::supportMinimum() and Aggregated::unionOfSupports()), given
+         that the membership function values are zero elsewhere
+         */
+        Support,
+        /**
+         Adaptive: the fuzzy set is integrated utilizing the adaptive Simpson's
+         rule until the estimated error is within the tolerance or the maximum
+         number of evaluations is reached (see AdaptiveQuadrature)
+         */
+        Adaptive
+    }
+
+    private static final int[] NO_SAMPLES = new int[0];
     private static int defaultResolution = 100;
     private int resolution = defaultResolution;
+    private Integration integration = Integration.Sampling;
+    private double tolerance = 1e-6;
+    private int maximumEvaluations = 10000;
+    private int[] range;
 
     public IntegralDefuzzifier() {
     }
@@ -54,9 +92,196 @@ public abstract class IntegralDefuzzifier extends Defuzzifier {
      @param resolution is the resolution of the defuzzifier
      */
     public void setResolution(int resolution) {
+        FuzzyLite.modified();
         this.resolution = resolution;
     }
 
+    /**
+     Gets the method to integrate over the fuzzy set
+
+     @return the method to integrate over the fuzzy set
+     */
+    public Integration getIntegration() {
+        return integration;
+    }
+
+    /**
+     Sets the method to integrate over the fuzzy set
+
+     @param integration is the method to integrate over the fuzzy set
+     */
+    public void setIntegration(Integration integration) {
+        FuzzyLite.modified();
+        this.integration = integration;
+    }
+
+    /**
+     Gets the tolerance of the Integration::Adaptive method, which is relative
+     to the range `[minimum,maximum]` of the fuzzy set for both the estimated
+     error of the integral and the location of the maxima
+
+     @return the tolerance of the adaptive integration
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     Sets the tolerance of the Integration::Adaptive method, which is relative
+     to the range `[minimum,maximum]` of the fuzzy set for both the estimated
+     error of the integral and the location of the maxima
+
+     @param tolerance is the tolerance of the adaptive integration
+     */
+    public void setTolerance(double tolerance) {
+        FuzzyLite.modified();
+        this.tolerance = tolerance;
+    }
+
+    /**
+     Gets the maximum number of evaluations of the membership function of the
+     fuzzy set utilizing the Integration::Adaptive method
+
+     @return the maximum number of evaluations of the adaptive integration
+     */
+    public int getMaximumEvaluations() {
+        return maximumEvaluations;
+    }
+
+    /**
+     Sets the maximum number of evaluations of the membership function of the
+     fuzzy set utilizing the Integration::Adaptive method
+
+     @param maximumEvaluations is the maximum number of evaluations of the
+     adaptive integration
+     */
+    public void setMaximumEvaluations(int maximumEvaluations) {
+        FuzzyLite.modified();
+        this.maximumEvaluations = maximumEvaluations;
+    }
+
+    /**
+     Creates the polygon of the fuzzy set if the integration method is
+     Integration::Exact and the fuzzy set is piecewise-linear
+
+     @param term is the fuzzy set
+     @param minimum is the minimum value of the fuzzy set
+     @param maximum is the maximum value of the fuzzy set
+     @return the polygon of the fuzzy set, or `null` if the fuzzy set is to be
+     sampled
+     */
+    protected PiecewiseLinear polygon(Term term, double minimum, double maximum) {
+        if (integration == Integration.Exact) {
+            return PiecewiseLinear.create(term, minimum, maximum);
+        }
+        return null;
+    }
+
+    /**
+     Integrates the fuzzy set utilizing the adaptive Simpson's rule if the
+     integration method is Integration::Adaptive
+
+     @param term is the fuzzy set
+     @param minimum is the minimum value of the fuzzy set
+     @param maximum is the maximum value of the fuzzy set
+     @return the quadrature of the fuzzy set, or `null` if the fuzzy set is to
+     be sampled
+     */
+    protected AdaptiveQuadrature quadrature(Term term, double minimum, double maximum) {
+        if (integration == Integration.Adaptive) {
+            return AdaptiveQuadrature.create(term, minimum, maximum,
+                    tolerance, maximumEvaluations);
+        }
+        return null;
+    }
+
+    /**
+     Computes the ranges of the indices of the midpoints to sample when
+     integrating over the fuzzy set, where the `i`-th midpoint is
+     `minimum + (i + 0.5) * dx` and `dx = (maximum - minimum) / resolution`.
+     The `k`-th range is `[ranges[2k], ranges[2k+1])`, and the ranges are
+     sorted, disjoint, and not empty. If the integration method is
+     Integration::Support, the ranges only cover the support of the fuzzy set
+     (widened by one sample on each side to absorb rounding errors); otherwise,
+     the single range `[0, resolution)` is returned, which is reused across
+     calls to avoid allocating memory. Hence, the ranges must not be modified.
+
+     @param term is the fuzzy set
+     @param minimum is the minimum value of the fuzzy set
+     @param maximum is the maximum value of the fuzzy set
+     @param resolution is the number of divisions of the range
+     @return the ranges of the indices of the midpoints to sample
+     */
+    protected int[] samples(Term term, double minimum, double maximum, int resolution) {
+        if (resolution <= 0) {
+            return NO_SAMPLES;
+        }
+        if (integration != Integration.Support) {
+            //a range seen by another thread before its values is created again
+            int[] result = this.range;
+            if (result == null || result[1] != resolution) {
+                result = new int[]{0, resolution};
+                this.range = result;
+            }
+            return result;
+        }
+        final double[] bounds;
+        final int intervals;
+        if (term instanceof Aggregated) {
+            Aggregated aggregated = (Aggregated) term;
+            intervals = aggregated.unionOfSupports();
+            bounds = aggregated.getSupportBounds();
+        } else {
+            bounds = term.support();
+            intervals = bounds[0] > bounds[1] ? 0 : 1;
+        }
+        final double dx = (maximum - minimum) / resolution;
+        int[] ranges = new int[2 * intervals];
+        int size = 0;
+        for (int k = 0; k < intervals; ++k) {
+            int start = 0, end = resolution;
+            if (bounds[2 * k] > minimum) {
+                start = (int) Math.max(0.0, Math.min(resolution,
+                        Math.ceil((bounds[2 * k] - minimum) / dx - 0.5) - 1.0));
+            }
+            if (bounds[2 * k + 1] < maximum) {
+                end = (int) Math.max(0.0, Math.min(resolution,
+                        Math.floor((bounds[2 * k + 1] - minimum) / dx - 0.5) + 2.0));
+            }
+            if (start >= end) {
+                continue;
+            }
+            if (size > 0 && start <= ranges[size - 1]) {
+                ranges[size - 1] = Math.max(ranges[size - 1], end);
+            } else {
+                ranges[size++] = start;
+                ranges[size++] = end;
+            }
+        }
+        if (size < ranges.length) {
+            int[] result = new int[size];
+            System.arraycopy(ranges, 0, result, 0, size);
+            return result;
+        }
+        return ranges;
+    }
+
+    /**
+     Counts the midpoints in the given ranges of the indices of the midpoints to
+     sample
+
+     @param samples are the ranges of the indices of the midpoints to sample
+     (see IntegralDefuzzifier::samples())
+     @return the number of midpoints in the ranges
+     */
+    protected static int numberOfSamples(int[] samples) {
+        int result = 0;
+        for (int k = 0; k < samples.length; k += 2) {
+            result += samples[k + 1] - samples[k];
+        }
+        return result;
+    }
+
     /**
      Sets the default resolution for integral-based defuzzifiers
 
@@ -19,6 +19,8 @@ package fuzzylite.defuzzifier;
 import fuzzylite.Op;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The LargestOfMaximum class is an IntegralDefuzzifier that computes the largest
  value of the maximum membership function of a fuzzy set represented in a Term.
@@ -44,7 +46,10 @@ public class LargestOfMaximum extends IntegralDefuzzifier {
      Computes the largest value of the maximum membership function of a fuzzy
      set. The largest value is computed by integrating over the fuzzy set. The
      integration algorithm is the midpoint rectangle method
-     (https://en.wikipedia.org/wiki/Rectangle_method).
+     (https://en.wikipedia.org/wiki/Rectangle_method). If the integration is
+     Integration::Support, only the midpoints within the support of the fuzzy
+     set are sampled. If the integration is Integration::Adaptive, the
+     fuzzy set is integrated utilizing the AdaptiveQuadrature.
 
      @param term is the fuzzy set
      @param minimum is the minimum value of the fuzzy set
@@ -54,23 +59,53 @@ public class LargestOfMaximum extends IntegralDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         if (!Op.isFinite(minimum + maximum)) {
             return Double.NaN;
         }
+        PiecewiseLinear polygon = polygon(term, minimum, maximum);
+        if (polygon != null) {
+            return polygon.largestOfMaximum();
+        }
+        AdaptiveQuadrature quadrature = quadrature(term, minimum, maximum);
+        if (quadrature != null) {
+            final double result = quadrature.largestOfMaximum();
+            count(evaluations, quadrature.evaluations());
+            return result;
+        }
 
         final int resolution = getResolution();
         final double dx = (maximum - minimum) / resolution;
         double x, y;
         double ymax = -1.0, xlargest = maximum;
-        for (int i = 0; i < resolution; ++i) {
-            x = minimum + (i + 0.5) * dx;
-            y = term.membership(x);
+        final int[] samples = samples(term, minimum, maximum, resolution);
+        int i = 0;
+        for (int k = 0; k <= samples.length; k += 2) {
+            final int start = k < samples.length ? samples[k] : resolution;
+            //the samples in [i, start) are zero, so the last suffices
+            if (i < start && Op.isGE(0.0, ymax)) {
+                ymax = 0.0;
+                xlargest = minimum + (start - 1 + 0.5) * dx;
+            }
+            if (k == samples.length) {
+                break;
+            }
+            for (i = start; i < samples[k + 1]; ++i) {
+                x = minimum + (i + 0.5) * dx;
+                y = term.membership(x);
 
-            if (Op.isGE(y, ymax)) {
-                ymax = y;
-                xlargest = x;
+                if (Op.isGE(y, ymax)) {
+                    ymax = y;
+                    xlargest = x;
+                }
             }
         }
+        count(evaluations, numberOfSamples(samples));
         return xlargest;
     }
 
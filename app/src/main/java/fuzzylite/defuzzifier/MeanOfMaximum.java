@@ -19,6 +19,8 @@ package fuzzylite.defuzzifier;
 import fuzzylite.Op;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The MeanOfMaximum class is an IntegralDefuzzifier that computes the mean value
  of the maximum membership function of a fuzzy set represented in a Term.
@@ -44,7 +46,10 @@ public class MeanOfMaximum extends IntegralDefuzzifier {
      Computes the mean value of the maximum membership function of a fuzzy set.
      The mean value is computed while integrating over the fuzzy set. The
      integration algorithm is the midpoint rectangle method
-     (https://en.wikipedia.org/wiki/Rectangle_method).
+     (https://en.wikipedia.org/wiki/Rectangle_method). If the integration is
+     Integration::Support, only the midpoints within the support of the fuzzy
+     set are sampled. If the integration is Integration::Adaptive, the
+     fuzzy set is integrated utilizing the AdaptiveQuadrature.
 
      @param term is the fuzzy set
      @param minimum is the minimum value of the fuzzy set
@@ -54,9 +59,25 @@ public class MeanOfMaximum extends IntegralDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         if (!Op.isFinite(minimum + maximum)) {
             return Double.NaN;
         }
+        PiecewiseLinear polygon = polygon(term, minimum, maximum);
+        if (polygon != null) {
+            return polygon.meanOfMaximum();
+        }
+        AdaptiveQuadrature quadrature = quadrature(term, minimum, maximum);
+        if (quadrature != null) {
+            final double result = quadrature.meanOfMaximum();
+            count(evaluations, quadrature.evaluations());
+            return result;
+        }
 
         final int resolution = getResolution();
         final double dx = (maximum - minimum) / resolution;
@@ -65,23 +86,46 @@ public class MeanOfMaximum extends IntegralDefuzzifier {
         double xsmallest = minimum;
         double xlargest = maximum;
         boolean samePlateau = false;
-        for (int i = 0; i < resolution; ++i) {
-            x = minimum + (i + 0.5) * dx;
-            y = term.membership(x);
-
-            if (Op.isGt(y, ymax)) {
-                ymax = y;
-
-                xsmallest = x;
-                xlargest = x;
-
-                samePlateau = true;
-            } else if (samePlateau && Op.isEq(y, ymax)) {
-                xlargest = x;
-            } else if (Op.isLt(y, ymax)) {
-                samePlateau = false;
+        final int[] samples = samples(term, minimum, maximum, resolution);
+        int i = 0;
+        for (int k = 0; k <= samples.length; k += 2) {
+            final int start = k < samples.length ? samples[k] : resolution;
+            //the samples in [i, start) are zero, so the first and last suffice
+            if (i < start) {
+                if (Op.isGt(0.0, ymax)) {
+                    ymax = 0.0;
+                    xsmallest = minimum + (i + 0.5) * dx;
+                    xlargest = xsmallest;
+                    samePlateau = true;
+                }
+                if (samePlateau && Op.isEq(0.0, ymax)) {
+                    xlargest = minimum + (start - 1 + 0.5) * dx;
+                } else if (Op.isLt(0.0, ymax)) {
+                    samePlateau = false;
+                }
+            }
+            if (k == samples.length) {
+                break;
+            }
+            for (i = start; i < samples[k + 1]; ++i) {
+                x = minimum + (i + 0.5) * dx;
+                y = term.membership(x);
+
+                if (Op.isGt(y, ymax)) {
+                    ymax = y;
+
+                    xsmallest = x;
+                    xlargest = x;
+
+                    samePlateau = true;
+                } else if (samePlateau && Op.isEq(y, ymax)) {
+                    xlargest = x;
+                } else if (Op.isLt(y, ymax)) {
+                    samePlateau = false;
+                }
             }
         }
+        count(evaluations, numberOfSamples(samples));
 
         return (xlargest + xsmallest) / 2.0;
     }
@@ -0,0 +1,602 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.defuzzifier;
+
+import fuzzylite.Op;
+import fuzzylite.norm.TNorm;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.AlgebraicProduct;
+import fuzzylite.norm.t.Minimum;
+import fuzzylite.term.Activated;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Discrete;
+import fuzzylite.term.Ramp;
+import fuzzylite.term.Rectangle;
+import fuzzylite.term.Term;
+import fuzzylite.term.Trapezoid;
+import fuzzylite.term.Triangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ The PiecewiseLinear class represents the membership function of a fuzzy set
+ within the range `[minimum,maximum]` as a polygon, that is, a sequence of
+ vertices `(x,y)` ordered by `x` and joined by straight segments, where two
+ consecutive vertices with the same `x` represent a discontinuity. The polygon
+ is utilized by the integral defuzzifiers to compute the defuzzified values in
+ closed form rather than by sampling the fuzzy set.
+
+ The polygon can be created for the Triangle, Trapezoid, Rectangle, Ramp and
+ Discrete terms, for the Activated terms thereof utilizing the Minimum or
+ AlgebraicProduct implication operators, and for the Aggregated terms thereof
+ utilizing the Maximum aggregation operator, in which case the polygon is the
+ upper envelope of the Activated terms.
+
+ @see IntegralDefuzzifier
+ @see IntegralDefuzzifier.Integration
+ @since 6.0
+ */
+public final class PiecewiseLinear {
+
+    /**
+     Relative tolerance utilized to compare the halves of the area under the
+     polygon when computing the bisector
+     */
+    public static final double RELATIVE_TOLERANCE = 1e-9;
+
+    private final double[] x;
+    private final double[] y;
+    private final int size;
+
+    private PiecewiseLinear(double[] x, double[] y, int size) {
+        this.x = x;
+        this.y = y;
+        this.size = size;
+    }
+
+    /**
+     Creates the polygon of the given term within the range `[minimum,maximum]`
+
+     @param term is the fuzzy set
+     @param minimum is the minimum value of the range
+     @param maximum is the maximum value of the range
+     @return the polygon of the term, or `null` if the term cannot be
+     represented by a polygon
+     */
+    public static PiecewiseLinear create(Term term, double minimum, double maximum) {
+        if (!(Op.isFinite(minimum) && Op.isFinite(maximum)) || minimum > maximum) {
+            return null;
+        }
+        List<Polyline> polylines = new ArrayList<Polyline>();
+        boolean baseline = false;
+        if (term instanceof Aggregated) {
+            Aggregated aggregated = (Aggregated) term;
+            if (!aggregated.getTerms().isEmpty()
+                    && !isType(aggregated.getAggregation(), Maximum.class)) {
+                return null;
+            }
+            for (Activated activated : aggregated.getTerms()) {
+                Polyline polyline = activated(activated);
+                if (polyline == null) {
+                    return null;
+                }
+                polylines.add(polyline);
+            }
+            //the membership of Aggregated terms starts from zero
+            baseline = true;
+        } else {
+            Polyline polyline = term instanceof Activated
+                    ? activated((Activated) term) : basic(term);
+            if (polyline == null) {
+                return null;
+            }
+            polylines.add(polyline);
+        }
+        return envelope(polylines, baseline, minimum, maximum);
+    }
+
+    /**
+     Gets the number of vertices of the polygon
+
+     @return the number of vertices of the polygon
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     Gets the `x` coordinate of the vertex at the given index
+
+     @param index is the index of the vertex
+     @return the `x` coordinate of the vertex
+     */
+    public double x(int index) {
+        return x[index];
+    }
+
+    /**
+     Gets the `y` coordinate of the vertex at the given index
+
+     @param index is the index of the vertex
+     @return the `y` coordinate of the vertex
+     */
+    public double y(int index) {
+        return y[index];
+    }
+
+    /**
+     Computes the area under the polygon
+
+     @return the area under the polygon
+     */
+    public double area() {
+        double area = 0.0;
+        for (int i = 0; i + 1 < size; ++i) {
+            area += (x[i + 1] - x[i]) * (y[i] + y[i + 1]) / 2.0;
+        }
+        return area;
+    }
+
+    /**
+     Computes the `x`-coordinate of the centroid of the polygon
+
+     @return the `x`-coordinate of the centroid of the polygon, or `NaN` if the
+     area under the polygon is zero
+     */
+    public double centroid() {
+        double area = 0.0;
+        double moment = 0.0;
+        for (int i = 0; i + 1 < size; ++i) {
+            final double dx = x[i + 1] - x[i];
+            area += dx * (y[i] + y[i + 1]) / 2.0;
+            moment += dx / 6.0 * (x[i] * (2.0 * y[i] + y[i + 1])
+                    + x[i + 1] * (y[i] + 2.0 * y[i + 1]));
+        }
+        return moment / area;
+    }
+
+    /**
+     Computes the `x`-coordinate of the bisector of the polygon, that is, the
+     value that divides the area under the polygon into two halves. If the
+     halves are separated by a region of zero membership, the bisector is the
+     middle of such a region, where the halves are compared with a relative
+     tolerance of PiecewiseLinear::RELATIVE_TOLERANCE.
+
+     @return the `x`-coordinate of the bisector of the polygon, or `NaN` if the
+     area under the polygon is zero
+     */
+    public double bisector() {
+        final double area = area();
+        if (!(area > 0.0)) {
+            return Double.NaN;
+        }
+        final double half = area / 2.0 * (1.0 - RELATIVE_TOLERANCE);
+        //from the left
+        double xLeft = x[size - 1];
+        double accumulated = 0.0;
+        for (int i = 0; i + 1 < size; ++i) {
+            final double dx = x[i + 1] - x[i];
+            final double segment = dx * (y[i] + y[i + 1]) / 2.0;
+            if (accumulated + segment >= half) {
+                xLeft = x[i] + Math.min(dx, distanceTo(half - accumulated,
+                        y[i], (y[i + 1] - y[i]) / dx));
+                break;
+            }
+            accumulated += segment;
+        }
+        //from the right
+        double xRight = x[0];
+        accumulated = 0.0;
+        for (int i = size - 1; i > 0; --i) {
+            final double dx = x[i] - x[i - 1];
+            final double segment = dx * (y[i] + y[i - 1]) / 2.0;
+            if (accumulated + segment >= half) {
+                xRight = x[i] - Math.min(dx, distanceTo(half - accumulated,
+                        y[i], (y[i - 1] - y[i]) / dx));
+                break;
+            }
+            accumulated += segment;
+        }
+        return (xLeft + xRight) / 2.0;
+    }
+
+    /**
+     Computes the distance `t` at which the area under a line starting at `y`
+     with the given slope equals the given area, that is, the solution of `y t
+     + (slope / 2) t^2 = area`
+
+     @param area is the area
+     @param y is the value of the line at the start
+     @param slope is the slope of the line
+     @return the distance at which the area under the line equals the area
+     */
+    private static double distanceTo(double area, double y, double slope) {
+        if (!(area > 0.0)) {
+            return 0.0;
+        }
+        final double discriminant = Math.max(0.0, y * y + 2.0 * slope * area);
+        return 2.0 * area / (y + Math.sqrt(discriminant));
+    }
+
+    /**
+     Computes the maximum membership value of the polygon
+
+     @return the maximum membership value of the polygon
+     */
+    public double maximum() {
+        double ymax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; ++i) {
+            ymax = Math.max(ymax, y[i]);
+        }
+        return ymax;
+    }
+
+    /**
+     Computes the smallest value of the polygon at its maximum membership value
+
+     @return the smallest value of the polygon at its maximum membership value
+     */
+    public double smallestOfMaximum() {
+        final double ymax = maximum();
+        for (int i = 0; i < size; ++i) {
+            if (Op.isEq(y[i], ymax)) {
+                return x[i];
+            }
+        }
+        return x[0];
+    }
+
+    /**
+     Computes the largest value of the polygon at its maximum membership value
+
+     @return the largest value of the polygon at its maximum membership value
+     */
+    public double largestOfMaximum() {
+        final double ymax = maximum();
+        for (int i = size - 1; i >= 0; --i) {
+            if (Op.isEq(y[i], ymax)) {
+                return x[i];
+            }
+        }
+        return x[size - 1];
+    }
+
+    /**
+     Computes the mean of the first plateau of the polygon at its maximum
+     membership value
+
+     @return the mean of the first plateau of the polygon at its maximum
+     membership value
+     */
+    public double meanOfMaximum() {
+        final double ymax = maximum();
+        int first = 0;
+        while (first < size - 1 && !Op.isEq(y[first], ymax)) {
+            ++first;
+        }
+        int last = first;
+        while (last + 1 < size && Op.isEq(y[last + 1], ymax)) {
+            ++last;
+        }
+        return (x[first] + x[last]) / 2.0;
+    }
+
+    private static boolean isType(Object object, Class<?> type) {
+        return object != null && object.getClass() == type;
+    }
+
+    /**
+     Creates the polyline of the given basic term
+
+     @param term is the term
+     @return the polyline of the term, or `null` if the term is not
+     piecewise-linear
+     */
+    static Polyline basic(Term term) {
+        if (term == null || !Op.isFinite(term.getHeight())) {
+            return null;
+        }
+        final double h = term.getHeight();
+        Polyline result = new Polyline();
+        if (isType(term, Triangle.class)) {
+            Triangle triangle = (Triangle) term;
+            final double a = triangle.getVertexA();
+            final double b = triangle.getVertexB();
+            final double c = triangle.getVertexC();
+            if (!(Op.isFinite(a + b + c) && a <= b && b <= c)) {
+                return null;
+            }
+            result.add(a, 0.0);
+            result.add(b, h);
+            result.add(c, 0.0);
+        } else if (isType(term, Trapezoid.class)) {
+            Trapezoid trapezoid = (Trapezoid) term;
+            final double a = trapezoid.getVertexA();
+            final double b = trapezoid.getVertexB();
+            final double c = trapezoid.getVertexC();
+            final double d = trapezoid.getVertexD();
+            if (!(Op.isFinite(a + b + c + d) && a <= b && b <= c && c <= d)) {
+                return null;
+            }
+            result.add(a, 0.0);
+            result.add(b, h);
+            result.add(c, h);
+            result.add(d, 0.0);
+        } else if (isType(term, Rectangle.class)) {
+            Rectangle rectangle = (Rectangle) term;
+            final double start = rectangle.getStart();
+            final double end = rectangle.getEnd();
+            if (!(Op.isFinite(start + end) && start <= end)) {
+                return null;
+            }
+            result.add(start, 0.0);
+            result.add(start, h);
+            result.add(end, h);
+            result.add(end, 0.0);
+        } else if (isType(term, Ramp.class)) {
+            Ramp ramp = (Ramp) term;
+            final double start = ramp.getStart();
+            final double end = ramp.getEnd();
+            if (!Op.isFinite(start + end)) {
+                return null;
+            }
+            if (Op.isEq(start, end)) {
+                result.add(start, 0.0);
+            } else if (start < end) {
+                result.add(start, 0.0);
+                result.add(end, h);
+            } else {
+                result.add(end, h);
+                result.add(start, 0.0);
+            }
+        } else if (isType(term, Discrete.class)) {
+            Discrete discrete = (Discrete) term;
+            if (discrete.isEmpty()) {
+                return null;
+            }
+            double previous = Double.NEGATIVE_INFINITY;
+            for (Discrete.Pair pair : discrete) {
+                if (!(Op.isFinite(pair.getX() + pair.getY()) && pair.getX() >= previous)) {
+                    return null;
+                }
+                previous = pair.getX();
+                result.add(pair.getX(), h * pair.getY());
+            }
+        } else {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     Creates the polyline of the given activated term
+
+     @param activated is the activated term
+     @return the polyline of the activated term, or `null` if the term is not
+     piecewise-linear or the implication operator is not supported
+     */
+    static Polyline activated(Activated activated) {
+        final TNorm implication = activated.getImplication();
+        final double degree = activated.getDegree();
+        if (!Op.isFinite(degree)) {
+            return null;
+        }
+        Polyline polyline = basic(activated.getTerm());
+        if (polyline == null) {
+            return null;
+        }
+        if (isType(implication, AlgebraicProduct.class)) {
+            for (int i = 0; i < polyline.size; ++i) {
+                polyline.y[i] *= degree;
+            }
+            return polyline;
+        }
+        if (isType(implication, Minimum.class)) {
+            Polyline result = new Polyline();
+            for (int i = 0; i < polyline.size; ++i) {
+                if (i > 0) {
+                    final double x0 = polyline.x[i - 1], y0 = polyline.y[i - 1];
+                    final double x1 = polyline.x[i], y1 = polyline.y[i];
+                    if (x0 < x1 && (y0 - degree) * (y1 - degree) < 0.0) {
+                        result.add(x0 + (degree - y0) / (y1 - y0) * (x1 - x0), degree);
+                    }
+                }
+                result.add(polyline.x[i], Op.min(polyline.y[i], degree));
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     Computes the polygon of the upper envelope of the given polylines within
+     the range `[minimum,maximum]`
+
+     @param polylines are the polylines
+     @param baseline indicates whether the envelope has zero as lower bound
+     @param minimum is the minimum value of the range
+     @param maximum is the maximum value of the range
+     @return the polygon of the upper envelope
+     */
+    static PiecewiseLinear envelope(List<Polyline> polylines, boolean baseline,
+            double minimum, double maximum) {
+        //breakpoints within the range, in between which every polyline is linear
+        int breakpoints = 2;
+        for (Polyline polyline : polylines) {
+            breakpoints += polyline.size;
+        }
+        double[] xs = new double[breakpoints];
+        int n = 0;
+        xs[n++] = minimum;
+        xs[n++] = maximum;
+        for (Polyline polyline : polylines) {
+            for (int i = 0; i < polyline.size; ++i) {
+                if (polyline.x[i] > minimum && polyline.x[i] < maximum) {
+                    xs[n++] = polyline.x[i];
+                }
+            }
+        }
+        Arrays.sort(xs, 0, n);
+
+        final int lines = polylines.size() + (baseline ? 1 : 0);
+        final double[] start = new double[lines];
+        final double[] end = new double[lines];
+        Polyline result = new Polyline();
+        if (Op.isEq(minimum, maximum) || n < 2) {
+            double ymax = baseline ? 0.0 : Double.NEGATIVE_INFINITY;
+            for (Polyline polyline : polylines) {
+                ymax = Math.max(ymax, polyline.valueAt(minimum));
+            }
+            result.add(minimum, ymax);
+            result.add(maximum, ymax);
+            return new PiecewiseLinear(result.x, result.y, result.size);
+        }
+
+        for (int b = 0; b + 1 < n; ++b) {
+            final double p = xs[b];
+            final double q = xs[b + 1];
+            if (!(p < q)) {
+                continue;
+            }
+            final double middle = p + (q - p) / 2.0;
+            for (int i = 0; i < polylines.size(); ++i) {
+                polylines.get(i).segment(middle, p, q, start, end, i);
+            }
+            //start and end are zero for the baseline
+            upperEnvelope(start, end, lines, p, q, result);
+        }
+        return new PiecewiseLinear(result.x, result.y, result.size);
+    }
+
+    /**
+     Adds to the result the vertices of the upper envelope of the lines going
+     from `(p, start[i])` to `(q, end[i])`
+
+     @param start are the values of the lines at `p`
+     @param end are the values of the lines at `q`
+     @param lines is the number of lines
+     @param p is the start of the interval
+     @param q is the end of the interval
+     @param result is the polyline to add the vertices to
+     */
+    private static void upperEnvelope(double[] start, double[] end, int lines,
+            double p, double q, Polyline result) {
+        int current = 0;
+        for (int i = 1; i < lines; ++i) {
+            if (start[i] > start[current] || (start[i] == start[current]
+                    && end[i] - start[i] > end[current] - start[current])) {
+                current = i;
+            }
+        }
+        result.add(p, start[current]);
+        //the envelope of lines is convex, so the lines only cross it upwards
+        double position = 0.0;
+        while (true) {
+            final double slope = end[current] - start[current];
+            int next = -1;
+            double crossing = 1.0;
+            for (int i = 0; i < lines; ++i) {
+                final double difference = (end[i] - start[i]) - slope;
+                if (difference > 0.0) {
+                    final double u = (start[current] - start[i]) / difference;
+                    if (u > position && (u < crossing || (u == crossing && next >= 0
+                            && end[i] - start[i] > end[next] - start[next]))) {
+                        crossing = u;
+                        next = i;
+                    }
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            result.add(p + crossing * (q - p), start[current] + crossing * slope);
+            current = next;
+            position = crossing;
+        }
+        result.add(q, end[current]);
+    }
+
+    /**
+     The Polyline class is a growable sequence of vertices `(x,y)` ordered by
+     `x`, whose membership function is constant beyond its first and last
+     vertices.
+     */
+    static class Polyline {
+
+        double[] x = new double[8];
+        double[] y = new double[8];
+        int size = 0;
+
+        void add(double x, double y) {
+            if (size > 0 && this.x[size - 1] == x && this.y[size - 1] == y) {
+                return;
+            }
+            if (size == this.x.length) {
+                this.x = Arrays.copyOf(this.x, 2 * size);
+                this.y = Arrays.copyOf(this.y, 2 * size);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            ++size;
+        }
+
+        double valueAt(double value) {
+            int i = lastIndexAtOrBefore(value);
+            if (i < 0) {
+                return y[0];
+            }
+            if (i == size - 1) {
+                return y[size - 1];
+            }
+            return y[i] + (y[i + 1] - y[i]) * (value - x[i]) / (x[i + 1] - x[i]);
+        }
+
+        /**
+         Computes the values at `p` and `q` of the segment that contains the
+         middle value, and stores them in `start[index]` and `end[index]`
+         */
+        void segment(double middle, double p, double q,
+                double[] start, double[] end, int index) {
+            int i = lastIndexAtOrBefore(middle);
+            if (i < 0) {
+                start[index] = end[index] = y[0];
+            } else if (i == size - 1) {
+                start[index] = end[index] = y[size - 1];
+            } else {
+                final double slope = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+                start[index] = y[i] + slope * (p - x[i]);
+                end[index] = y[i] + slope * (q - x[i]);
+            }
+        }
+
+        int lastIndexAtOrBefore(double value) {
+            int low = 0, high = size - 1, result = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (x[middle] <= value) {
+                    result = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -20,6 +20,9 @@ import fuzzylite.term.Activated;
 import fuzzylite.term.Aggregated;
 import fuzzylite.term.Term;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The WeightedAverage class is a WeightedDefuzzifier that computes the weighted
  average of a fuzzy set represented in an Aggregated Term.
@@ -64,6 +67,12 @@ public class WeightedAverage extends WeightedDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         Aggregated fuzzyOutput = (Aggregated) term;
         if (fuzzyOutput.getTerms().isEmpty()) {
             return Double.NaN;
@@ -76,25 +85,29 @@ public class WeightedAverage extends WeightedDefuzzifier {
             type = inferType(fuzzyOutput.getTerms().get(0));
         }
 
+        final List<Activated> terms = fuzzyOutput.getTerms();
         double sum = 0.0;
         double weights = 0.0;
         if (type == Type.TakagiSugeno) {
             double w, z;
-            for (Activated activated : fuzzyOutput.getTerms()) {
+            for (int i = 0; i < terms.size(); ++i) {
+                Activated activated = terms.get(i);
                 w = activated.getDegree();
-                z = activated.getTerm().membership(w);
+                z = activated.getTerm().membership(w, activated.getContext());
                 sum += w * z;
                 weights += w;
             }
         } else {
             double w, z;
-            for (Activated activated : fuzzyOutput.getTerms()) {
+            for (int i = 0; i < terms.size(); ++i) {
+                Activated activated = terms.get(i);
                 w = activated.getDegree();
-                z = activated.getTerm().tsukamoto(w, minimum, maximum);
+                z = activated.getTerm().tsukamoto(w, minimum, maximum, activated.getContext());
                 sum += w * z;
                 weights += w;
             }
         }
+        count(evaluations, terms.size());
         return sum / weights;
     }
 
@@ -22,6 +22,8 @@ import fuzzylite.term.Activated;
 import fuzzylite.term.Aggregated;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The (experimental) WeightedAverageCustom class is a WeightedDefuzzifier that computes the
  weighted average of a fuzzy set represented in an Aggregated Term utilizing the
@@ -71,6 +73,12 @@ public class WeightedAverageCustom extends WeightedDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         Aggregated fuzzyOutput = (Aggregated) term;
         if (fuzzyOutput.getTerms().isEmpty()) {
             return Double.NaN;
@@ -92,7 +100,7 @@ public class WeightedAverageCustom extends WeightedDefuzzifier {
             double w, z, wz;
             for (Activated activated : fuzzyOutput.getTerms()) {
                 w = activated.getDegree();
-                z = activated.getTerm().membership(w);
+                z = activated.getTerm().membership(w, activated.getContext());
                 implication = activated.getImplication();
                 wz = implication != null
                         ? implication.compute(w, z)
@@ -109,11 +117,12 @@ public class WeightedAverageCustom extends WeightedDefuzzifier {
             double w, z;
             for (Activated activated : fuzzyOutput.getTerms()) {
                 w = activated.getDegree();
-                z = activated.getTerm().tsukamoto(w, minimum, maximum);
+                z = activated.getTerm().tsukamoto(w, minimum, maximum, activated.getContext());
                 sum += w * z;
                 weights += w;
             }
         }
+        count(evaluations, fuzzyOutput.getTerms().size());
         return sum / weights;
     }
 
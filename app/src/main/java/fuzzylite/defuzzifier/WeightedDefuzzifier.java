@@ -16,6 +16,7 @@
  */
 package fuzzylite.defuzzifier;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.term.Constant;
 import fuzzylite.term.Function;
 import fuzzylite.term.Linear;
@@ -79,6 +80,7 @@ public abstract class WeightedDefuzzifier extends Defuzzifier {
      @param type is the type of the weighted defuzzifier
      */
     public void setType(Type type) {
+        FuzzyLite.modified();
         this.type = type;
     }
 
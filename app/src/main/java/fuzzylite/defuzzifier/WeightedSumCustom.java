@@ -22,6 +22,8 @@ import fuzzylite.term.Activated;
 import fuzzylite.term.Aggregated;
 import fuzzylite.term.Term;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  The (experimental) WeightedSumCustom class is a WeightedDefuzzifier that computes the weighted
  sum of a fuzzy set represented in an Aggregated Term utilizing the fuzzy
@@ -69,6 +71,12 @@ public class WeightedSumCustom extends WeightedDefuzzifier {
      */
     @Override
     public double defuzzify(Term term, double minimum, double maximum) {
+        return defuzzify(term, minimum, maximum, null);
+    }
+
+    @Override
+    public double defuzzify(Term term, double minimum, double maximum,
+            AtomicLong evaluations) {
         Aggregated fuzzyOutput = (Aggregated) term;
         if (fuzzyOutput.getTerms().isEmpty()) {
             return Double.NaN;
@@ -89,7 +97,7 @@ public class WeightedSumCustom extends WeightedDefuzzifier {
             double w, z, wz;
             for (Activated activated : fuzzyOutput.getTerms()) {
                 w = activated.getDegree();
-                z = activated.getTerm().membership(w);
+                z = activated.getTerm().membership(w, activated.getContext());
                 implication = activated.getImplication();
                 wz = implication != null
                         ? implication.compute(w, z)
@@ -104,10 +112,11 @@ public class WeightedSumCustom extends WeightedDefuzzifier {
             double w, z;
             for (Activated activated : fuzzyOutput.getTerms()) {
                 w = activated.getDegree();
-                z = activated.getTerm().tsukamoto(w, minimum, maximum);
+                z = activated.getTerm().tsukamoto(w, minimum, maximum, activated.getContext());
                 sum += w * z;
             }
         }
+        count(evaluations, fuzzyOutput.getTerms().size());
         return sum;
     }
 
@@ -39,6 +39,7 @@ public class ActivationFactory extends ConstructionFactory<Activation> {
         register(Last.class);
         register(Lowest.class);
         register(Proportional.class);
+        register(Sparse.class);
         register(Threshold.class);
     }
 
@@ -77,6 +77,47 @@ public class DefuzzifierFactory extends ConstructionFactory<Defuzzifier> {
         return result;
     }
 
+    /**
+     Creates a Defuzzifier by executing the registered constructor
+
+     @param key is the unique name by which constructors are registered
+     @param resolution is the resolution of an IntegralDefuzzifier
+     @param integration is the integration method of an IntegralDefuzzifier
+     @return a Defuzzifier by executing the registered constructor and setting
+     its resolution and integration method
+     */
+    public Defuzzifier constructDefuzzifier(String key, int resolution,
+                                            IntegralDefuzzifier.Integration integration) {
+        Defuzzifier result = constructDefuzzifier(key, resolution);
+        if (result instanceof IntegralDefuzzifier) {
+            ((IntegralDefuzzifier) result).setIntegration(integration);
+        }
+        return result;
+    }
+
+    /**
+     Creates a Defuzzifier utilizing the IntegralDefuzzifier.Integration::Adaptive
+     method by executing the registered constructor
+
+     @param key is the unique name by which constructors are registered
+     @param tolerance is the tolerance of the adaptive integration
+     @param maximumEvaluations is the maximum number of evaluations of the
+     adaptive integration
+     @return a Defuzzifier by executing the registered constructor and setting
+     its integration method, tolerance and maximum number of evaluations
+     */
+    public Defuzzifier constructAdaptiveDefuzzifier(String key, double tolerance,
+                                                    int maximumEvaluations) {
+        Defuzzifier result = constructObject(key);
+        if (result instanceof IntegralDefuzzifier) {
+            IntegralDefuzzifier integral = (IntegralDefuzzifier) result;
+            integral.setIntegration(IntegralDefuzzifier.Integration.Adaptive);
+            integral.setTolerance(tolerance);
+            integral.setMaximumEvaluations(maximumEvaluations);
+        }
+        return result;
+    }
+
     /**
      Creates a Defuzzifier by executing the registered constructor
 
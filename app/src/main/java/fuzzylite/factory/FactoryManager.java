@@ -53,6 +53,17 @@ public class FactoryManager {
         return INSTANCE.get();
     }
 
+    /**
+     Sets the static instance of the manager for the current thread, such that
+     the current thread utilizes the factories of the given manager, which may
+     be the instance of another thread (e.g., worker threads importing rules)
+
+     @param instance is the manager for the current thread
+     */
+    public static void setInstance(FactoryManager instance) {
+        INSTANCE.set(instance);
+    }
+
     private TNormFactory tnorm;
     private SNormFactory snorm;
     private ActivationFactory activation;
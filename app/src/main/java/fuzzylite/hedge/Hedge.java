@@ -16,6 +16,7 @@
  */
 package fuzzylite.hedge;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.Op;
 
 import java.util.Locale;
@@ -42,6 +43,21 @@ public abstract class Hedge implements Op.Cloneable {
      */
     public abstract double hedge(double x);
 
+    /**
+     Computes the hedge for the membership function value `x` utilizing the
+     values of the variables stored in the given evaluation context. Only the
+     hedges that depend on the variables of the engine need to override this
+     method.
+
+     @param x is a membership function value
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the variables in the engine
+     @return the hedge of `x`
+     */
+    public double hedge(double x, EvaluationContext context) {
+        return hedge(x);
+    }
+
     /**
      Returns the name of the hedge
 
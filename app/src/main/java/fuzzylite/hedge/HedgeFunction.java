@@ -16,6 +16,8 @@
  */
 package fuzzylite.hedge;
 
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
 import fuzzylite.term.Function;
 
 /**
@@ -62,6 +64,7 @@ public final class HedgeFunction extends Hedge {
      @param formula is a valid formula in infix notation
      */
     public void setFormula(String formula) {
+        FuzzyLite.modified();
         this.function.load(formula);
     }
 
@@ -86,6 +89,19 @@ public final class HedgeFunction extends Hedge {
         return this.function.membership(x);
     }
 
+    /**
+     Computes the hedge for the membership function value `x` utilizing the
+     underlying Function and the given evaluation context
+
+     @param x is a membership function value
+     @param context is the evaluation context
+     @return the function value `f(x)` in the evaluation context
+     */
+    @Override
+    public double hedge(double x, EvaluationContext context) {
+        return this.function.membership(x, context);
+    }
+
     @Override
     public HedgeFunction clone() throws CloneNotSupportedException {
         HedgeFunction result = (HedgeFunction) super.clone();
@@ -0,0 +1,480 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.imex;
+
+import fuzzylite.Engine;
+import fuzzylite.FuzzyLite;
+import fuzzylite.Op;
+import fuzzylite.activation.Activation;
+import fuzzylite.defuzzifier.Defuzzifier;
+import fuzzylite.defuzzifier.IntegralDefuzzifier;
+import fuzzylite.defuzzifier.WeightedDefuzzifier;
+import fuzzylite.hedge.Hedge;
+import fuzzylite.hedge.HedgeFunction;
+import fuzzylite.norm.Norm;
+import fuzzylite.norm.s.SNormFunction;
+import fuzzylite.norm.t.TNormFunction;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.*;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ The BinaryExporter class exports a fully loaded Engine into a compact binary
+ format that the BinaryImporter loads without parsing any text. Besides the
+ variables, terms and operators, the format stores the expression trees of the
+ loaded rules with the references to the variables, terms and hedges resolved,
+ such that importing an engine does not tokenize the antecedents and
+ consequents of its rules.
+
+ The format is versioned and starts with BinaryExporter::MAGIC followed by
+ BinaryExporter::VERSION. The values are written in big-endian byte order,
+ and the strings are written once in UTF-8 and subsequently referenced by
+ their index. The parameters of the terms provided by the library are
+ written as exact double values, whereas the parameters of other terms are
+ written as text to configure the term via Term::configure().
+
+ The BinaryExporter is not an Exporter, as the binary format has no string
+ representation.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see BinaryImporter
+ @see FllExporter
+ @since 6.0
+ */
+public class BinaryExporter implements Op.Cloneable {
+
+    /**
+     Magic number identifying the binary format (ASCII `FLLB`)
+     */
+    public static final int MAGIC = 0x464C4C42;
+    /**
+     Version of the binary format
+     */
+    public static final int VERSION = 1;
+
+    static final byte TERM_VALUES = 0;
+    static final byte TERM_TEXT = 1;
+
+    static final byte DEFUZZIFIER_OTHER = 0;
+    static final byte DEFUZZIFIER_INTEGRAL = 1;
+    static final byte DEFUZZIFIER_WEIGHTED = 2;
+
+    static final byte EXPRESSION_PROPOSITION = 0;
+    static final byte EXPRESSION_OPERATOR = 1;
+
+    static final byte VARIABLE_INPUT = 0;
+    static final byte VARIABLE_OUTPUT = 1;
+
+    static final int NULL = -1;
+
+    public BinaryExporter() {
+
+    }
+
+    /**
+     Returns the binary representation of the engine
+
+     @param engine is the engine to export
+     @return the binary representation of the engine
+     */
+    public byte[] toByteArray(Engine engine) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try {
+            toStream(engine, result);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     Stores the binary representation of the engine into the specified file
+
+     @param file is the file to export the engine to
+     @param engine is the engine to export
+     @throws IOException if any problem occurs upon creation or writing to the
+     file
+     */
+    public void toFile(File file, Engine engine) throws IOException {
+        if (!file.createNewFile()) {
+            FuzzyLite.logger().log(Level.FINE, "Replacing file: {0}", file.getAbsolutePath());
+        }
+        OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            toStream(engine, stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     Writes the binary representation of the engine into the stream
+
+     @param engine is the engine to export
+     @param stream is the stream to write the engine to
+     @throws IOException if any problem occurs upon writing to the stream
+     */
+    public void toStream(Engine engine, OutputStream stream) throws IOException {
+        new Writer(engine, new DataOutputStream(stream)).write();
+    }
+
+    /**
+     The Writer class writes a single engine, keeping the indexes of the
+     strings, variables and terms written so far
+     */
+    private static class Writer {
+
+        private final Engine engine;
+        private final DataOutputStream output;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<Variable, Integer> variables = new IdentityHashMap<Variable, Integer>();
+        private final Map<Term, Integer> terms = new IdentityHashMap<Term, Integer>();
+
+        Writer(Engine engine, DataOutputStream output) {
+            this.engine = engine;
+            this.output = output;
+        }
+
+        void write() throws IOException {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeString(engine.getName());
+            writeString(engine.getDescription());
+
+            output.writeInt(engine.numberOfInputVariables());
+            for (int i = 0; i < engine.numberOfInputVariables(); ++i) {
+                InputVariable inputVariable = engine.getInputVariable(i);
+                variables.put(inputVariable, i);
+                writeVariable(inputVariable);
+            }
+
+            output.writeInt(engine.numberOfOutputVariables());
+            for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
+                OutputVariable outputVariable = engine.getOutputVariable(i);
+                variables.put(outputVariable, i);
+                writeVariable(outputVariable);
+                output.writeDouble(outputVariable.getDefaultValue());
+                output.writeBoolean(outputVariable.isLockPreviousValue());
+                writeNorm(outputVariable.fuzzyOutput().getAggregation());
+                writeDefuzzifier(outputVariable.getDefuzzifier());
+            }
+
+            output.writeInt(engine.numberOfRuleBlocks());
+            for (RuleBlock ruleBlock : engine.getRuleBlocks()) {
+                writeRuleBlock(ruleBlock);
+            }
+            output.flush();
+        }
+
+        void writeVariable(Variable variable) throws IOException {
+            writeString(variable.getName());
+            writeString(variable.getDescription());
+            output.writeBoolean(variable.isEnabled());
+            output.writeDouble(variable.getMinimum());
+            output.writeDouble(variable.getMaximum());
+            output.writeBoolean(variable.isLockValueInRange());
+            output.writeInt(variable.numberOfTerms());
+            for (int i = 0; i < variable.numberOfTerms(); ++i) {
+                Term term = variable.getTerm(i);
+                terms.put(term, i);
+                writeTerm(term);
+            }
+        }
+
+        void writeTerm(Term term) throws IOException {
+            writeString(term.getClass().getSimpleName());
+            writeString(term.getName());
+            double[] values = values(term);
+            if (values != null) {
+                output.writeByte(TERM_VALUES);
+                output.writeDouble(term.getHeight());
+                output.writeInt(values.length);
+                for (double value : values) {
+                    output.writeDouble(value);
+                }
+            } else {
+                output.writeByte(TERM_TEXT);
+                writeString(term.parameters());
+            }
+        }
+
+        void writeNorm(Norm norm) throws IOException {
+            if (norm == null) {
+                writeString(null);
+                return;
+            }
+            writeString(norm.getClass().getSimpleName());
+            if (norm instanceof SNormFunction) {
+                writeString(((SNormFunction) norm).getFormula());
+            } else if (norm instanceof TNormFunction) {
+                writeString(((TNormFunction) norm).getFormula());
+            } else {
+                writeString(null);
+            }
+        }
+
+        void writeDefuzzifier(Defuzzifier defuzzifier) throws IOException {
+            if (defuzzifier == null) {
+                writeString(null);
+                return;
+            }
+            writeString(defuzzifier.getClass().getSimpleName());
+            if (defuzzifier instanceof IntegralDefuzzifier) {
+                IntegralDefuzzifier integral = (IntegralDefuzzifier) defuzzifier;
+                output.writeByte(DEFUZZIFIER_INTEGRAL);
+                output.writeInt(integral.getResolution());
+                writeString(integral.getIntegration().name());
+                output.writeDouble(integral.getTolerance());
+                output.writeInt(integral.getMaximumEvaluations());
+            } else if (defuzzifier instanceof WeightedDefuzzifier) {
+                output.writeByte(DEFUZZIFIER_WEIGHTED);
+                writeString(((WeightedDefuzzifier) defuzzifier).getType().name());
+            } else {
+                output.writeByte(DEFUZZIFIER_OTHER);
+            }
+        }
+
+        void writeActivation(Activation activation) throws IOException {
+            if (activation == null) {
+                writeString(null);
+                return;
+            }
+            writeString(activation.getClass().getSimpleName());
+            writeString(activation.parameters());
+        }
+
+        void writeRuleBlock(RuleBlock ruleBlock) throws IOException {
+            writeString(ruleBlock.getName());
+            writeString(ruleBlock.getDescription());
+            output.writeBoolean(ruleBlock.isEnabled());
+            writeNorm(ruleBlock.getConjunction());
+            writeNorm(ruleBlock.getDisjunction());
+            writeNorm(ruleBlock.getImplication());
+            writeActivation(ruleBlock.getActivation());
+            output.writeInt(ruleBlock.numberOfRules());
+            for (Rule rule : ruleBlock.getRules()) {
+                writeRule(rule);
+            }
+        }
+
+        void writeRule(Rule rule) throws IOException {
+            writeString(rule.getText());
+            output.writeDouble(rule.getWeight());
+            output.writeBoolean(rule.isEnabled());
+            output.writeBoolean(rule.isLoaded());
+            if (!rule.isLoaded()) {
+                return;
+            }
+            writeString(rule.getAntecedent().getText());
+            writeExpression(rule.getAntecedent().getExpression());
+            writeString(rule.getConsequent().getText());
+            List<Proposition> conclusions = rule.getConsequent().getConclusions();
+            output.writeInt(conclusions.size());
+            for (Proposition proposition : conclusions) {
+                writeProposition(proposition);
+            }
+        }
+
+        void writeExpression(Expression expression) throws IOException {
+            if (expression instanceof Operator) {
+                Operator operator = (Operator) expression;
+                output.writeByte(EXPRESSION_OPERATOR);
+                writeString(operator.getName());
+                writeExpression(operator.getLeft());
+                writeExpression(operator.getRight());
+            } else if (expression instanceof Proposition) {
+                output.writeByte(EXPRESSION_PROPOSITION);
+                writeProposition((Proposition) expression);
+            } else {
+                throw new RuntimeException("[export error] expression <"
+                        + expression + "> not recognized");
+            }
+        }
+
+        void writeProposition(Proposition proposition) throws IOException {
+            Variable variable = proposition.getVariable();
+            Integer index = variables.get(variable);
+            if (index == null) {
+                throw new RuntimeException("[export error] variable <"
+                        + (variable == null ? "null" : variable.getName())
+                        + "> in proposition <" + proposition + "> not registered in engine");
+            }
+            output.writeByte(variable instanceof OutputVariable ? VARIABLE_OUTPUT : VARIABLE_INPUT);
+            output.writeInt(index);
+            output.writeInt(proposition.getHedges().size());
+            for (Hedge hedge : proposition.getHedges()) {
+                writeString(hedge.getName());
+                writeString(hedge instanceof HedgeFunction
+                        ? ((HedgeFunction) hedge).getFormula() : null);
+            }
+            Term term = proposition.getTerm();
+            Integer termIndex = term == null ? Integer.valueOf(NULL) : terms.get(term);
+            if (termIndex == null || (term != null && variable.getTerm(termIndex) != term)) {
+                throw new RuntimeException("[export error] term <" + term.getName()
+                        + "> in proposition <" + proposition + "> not registered in variable <"
+                        + variable.getName() + ">");
+            }
+            output.writeInt(termIndex);
+        }
+
+        /**
+         Writes the index of the string, followed by the string in UTF-8 if
+         it has not been written before
+
+         @param string is the string to write, which can be `null`
+         @throws IOException if any problem occurs upon writing
+         */
+        void writeString(String string) throws IOException {
+            if (string == null) {
+                output.writeInt(NULL);
+                return;
+            }
+            Integer index = strings.get(string);
+            if (index != null) {
+                output.writeInt(index);
+                return;
+            }
+            output.writeInt(strings.size());
+            strings.put(string, strings.size());
+            byte[] bytes = string.getBytes(FuzzyLite.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     Gets the exact parameters of the terms provided by the library, in the
+     order of their constructors, excluding the height
+
+     @param term is the term
+     @return the exact parameters of the term, or `null` if the term is to be
+     written as text
+     */
+    static double[] values(Term term) {
+        final Class<?> clazz = term.getClass();
+        if (clazz == Triangle.class) {
+            Triangle x = (Triangle) term;
+            return new double[]{x.getVertexA(), x.getVertexB(), x.getVertexC()};
+        }
+        if (clazz == Trapezoid.class) {
+            Trapezoid x = (Trapezoid) term;
+            return new double[]{x.getVertexA(), x.getVertexB(), x.getVertexC(), x.getVertexD()};
+        }
+        if (clazz == Rectangle.class) {
+            Rectangle x = (Rectangle) term;
+            return new double[]{x.getStart(), x.getEnd()};
+        }
+        if (clazz == Ramp.class) {
+            Ramp x = (Ramp) term;
+            return new double[]{x.getStart(), x.getEnd()};
+        }
+        if (clazz == Bell.class) {
+            Bell x = (Bell) term;
+            return new double[]{x.getCenter(), x.getWidth(), x.getSlope()};
+        }
+        if (clazz == Binary.class) {
+            Binary x = (Binary) term;
+            return new double[]{x.getStart(), x.getDirection()};
+        }
+        if (clazz == Concave.class) {
+            Concave x = (Concave) term;
+            return new double[]{x.getInflection(), x.getEnd()};
+        }
+        if (clazz == Constant.class) {
+            return new double[]{((Constant) term).getValue()};
+        }
+        if (clazz == Cosine.class) {
+            Cosine x = (Cosine) term;
+            return new double[]{x.getCenter(), x.getWidth()};
+        }
+        if (clazz == Gaussian.class) {
+            Gaussian x = (Gaussian) term;
+            return new double[]{x.getMean(), x.getStandardDeviation()};
+        }
+        if (clazz == GaussianProduct.class) {
+            GaussianProduct x = (GaussianProduct) term;
+            return new double[]{x.getMeanA(), x.getStandardDeviationA(),
+                x.getMeanB(), x.getStandardDeviationB()};
+        }
+        if (clazz == PiShape.class) {
+            PiShape x = (PiShape) term;
+            return new double[]{x.getBottomLeft(), x.getTopLeft(),
+                x.getTopRight(), x.getBottomRight()};
+        }
+        if (clazz == SShape.class) {
+            SShape x = (SShape) term;
+            return new double[]{x.getStart(), x.getEnd()};
+        }
+        if (clazz == ZShape.class) {
+            ZShape x = (ZShape) term;
+            return new double[]{x.getStart(), x.getEnd()};
+        }
+        if (clazz == Sigmoid.class) {
+            Sigmoid x = (Sigmoid) term;
+            return new double[]{x.getInflection(), x.getSlope()};
+        }
+        if (clazz == SigmoidDifference.class) {
+            SigmoidDifference x = (SigmoidDifference) term;
+            return new double[]{x.getLeft(), x.getRising(), x.getFalling(), x.getRight()};
+        }
+        if (clazz == SigmoidProduct.class) {
+            SigmoidProduct x = (SigmoidProduct) term;
+            return new double[]{x.getLeft(), x.getRising(), x.getFalling(), x.getRight()};
+        }
+        if (clazz == Spike.class) {
+            Spike x = (Spike) term;
+            return new double[]{x.getCenter(), x.getWidth()};
+        }
+        if (clazz == Discrete.class) {
+            List<Discrete.Pair> xy = ((Discrete) term).getXY();
+            double[] result = new double[2 * xy.size()];
+            for (int i = 0; i < xy.size(); ++i) {
+                result[2 * i] = xy.get(i).getX();
+                result[2 * i + 1] = xy.get(i).getY();
+            }
+            return result;
+        }
+        if (clazz == Linear.class) {
+            List<Double> coefficients = ((Linear) term).getCoefficients();
+            double[] result = new double[coefficients.size()];
+            for (int i = 0; i < coefficients.size(); ++i) {
+                result[i] = coefficients.get(i);
+            }
+            return result;
+        }
+        return null;
+    }
+
+    @Override
+    public BinaryExporter clone() throws CloneNotSupportedException {
+        return (BinaryExporter) super.clone();
+    }
+
+}
@@ -0,0 +1,539 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.imex;
+
+import fuzzylite.Engine;
+import fuzzylite.FuzzyLite;
+import fuzzylite.Op;
+import fuzzylite.activation.Activation;
+import fuzzylite.defuzzifier.Defuzzifier;
+import fuzzylite.defuzzifier.IntegralDefuzzifier;
+import fuzzylite.defuzzifier.WeightedDefuzzifier;
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.hedge.Hedge;
+import fuzzylite.hedge.HedgeFunction;
+import fuzzylite.norm.SNorm;
+import fuzzylite.norm.TNorm;
+import fuzzylite.norm.s.SNormFunction;
+import fuzzylite.norm.t.TNormFunction;
+import fuzzylite.rule.Expression;
+import fuzzylite.rule.Operator;
+import fuzzylite.rule.Proposition;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.*;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ The BinaryImporter class imports an Engine from the binary format written by
+ the BinaryExporter. The rules are imported already loaded with the
+ expression trees stored in the binary format, and hence their antecedents
+ and consequents are not parsed, and the terms provided by the library are
+ constructed directly from their exact parameters. The BinaryImporter reads
+ from a ByteBuffer, which can be memory-mapped from a file via
+ BinaryImporter::fromFile().
+
+ The BinaryImporter is not an Importer, as the binary format has no string
+ representation.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see BinaryExporter
+ @see FllImporter
+ @since 6.0
+ */
+public class BinaryImporter implements Op.Cloneable {
+
+    public BinaryImporter() {
+
+    }
+
+    /**
+     Imports the engine from the given binary representation
+
+     @param bytes is the binary representation of the engine
+     @return the engine represented by the bytes
+     */
+    public Engine fromByteArray(byte[] bytes) {
+        return fromByteBuffer(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     Imports the engine from the remaining bytes of the given buffer, whose
+     position is advanced to the end of the engine
+
+     @param buffer is the buffer containing the binary representation of the
+     engine
+     @return the engine represented by the buffer
+     */
+    public Engine fromByteBuffer(ByteBuffer buffer) {
+        //the components of the engine are new, so they do not invalidate the
+        //caches of the existing engines
+        FuzzyLite.suspendModifications();
+        try {
+            return new Reader(buffer).read();
+        } catch (BufferUnderflowException ex) {
+            throw new RuntimeException("[import error] unexpected end of binary engine", ex);
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
+    }
+
+    /**
+     Imports the engine from the given file, which is memory-mapped
+
+     @param file is the file containing the binary representation of the
+     engine
+     @return the engine represented by the file
+     @throws IOException if any error occurs upon mapping the file
+     */
+    public Engine fromFile(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return fromByteBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     The Reader class reads a single engine, keeping the strings read so far
+     */
+    private static class Reader {
+
+        private final ByteBuffer input;
+        private final List<String> strings = new ArrayList<String>();
+        private final Map<OutputVariable, Integer> conclusions
+                = new IdentityHashMap<OutputVariable, Integer>();
+        private Engine engine;
+
+        Reader(ByteBuffer input) {
+            this.input = input;
+        }
+
+        Engine read() {
+            final int magic = input.getInt();
+            if (magic != BinaryExporter.MAGIC) {
+                throw new RuntimeException(String.format(
+                        "[import error] expected a binary engine, but found magic number <%08x>",
+                        magic));
+            }
+            final int version = input.getInt();
+            if (version > BinaryExporter.VERSION) {
+                throw new RuntimeException(String.format(
+                        "[import error] binary engine version <%d> not supported "
+                        + "(expected up to version <%d>)", version, BinaryExporter.VERSION));
+            }
+            engine = new Engine();
+            engine.setName(readString());
+            engine.setDescription(readString());
+
+            final int inputVariables = readCount("input variables", 1);
+            for (int i = 0; i < inputVariables; ++i) {
+                InputVariable inputVariable = new InputVariable();
+                engine.addInputVariable(inputVariable);
+                readVariable(inputVariable);
+            }
+
+            final int outputVariables = readCount("output variables", 1);
+            for (int i = 0; i < outputVariables; ++i) {
+                OutputVariable outputVariable = new OutputVariable();
+                engine.addOutputVariable(outputVariable);
+                readVariable(outputVariable);
+                outputVariable.setDefaultValue(input.getDouble());
+                outputVariable.setLockPreviousValue(readBoolean());
+                outputVariable.fuzzyOutput().setAggregation((SNorm) readNorm(true));
+                outputVariable.setDefuzzifier(readDefuzzifier());
+            }
+
+            final int ruleBlocks = readCount("rule blocks", 1);
+            for (int i = 0; i < ruleBlocks; ++i) {
+                RuleBlock ruleBlock = new RuleBlock();
+                engine.addRuleBlock(ruleBlock);
+                readRuleBlock(ruleBlock);
+            }
+
+            for (Map.Entry<OutputVariable, Integer> entry : conclusions.entrySet()) {
+                entry.getKey().fuzzyOutput().reserve(entry.getValue());
+            }
+            return engine;
+        }
+
+        void readVariable(Variable variable) {
+            variable.setName(readString());
+            variable.setDescription(readString());
+            variable.setEnabled(readBoolean());
+            final double minimum = input.getDouble();
+            final double maximum = input.getDouble();
+            variable.setRange(minimum, maximum);
+            variable.setLockValueInRange(readBoolean());
+            final int terms = readCount("terms", 1);
+            for (int i = 0; i < terms; ++i) {
+                variable.addTerm(readTerm());
+            }
+        }
+
+        Term readTerm() {
+            final String className = readString();
+            final String name = readString();
+            final byte kind = input.get();
+            if (kind == BinaryExporter.TERM_TEXT) {
+                Term term = FactoryManager.instance().term().constructObject(className);
+                term.updateReference(engine);
+                term.setName(name);
+                term.configure(readString());
+                return term;
+            }
+            if (kind != BinaryExporter.TERM_VALUES) {
+                throw new RuntimeException(String.format(
+                        "[import error] term kind <%d> not recognized", kind));
+            }
+            final double height = input.getDouble();
+            final double[] x = new double[readCount("term parameters", 8)];
+            for (int i = 0; i < x.length; ++i) {
+                x[i] = input.getDouble();
+            }
+            try {
+                return term(className, name, x, height);
+            } catch (ArrayIndexOutOfBoundsException ex) {
+                throw new RuntimeException(String.format(
+                        "[import error] term <%s> of class <%s> has too few parameters <%d>",
+                        name, className, x.length), ex);
+            }
+        }
+
+        Term term(String className, String name, double[] x, double height) {
+            if ("Triangle".equals(className)) {
+                return new Triangle(name, x[0], x[1], x[2], height);
+            }
+            if ("Trapezoid".equals(className)) {
+                return new Trapezoid(name, x[0], x[1], x[2], x[3], height);
+            }
+            if ("Rectangle".equals(className)) {
+                return new Rectangle(name, x[0], x[1], height);
+            }
+            if ("Ramp".equals(className)) {
+                return new Ramp(name, x[0], x[1], height);
+            }
+            if ("Bell".equals(className)) {
+                return new Bell(name, x[0], x[1], x[2], height);
+            }
+            if ("Binary".equals(className)) {
+                return new Binary(name, x[0], x[1], height);
+            }
+            if ("Concave".equals(className)) {
+                return new Concave(name, x[0], x[1], height);
+            }
+            if ("Constant".equals(className)) {
+                Constant result = new Constant(name, x[0]);
+                result.setHeight(height);
+                return result;
+            }
+            if ("Cosine".equals(className)) {
+                return new Cosine(name, x[0], x[1], height);
+            }
+            if ("Gaussian".equals(className)) {
+                return new Gaussian(name, x[0], x[1], height);
+            }
+            if ("GaussianProduct".equals(className)) {
+                return new GaussianProduct(name, x[0], x[1], x[2], x[3], height);
+            }
+            if ("PiShape".equals(className)) {
+                return new PiShape(name, x[0], x[1], x[2], x[3], height);
+            }
+            if ("SShape".equals(className)) {
+                return new SShape(name, x[0], x[1], height);
+            }
+            if ("ZShape".equals(className)) {
+                return new ZShape(name, x[0], x[1], height);
+            }
+            if ("Sigmoid".equals(className)) {
+                return new Sigmoid(name, x[0], x[1], height);
+            }
+            if ("SigmoidDifference".equals(className)) {
+                return new SigmoidDifference(name, x[0], x[1], x[2], x[3], height);
+            }
+            if ("SigmoidProduct".equals(className)) {
+                return new SigmoidProduct(name, x[0], x[1], x[2], x[3], height);
+            }
+            if ("Spike".equals(className)) {
+                return new Spike(name, x[0], x[1], height);
+            }
+            if ("Discrete".equals(className)) {
+                List<Discrete.Pair> xy = new ArrayList<Discrete.Pair>(x.length / 2);
+                for (int i = 0; i + 1 < x.length; i += 2) {
+                    xy.add(new Discrete.Pair(x[i], x[i + 1]));
+                }
+                return new Discrete(name, xy, height);
+            }
+            if ("Linear".equals(className)) {
+                List<Double> coefficients = new ArrayList<Double>(x.length);
+                for (double coefficient : x) {
+                    coefficients.add(coefficient);
+                }
+                Linear result = new Linear(name, coefficients, engine);
+                result.setHeight(height);
+                return result;
+            }
+            throw new RuntimeException(String.format(
+                    "[import error] term <%s> of class <%s> not recognized", name, className));
+        }
+
+        Object readNorm(boolean snorm) {
+            final String className = readString();
+            if (className == null) {
+                return null;
+            }
+            final String formula = readString();
+            if (formula != null) {
+                return snorm ? new SNormFunction(formula) : new TNormFunction(formula);
+            }
+            if (snorm) {
+                return FactoryManager.instance().snorm().constructObject(className);
+            }
+            return FactoryManager.instance().tnorm().constructObject(className);
+        }
+
+        Defuzzifier readDefuzzifier() {
+            final String className = readString();
+            if (className == null) {
+                return null;
+            }
+            Defuzzifier defuzzifier = FactoryManager.instance().defuzzifier().constructObject(className);
+            final byte kind = input.get();
+            if (kind == BinaryExporter.DEFUZZIFIER_INTEGRAL) {
+                IntegralDefuzzifier integral = (IntegralDefuzzifier) defuzzifier;
+                integral.setResolution(input.getInt());
+                integral.setIntegration(readEnum(IntegralDefuzzifier.Integration.class));
+                integral.setTolerance(input.getDouble());
+                integral.setMaximumEvaluations(input.getInt());
+            } else if (kind == BinaryExporter.DEFUZZIFIER_WEIGHTED) {
+                ((WeightedDefuzzifier) defuzzifier).setType(
+                        readEnum(WeightedDefuzzifier.Type.class));
+            }
+            return defuzzifier;
+        }
+
+        Activation readActivation() {
+            final String className = readString();
+            if (className == null) {
+                return null;
+            }
+            Activation activation = FactoryManager.instance().activation().constructObject(className);
+            activation.configure(readString());
+            return activation;
+        }
+
+        void readRuleBlock(RuleBlock ruleBlock) {
+            ruleBlock.setName(readString());
+            ruleBlock.setDescription(readString());
+            ruleBlock.setEnabled(readBoolean());
+            ruleBlock.setConjunction((TNorm) readNorm(false));
+            ruleBlock.setDisjunction((SNorm) readNorm(true));
+            ruleBlock.setImplication((TNorm) readNorm(false));
+            ruleBlock.setActivation(readActivation());
+            final int rules = readCount("rules", 1);
+            List<Rule> result = new ArrayList<Rule>(rules);
+            for (int i = 0; i < rules; ++i) {
+                result.add(readRule());
+            }
+            ruleBlock.setRules(result);
+        }
+
+        Rule readRule() {
+            Rule rule = new Rule(readString(), input.getDouble());
+            rule.setEnabled(readBoolean());
+            if (!readBoolean()) {
+                return rule;
+            }
+            rule.getAntecedent().setText(readString());
+            rule.getAntecedent().setExpression(readExpression());
+            rule.getConsequent().setText(readString());
+            final int size = readCount("conclusions", 1);
+            List<Proposition> propositions = new ArrayList<Proposition>(size);
+            for (int i = 0; i < size; ++i) {
+                Proposition proposition = readProposition();
+                if (proposition.getVariable() instanceof OutputVariable) {
+                    OutputVariable outputVariable = (OutputVariable) proposition.getVariable();
+                    Integer count = conclusions.get(outputVariable);
+                    conclusions.put(outputVariable, count == null ? 1 : count + 1);
+                }
+                propositions.add(proposition);
+            }
+            rule.getConsequent().setConclusions(propositions);
+            return rule;
+        }
+
+        Expression readExpression() {
+            final byte kind = input.get();
+            if (kind == BinaryExporter.EXPRESSION_OPERATOR) {
+                Operator operator = new Operator(readString());
+                operator.setLeft(readExpression());
+                operator.setRight(readExpression());
+                return operator;
+            }
+            if (kind == BinaryExporter.EXPRESSION_PROPOSITION) {
+                return readProposition();
+            }
+            throw new RuntimeException(String.format(
+                    "[import error] expression kind <%d> not recognized", kind));
+        }
+
+        Proposition readProposition() {
+            final byte kind = input.get();
+            final int index = input.getInt();
+            Variable variable;
+            if (kind == BinaryExporter.VARIABLE_INPUT) {
+                variable = engine.getInputVariable(checkIndex("input variable",
+                        index, engine.numberOfInputVariables()));
+            } else if (kind == BinaryExporter.VARIABLE_OUTPUT) {
+                variable = engine.getOutputVariable(checkIndex("output variable",
+                        index, engine.numberOfOutputVariables()));
+            } else {
+                throw new RuntimeException(String.format(
+                        "[import error] variable kind <%d> not recognized", kind));
+            }
+            final int size = readCount("hedges", 1);
+            List<Hedge> hedges = new ArrayList<Hedge>(size);
+            for (int i = 0; i < size; ++i) {
+                final String name = readString();
+                final String formula = readString();
+                if (formula != null) {
+                    hedges.add(new HedgeFunction(formula));
+                } else {
+                    hedges.add(FactoryManager.instance().hedge().constructObject(name));
+                }
+            }
+            final int term = input.getInt();
+            return new Proposition(variable, hedges, term == BinaryExporter.NULL
+                    ? null : variable.getTerm(checkIndex("term", term, variable.numberOfTerms())));
+        }
+
+        /**
+         Reads the number of elements that follow, validating that it is not
+         negative and that the remaining bytes can contain the elements
+
+         @param elements is the description of the elements
+         @param bytes is the minimum number of bytes of each element
+         @return the number of elements that follow
+         */
+        int readCount(String elements, int bytes) {
+            final int result = input.getInt();
+            if (result < 0) {
+                throw new RuntimeException(String.format(
+                        "[import error] number of %s <%d> is negative", elements, result));
+            }
+            if ((long) result * bytes > input.remaining()) {
+                throw new RuntimeException(String.format(
+                        "[import error] number of %s <%d> exceeds the <%d> bytes remaining",
+                        elements, result, input.remaining()));
+            }
+            return result;
+        }
+
+        /**
+         Validates that the given index read is within `[0, size)`
+
+         @param element is the description of the element
+         @param index is the index read
+         @param size is the number of elements
+         @return the index
+         */
+        int checkIndex(String element, int index, int size) {
+            if (index < 0 || index >= size) {
+                throw new RuntimeException(String.format(
+                        "[import error] %s index <%d> out of range [0, %d)",
+                        element, index, size));
+            }
+            return index;
+        }
+
+        /**
+         Reads the name of a constant of the given enumeration
+
+         @param <T> is the type of the enumeration
+         @param type is the class of the enumeration
+         @return the constant of the given name
+         */
+        <T extends Enum<T>> T readEnum(Class<T> type) {
+            final String name = readString();
+            try {
+                return Enum.valueOf(type, name);
+            } catch (RuntimeException ex) {
+                throw new RuntimeException(String.format(
+                        "[import error] %s <%s> not recognized", type.getSimpleName(), name), ex);
+            }
+        }
+
+        boolean readBoolean() {
+            return input.get() != 0;
+        }
+
+        /**
+         Reads the index of a string, followed by the string in UTF-8 if it
+         has not been read before
+
+         @return the string read, which can be `null`
+         */
+        String readString() {
+            final int index = input.getInt();
+            if (index == BinaryExporter.NULL) {
+                return null;
+            }
+            if (index >= 0 && index < strings.size()) {
+                return strings.get(index);
+            }
+            if (index != strings.size()) {
+                throw new RuntimeException(String.format(
+                        "[import error] string index <%d> out of order (expected <%d>)",
+                        index, strings.size()));
+            }
+            final int length = readCount("bytes of string", 1);
+            final String result;
+            if (input.hasArray()) {
+                result = new String(input.array(), input.arrayOffset() + input.position(),
+                        length, FuzzyLite.UTF_8);
+                input.position(input.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                input.get(bytes);
+                result = new String(bytes, FuzzyLite.UTF_8);
+            }
+            strings.add(result);
+            return result;
+        }
+    }
+
+    @Override
+    public BinaryImporter clone() throws CloneNotSupportedException {
+        return (BinaryImporter) super.clone();
+    }
+
+}
@@ -18,6 +18,7 @@ package fuzzylite.imex;
 
 import fuzzylite.Op.Pair;
 import fuzzylite.Engine;
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.activation.General;
 import fuzzylite.defuzzifier.*;
@@ -38,7 +39,6 @@ import fuzzylite.variable.OutputVariable;
 import java.io.BufferedReader;
 import java.io.StringReader;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  The FclImporter class is an Importer that configures an Engine and its
@@ -53,6 +53,17 @@ public class FclImporter extends Importer {
 
     @Override
     public Engine fromString(String fcl) {
+        //the components of the engine are new, so they do not invalidate the
+        //caches of the existing engines
+        FuzzyLite.suspendModifications();
+        try {
+            return importEngine(fcl);
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
+    }
+
+    private Engine importEngine(String fcl) {
         Engine engine = new Engine();
 
         Map<String, String> tags = new HashMap<String, String>();
@@ -64,28 +75,29 @@ public class FclImporter extends Importer {
 
         String currentTag = "", closingTag = "";
         StringBuilder block = new StringBuilder();
-        BufferedReader fclReader = new BufferedReader(new StringReader(fcl));
+        Tokenizer lines = new Tokenizer(fcl);
         int lineNumber = 0;
         String line;
         try {
-            while ((line = fclReader.readLine()) != null) {
+            while (lines.nextLine()) {
                 ++lineNumber;
-                line = Op.split(line, "//", false).get(0);
-                line = Op.split(line, "#", false).get(0);
-                line = line.trim().replaceAll(Pattern.quote(";"), "");
+                lines.removeComment("//").removeComment("#").trim();
+                line = removeSemicolons(lines);
                 if (line.isEmpty() || line.charAt(0) == '%') {
                     continue;
                 }
 
-                StringTokenizer tokenizer = new StringTokenizer(line);
-                String firstToken = tokenizer.nextToken();
+                Tokenizer tokenizer = new Tokenizer(line);
+                tokenizer.nextLine();
+                tokenizer.nextToken();
+                String firstToken = tokenizer.token();
 
                 if ("FUNCTION_BLOCK".equals(firstToken)) {
-                    if (tokenizer.hasMoreTokens()) {
+                    if (tokenizer.nextToken()) {
                         StringBuilder name = new StringBuilder();
-                        name.append(tokenizer.nextToken());
-                        while (tokenizer.hasMoreTokens()) {
-                            name.append(" ").append(tokenizer.nextToken());
+                        tokenizer.appendToken(name);
+                        while (tokenizer.nextToken()) {
+                            tokenizer.appendToken(name.append(" "));
                         }
                         engine.setName(name.toString());
                     }
@@ -144,6 +156,27 @@ public class FclImporter extends Importer {
         return engine;
     }
 
+    /**
+     Gets the current line of the tokenizer without semicolons
+
+     @param tokenizer is the tokenizer of the text
+     @return the current line of the tokenizer without semicolons
+     */
+    private static String removeSemicolons(Tokenizer tokenizer) {
+        final int semicolon = tokenizer.indexOf(';');
+        if (semicolon < 0) {
+            return tokenizer.line();
+        }
+        StringBuilder result = new StringBuilder(tokenizer.lineEnd() - tokenizer.lineStart());
+        result.append(tokenizer.getText(), tokenizer.lineStart(), semicolon);
+        for (int i = semicolon + 1; i < tokenizer.lineEnd(); ++i) {
+            if (tokenizer.charAt(i) != ';') {
+                result.append(tokenizer.charAt(i));
+            }
+        }
+        return result.toString();
+    }
+
     protected void processBlock(String tag, String block, Engine engine) throws Exception {
         if ("VAR_INPUT".equals(tag) || "VAR_OUTPUT".equals(tag)) {
             processVar(tag, block, engine);
@@ -272,11 +305,11 @@ public class FclImporter extends Importer {
     }
 
     protected void processRuleBlock(String block, Engine engine) throws Exception {
-        BufferedReader reader = new BufferedReader(new StringReader(block));
-        String line = reader.readLine();
-        if (line == null) {
+        Tokenizer reader = new Tokenizer(block);
+        if (!reader.nextLine()) {
             return;
         }
+        String line = reader.line();
         String name = "";
         int index = line.indexOf(' ');
         if (index >= 0) {
@@ -286,7 +319,8 @@ public class FclImporter extends Importer {
         ruleBlock.setActivation(new General());
         engine.addRuleBlock(ruleBlock);
 
-        while ((line = reader.readLine()) != null) {
+        while (reader.nextLine()) {
+            line = reader.line();
             String firstToken = line.substring(0, line.indexOf(' '));
             if ("AND".equals(firstToken)) {
                 ruleBlock.setConjunction(parseTNorm(line));
@@ -301,19 +335,22 @@ public class FclImporter extends Importer {
                 if (ruleStart < 0) {
                     ruleStart = "RULE".length();
                 }
-                String ruleText = line.substring(ruleStart + 1).trim();
-                Rule rule = new Rule(ruleText);
-                try {
-                    rule.load(engine);
-                } finally {
-                    ruleBlock.addRule(rule);
-                }
+                Rule rule = new Rule();
+                rule.setText(line.substring(ruleStart + 1).trim());
+                ruleBlock.addRule(rule);
             } else {
                 throw new RuntimeException(String.format(
                         "[syntax error] keyword <%s> not recognized in line %s",
                         firstToken, line));
             }
         }
+
+        Exception[] exceptions = loadRules(ruleBlock.getRules(), engine);
+        for (Exception ex : exceptions) {
+            if (ex != null) {
+                throw ex;
+            }
+        }
     }
 
     protected TNorm parseTNorm(String line) {
@@ -18,6 +18,7 @@ package fuzzylite.imex;
 
 import fuzzylite.Op.Pair;
 import fuzzylite.Engine;
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.activation.General;
 import fuzzylite.defuzzifier.*;
@@ -35,7 +36,6 @@ import fuzzylite.variable.Variable;
 import java.io.BufferedReader;
 import java.io.StringReader;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  The FisImporter class is an Importer that configures an Engine and its
@@ -57,45 +57,50 @@ public class FisImporter extends Importer {
 
     @Override
     public Engine fromString(String fis) {
-        Engine engine = new Engine();
+        //the components of the engine are new, so they do not invalidate the
+        //caches of the existing engines
+        FuzzyLite.suspendModifications();
+        try {
+            return importEngine(fis);
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
+    }
 
-        BufferedReader fisReader = new BufferedReader(new StringReader(fis));
-        String line;
+    private Engine importEngine(String fis) {
+        Engine engine = new Engine();
 
+        Tokenizer tokenizer = new Tokenizer(fis);
         int lineNumber = 0;
-        List<String> sections = new ArrayList<String>();
+        List<StringBuilder> sections = new ArrayList<StringBuilder>();
         try {
-            while ((line = fisReader.readLine()) != null) {
+            while (tokenizer.nextLine()) {
                 ++lineNumber;
-                line = Op.split(line, "//", false).get(0);
-                line = Op.split(line, "#", false).get(0);
-                line = line.trim();
+                tokenizer.removeComment("//").removeComment("#").trim();
                 // (%) indicates a comment only when used at the start of line
-                if (line.isEmpty() || line.charAt(0) == '%') {
+                if (tokenizer.isEmpty() || tokenizer.charAt(tokenizer.lineStart()) == '%') {
                     continue;
                 }
 
-                line = line.replaceAll(Pattern.quote("'"), "");
-
-                if (line.startsWith("[System]")
-                        || line.startsWith("[Input")
-                        || line.startsWith("[Output")
-                        || line.startsWith("[Rules]")) {
-                    sections.add(line);
+                if (tokenizer.startsWith("[System]")
+                        || tokenizer.startsWith("[Input")
+                        || tokenizer.startsWith("[Output")
+                        || tokenizer.startsWith("[Rules]")) {
+                    sections.add(appendLine(tokenizer, new StringBuilder()));
                 } else if (!sections.isEmpty()) {
-                    int lastIndex = sections.size() - 1;
-                    String section = sections.get(lastIndex);
-                    section += "\n" + line;
-                    sections.set(lastIndex, section);
+                    StringBuilder section = sections.get(sections.size() - 1);
+                    appendLine(tokenizer, section.append("\n"));
                 } else {
                     throw new RuntimeException(String.format(
                             "[import error] line %d <%s> "
-                            + "does not belong to any section", lineNumber, line));
+                            + "does not belong to any section", lineNumber,
+                            appendLine(tokenizer, new StringBuilder())));
                 }
             }
 
             String[] configuration = new String[ALL];
-            for (String section : sections) {
+            for (StringBuilder sectionBuilder : sections) {
+                String section = sectionBuilder.toString();
                 if (section.startsWith("[System]")) {
                     importSystem(section, engine, configuration);
                 } else if (section.startsWith("[Input")) {
@@ -121,6 +126,25 @@ public class FisImporter extends Importer {
         return engine;
     }
 
+    /**
+     Appends the current line of the tokenizer to the given builder without
+     the apostrophes
+
+     @param tokenizer is the tokenizer of the text
+     @param builder is the builder to append the line to
+     @return the given builder
+     */
+    private static StringBuilder appendLine(Tokenizer tokenizer, StringBuilder builder) {
+        int start = tokenizer.lineStart();
+        for (int i = start; i < tokenizer.lineEnd(); ++i) {
+            if (tokenizer.charAt(i) == '\'') {
+                builder.append(tokenizer.getText(), start, i);
+                start = i + 1;
+            }
+        }
+        return builder.append(tokenizer.getText(), start, tokenizer.lineEnd());
+    }
+
     protected void importSystem(String section, Engine engine, String[] methods) throws Exception {
         BufferedReader reader = new BufferedReader(new StringReader(section));
         reader.readLine(); //ignore first line [System]
@@ -238,122 +262,135 @@ public class FisImporter extends Importer {
     }
 
     protected void importRules(String section, Engine engine) throws Exception {
-        BufferedReader reader = new BufferedReader(new StringReader(section));
-        reader.readLine(); //ignore first line [Rules]
+        Tokenizer tokenizer = new Tokenizer(section);
+        tokenizer.nextLine(); //ignore first line [Rules]
 
         RuleBlock ruleBlock = new RuleBlock();
         engine.addRuleBlock(ruleBlock);
 
-        String line;
-        while ((line = reader.readLine()) != null) {
-            List<String> inputsAndRest = Op.split(line, ",");
-            if (inputsAndRest.size() != 2) {
+        StringBuilder ruleText = new StringBuilder();
+        while (tokenizer.nextLine()) {
+            final int comma = tokenizer.indexOf(',');
+            final int colon = tokenizer.indexOf(':', comma + 1);
+            if (comma < 0 || colon < 0 || tokenizer.indexOf(',', comma + 1) >= 0
+                    || tokenizer.indexOf(':', colon + 1) >= 0
+                    || tokenizer.indexOf(':') < comma) {
                 throw new RuntimeException(String.format(
                         "[syntax error] expected rule to match pattern "
-                        + "<'i '+, 'o '+ (w) : '1|2'>, but found instead <%s>", line));
+                        + "<'i '+, 'o '+ (w) : '1|2'>, but found instead <%s>", tokenizer.line()));
             }
 
-            List<String> outputsAndRest = Op.split(inputsAndRest.get(1), ":");
-            if (outputsAndRest.size() != 2) {
-                throw new RuntimeException(String.format(
-                        "[syntax error] expected rule to match pattern "
-                        + "<'i '+, 'o '+ (w) : '1|2'>, but found instead <%s>", line));
+            int inputs = 0;
+            tokenizer.seek(tokenizer.lineStart(), comma);
+            while (tokenizer.nextToken()) {
+                ++inputs;
             }
-            List<String> inputs = Op.split(inputsAndRest.get(0).trim(), " ");
-            List<String> outputs = Op.split(outputsAndRest.get(0).trim(), " ");
-            String weightInParenthesis = outputs.get(outputs.size() - 1);
-            outputs.remove(outputs.size() - 1);
-            String connector = outputsAndRest.get(1).trim();
-
-            if (inputs.size() != engine.numberOfInputVariables()) {
+            //the last token before the colon is the weight in parenthesis
+            int outputs = -1, weightStart = colon, weightEnd = colon;
+            tokenizer.seek(comma + 1, colon);
+            while (tokenizer.nextToken()) {
+                ++outputs;
+                weightStart = tokenizer.tokenStart();
+                weightEnd = tokenizer.tokenEnd();
+            }
+            if (inputs != engine.numberOfInputVariables()) {
                 throw new RuntimeException(String.format(
                         "[syntax error] expected <%d> input variables, "
                         + "but found <%d> input variables in rule <%s>",
                         engine.numberOfInputVariables(),
-                        inputs.size(), line));
+                        inputs, tokenizer.line()));
             }
-            if (outputs.size() != engine.numberOfOutputVariables()) {
+            if (outputs != engine.numberOfOutputVariables()) {
                 throw new RuntimeException(String.format(
                         "[syntax error] expected <%d> output variables, "
                         + "but found <%d> output variables in rule <%s>",
                         engine.numberOfOutputVariables(),
-                        outputs.size(), line));
+                        Math.max(outputs, 0), tokenizer.line()));
             }
 
-            List<String> antecedent = new ArrayList<String>();
-            List<String> consequent = new ArrayList<String>();
-
-            for (int i = 0; i < inputs.size(); ++i) {
-                double inputCode = Op.toDouble(inputs.get(i));
+            ruleText.setLength(0);
+            ruleText.append(Rule.FL_IF).append(" ");
+            String connector = null;
+            boolean first = true;
+            tokenizer.seek(tokenizer.lineStart(), comma);
+            for (int i = 0; i < inputs; ++i) {
+                tokenizer.nextToken();
+                double inputCode = tokenizer.tokenToDouble();
                 if (Op.isEq(inputCode, 0.0)) {
                     continue;
                 }
+                if (!first) {
+                    if (connector == null) {
+                        connector = parseConnector(tokenizer, colon);
+                    }
+                    ruleText.append(" ").append(connector).append(" ");
+                }
+                first = false;
                 InputVariable inputVariable = engine.getInputVariable(i);
-                String proposition = String.format("%s %s %s",
-                        inputVariable.getName(), Rule.FL_IS,
-                        translateProposition(inputCode, inputVariable));
-                antecedent.add(proposition);
+                ruleText.append(inputVariable.getName()).append(" ").append(Rule.FL_IS)
+                        .append(" ").append(translateProposition(inputCode, inputVariable));
             }
 
-            for (int i = 0; i < outputs.size(); ++i) {
-                double outputCode = Op.toDouble(outputs.get(i));
+            ruleText.append(" ").append(Rule.FL_THEN).append(" ");
+            first = true;
+            tokenizer.seek(comma + 1, colon);
+            for (int i = 0; i < outputs; ++i) {
+                tokenizer.nextToken();
+                double outputCode = tokenizer.tokenToDouble();
                 if (Op.isEq(outputCode, 0.0)) {
                     continue;
                 }
-                OutputVariable outputVariable = engine.getOutputVariable(i);
-                String proposition = String.format("%s %s %s",
-                        outputVariable.getName(), Rule.FL_IS,
-                        translateProposition(outputCode, outputVariable));
-                consequent.add(proposition);
-            }
-
-            StringBuilder ruleText = new StringBuilder();
-            ruleText.append(Rule.FL_IF).append(" ");
-            for (Iterator<String> it = antecedent.iterator(); it.hasNext();) {
-                ruleText.append(it.next());
-                if (it.hasNext()) {
-                    ruleText.append(" ");
-                    if ("1".equals(connector)) {
-                        ruleText.append(Rule.FL_AND).append(" ");
-                    } else if ("2".equals(connector)) {
-                        ruleText.append(Rule.FL_OR).append(" ");
-                    } else {
-                        throw new RuntimeException(String.format(
-                                "[syntax error] connector <%s> not recognized",
-                                connector));
-                    }
+                if (!first) {
+                    ruleText.append(" ").append(Rule.FL_AND).append(" ");
                 }
+                first = false;
+                OutputVariable outputVariable = engine.getOutputVariable(i);
+                ruleText.append(outputVariable.getName()).append(" ").append(Rule.FL_IS)
+                        .append(" ").append(translateProposition(outputCode, outputVariable));
             }
-
-            ruleText.append(String.format(" %s ", Rule.FL_THEN));
-            for (Iterator<String> it = consequent.iterator(); it.hasNext();) {
-                ruleText.append(it.next());
-                if (it.hasNext()) {
-                    ruleText.append(String.format(" %s ", Rule.FL_AND));
-                }
+            while (weightStart < weightEnd && tokenizer.charAt(weightStart) == '(') {
+                ++weightStart;
             }
-            StringBuilder weightBuilder = new StringBuilder();
-            for (char c : weightInParenthesis.toCharArray()) {
-                if (c == '(' || c == ')' || c == ' ') {
-                    continue;
-                }
-                weightBuilder.append(c);
+            while (weightEnd > weightStart && tokenizer.charAt(weightEnd - 1) == ')') {
+                --weightEnd;
             }
-            String weightString = weightBuilder.toString();
-            double weight = Op.toDouble(weightString);
+            double weight = tokenizer.toDouble(weightStart, weightEnd);
             if (!Op.isEq(weight, 1.0)) {
-                ruleText.append(String.format(" %s %s",
-                        Rule.FL_WITH, Op.str(weight)));
+                ruleText.append(" ").append(Rule.FL_WITH).append(" ").append(Op.str(weight));
             }
-            Rule rule = new Rule(ruleText.toString());
-            try {
-                rule.load(engine);
-            } finally {
-                ruleBlock.addRule(rule);
+            Rule rule = new Rule();
+            rule.setText(ruleText.toString());
+            ruleBlock.addRule(rule);
+        }
+
+        List<Rule> rules = ruleBlock.getRules();
+        Exception[] exceptions = loadRules(rules, engine);
+        for (Exception ex : exceptions) {
+            if (ex != null) {
+                throw ex;
             }
         }
     }
 
+    /**
+     Parses the connector of the rule in the current line of the tokenizer
+
+     @param tokenizer is the tokenizer whose current line is the rule
+     @param colon is the index of the colon that precedes the connector
+     @return the operator of the connector
+     */
+    private String parseConnector(Tokenizer tokenizer, int colon) {
+        String connector = tokenizer.substring(colon + 1, tokenizer.lineEnd());
+        if ("1".equals(connector)) {
+            return Rule.FL_AND;
+        } else if ("2".equals(connector)) {
+            return Rule.FL_OR;
+        }
+        throw new RuntimeException(String.format(
+                "[syntax error] connector <%s> not recognized",
+                connector));
+    }
+
     protected String translateProposition(double code, Variable variable) {
         int intPart = (int) Math.floor(Math.abs(code)) - 1;
         double fracPart = Math.abs(code) % 1;
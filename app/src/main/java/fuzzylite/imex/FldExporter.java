@@ -19,6 +19,7 @@ package fuzzylite.imex;
 import fuzzylite.Engine;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
+import fuzzylite.ScalarFormat;
 import fuzzylite.variable.InputVariable;
 import fuzzylite.variable.OutputVariable;
 
@@ -27,6 +28,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 
 /**
@@ -57,10 +59,16 @@ public class FldExporter extends Exporter {
         AllVariables
     }
 
+    /**
+     Number of lines read and evaluated at once when exporting in parallel
+     */
+    public static final int PARALLEL_BLOCK = 1 << 16;
+
     private String separator;
     private boolean exportHeaders;
     private boolean exportInputValues;
     private boolean exportOutputValues;
+    private int threads;
 
     public FldExporter() {
         this(" ");
@@ -71,6 +79,7 @@ public class FldExporter extends Exporter {
         this.exportHeaders = true;
         this.exportInputValues = true;
         this.exportOutputValues = true;
+        this.threads = 1;
     }
 
     /**
@@ -148,6 +157,30 @@ public class FldExporter extends Exporter {
         this.exportOutputValues = exportOutputValues;
     }
 
+    /**
+     Gets the number of threads to evaluate the engine on the input values read
+     utilizing FldExporter::write(Engine, Writer, Reader)
+
+     @return the number of threads to evaluate the engine
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     Sets the number of threads to evaluate the engine on the input values read
+     utilizing FldExporter::write(Engine, Writer, Reader). If the number of
+     threads is greater than one, the input values are read in blocks of
+     FldExporter::PARALLEL_BLOCK lines, and each block is evaluated utilizing
+     Engine::processBatch(double[][], double[][], ForkJoinPool), in which case
+     the variables of the engine are not modified.
+
+     @param threads is the number of threads to evaluate the engine
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     /**
      Gets the header of the dataset for the given engine
 
@@ -462,19 +495,37 @@ public class FldExporter extends Exporter {
     }
 
     /**
-     Writes the engine into the given writer
+     Writes the engine into the given writer. If FldExporter::getThreads() is
+     greater than one and no output variable locks its previous value, the
+     engine is evaluated in parallel utilizing a ForkJoinPool of the given
+     number of threads.
 
      @param engine is the engine to export
      @param writer is the output where the engine will be written to
      @param reader is the reader of a set of lines containing space-separated
      input values
      @throws IOException if any error occurs upon writing to the writer
+     @see FldExporter::setThreads(int)
      */
     public void write(Engine engine, Writer writer, Reader reader) throws IOException {
         if (exportHeaders) {
             writer.append(header(engine)).append("\n");
         }
 
+        boolean parallel = threads > 1;
+        for (OutputVariable outputVariable : engine.getOutputVariables()) {
+            parallel &= !outputVariable.isLockPreviousValue();
+        }
+        if (parallel) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                write(engine, writer, reader, pool);
+            } finally {
+                pool.shutdown();
+            }
+            return;
+        }
+
         String line;
         int lineNumber = 0;
         BufferedReader bufferedReader = new BufferedReader(reader);
@@ -502,6 +553,193 @@ public class FldExporter extends Exporter {
         }
     }
 
+    /**
+     Writes the engine into the given writer evaluating the input values read
+     from the given memory-mapped reader, which parses the values without
+     decoding the lines into strings. If FldExporter::getThreads() is greater
+     than one, the engine is evaluated in parallel utilizing a ForkJoinPool of
+     the given number of threads. Blank lines and comments are written as blank
+     lines.
+
+     @param engine is the engine to export
+     @param writer is the output where the engine will be written to
+     @param reader is the reader of a set of lines containing space-separated
+     input values
+     @throws IOException if any error occurs upon reading or writing
+     @see FldExporter::write(Engine, Writer, Reader)
+     */
+    public void write(Engine engine, Writer writer, MappedFldReader reader) throws IOException {
+        if (exportHeaders) {
+            writer.append(header(engine)).append("\n");
+        }
+
+        boolean parallel = threads > 1;
+        for (OutputVariable outputVariable : engine.getOutputVariables()) {
+            parallel &= !outputVariable.isLockPreviousValue();
+        }
+        ForkJoinPool pool = parallel ? new ForkJoinPool(threads) : null;
+        try {
+            List<List<Double>> block = new ArrayList<List<Double>>();
+            List<Double> inputValues = new ArrayList<Double>();
+            while (reader.nextLine()) {
+                int values;
+                if (reader.isFirstLine()) { //automatic detection of header.
+                    try {
+                        values = reader.parse();
+                    } catch (NumberFormatException ex) {
+                        continue;
+                    }
+                } else {
+                    values = reader.parse();
+                }
+                if (pool != null) {
+                    inputValues = new ArrayList<Double>(values);
+                } else {
+                    inputValues.clear();
+                }
+                for (int i = 0; i < values; ++i) {
+                    inputValues.add(reader.getValues()[i]);
+                }
+                if (pool == null) {
+                    write(engine, writer, inputValues, engine.getInputVariables());
+                } else {
+                    block.add(inputValues);
+                    if (block.size() == PARALLEL_BLOCK) {
+                        write(engine, writer, block, pool);
+                        block.clear();
+                    }
+                }
+            }
+            if (pool != null) {
+                write(engine, writer, block, pool);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     Writes the engine into the given writer evaluating the input values read in
+     blocks utilizing the given pool. The lines are written in the same order as
+     they are read.
+
+     @param engine is the engine to export
+     @param writer is the output where the engine will be written to
+     @param reader is the reader of a set of lines containing space-separated
+     input values
+     @param pool is the pool to evaluate the engine
+     @throws IOException if any error occurs upon reading or writing
+     */
+    private void write(Engine engine, Writer writer, Reader reader, ForkJoinPool pool)
+            throws IOException {
+        String line;
+        int lineNumber = 0;
+        List<List<Double>> block = new ArrayList<List<Double>>();
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        try {
+            while ((line = bufferedReader.readLine()) != null) {
+                ++lineNumber;
+                List<Double> inputValues;
+                if (lineNumber == 1) { //automatic detection of header.
+                    try {
+                        inputValues = parse(line);
+                    } catch (Exception ex) {
+                        continue;
+                    }
+                } else {
+                    inputValues = parse(line);
+                }
+                block.add(inputValues);
+                if (block.size() == PARALLEL_BLOCK) {
+                    write(engine, writer, block, pool);
+                    block.clear();
+                }
+            }
+            write(engine, writer, block, pool);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (IOException ex) {
+            throw ex;
+        } finally {
+            bufferedReader.close();
+        }
+    }
+
+    /**
+     Writes the engine into the given writer evaluating the block of input
+     values utilizing the given pool
+
+     @param engine is the engine to export
+     @param writer is the output where the engine will be written to
+     @param block is the block of input values, where empty input values are
+     written as empty lines
+     @param pool is the pool to evaluate the engine
+     @throws IOException if any error occurs upon writing to the writer
+     */
+    private void write(Engine engine, Writer writer, List<List<Double>> block,
+            ForkJoinPool pool) throws IOException {
+        final int inputs = engine.numberOfInputVariables();
+        final int outputs = engine.numberOfOutputVariables();
+        int rows = 0;
+        for (List<Double> inputValues : block) {
+            if (inputValues.isEmpty()) {
+                continue;
+            }
+            if (inputValues.size() < inputs) {
+                throw new RuntimeException(String.format(
+                        "[export error] engine has <%d> input variables, "
+                        + "but input data provides <%d> values",
+                        inputs, inputValues.size()));
+            }
+            ++rows;
+        }
+
+        double[][] inputsByVariable = new double[inputs][rows];
+        double[][] outputsByVariable = new double[outputs][rows];
+        int row = 0;
+        for (List<Double> inputValues : block) {
+            if (!inputValues.isEmpty()) {
+                for (int i = 0; i < inputs; ++i) {
+                    inputsByVariable[i][row] = inputValues.get(i);
+                }
+                ++row;
+            }
+        }
+        engine.processBatch(inputsByVariable, outputsByVariable, pool);
+
+        row = 0;
+        final ScalarFormat scalarFormat = FuzzyLite.getScalarFormat();
+        for (List<Double> inputValues : block) {
+            if (inputValues.isEmpty()) {
+                writer.append("\n");
+                continue;
+            }
+            boolean first = true;
+            if (exportInputValues) {
+                for (int i = 0; i < inputs; ++i) {
+                    if (!first) {
+                        writer.append(separator);
+                    }
+                    scalarFormat.write(inputsByVariable[i][row], writer);
+                    first = false;
+                }
+            }
+            if (exportOutputValues) {
+                for (int i = 0; i < outputs; ++i) {
+                    if (!first) {
+                        writer.append(separator);
+                    }
+                    scalarFormat.write(outputsByVariable[i][row], writer);
+                    first = false;
+                }
+            }
+            writer.append("\n");
+            ++row;
+        }
+    }
+
     /**
      Writes the engine into the given writer
 
@@ -534,7 +772,8 @@ public class FldExporter extends Exporter {
                     activeVariables.size(), engine.getInputVariables().size()));
         }
 
-        List<Double> values = new ArrayList<Double>();
+        //the input values are exported as given, before being locked in range
+        final double[] values = new double[engine.numberOfInputVariables()];
         for (int i = 0; i < engine.numberOfInputVariables(); ++i) {
             InputVariable inputVariable = engine.getInputVariable(i);
             double inputValue;
@@ -544,20 +783,32 @@ public class FldExporter extends Exporter {
                 inputValue = inputVariable.getValue();
             }
             inputVariable.setValue(inputValue);
-            if (exportInputValues) {
-                values.add(inputValue);
-            }
+            values[i] = inputValue;
         }
 
         engine.process();
 
-        for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
-            OutputVariable outputVariable = engine.getOutputVariable(i);
-            if (exportOutputValues) {
-                values.add(outputVariable.getValue());
+        final ScalarFormat scalarFormat = FuzzyLite.getScalarFormat();
+        boolean first = true;
+        if (exportInputValues) {
+            for (int i = 0; i < engine.numberOfInputVariables(); ++i) {
+                if (!first) {
+                    writer.append(separator);
+                }
+                scalarFormat.write(values[i], writer);
+                first = false;
+            }
+        }
+        if (exportOutputValues) {
+            for (int i = 0; i < engine.numberOfOutputVariables(); ++i) {
+                if (!first) {
+                    writer.append(separator);
+                }
+                scalarFormat.write(engine.getOutputVariable(i).getValue(), writer);
+                first = false;
             }
         }
-        writer.append(Op.join(values, separator)).append("\n");
+        writer.append("\n");
     }
 
     @Override
@@ -0,0 +1,515 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.imex;
+
+import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
+import fuzzylite.Op;
+import fuzzylite.ScalarFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ The FldProcessor class evaluates an Engine on a stream of input values in
+ the FuzzyLite Dataset (FLD) format and writes the results to a stream in the
+ same format as the FldExporter, utilizing a constant amount of memory
+ regardless of the size of the dataset.
+
+ The input values are parsed directly from a reusable buffer of bytes
+ utilizing Op::toDouble(byte[], int, int), the rows are evaluated in blocks
+ utilizing Engine::processBatch() on a single EvaluationContext, and the
+ results are formatted into a reusable buffer of bytes. Lines starting with
+ `#` are ignored, blank lines are retained, and the first line is ignored if
+ it cannot be parsed (i.e., a header). The output values are the same as
+ those obtained by restarting the engine and processing it row by row.
+
+ After processing, the number of rows and bytes processed and the time taken
+ are available to report the throughput.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see FldExporter
+ @see Engine::processBatch(double[][], double[][], EvaluationContext)
+ @since 6.0
+ */
+public class FldProcessor {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private String separator;
+    private boolean exportHeaders;
+    private boolean exportInputValues;
+    private boolean exportOutputValues;
+    private int blockSize;
+
+    private long rows;
+    private long bytesRead;
+    private long bytesWritten;
+    private long nanoTime;
+
+    private InputStream input;
+    private byte[] inputBuffer;
+    private int inputStart;
+    private int inputEnd;
+    private int lineEnd;
+    private OutputStream output;
+    private byte[] outputBuffer;
+    private int outputEnd;
+    private byte[] separatorBytes;
+
+    public FldProcessor() {
+        this(new FldExporter());
+    }
+
+    /**
+     Creates a processor utilizing the separator and the values to export of
+     the given exporter
+
+     @param exporter is the exporter whose configuration is utilized
+     */
+    public FldProcessor(FldExporter exporter) {
+        this.separator = exporter.getSeparator();
+        this.exportHeaders = exporter.exportsHeader();
+        this.exportInputValues = exporter.exportsInputValues();
+        this.exportOutputValues = exporter.exportsOutputValues();
+        this.blockSize = 1024;
+    }
+
+    /**
+     Gets the separator of the dataset columns
+
+     @return the separator of the dataset columns
+     */
+    public String getSeparator() {
+        return separator;
+    }
+
+    /**
+     Sets the separator of the dataset columns
+
+     @param separator is the separator of the dataset columns
+     */
+    public void setSeparator(String separator) {
+        this.separator = separator;
+    }
+
+    /**
+     Indicates whether the header of the dataset is to be exported
+
+     @return whether the header of the dataset is to be exported
+     */
+    public boolean exportsHeader() {
+        return exportHeaders;
+    }
+
+    /**
+     Sets whether the header of the dataset is to be exported
+
+     @param exportHeaders indicates whether the header of the dataset is to be
+     exported
+     */
+    public void setExportHeader(boolean exportHeaders) {
+        this.exportHeaders = exportHeaders;
+    }
+
+    /**
+     Indicates whether the values of the input variables are to be exported
+
+     @return whether the values of the input variables are to be exported
+     */
+    public boolean exportsInputValues() {
+        return exportInputValues;
+    }
+
+    /**
+     Sets whether the values of the input variables are to be exported
+
+     @param exportInputValues indicates whether the values of the input
+     variables are to be exported
+     */
+    public void setExportInputValues(boolean exportInputValues) {
+        this.exportInputValues = exportInputValues;
+    }
+
+    /**
+     Indicates whether the values of the output variables are to be exported
+
+     @return whether the values of the output variables are to be exported
+     */
+    public boolean exportsOutputValues() {
+        return exportOutputValues;
+    }
+
+    /**
+     Sets whether the values of the output variables are to be exported
+
+     @param exportOutputValues indicates whether the values of the output
+     variables are to be exported
+     */
+    public void setExportOutputValues(boolean exportOutputValues) {
+        this.exportOutputValues = exportOutputValues;
+    }
+
+    /**
+     Gets the number of lines evaluated at once
+
+     @return the number of lines evaluated at once
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     Sets the number of lines evaluated at once
+
+     @param blockSize is the number of lines evaluated at once
+     */
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     Gets the number of rows of input values evaluated by the last process
+
+     @return the number of rows of input values evaluated
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     Gets the number of bytes read by the last process
+
+     @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     Gets the number of bytes written by the last process
+
+     @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     Gets the time taken by the last process
+
+     @return the time taken by the last process in nanoseconds
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     Computes the number of rows evaluated per second by the last process
+
+     @return the number of rows evaluated per second
+     */
+    public double rowsPerSecond() {
+        return nanoTime == 0 ? Double.NaN : rows * 1e9 / nanoTime;
+    }
+
+    /**
+     Computes the number of megabytes (`10^6` bytes) read per second by the
+     last process
+
+     @return the number of megabytes read per second
+     */
+    public double megabytesPerSecond() {
+        return nanoTime == 0 ? Double.NaN : bytesRead * 1e3 / nanoTime;
+    }
+
+    /**
+     Evaluates the engine on the input values read from the input stream, and
+     writes the results to the output stream, which is flushed but not closed
+
+     @param engine is the engine to evaluate
+     @param input is the stream of lines containing the input values separated
+     by spaces or tabs
+     @param output is the stream to write the results to
+     @throws IOException if any error occurs upon reading or writing
+     */
+    public void process(Engine engine, InputStream input, OutputStream output)
+            throws IOException {
+        if (blockSize <= 0) {
+            throw new RuntimeException(String.format(
+                    "[processor error] expected a positive block size, but got <%d>", blockSize));
+        }
+        final long start = System.nanoTime();
+        this.rows = 0;
+        this.bytesRead = 0;
+        this.bytesWritten = 0;
+        this.input = input;
+        this.inputBuffer = new byte[BUFFER_SIZE];
+        this.inputStart = 0;
+        this.inputEnd = 0;
+        this.output = output;
+        this.outputBuffer = new byte[BUFFER_SIZE];
+        this.outputEnd = 0;
+        this.separatorBytes = separator.getBytes(FuzzyLite.UTF_8);
+        try {
+            if (exportHeaders) {
+                write(new FldExporter(separator).header(engine));
+                write('\n');
+            }
+            process(engine);
+            flush();
+            output.flush();
+        } finally {
+            this.input = null;
+            this.inputBuffer = null;
+            this.output = null;
+            this.outputBuffer = null;
+            this.nanoTime = System.nanoTime() - start;
+        }
+    }
+
+    private void process(Engine engine) throws IOException {
+        final int inputs = engine.numberOfInputVariables();
+        final int outputs = engine.numberOfOutputVariables();
+        final EvaluationContext context = new EvaluationContext(engine);
+        double[][] inputsByVariable = new double[inputs][blockSize];
+        double[][] outputsByVariable = new double[outputs][blockSize];
+        //lines[k] is true if the k-th line of the block has input values, false if blank
+        final boolean[] lines = new boolean[blockSize];
+        final int[] tokens = new int[2];
+
+        int line = 0;
+        int row = 0;
+        long lineNumber = 0;
+        int lineStart;
+        while ((lineStart = nextLine()) >= 0) {
+            ++lineNumber;
+            final int lineEnd = this.lineEnd;
+            int position = skipSpaces(lineStart, lineEnd);
+            if (position < lineEnd && inputBuffer[position] == '#') {
+                continue;
+            }
+            if (position == lineEnd) {
+                lines[line++] = false;
+            } else {
+                int values = 0;
+                try {
+                    while (position < lineEnd) {
+                        position = nextToken(position, lineEnd, tokens);
+                        if (values < inputs) {
+                            inputsByVariable[values][row] = Op.toDouble(
+                                    inputBuffer, tokens[0], tokens[1]);
+                        }
+                        ++values;
+                        position = skipSpaces(position, lineEnd);
+                    }
+                } catch (NumberFormatException ex) {
+                    if (lineNumber == 1) { //automatic detection of header.
+                        continue;
+                    }
+                    throw new RuntimeException(String.format(
+                            "[processor error] invalid value at line <%d>: %s",
+                            lineNumber, ex.getMessage()), ex);
+                }
+                if (values < inputs) {
+                    throw new RuntimeException(String.format(
+                            "[export error] engine has <%d> input variables, "
+                            + "but input data provides <%d> values at line <%d>",
+                            inputs, values, lineNumber));
+                }
+                lines[line++] = true;
+                ++row;
+            }
+            if (line == blockSize) {
+                evaluate(engine, context, inputsByVariable, outputsByVariable, lines, line, row);
+                line = 0;
+                row = 0;
+            }
+        }
+        if (line > 0) {
+            if (row < blockSize) {
+                double[][] remaining = new double[inputs][row];
+                for (int i = 0; i < inputs; ++i) {
+                    System.arraycopy(inputsByVariable[i], 0, remaining[i], 0, row);
+                }
+                inputsByVariable = remaining;
+            }
+            evaluate(engine, context, inputsByVariable, outputsByVariable, lines, line, row);
+        }
+    }
+
+    private void evaluate(Engine engine, EvaluationContext context,
+            double[][] inputsByVariable, double[][] outputsByVariable,
+            boolean[] lines, int size, int rows) throws IOException {
+        if (rows > 0) {
+            engine.processBatch(inputsByVariable, outputsByVariable, context);
+        }
+        final ScalarFormat scalarFormat = FuzzyLite.getScalarFormat();
+        int row = 0;
+        for (int line = 0; line < size; ++line) {
+            if (lines[line]) {
+                boolean first = true;
+                if (exportInputValues) {
+                    for (int i = 0; i < inputsByVariable.length; ++i) {
+                        if (!first) {
+                            write(separatorBytes);
+                        }
+                        write(scalarFormat, inputsByVariable[i][row]);
+                        first = false;
+                    }
+                }
+                if (exportOutputValues) {
+                    for (int i = 0; i < outputsByVariable.length; ++i) {
+                        if (!first) {
+                            write(separatorBytes);
+                        }
+                        write(scalarFormat, outputsByVariable[i][row]);
+                        first = false;
+                    }
+                }
+                ++row;
+            }
+            write('\n');
+        }
+        this.rows += rows;
+    }
+
+    /**
+     Advances to the next line of input, reading from the input stream as
+     needed such that the line is entirely contained in the input buffer
+
+     @return the index of the first character of the line, or `-1` if there
+     are no more lines, where the line ends before FldProcessor::lineEnd
+     */
+    private int nextLine() throws IOException {
+        int scan = inputStart;
+        while (true) {
+            for (; scan < inputEnd; ++scan) {
+                if (inputBuffer[scan] == '\n') {
+                    final int result = inputStart;
+                    inputStart = scan + 1;
+                    lineEnd = scan;
+                    return result;
+                }
+            }
+            if (inputStart > 0) {
+                System.arraycopy(inputBuffer, inputStart, inputBuffer, 0, inputEnd - inputStart);
+                inputEnd -= inputStart;
+                scan -= inputStart;
+                inputStart = 0;
+            }
+            if (inputEnd == inputBuffer.length) {
+                byte[] larger = new byte[2 * inputBuffer.length];
+                System.arraycopy(inputBuffer, 0, larger, 0, inputEnd);
+                inputBuffer = larger;
+            }
+            final int read = input.read(inputBuffer, inputEnd, inputBuffer.length - inputEnd);
+            if (read < 0) {
+                if (inputStart == inputEnd) {
+                    return -1;
+                }
+                final int result = inputStart;
+                inputStart = inputEnd;
+                lineEnd = inputEnd;
+                return result;
+            }
+            inputEnd += read;
+            bytesRead += read;
+        }
+    }
+
+    private int skipSpaces(int position, int end) {
+        while (position < end && isSpace(inputBuffer[position])) {
+            ++position;
+        }
+        return position;
+    }
+
+    private int nextToken(int position, int end, int[] token) {
+        token[0] = position;
+        while (position < end && !isSpace(inputBuffer[position])) {
+            ++position;
+        }
+        token[1] = position;
+        return position;
+    }
+
+    private static boolean isSpace(byte x) {
+        return x == ' ' || x == '\t' || x == '\r' || x == '\f';
+    }
+
+    private void write(String text) throws IOException {
+        final int length = text.length();
+        if (outputEnd + length > outputBuffer.length) {
+            flush();
+            if (length > outputBuffer.length) {
+                write(text.getBytes(FuzzyLite.UTF_8));
+                return;
+            }
+        }
+        for (int i = 0; i < length; ++i) {
+            final char c = text.charAt(i);
+            if (c >= 0x80) {
+                write(text.substring(i).getBytes(FuzzyLite.UTF_8));
+                return;
+            }
+            outputBuffer[outputEnd++] = (byte) c;
+        }
+    }
+
+    private void write(ScalarFormat scalarFormat, double x) throws IOException {
+        int end = scalarFormat.format(x, outputBuffer, outputEnd);
+        if (end < 0) {
+            flush();
+            end = scalarFormat.format(x, outputBuffer, outputEnd);
+            if (end < 0) {
+                write(scalarFormat.format(x));
+                return;
+            }
+        }
+        outputEnd = end;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (outputEnd + bytes.length > outputBuffer.length) {
+            flush();
+            if (bytes.length > outputBuffer.length) {
+                output.write(bytes);
+                bytesWritten += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, outputBuffer, outputEnd, bytes.length);
+        outputEnd += bytes.length;
+    }
+
+    private void write(char c) throws IOException {
+        if (outputEnd == outputBuffer.length) {
+            flush();
+        }
+        outputBuffer[outputEnd++] = (byte) c;
+    }
+
+    private void flush() throws IOException {
+        output.write(outputBuffer, 0, outputEnd);
+        bytesWritten += outputEnd;
+        outputEnd = 0;
+    }
+
+}
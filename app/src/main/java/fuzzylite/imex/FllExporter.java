@@ -364,7 +364,16 @@ public class FllExporter extends Exporter {
         }
         String result = defuzzifier.getClass().getSimpleName();
         if (defuzzifier instanceof IntegralDefuzzifier) {
-            return result + " " + ((IntegralDefuzzifier) defuzzifier).getResolution();
+            IntegralDefuzzifier integral = (IntegralDefuzzifier) defuzzifier;
+            result += " " + integral.getResolution();
+            if (integral.getIntegration() == IntegralDefuzzifier.Integration.Adaptive) {
+                result += " " + integral.getIntegration()
+                        + " " + Double.toString(integral.getTolerance())
+                        + " " + integral.getMaximumEvaluations();
+            } else if (integral.getIntegration() != IntegralDefuzzifier.Integration.Sampling) {
+                result += " " + integral.getIntegration();
+            }
+            return result;
         } else if (defuzzifier instanceof WeightedDefuzzifier) {
             return result + " " + ((WeightedDefuzzifier) defuzzifier).getType().toString();
         }
@@ -35,9 +35,7 @@ import fuzzylite.term.Term;
 import fuzzylite.variable.InputVariable;
 import fuzzylite.variable.OutputVariable;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
@@ -86,68 +84,93 @@ public class FllImporter extends Importer {
 
     @Override
     public Engine fromString(String code) {
+        //the components of the engine are new, so they do not invalidate the
+        //caches of the existing engines
+        FuzzyLite.suspendModifications();
+        try {
+            return importEngine(code);
+        } finally {
+            FuzzyLite.resumeModifications();
+        }
+    }
+
+    private Engine importEngine(String code) {
         Engine engine = new Engine();
 
-        final String fll = Op.join(Op.split(code, getSeparator()), "\n");
+        Tokenizer tokenizer = new Tokenizer(code, getSeparator());
         String tag = "";
-        List<String> block = new LinkedList<String>();
-        BufferedReader reader = new BufferedReader(new StringReader(fll));
-        String line;
-
-        while (true) {
-            try {
-                line = reader.readLine();
-            } catch (IOException ex) {
-                break;
-            }
-            if (line == null) {
-                break;
+        InputVariable inputVariable = null;
+        OutputVariable outputVariable = null;
+        RuleBlock ruleBlock = null;
+        while (tokenizer.nextLine()) {
+            tokenizer.removeComment("#").trim();
+            if (tokenizer.isEmpty()) {
+                continue;
             }
-
-            line = Op.split(line.trim(), "#", false).get(0); //remove comments
-            int colon = line.indexOf(':');
+            int colon = tokenizer.indexOf(':');
             if (colon < 0) {
-                throw new RuntimeException("[import error] " + "expected a colon at here: " + line);
+                throw new RuntimeException("[import error] " + "expected a colon at here: " + tokenizer.line());
             }
-            String key = line.substring(0, colon).trim();
-            String value = line.substring(colon + 1).trim();
+            String key = tokenizer.substring(tokenizer.lineStart(), colon);
+            String value = tokenizer.substring(colon + 1, tokenizer.lineEnd());
             if ("Engine".equals(key)) {
                 engine.setName(value);
                 continue;
-            } else if ("description".equals(key) && block.isEmpty()){
+            } else if ("description".equals(key) && tag.isEmpty()) {
                 engine.setDescription(value);
                 continue;
-            } else if ("InputVariable".equals(key)
-                    || "OutputVariable".equals(key)
-                    || "RuleBlock".equals(key)) {
-                try {
-                    process(tag, Op.join(block, "\n"), engine);
-                } catch (RuntimeException ex) {
-                    throw ex;
-                } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                }
-                block.clear();
+            } else if ("InputVariable".equals(key)) {
+                tag = key;
+                inputVariable = new InputVariable();
+                engine.addInputVariable(inputVariable);
+            } else if ("OutputVariable".equals(key)) {
                 tag = key;
+                outputVariable = new OutputVariable();
+                engine.addOutputVariable(outputVariable);
+            } else if ("RuleBlock".equals(key)) {
+                tag = key;
+                ruleBlock = new RuleBlock();
+                engine.addRuleBlock(ruleBlock);
+            }
+            if ("InputVariable".equals(tag)) {
+                processInputVariable(key, value, inputVariable, engine);
+            } else if ("OutputVariable".equals(tag)) {
+                processOutputVariable(key, value, outputVariable, engine);
+            } else if ("RuleBlock".equals(tag)) {
+                processRuleBlock(key, value, ruleBlock, engine);
             } //else if (tag.isEmpty()) {}
-            block.add(key + ":" + value);
         }
-        try {
-            process(tag, Op.join(block, "\n"), engine);
-        } catch (RuntimeException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        } finally {
-            try {
-                reader.close();
-            } catch (Exception ex) {
-                //ignore
+
+        //the rules are loaded once all the variables are imported
+        List<Rule> rules = new ArrayList<Rule>();
+        for (RuleBlock block : engine.getRuleBlocks()) {
+            if (block.getActivation() == null) {
+                block.setActivation(new General());
             }
+            rules.addAll(block.getRules());
         }
+        loadRules(rules, engine, true);
         return engine;
     }
 
+    /**
+     Loads the given rules utilizing Importer::loadRules(), logging the rules
+     that could not be loaded
+
+     @param rules is the list of rules to load
+     @param engine is the engine from which the rules are part of
+     @param log whether to log the rules that could not be loaded
+     */
+    private void loadRules(List<Rule> rules, Engine engine, boolean log) {
+        Exception[] exceptions = loadRules(rules, engine);
+        for (int i = 0; log && i < exceptions.length; ++i) {
+            if (exceptions[i] != null) {
+                FuzzyLite.logger().log(Level.INFO, "Error loading rule: {0}\n{1}",
+                        new String[]{rules.get(i).getText(), exceptions[i].toString()});
+            }
+        }
+    }
+
     protected void process(String tag, String block, Engine engine) throws Exception {
         if (tag.isEmpty()) {
             return;
@@ -165,146 +188,182 @@ public class FllImporter extends Importer {
     }
 
     protected void processInputVariable(String block, Engine engine) throws Exception {
-        BufferedReader reader = new BufferedReader(new StringReader(block));
-        String line;
+        Tokenizer tokenizer = new Tokenizer(block);
         InputVariable inputVariable = new InputVariable();
         engine.addInputVariable(inputVariable);
-        while ((line = reader.readLine()) != null) {
-            Pair<String, String> keyValue = parseKeyValue(line, ':');
-            if ("InputVariable".equals(keyValue.getFirst())) {
-                inputVariable.setName(keyValue.getSecond());
-            } else if ("description".equals(keyValue.getFirst())) {
-                inputVariable.setDescription(keyValue.getSecond());
-            } else if ("enabled".equals(keyValue.getFirst())) {
-                inputVariable.setEnabled(parseBoolean(keyValue.getSecond()));
-            } else if ("range".equals(keyValue.getFirst())) {
-                Pair<Double, Double> range = parseRange(keyValue.getSecond());
-                inputVariable.setRange(range.getFirst(), range.getSecond());
-            } else if ("lock-range".equals(keyValue.getFirst())) {
-                inputVariable.setLockValueInRange(parseBoolean(keyValue.getSecond()));
-            } else if ("term".equals(keyValue.getFirst())) {
-                inputVariable.addTerm(parseTerm(keyValue.getSecond(), engine));
-            } else {
-                throw new RuntimeException("[import error] "
-                        + "key <" + keyValue.getFirst() + "> " + "not recognized in pair <"
-                        + Op.join(":", keyValue.getFirst(), keyValue.getSecond()) + ">");
-            }
+        while (tokenizer.nextLine()) {
+            Pair<String, String> keyValue = parseKeyValue(tokenizer.line(), ':');
+            processInputVariable(keyValue.getFirst(), keyValue.getSecond(), inputVariable, engine);
+        }
+    }
+
+    /**
+     Configures the input variable with the given pair of key and value
+
+     @param key is the key of the property
+     @param value is the value of the property
+     @param inputVariable is the input variable to configure
+     @param engine is the engine to which the input variable belongs
+     */
+    protected void processInputVariable(String key, String value,
+            InputVariable inputVariable, Engine engine) {
+        if ("InputVariable".equals(key)) {
+            inputVariable.setName(value);
+        } else if ("description".equals(key)) {
+            inputVariable.setDescription(value);
+        } else if ("enabled".equals(key)) {
+            inputVariable.setEnabled(parseBoolean(value));
+        } else if ("range".equals(key)) {
+            Pair<Double, Double> range = parseRange(value);
+            inputVariable.setRange(range.getFirst(), range.getSecond());
+        } else if ("lock-range".equals(key)) {
+            inputVariable.setLockValueInRange(parseBoolean(value));
+        } else if ("term".equals(key)) {
+            inputVariable.addTerm(parseTerm(value, engine));
+        } else {
+            throw new RuntimeException("[import error] "
+                    + "key <" + key + "> " + "not recognized in pair <"
+                    + Op.join(":", key, value) + ">");
         }
-        reader.close();
     }
 
     protected void processOutputVariable(String block, Engine engine) throws Exception {
-        BufferedReader reader = new BufferedReader(new StringReader(block));
-        String line;
+        Tokenizer tokenizer = new Tokenizer(block);
         OutputVariable outputVariable = new OutputVariable();
         engine.addOutputVariable(outputVariable);
-        while ((line = reader.readLine()) != null) {
-            Pair<String, String> keyValue = parseKeyValue(line, ':');
-            if ("OutputVariable".equals(keyValue.getFirst())) {
-                outputVariable.setName(keyValue.getSecond());
-            } else if ("description".equals(keyValue.getFirst())) {
-                outputVariable.setDescription(keyValue.getSecond());
-            } else if ("enabled".equals(keyValue.getFirst())) {
-                outputVariable.setEnabled(parseBoolean(keyValue.getSecond()));
-            } else if ("range".equals(keyValue.getFirst())) {
-                Pair<Double, Double> range = parseRange(keyValue.getSecond());
-                outputVariable.setRange(range.getFirst(), range.getSecond());
-            } else if ("default".equals(keyValue.getFirst())) {
-                outputVariable.setDefaultValue(Op.toDouble(keyValue.getSecond()));
-            } else if ("lock-previous".equals(keyValue.getFirst())) {
-                outputVariable.setLockPreviousValue(parseBoolean(keyValue.getSecond()));
-            } else if ("lock-range".equals(keyValue.getFirst())) {
-                outputVariable.setLockValueInRange(parseBoolean(keyValue.getSecond()));
-            } else if ("defuzzifier".equals(keyValue.getFirst())) {
-                outputVariable.setDefuzzifier(parseDefuzzifier(keyValue.getSecond()));
-            } else if ("aggregation".equals(keyValue.getFirst())) {
-                outputVariable.fuzzyOutput().setAggregation(parseSNorm(keyValue.getSecond()));
-            } else if ("accumulation".equals(keyValue.getFirst())) {
-                outputVariable.fuzzyOutput().setAggregation(parseSNorm(keyValue.getSecond()));
-                FuzzyLite.logger().warning("[warning] obsolete usage of identifier <accumulation: SNorm> in OutputVariable");
-                FuzzyLite.logger().info("[information] from version 6.0, the identifier <aggregation: SNorm> should be used");
-                FuzzyLite.logger().log(Level.INFO, "[backward compatibility] assumed "
-                        + "<aggregation: {0}> instead of <accumulation: {0}>", keyValue.getSecond());
-            } else if ("term".equals(keyValue.getFirst())) {
-                outputVariable.addTerm(parseTerm(keyValue.getSecond(), engine));
-            } else {
-                throw new RuntimeException("[import error] "
-                        + "key <" + keyValue.getFirst() + "> " + "not recognized in pair <"
-                        + Op.join(":", keyValue.getFirst(), keyValue.getSecond()) + ">");
-            }
+        while (tokenizer.nextLine()) {
+            Pair<String, String> keyValue = parseKeyValue(tokenizer.line(), ':');
+            processOutputVariable(keyValue.getFirst(), keyValue.getSecond(), outputVariable, engine);
+        }
+    }
+
+    /**
+     Configures the output variable with the given pair of key and value
+
+     @param key is the key of the property
+     @param value is the value of the property
+     @param outputVariable is the output variable to configure
+     @param engine is the engine to which the output variable belongs
+     */
+    protected void processOutputVariable(String key, String value,
+            OutputVariable outputVariable, Engine engine) {
+        if ("OutputVariable".equals(key)) {
+            outputVariable.setName(value);
+        } else if ("description".equals(key)) {
+            outputVariable.setDescription(value);
+        } else if ("enabled".equals(key)) {
+            outputVariable.setEnabled(parseBoolean(value));
+        } else if ("range".equals(key)) {
+            Pair<Double, Double> range = parseRange(value);
+            outputVariable.setRange(range.getFirst(), range.getSecond());
+        } else if ("default".equals(key)) {
+            outputVariable.setDefaultValue(Op.toDouble(value));
+        } else if ("lock-previous".equals(key)) {
+            outputVariable.setLockPreviousValue(parseBoolean(value));
+        } else if ("lock-range".equals(key)) {
+            outputVariable.setLockValueInRange(parseBoolean(value));
+        } else if ("defuzzifier".equals(key)) {
+            outputVariable.setDefuzzifier(parseDefuzzifier(value));
+        } else if ("aggregation".equals(key)) {
+            outputVariable.fuzzyOutput().setAggregation(parseSNorm(value));
+        } else if ("accumulation".equals(key)) {
+            outputVariable.fuzzyOutput().setAggregation(parseSNorm(value));
+            FuzzyLite.logger().warning("[warning] obsolete usage of identifier <accumulation: SNorm> in OutputVariable");
+            FuzzyLite.logger().info("[information] from version 6.0, the identifier <aggregation: SNorm> should be used");
+            FuzzyLite.logger().log(Level.INFO, "[backward compatibility] assumed "
+                    + "<aggregation: {0}> instead of <accumulation: {0}>", value);
+        } else if ("term".equals(key)) {
+            outputVariable.addTerm(parseTerm(value, engine));
+        } else {
+            throw new RuntimeException("[import error] "
+                    + "key <" + key + "> " + "not recognized in pair <"
+                    + Op.join(":", key, value) + ">");
         }
-        reader.close();
     }
 
     protected void processRuleBlock(String block, Engine engine) throws Exception {
-        BufferedReader reader = new BufferedReader(new StringReader(block));
-        String line;
+        Tokenizer tokenizer = new Tokenizer(block);
         RuleBlock ruleBlock = new RuleBlock();
         engine.addRuleBlock(ruleBlock);
-        while ((line = reader.readLine()) != null) {
-            Pair<String, String> keyValue = parseKeyValue(line, ':');
-            if ("RuleBlock".equals(keyValue.getFirst())) {
-                ruleBlock.setName(keyValue.getSecond());
-            } else if ("description".equals(keyValue.getFirst())) {
-                ruleBlock.setDescription(keyValue.getSecond());
-            } else if ("enabled".equals(keyValue.getFirst())) {
-                ruleBlock.setEnabled(parseBoolean(keyValue.getSecond()));
-            } else if ("conjunction".equals(keyValue.getFirst())) {
-                ruleBlock.setConjunction(parseTNorm(keyValue.getSecond()));
-            } else if ("disjunction".equals(keyValue.getFirst())) {
-                ruleBlock.setDisjunction(parseSNorm(keyValue.getSecond()));
-            } else if ("implication".equals(keyValue.getFirst())) {
-                ruleBlock.setImplication(parseTNorm(keyValue.getSecond()));
-            } else if ("activation".equals(keyValue.getFirst())) {
-                TNormFactory tnorm = FactoryManager.instance().tnorm();
-                //@todo remove backwards compatibility in version 7.0
-                if (tnorm.hasConstructor(keyValue.getSecond())) {
-                    ruleBlock.setImplication(parseTNorm(keyValue.getSecond()));
-                    FuzzyLite.logger().warning("[warning] obsolete usage of identifier <activation: TNorm> in RuleBlock");
-                    FuzzyLite.logger().info("[information] from version 6.0, the identifier <implication: TNorm> should be used");
-                    FuzzyLite.logger().log(Level.INFO, "[backward compatibility] assumed "
-                            + "<implication: {0}> instead of <activation: {0}>", keyValue.getSecond());
-                } else {
-                    ruleBlock.setActivation(parseActivation(keyValue.getSecond()));
-                }
-            } else if ("rule".equals(keyValue.getFirst())) {
-                Rule rule = new Rule();
-                rule.setText(keyValue.getSecond());
-                try {
-                    rule.load(engine);
-                } catch (Exception ex) {
-                    FuzzyLite.logger().log(Level.INFO, "Error loading rule: {0}\n{1}",
-                            new String[]{rule.getText(), ex.toString()});
-                }
-                ruleBlock.addRule(rule);
-            } else {
-                throw new RuntimeException("[import error] "
-                        + "key <" + keyValue.getFirst() + "> " + "not recognized in pair <"
-                        + Op.join(":", keyValue.getFirst(), keyValue.getSecond()) + ">");
-            }
+        while (tokenizer.nextLine()) {
+            Pair<String, String> keyValue = parseKeyValue(tokenizer.line(), ':');
+            processRuleBlock(keyValue.getFirst(), keyValue.getSecond(), ruleBlock, engine);
         }
-        if (ruleBlock.getActivation() == null){
+        if (ruleBlock.getActivation() == null) {
             ruleBlock.setActivation(new General());
         }
-        reader.close();
+        loadRules(ruleBlock.getRules(), engine, true);
+    }
+
+    /**
+     Configures the rule block with the given pair of key and value. The rules
+     are added to the rule block without being loaded, and they must be loaded
+     once the variables of the engine are imported.
+
+     @param key is the key of the property
+     @param value is the value of the property
+     @param ruleBlock is the rule block to configure
+     @param engine is the engine to which the rule block belongs
+     */
+    protected void processRuleBlock(String key, String value,
+            RuleBlock ruleBlock, Engine engine) {
+        if ("RuleBlock".equals(key)) {
+            ruleBlock.setName(value);
+        } else if ("description".equals(key)) {
+            ruleBlock.setDescription(value);
+        } else if ("enabled".equals(key)) {
+            ruleBlock.setEnabled(parseBoolean(value));
+        } else if ("conjunction".equals(key)) {
+            ruleBlock.setConjunction(parseTNorm(value));
+        } else if ("disjunction".equals(key)) {
+            ruleBlock.setDisjunction(parseSNorm(value));
+        } else if ("implication".equals(key)) {
+            ruleBlock.setImplication(parseTNorm(value));
+        } else if ("activation".equals(key)) {
+            TNormFactory tnorm = FactoryManager.instance().tnorm();
+            //@todo remove backwards compatibility in version 7.0
+            if (tnorm.hasConstructor(value)) {
+                ruleBlock.setImplication(parseTNorm(value));
+                FuzzyLite.logger().warning("[warning] obsolete usage of identifier <activation: TNorm> in RuleBlock");
+                FuzzyLite.logger().info("[information] from version 6.0, the identifier <implication: TNorm> should be used");
+                FuzzyLite.logger().log(Level.INFO, "[backward compatibility] assumed "
+                        + "<implication: {0}> instead of <activation: {0}>", value);
+            } else {
+                ruleBlock.setActivation(parseActivation(value));
+            }
+        } else if ("rule".equals(key)) {
+            Rule rule = new Rule();
+            rule.setText(value);
+            ruleBlock.addRule(rule);
+        } else {
+            throw new RuntimeException("[import error] "
+                    + "key <" + key + "> " + "not recognized in pair <"
+                    + Op.join(":", key, value) + ">");
+        }
     }
 
     protected Term parseTerm(String text, Engine engine) {
-        List<String> tokens = Op.split(text, " ");
-        if (tokens.size() < 2) {
+        Tokenizer tokenizer = new Tokenizer(text);
+        if (!(tokenizer.nextLine() && tokenizer.nextToken())) {
             throw new RuntimeException("[syntax error] "
                     + "expected a term in format <name class parameters>, "
                     + "but found <" + text + ">");
         }
-        Term term = FactoryManager.instance().term().constructObject(tokens.get(1));
+        String name = tokenizer.token();
+        if (!tokenizer.nextToken()) {
+            throw new RuntimeException("[syntax error] "
+                    + "expected a term in format <name class parameters>, "
+                    + "but found <" + text + ">");
+        }
+        Term term = FactoryManager.instance().term().constructObject(tokenizer.token());
         term.updateReference(engine);
-        term.setName(Op.validName(tokens.get(0)));
+        term.setName(Op.validName(name));
         StringBuilder parameters = new StringBuilder();
-        for (int i = 2; i < tokens.size(); ++i) {
-            parameters.append(tokens.get(i));
-            if (i + 1 < tokens.size()) {
+        while (tokenizer.nextToken()) {
+            if (parameters.length() > 0) {
                 parameters.append(" ");
             }
+            tokenizer.appendToken(parameters);
         }
         term.configure(parameters.toString());
         return term;
@@ -348,7 +407,17 @@ public class FllImporter extends Importer {
         if (parameters.size() > 1) {
             String parameter = parameters.get(1);
             if (defuzzifier instanceof IntegralDefuzzifier) {
-                ((IntegralDefuzzifier) defuzzifier).setResolution(Integer.parseInt(parameter));
+                IntegralDefuzzifier integral = (IntegralDefuzzifier) defuzzifier;
+                integral.setResolution(Integer.parseInt(parameter));
+                if (parameters.size() > 2) {
+                    integral.setIntegration(IntegralDefuzzifier.Integration.valueOf(parameters.get(2)));
+                }
+                if (parameters.size() > 3) {
+                    integral.setTolerance(Op.toDouble(parameters.get(3)));
+                }
+                if (parameters.size() > 4) {
+                    integral.setMaximumEvaluations(Integer.parseInt(parameters.get(4)));
+                }
             } else if (defuzzifier instanceof WeightedDefuzzifier) {
                 ((WeightedDefuzzifier) defuzzifier).setType(WeightedDefuzzifier.Type.valueOf(parameter));
             }
@@ -19,12 +19,18 @@ package fuzzylite.imex;
 import fuzzylite.Engine;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
 
 import java.io.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  The Importer class is the abstract class for importers to configure an Engine
- and its components from different text formats.
+ and its components from different text formats. The rules of the engine are
+ loaded once its variables are imported, and large numbers of rules are loaded
+ in parallel utilizing Importer::getThreads() threads.
 
  @todo declare methods to import specific components
 
@@ -34,6 +40,31 @@ import java.io.*;
  */
 public abstract class Importer implements Op.Cloneable {
 
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     Gets the number of threads to load the rules of the imported engines
+
+     @return the number of threads to load the rules of the imported engines
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     Sets the number of threads to load the rules of the imported engines
+     (default is the number of available processors). If the number of threads
+     is greater than one and there are at least RuleBlock::PARALLEL_RULES rules
+     to load, the rules are loaded in parallel utilizing a ForkJoinPool whose
+     threads utilize the FactoryManager of the importing thread.
+
+     @param threads is the number of threads to load the rules of the imported
+     engines
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     /**
      Imports the engine from the given text
 
@@ -66,6 +97,27 @@ public abstract class Importer implements Op.Cloneable {
         return fromString(textEngine.toString());
     }
 
+    /**
+     Loads the given rules utilizing the given engine, which must not be
+     modified while the rules are loaded
+
+     @param rules is the list of rules to load
+     @param engine is the engine from which the rules are part of
+     @return the exception raised upon loading each rule, or `null` for each
+     rule loaded successfully
+     */
+    protected Exception[] loadRules(List<Rule> rules, Engine engine) {
+        if (threads <= 1 || rules.size() < RuleBlock.PARALLEL_RULES) {
+            return RuleBlock.loadRules(rules, engine, null);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return RuleBlock.loadRules(rules, engine, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Override
     public Importer clone() throws CloneNotSupportedException {
         return (Importer) super.clone();
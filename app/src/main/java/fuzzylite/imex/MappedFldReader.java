@@ -0,0 +1,365 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.imex;
+
+import fuzzylite.Op;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ The MappedFldReader class reads the values of a file in the FuzzyLite
+ Dataset (FLD) format by mapping the file into memory utilizing
+ FileChannel::map(), and parsing the values directly from the mapped bytes
+ utilizing Op::toDouble(byte[], int, int) without creating strings.
+
+ A reader covers a region of the file that starts and ends at line
+ boundaries, and the file can be split into line-aligned regions utilizing
+ MappedFldReader::split(int) such that each region is read by a different
+ thread. A reader is not thread-safe, but different regions of the same file
+ can be read concurrently. Closing the reader of the entire file closes the
+ file for all of its regions.
+
+ The lines are read in sequence utilizing MappedFldReader::nextLine(), and
+ the values of the current line are parsed utilizing
+ MappedFldReader::parse(). Lines whose first non-space character is `#` are
+ comments, which are parsed as blank lines.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see Benchmark::prepare(MappedFldReader)
+ @see FldExporter::write(Engine, Writer, MappedFldReader)
+ @since 6.0
+ */
+public class MappedFldReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     Maximum number of bytes mapped into memory at once, which keeps the
+     address space utilized by a reader bounded regardless of the size of the
+     file
+     */
+    private static final long MAPPING_SIZE = 1L << 26;
+
+    private final FileInputStream stream;
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+
+    private MappedByteBuffer mapping;
+    private long mappingEnd;
+    private byte[] buffer;
+    private int bufferStart;
+    private int bufferEnd;
+    private int lineStart;
+    private int lineEnd;
+    private long lineNumber;
+    private double[] values;
+
+    /**
+     Creates a reader of the entire file
+
+     @param file is the file in FLD format
+     @throws IOException if the file cannot be opened
+     */
+    public MappedFldReader(File file) throws IOException {
+        this.stream = new FileInputStream(file);
+        this.channel = stream.getChannel();
+        this.start = 0;
+        this.end = channel.size();
+        reset();
+    }
+
+    /**
+     Creates a reader of the region of the channel between the given positions
+
+     @param channel is the channel of the file in FLD format
+     @param start is the position of the first byte of the region, which must
+     be the first byte of a line
+     @param end is the position after the last byte of the region, which must
+     be the end of a line or the end of the file
+     */
+    protected MappedFldReader(FileChannel channel, long start, long end) {
+        this.stream = null;
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        reset();
+    }
+
+    /**
+     Gets the position of the first byte of the region in the file
+
+     @return the position of the first byte of the region in the file
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     Gets the position after the last byte of the region in the file
+
+     @return the position after the last byte of the region in the file
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     Gets the number of bytes in the region
+
+     @return the number of bytes in the region
+     */
+    public long size() {
+        return end - start;
+    }
+
+    /**
+     Gets the number of the current line within the region, where the first
+     line is 1
+
+     @return the number of the current line within the region
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     Indicates whether the current line is the first line of the file, which
+     may contain the header of the dataset
+
+     @return whether the current line is the first line of the file
+     */
+    public boolean isFirstLine() {
+        return start == 0 && lineNumber == 1;
+    }
+
+    /**
+     Gets the values parsed from the current line by MappedFldReader::parse()
+
+     @return the values parsed from the current line, where only the number of
+     values returned by MappedFldReader::parse() are valid
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     Splits the region into the given number of regions that start and end at
+     line boundaries. Regions that would be empty are omitted, and hence fewer
+     regions may be returned.
+
+     @param regions is the number of regions to split the region into
+     @return the readers of the regions, which share the file of this reader
+     @throws IOException if the file cannot be read
+     */
+    public List<MappedFldReader> split(int regions) throws IOException {
+        if (regions <= 0) {
+            throw new RuntimeException(String.format(
+                    "[reader error] expected a positive number of regions, but got <%d>",
+                    regions));
+        }
+        List<MappedFldReader> result = new ArrayList<MappedFldReader>(regions);
+        final long length = size();
+        ByteBuffer scan = ByteBuffer.allocate(4096);
+        long regionStart = start;
+        for (int i = 1; i <= regions && regionStart < end; ++i) {
+            long regionEnd = i == regions ? end : Math.max(regionStart,
+                    start + (long) ((double) length * i / regions));
+            regionEnd = nextLineStart(regionEnd, scan);
+            if (regionEnd > regionStart) {
+                result.add(new MappedFldReader(channel, regionStart, regionEnd));
+            }
+            regionStart = regionEnd;
+        }
+        return result;
+    }
+
+    /**
+     Finds the position of the first line that starts at or after the given
+     position
+
+     @param position is the position in the file
+     @param scan is the buffer to read the file
+     @return the position of the first line that starts at or after the given
+     position, or the end of the region
+     @throws IOException if the file cannot be read
+     */
+    private long nextLineStart(long position, ByteBuffer scan) throws IOException {
+        if (position <= start || position >= end) {
+            return Math.max(start, Math.min(position, end));
+        }
+        //the line starts at the given position if the previous byte ends a line
+        long current = position - 1;
+        while (current < end) {
+            scan.clear();
+            scan.limit((int) Math.min(scan.capacity(), end - current));
+            final int read = channel.read(scan, current);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; ++i) {
+                if (scan.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+        return end;
+    }
+
+    /**
+     Restarts the reader at the beginning of the region
+     */
+    public final void reset() {
+        this.mapping = null;
+        this.mappingEnd = start;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.bufferStart = 0;
+        this.bufferEnd = 0;
+        this.lineStart = 0;
+        this.lineEnd = 0;
+        this.lineNumber = 0;
+        this.values = new double[16];
+    }
+
+    /**
+     Advances to the next line of the region
+
+     @return whether there is a next line
+     @throws IOException if the file cannot be read
+     */
+    public boolean nextLine() throws IOException {
+        int scan = bufferStart;
+        while (true) {
+            for (; scan < bufferEnd; ++scan) {
+                if (buffer[scan] == '\n') {
+                    lineStart = bufferStart;
+                    lineEnd = scan;
+                    bufferStart = scan + 1;
+                    ++lineNumber;
+                    return true;
+                }
+            }
+            if (bufferStart > 0) {
+                System.arraycopy(buffer, bufferStart, buffer, 0, bufferEnd - bufferStart);
+                bufferEnd -= bufferStart;
+                scan -= bufferStart;
+                bufferStart = 0;
+            }
+            if (bufferEnd == buffer.length) {
+                byte[] larger = new byte[2 * buffer.length];
+                System.arraycopy(buffer, 0, larger, 0, bufferEnd);
+                buffer = larger;
+            }
+            if (!fill()) {
+                if (bufferStart == bufferEnd) {
+                    return false;
+                }
+                lineStart = bufferStart;
+                lineEnd = bufferEnd;
+                bufferStart = bufferEnd;
+                ++lineNumber;
+                return true;
+            }
+        }
+    }
+
+    /**
+     Copies the next bytes of the mapped region into the buffer, mapping the
+     next part of the region when needed
+
+     @return whether any bytes were copied
+     @throws IOException if the file cannot be mapped
+     */
+    private boolean fill() throws IOException {
+        if (mapping == null || !mapping.hasRemaining()) {
+            if (mappingEnd >= end) {
+                return false;
+            }
+            final long size = Math.min(MAPPING_SIZE, end - mappingEnd);
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, mappingEnd, size);
+            mappingEnd += size;
+        }
+        final int length = Math.min(mapping.remaining(), buffer.length - bufferEnd);
+        mapping.get(buffer, bufferEnd, length);
+        bufferEnd += length;
+        return length > 0;
+    }
+
+    /**
+     Parses the values of the current line into MappedFldReader::getValues()
+
+     @return the number of values in the current line, which is zero if the
+     line is blank or a comment
+     @throws NumberFormatException if a value cannot be parsed
+     */
+    public int parse() throws NumberFormatException {
+        int position = skipSpaces(lineStart);
+        if (position < lineEnd && buffer[position] == '#') {
+            return 0;
+        }
+        int result = 0;
+        while (position < lineEnd) {
+            final int tokenStart = position;
+            while (position < lineEnd && !isSpace(buffer[position])) {
+                ++position;
+            }
+            if (result == values.length) {
+                double[] larger = new double[2 * values.length];
+                System.arraycopy(values, 0, larger, 0, result);
+                values = larger;
+            }
+            values[result++] = Op.toDouble(buffer, tokenStart, position);
+            position = skipSpaces(position);
+        }
+        return result;
+    }
+
+    private int skipSpaces(int position) {
+        while (position < lineEnd && isSpace(buffer[position])) {
+            ++position;
+        }
+        return position;
+    }
+
+    private static boolean isSpace(byte x) {
+        return x == ' ' || x == '\t' || x == '\r' || x == '\f' || x == 0x0B;
+    }
+
+    /**
+     Releases the mapped region and, if this reader covers the entire file,
+     closes the file
+
+     @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.mapping = null;
+        this.buffer = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.imex;
+
+import fuzzylite.Op;
+
+/**
+ The Tokenizer class scans a text line by line and token by token in a single
+ pass, keeping the bounds of the current line and token as indexes of the text
+ such that substrings are only created when requested. The lines are
+ terminated by `\n`, `\r`, `\r\n`, or the given separator, and the tokens are
+ separated by whitespace (i.e., characters up to and including the space).
+ Importers utilize the tokenizer to avoid splitting the text into lists of
+ substrings and utilizing regular expressions.
+
+ @author Juan Rada-Vilela, Ph.D.
+ @see FllImporter
+ @see FisImporter
+ @see FclImporter
+ @since 6.0
+ */
+public class Tokenizer {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final String text;
+    private final String separator;
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+    private int tokenStart;
+    private int tokenEnd;
+    private int tokenLimit;
+
+    /**
+     Creates a tokenizer of the given text whose lines are terminated by new
+     lines
+
+     @param text is the text to tokenize
+     */
+    public Tokenizer(String text) {
+        this(text, null);
+    }
+
+    /**
+     Creates a tokenizer of the given text whose lines are terminated by new
+     lines or by the given separator
+
+     @param text is the text to tokenize
+     @param separator is an additional terminator of lines, or `null` (or
+     empty) to only utilize new lines
+     */
+    public Tokenizer(String text, String separator) {
+        this.text = text;
+        this.separator = separator == null || separator.isEmpty()
+                || "\n".equals(separator) ? null : separator;
+        this.position = 0;
+    }
+
+    /**
+     Gets the text being tokenized
+
+     @return the text being tokenized
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     Advances to the next line of the text
+
+     @return whether there is a next line
+     */
+    public boolean nextLine() {
+        final int length = text.length();
+        if (position >= length) {
+            return false;
+        }
+        lineStart = position;
+        int index = position;
+        while (index < length) {
+            final char c = text.charAt(index);
+            if (c == '\n') {
+                position = index + 1;
+                break;
+            }
+            if (c == '\r') {
+                position = index + 1 < length && text.charAt(index + 1) == '\n'
+                        ? index + 2 : index + 1;
+                break;
+            }
+            if (separator != null && text.startsWith(separator, index)) {
+                position = index + separator.length();
+                break;
+            }
+            ++index;
+        }
+        if (index == length) {
+            position = length;
+        }
+        lineEnd = index;
+        tokenEnd = lineStart;
+        tokenLimit = lineEnd;
+        return true;
+    }
+
+    /**
+     Gets the index of the first character of the current line
+
+     @return the index of the first character of the current line
+     */
+    public int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     Gets the index after the last character of the current line
+
+     @return the index after the last character of the current line
+     */
+    public int lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     Removes from the current line the comment that starts with the given
+     marker
+
+     @param marker is the marker of the comment
+     @return this tokenizer
+     */
+    public Tokenizer removeComment(String marker) {
+        final int last = lineEnd - marker.length();
+        for (int i = lineStart; i <= last; ++i) {
+            if (text.startsWith(marker, i)) {
+                lineEnd = i;
+                tokenLimit = Math.min(tokenLimit, lineEnd);
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     Removes the leading and trailing whitespace of the current line
+
+     @return this tokenizer
+     */
+    public Tokenizer trim() {
+        while (lineStart < lineEnd && text.charAt(lineStart) <= ' ') {
+            ++lineStart;
+        }
+        while (lineEnd > lineStart && text.charAt(lineEnd - 1) <= ' ') {
+            --lineEnd;
+        }
+        tokenEnd = lineStart;
+        tokenLimit = lineEnd;
+        return this;
+    }
+
+    /**
+     Indicates whether the current line is empty
+
+     @return whether the current line is empty
+     */
+    public boolean isEmpty() {
+        return lineStart == lineEnd;
+    }
+
+    /**
+     Gets the character of the text at the given index
+
+     @param index is the index of the character in the text
+     @return the character of the text at the given index
+     */
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    /**
+     Indicates whether the current line starts with the given prefix
+
+     @param prefix is the prefix
+     @return whether the current line starts with the given prefix
+     */
+    public boolean startsWith(String prefix) {
+        return lineEnd - lineStart >= prefix.length()
+                && text.startsWith(prefix, lineStart);
+    }
+
+    /**
+     Gets the index of the first occurrence of the character in the current
+     line
+
+     @param c is the character to find
+     @return the index in the text of the first occurrence of the character in
+     the current line, or `-1` if the line does not contain the character
+     */
+    public int indexOf(char c) {
+        return indexOf(c, lineStart);
+    }
+
+    /**
+     Gets the index of the first occurrence of the character in the current
+     line starting from the given index
+
+     @param c is the character to find
+     @param from is the index in the text to start searching from
+     @return the index in the text of the first occurrence of the character in
+     the current line, or `-1` if the line does not contain the character
+     */
+    public int indexOf(char c, int from) {
+        for (int i = Math.max(from, lineStart); i < lineEnd; ++i) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     Gets the current line
+
+     @return the current line
+     */
+    public String line() {
+        return text.substring(lineStart, lineEnd);
+    }
+
+    /**
+     Gets the text between the given indexes without leading and trailing
+     whitespace
+
+     @param start is the index of the first character
+     @param end is the index after the last character
+     @return the text between the given indexes without leading and trailing
+     whitespace
+     */
+    public String substring(int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            ++start;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            --end;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     Restarts the tokens of the current line from the given index
+
+     @param index is the index in the text from which to read the next token
+     */
+    public void seek(int index) {
+        seek(index, lineEnd);
+    }
+
+    /**
+     Restarts the tokens of the current line such that the tokens are read
+     from the given range of the line
+
+     @param start is the index in the text from which to read the next token
+     @param end is the index in the text after which no tokens are read
+     */
+    public void seek(int start, int end) {
+        tokenLimit = Math.max(lineStart, Math.min(end, lineEnd));
+        tokenEnd = Math.max(lineStart, Math.min(start, tokenLimit));
+        tokenStart = tokenEnd;
+    }
+
+    /**
+     Advances to the next token of the current line, or of the range of the
+     line given to Tokenizer::seek(int, int)
+
+     @return whether there is a next token
+     */
+    public boolean nextToken() {
+        int index = tokenEnd;
+        while (index < tokenLimit && text.charAt(index) <= ' ') {
+            ++index;
+        }
+        if (index == tokenLimit) {
+            tokenStart = tokenEnd = tokenLimit;
+            return false;
+        }
+        tokenStart = index;
+        while (index < tokenLimit && text.charAt(index) > ' ') {
+            ++index;
+        }
+        tokenEnd = index;
+        return true;
+    }
+
+    /**
+     Gets the index of the first character of the current token
+
+     @return the index of the first character of the current token
+     */
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     Gets the index after the last character of the current token
+
+     @return the index after the last character of the current token
+     */
+    public int tokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     Indicates whether the current token is equal to the given string
+
+     @param string is the string to compare against
+     @return whether the current token is equal to the given string
+     */
+    public boolean tokenEquals(String string) {
+        return tokenEnd - tokenStart == string.length()
+                && text.startsWith(string, tokenStart);
+    }
+
+    /**
+     Gets the current token
+
+     @return the current token
+     */
+    public String token() {
+        return text.substring(tokenStart, tokenEnd);
+    }
+
+    /**
+     Parses the current token into a scalar value
+
+     @return the scalar value of the current token
+     @throws NumberFormatException if the token is not a scalar value
+     */
+    public double tokenToDouble() throws NumberFormatException {
+        return toDouble(tokenStart, tokenEnd);
+    }
+
+    /**
+     Parses the text between the given indexes into a scalar value. Decimal
+     numbers of up to 15 digits are parsed directly from the text, and any
+     other value is parsed utilizing Op::toDouble().
+
+     @param start is the index of the first character
+     @param end is the index after the last character
+     @return the scalar value of the text between the given indexes
+     @throws NumberFormatException if the text is not a scalar value
+     */
+    public double toDouble(int start, int end) throws NumberFormatException {
+        int index = start;
+        final boolean negative = index < end && text.charAt(index) == '-';
+        if (negative || (index < end && text.charAt(index) == '+')) {
+            ++index;
+        }
+        long mantissa = 0;
+        int digits = 0, decimals = 0;
+        boolean point = false;
+        for (; index < end; ++index) {
+            final char c = text.charAt(index);
+            if (c >= '0' && c <= '9') {
+                mantissa = 10 * mantissa + (c - '0');
+                ++digits;
+                if (point) {
+                    ++decimals;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (index < end || digits == 0 || digits > 15) {
+            return Op.toDouble(text.substring(start, end));
+        }
+        //both the mantissa and the power of ten are exact, and hence the
+        //division is correctly rounded like Double::parseDouble()
+        final double result = decimals == 0 ? mantissa : mantissa / POWERS_OF_TEN[decimals];
+        return negative ? -result : result;
+    }
+
+    /**
+     Appends the current token to the given builder
+
+     @param builder is the builder to append the token to
+     @return the given builder
+     */
+    public StringBuilder appendToken(StringBuilder builder) {
+        return builder.append(text, tokenStart, tokenEnd);
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package fuzzylite.norm.t;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.norm.TNorm;
 import fuzzylite.term.Function;
 
@@ -60,9 +61,7 @@ public final class TNormFunction extends TNorm {
      */
     @Override
     public double compute(double a, double b) {
-        this.function.getVariables().put("a", a);
-        this.function.getVariables().put("b", b);
-        return this.function.evaluate();
+        return this.function.evaluate(a, b);
     }
 
     /**
@@ -80,6 +79,7 @@ public final class TNormFunction extends TNorm {
      @param formula is a valid formula in infix notation
      */
     public void setFormula(String formula) {
+        FuzzyLite.modified();
         this.function.load(formula);
     }
 
@@ -17,6 +17,7 @@
 package fuzzylite.rule;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.factory.FactoryManager;
@@ -25,7 +26,11 @@ import fuzzylite.hedge.Any;
 import fuzzylite.hedge.Hedge;
 import fuzzylite.norm.SNorm;
 import fuzzylite.norm.TNorm;
+import fuzzylite.norm.t.AlgebraicProduct;
+import fuzzylite.norm.t.Minimum;
+import fuzzylite.term.Aggregated;
 import fuzzylite.term.Function;
+import fuzzylite.term.Term;
 import fuzzylite.variable.OutputVariable;
 import fuzzylite.variable.Variable;
 
@@ -124,6 +129,36 @@ public class Antecedent {
      @return the activation degree of the antecedent
      */
     public double activationDegree(TNorm conjunction, SNorm disjunction, Expression node) {
+        return this.activationDegree(conjunction, disjunction, node, null);
+    }
+
+    /**
+     Computes the activation degree of the antecedent on the expression tree
+     from the root node utilizing the values stored in the evaluation context
+
+     @param conjunction is the conjunction operator from the RuleBlock
+     @param disjunction is the disjunction operator from the RuleBlock
+     @param context is the evaluation context
+     @return the activation degree of the antecedent
+     */
+    public double activationDegree(TNorm conjunction, SNorm disjunction,
+            EvaluationContext context) {
+        return this.activationDegree(conjunction, disjunction, expression, context);
+    }
+
+    /**
+     Computes the activation degree of the antecedent on the expression tree
+     from the given node utilizing the values stored in the evaluation context
+
+     @param conjunction is the conjunction operator from the RuleBlock
+     @param disjunction is the disjunction operator from the RuleBlock
+     @param node is a node in the expression tree of the antecedent
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the variables in the engine
+     @return the activation degree of the antecedent
+     */
+    public double activationDegree(TNorm conjunction, SNorm disjunction,
+            Expression node, EvaluationContext context) {
         if (!isLoaded()) {
             throw new RuntimeException(String.format(
                     "[antecedent error] antecedent <%s> is not loaded", text));
@@ -134,15 +169,14 @@ public class Antecedent {
             if (!proposition.getVariable().isEnabled()) {
                 return 0.0;
             }
-            if (!proposition.getHedges().isEmpty()) {
-                final int lastIndex = proposition.getHedges().size();
-                ListIterator<Hedge> rit = proposition.getHedges().listIterator(lastIndex);
-                Hedge any = rit.previous();
+            final List<Hedge> hedges = proposition.getHedges();
+            if (!hedges.isEmpty()) {
+                Hedge any = hedges.get(hedges.size() - 1);
                 //if last hedge is "Any", apply hedges in reverse order and return degree
                 if (any instanceof Any) {
-                    double result = any.hedge(Double.NaN);
-                    while (rit.hasPrevious()) {
-                        result = rit.previous().hedge(result);
+                    double result = any.hedge(Double.NaN, context);
+                    for (int i = hedges.size() - 2; i >= 0; --i) {
+                        result = hedges.get(i).hedge(result, context);
                     }
                     return result;
                 }
@@ -152,14 +186,17 @@ public class Antecedent {
             double result = Double.NaN;
             Variable.Type variableType = variable.type();
             if (variableType == Variable.Type.Input) {
-                result = proposition.getTerm().membership(variable.getValue());
+                final double x = context == null
+                        ? variable.getValue() : context.getValue(variable);
+                result = proposition.getTerm().membership(x, context);
             } else if (variableType == Variable.Type.Output) {
-                result = ((OutputVariable) variable).fuzzyOutput().activationDegree(proposition.getTerm());
+                final Aggregated fuzzyOutput = context == null
+                        ? ((OutputVariable) variable).fuzzyOutput()
+                        : context.fuzzyOutput((OutputVariable) variable);
+                result = fuzzyOutput.activationDegree(proposition.getTerm());
             }
-            int lastIndex = proposition.getHedges().size();
-            ListIterator<Hedge> reverseIterator = proposition.getHedges().listIterator(lastIndex);
-            while (reverseIterator.hasPrevious()) {
-                result = reverseIterator.previous().hedge(result);
+            for (int i = hedges.size() - 1; i >= 0; --i) {
+                result = hedges.get(i).hedge(result, context);
             }
             return result;
         }
@@ -174,9 +211,12 @@ public class Antecedent {
                     throw new RuntimeException(String.format("[conjunction error] "
                             + "the following rule requires a conjunction operator:\n%s", text));
                 }
-                return conjunction.compute(
-                        activationDegree(conjunction, disjunction, operator.getLeft()),
-                        activationDegree(conjunction, disjunction, operator.getRight()));
+                final double left = activationDegree(conjunction, disjunction, operator.getLeft(), context);
+                if (left == 0.0 && isAnnihilatedByZero(conjunction)) {
+                    return left;
+                }
+                return conjunction.compute(left,
+                        activationDegree(conjunction, disjunction, operator.getRight(), context));
             }
             if (Rule.FL_OR.equals(operator.getName())) {
                 if (disjunction == null) {
@@ -184,8 +224,8 @@ public class Antecedent {
                             + "the following rule requires a disjunction operator:\n%s", text));
                 }
                 return disjunction.compute(
-                        activationDegree(conjunction, disjunction, operator.getLeft()),
-                        activationDegree(conjunction, disjunction, operator.getRight()));
+                        activationDegree(conjunction, disjunction, operator.getLeft(), context),
+                        activationDegree(conjunction, disjunction, operator.getRight(), context));
             }
             throw new RuntimeException(String.format(
                     "[syntax error] operator <%s> not recognized",
@@ -195,6 +235,22 @@ public class Antecedent {
         }
     }
 
+    /**
+     Indicates whether the conjunction of a zero activation degree with any
+     other activation degree is zero, in which case the right-hand side of the
+     conjunction need not be computed. Such is the case of Minimum and
+     AlgebraicProduct on activation degrees within `[0.0, 1.0]`, for which the
+     conjunction is short-circuited to zero even if the right-hand side would
+     be `NaN`.
+
+     @param conjunction is the conjunction operator
+     @return whether the conjunction can be short-circuited on zero
+     */
+    static boolean isAnnihilatedByZero(TNorm conjunction) {
+        final Class<?> type = conjunction.getClass();
+        return type == Minimum.class || type == AlgebraicProduct.class;
+    }
+
     /**
      Unloads the antecedent
      */
@@ -213,6 +269,45 @@ public class Antecedent {
         load(getText(), engine);
     }
 
+    /**
+     Loads the antecedent as a copy of the expression tree of the given loaded
+     antecedent, whose variables and terms are replaced by the ones they map
+     to, which avoids parsing the text of the antecedent again
+
+     @param source is the loaded antecedent to copy
+     @param variables is the map from the variables of the source to the
+     variables of this antecedent
+     @param terms is the map from the terms of the source to the terms of this
+     antecedent
+     @throws RuntimeException if the source is not loaded or refers to
+     variables or terms that are not mapped
+     */
+    public void load(Antecedent source, Map<Variable, Variable> variables,
+            Map<Term, Term> terms) {
+        if (!source.isLoaded()) {
+            throw new RuntimeException(String.format(
+                    "[antecedent error] antecedent <%s> is not loaded", source.getText()));
+        }
+        unload();
+        setText(source.getText());
+        setExpression(copy(source.getExpression(), variables, terms));
+    }
+
+    private Expression copy(Expression node, Map<Variable, Variable> variables,
+            Map<Term, Term> terms) {
+        if (node instanceof Proposition) {
+            return ((Proposition) node).copy(variables, terms);
+        }
+        if (node instanceof Operator) {
+            Operator operator = (Operator) node;
+            return new Operator(operator.getName(),
+                    copy(operator.getLeft(), variables, terms),
+                    copy(operator.getRight(), variables, terms));
+        }
+        throw new RuntimeException("[antecedent error] expected a Proposition "
+                + "or Operator, but found <" + node + ">");
+    }
+
     /**
      Loads the antecedent with the given text and uses the engine to identify
      and retrieve references to the input variables and output variables as
@@ -222,7 +317,9 @@ public class Antecedent {
      @param engine is the engine from which the rules are part of
      */
     public void load(String antecedent, Engine engine) {
-        FuzzyLite.logger().log(Level.FINE, "Antecedent: {0}", antecedent);
+        if (FuzzyLite.isDebugging()) {
+            FuzzyLite.logger().log(Level.FINE, "Antecedent: {0}", antecedent);
+        }
         unload();
         setText(antecedent);
         if (antecedent.trim().isEmpty()) {
@@ -239,7 +336,9 @@ public class Antecedent {
 
         Function function = new Function();
         String postfix = function.toPostfix(antecedent);
-        FuzzyLite.logger().log(Level.FINE, "Postfix {0}", postfix);
+        if (FuzzyLite.isDebugging()) {
+            FuzzyLite.logger().log(Level.FINE, "Postfix {0}", postfix);
+        }
 
         final byte S_VARIABLE = 1, S_IS = 2, S_HEDGE = 4, S_TERM = 8, S_AND_OR = 16;
         byte state = S_VARIABLE;
@@ -253,10 +352,11 @@ public class Antecedent {
             token = tokenizer.nextToken();
             if ((state & S_VARIABLE) != 0) {
                 Variable variable = null;
-                if (engine.hasInputVariable(token)) {
-                    variable = engine.getInputVariable(token);
-                } else if (engine.hasOutputVariable(token)) {
-                    variable = engine.getOutputVariable(token);
+                int index;
+                if ((index = engine.indexOfInputVariable(token)) >= 0) {
+                    variable = engine.getInputVariable(index);
+                } else if ((index = engine.indexOfOutputVariable(token)) >= 0) {
+                    variable = engine.getOutputVariable(index);
                 }
                 if (variable != null) {
                     proposition = new Proposition();
@@ -264,7 +364,9 @@ public class Antecedent {
                     expressionStack.push(proposition);
 
                     state = S_IS;
-                    FuzzyLite.logger().log(Level.FINE, "Token <{0}> is variable", token);
+                    if (FuzzyLite.isDebugging()) {
+                        FuzzyLite.logger().log(Level.FINE, "Token <{0}> is variable", token);
+                    }
                     continue;
                 }
             }
@@ -272,7 +374,9 @@ public class Antecedent {
             if ((state & S_IS) != 0) {
                 if (Rule.FL_IS.equals(token)) {
                     state = S_HEDGE | S_TERM;
-                    FuzzyLite.logger().log(Level.FINE, "Token <{0}> is keyword", token);
+                    if (FuzzyLite.isDebugging()) {
+                        FuzzyLite.logger().log(Level.FINE, "Token <{0}> is keyword", token);
+                    }
                     continue;
                 }
             }
@@ -287,16 +391,21 @@ public class Antecedent {
                     } else {
                         state = S_HEDGE | S_TERM;
                     }
-                    FuzzyLite.logger().log(Level.FINE, "Token <{0}> is hedge", token);
+                    if (FuzzyLite.isDebugging()) {
+                        FuzzyLite.logger().log(Level.FINE, "Token <{0}> is hedge", token);
+                    }
                     continue;
                 }
             }
 
             if ((state & S_TERM) != 0) {
-                if (proposition.getVariable().hasTerm(token)) {
-                    proposition.setTerm(proposition.getVariable().getTerm(token));
+                Term term = proposition.getVariable().getTerm(token);
+                if (term != null) {
+                    proposition.setTerm(term);
                     state = S_VARIABLE | S_AND_OR;
-                    FuzzyLite.logger().log(Level.FINE, "Token <{0}> is term", token);
+                    if (FuzzyLite.isDebugging()) {
+                        FuzzyLite.logger().log(Level.FINE, "Token <{0}> is term", token);
+                    }
                     continue;
                 }
             }
@@ -315,8 +424,10 @@ public class Antecedent {
                     expressionStack.push(operator);
 
                     state = S_VARIABLE | S_AND_OR;
-                    FuzzyLite.logger().log(Level.FINE, "Subtree: ({0}) ({1})",
-                            new Object[]{operator.getLeft(), operator.getRight()});
+                    if (FuzzyLite.isDebugging()) {
+                        FuzzyLite.logger().log(Level.FINE, "Subtree: ({0}) ({1})",
+                                new Object[]{operator.getLeft(), operator.getRight()});
+                    }
                     continue;
                 }
             }
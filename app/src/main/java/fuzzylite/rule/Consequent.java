@@ -17,16 +17,18 @@
 package fuzzylite.rule;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
+import fuzzylite.InferenceListener;
 import fuzzylite.factory.FactoryManager;
 import fuzzylite.factory.HedgeFactory;
 import fuzzylite.hedge.Hedge;
 import fuzzylite.norm.TNorm;
-import fuzzylite.term.Activated;
+import fuzzylite.term.Term;
 import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
 
 import java.util.*;
-import java.util.logging.Level;
 
 /**
  The Consequent class is a proposition set that represents and evaluates the
@@ -105,19 +107,52 @@ public class Consequent {
             throw new RuntimeException(String.format(
                     "[consequent error] consequent <%s> is not loaded", text));
         }
-        for (Proposition proposition : conclusions) {
+        final InferenceListener listener = FuzzyLite.getInferenceListener();
+        for (int c = 0; c < conclusions.size(); ++c) {
+            Proposition proposition = conclusions.get(c);
             if (proposition.getVariable().isEnabled()) {
-                if (!proposition.getHedges().isEmpty()) {
-                    final int lastIndex = proposition.getHedges().size();
-                    ListIterator<Hedge> rit = proposition.getHedges().listIterator(lastIndex);
-                    while (rit.hasPrevious()) {
-                        activationDegree = rit.previous().hedge(activationDegree);
-                    }
+                final List<Hedge> hedges = proposition.getHedges();
+                for (int i = hedges.size() - 1; i >= 0; --i) {
+                    activationDegree = hedges.get(i).hedge(activationDegree);
+                }
+                OutputVariable outputVariable = (OutputVariable) proposition.getVariable();
+                outputVariable.fuzzyOutput().activate(
+                        proposition.getTerm(), activationDegree, implication, null);
+                if (listener != null) {
+                    listener.termAggregated(outputVariable, proposition.getTerm(), activationDegree);
+                }
+            }
+        }
+    }
+
+    /**
+     Modifies the fuzzy output values stored in the evaluation context according
+     to the activation degree (computed in the Antecedent of the Rule) and the
+     implication operator (given in the RuleBlock)
+
+     @param activationDegree is the activation degree computed in the Antecedent
+     of the Rule
+     @param implication is the implication operator configured in the RuleBlock
+     @param context is the evaluation context
+     */
+    public void modify(double activationDegree, TNorm implication, EvaluationContext context) {
+        if (!isLoaded()) {
+            throw new RuntimeException(String.format(
+                    "[consequent error] consequent <%s> is not loaded", text));
+        }
+        final InferenceListener listener = FuzzyLite.getInferenceListener();
+        for (int c = 0; c < conclusions.size(); ++c) {
+            Proposition proposition = conclusions.get(c);
+            if (proposition.getVariable().isEnabled()) {
+                final List<Hedge> hedges = proposition.getHedges();
+                for (int i = hedges.size() - 1; i >= 0; --i) {
+                    activationDegree = hedges.get(i).hedge(activationDegree, context);
                 }
-                Activated term = new Activated(proposition.getTerm(), activationDegree, implication);
-                ((OutputVariable) proposition.getVariable()).fuzzyOutput().getTerms().add(term);
-                if (FuzzyLite.isDebugging()) {
-                    FuzzyLite.logger().log(Level.FINE, "Aggregating {0}", term.toString());
+                OutputVariable outputVariable = (OutputVariable) proposition.getVariable();
+                context.fuzzyOutput(outputVariable).activate(
+                        proposition.getTerm(), activationDegree, implication, context);
+                if (listener != null) {
+                    listener.termAggregated(outputVariable, proposition.getTerm(), activationDegree);
                 }
             }
         }
@@ -150,6 +185,32 @@ public class Consequent {
         load(getText(), engine);
     }
 
+    /**
+     Loads the consequent as a copy of the conclusions of the given loaded
+     consequent, whose variables and terms are replaced by the ones they map
+     to, which avoids parsing the text of the consequent again
+
+     @param source is the loaded consequent to copy
+     @param variables is the map from the variables of the source to the
+     variables of this consequent
+     @param terms is the map from the terms of the source to the terms of this
+     consequent
+     @throws RuntimeException if the source is not loaded or refers to
+     variables or terms that are not mapped
+     */
+    public void load(Consequent source, Map<Variable, Variable> variables,
+            Map<Term, Term> terms) {
+        if (!source.isLoaded()) {
+            throw new RuntimeException(String.format(
+                    "[consequent error] consequent <%s> is not loaded", source.getText()));
+        }
+        unload();
+        setText(source.getText());
+        for (Proposition proposition : source.getConclusions()) {
+            conclusions.add(proposition.copy(variables, terms));
+        }
+    }
+
     /**
      Loads the consequent with the given text and uses the engine to identify
      and retrieve references to the input variables and output variables as
@@ -187,9 +248,10 @@ public class Consequent {
                 token = tokenizer.nextToken();
 
                 if ((state & S_VARIABLE) != 0) {
-                    if (engine.hasOutputVariable(token)) {
+                    int index = engine.indexOfOutputVariable(token);
+                    if (index >= 0) {
                         proposition = new Proposition();
-                        proposition.setVariable(engine.getOutputVariable(token));
+                        proposition.setVariable(engine.getOutputVariable(index));
                         getConclusions().add(proposition);
                         state = S_IS;
                         continue;
@@ -214,8 +276,9 @@ public class Consequent {
                 }
 
                 if ((state & S_TERM) != 0) {
-                    if (proposition.getVariable().hasTerm(token)) {
-                        proposition.setTerm(proposition.getVariable().getTerm(token));
+                    Term term = proposition.getVariable().getTerm(token);
+                    if (term != null) {
+                        proposition.setTerm(term);
                         state = S_AND | S_WITH;
                         continue;
                     }
@@ -22,6 +22,7 @@ import fuzzylite.variable.Variable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  The Proposition class is an Expression that represents a terminal node in the
@@ -112,6 +113,37 @@ public final class Proposition extends Expression {
         return Type.Proposition;
     }
 
+    /**
+     Creates a copy of the proposition whose variable and term are replaced by
+     the ones they map to, and whose hedges are cloned
+
+     @param variables is the map from the variables of the proposition to the
+     variables of the copy
+     @param terms is the map from the terms of the proposition to the terms of
+     the copy
+     @return a copy of the proposition referring to the mapped variable and
+     term
+     @throws RuntimeException if the variable or the term are not mapped
+     */
+    Proposition copy(Map<Variable, Variable> variables, Map<Term, Term> terms) {
+        Variable mappedVariable = variables.get(this.variable);
+        Term mappedTerm = this.term == null ? null : terms.get(this.term);
+        if (mappedVariable == null || (this.term != null && mappedTerm == null)) {
+            throw new RuntimeException(String.format(
+                    "[rule error] proposition <%s> refers to components that are not mapped",
+                    toString()));
+        }
+        List<Hedge> mappedHedges = new ArrayList<Hedge>(this.hedges.size());
+        try {
+            for (Hedge hedge : this.hedges) {
+                mappedHedges.add(hedge.clone());
+            }
+        } catch (CloneNotSupportedException ex) {
+            throw new RuntimeException(ex);
+        }
+        return new Proposition(mappedVariable, mappedHedges, mappedTerm);
+    }
+
     /**
      Returns a string representation of the proposition
 
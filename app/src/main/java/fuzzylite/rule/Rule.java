@@ -17,14 +17,18 @@
 package fuzzylite.rule;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
+import fuzzylite.InferenceListener;
 import fuzzylite.Op;
 import fuzzylite.imex.FllExporter;
 import fuzzylite.norm.SNorm;
 import fuzzylite.norm.TNorm;
+import fuzzylite.term.Term;
+import fuzzylite.variable.Variable;
 
+import java.util.Map;
 import java.util.StringTokenizer;
-import java.util.logging.Level;
 
 /**
  The Rule class is a conditional statement that contributes to the control of an
@@ -126,6 +130,7 @@ public class Rule implements Op.Cloneable {
      @param enabled determines whether the rule is enabled
      */
     public void setEnabled(boolean enabled) {
+        FuzzyLite.modified();
         this.enabled = enabled;
     }
 
@@ -144,6 +149,7 @@ public class Rule implements Op.Cloneable {
      @param text is the text of the rule
      */
     public void setText(String text) {
+        FuzzyLite.modified();
         this.text = text;
     }
 
@@ -162,6 +168,7 @@ public class Rule implements Op.Cloneable {
      @param weight is the weight of the rule
      */
     public void setWeight(double weight) {
+        FuzzyLite.modified();
         this.weight = weight;
     }
 
@@ -180,6 +187,7 @@ public class Rule implements Op.Cloneable {
      @param antecedent is the antecedent of the rule
      */
     public void setAntecedent(Antecedent antecedent) {
+        FuzzyLite.modified();
         this.antecedent = antecedent;
     }
 
@@ -198,6 +206,7 @@ public class Rule implements Op.Cloneable {
      @param consequent the consequent of the rule
      */
     public void setConsequent(Consequent consequent) {
+        FuzzyLite.modified();
         this.consequent = consequent;
     }
 
@@ -254,15 +263,59 @@ public class Rule implements Op.Cloneable {
             throw new RuntimeException(String.format("[rule error] the following rule is not loaded: %s", text));
         }
         if (enabled && Op.isGt(activationDegree, 0.0)) {
-            if (FuzzyLite.isDebugging()) {
-                FuzzyLite.logger().log(Level.FINE, "[firing with {0}] {1}",
-                        new String[]{Op.str(activationDegree), toString()});
+            final InferenceListener listener = FuzzyLite.getInferenceListener();
+            if (listener != null) {
+                listener.ruleActivated(this, activationDegree);
             }
             consequent.modify(activationDegree, implication);
             triggered = true;
         }
     }
 
+    /**
+     Computes the activation degree of the rule utilizing the given conjunction
+     and disjunction operators and the values stored in the evaluation context.
+     The activation degree of the rule is not modified.
+
+     @param conjunction is the conjunction operator
+     @param disjunction is the disjunction operator
+     @param context is the evaluation context
+     @return the activation degree of the rule
+     */
+    public double activationDegree(TNorm conjunction, SNorm disjunction,
+            EvaluationContext context) {
+        if (!isLoaded()) {
+            throw new RuntimeException(String.format("[rule error] the following rule is not loaded: %s", text));
+        }
+        return weight * antecedent.activationDegree(conjunction, disjunction, context);
+    }
+
+    /**
+     Triggers the rule's implication (if the rule is enabled) using the given
+     activation degree and implication operator on the fuzzy output values
+     stored in the evaluation context. The state of the rule is not modified.
+
+     @param activationDegree is the activation degree of the rule
+     @param implication is the implication operator
+     @param context is the evaluation context
+     @return whether the rule's implication was triggered
+     */
+    public boolean trigger(double activationDegree, TNorm implication,
+            EvaluationContext context) {
+        if (!isLoaded()) {
+            throw new RuntimeException(String.format("[rule error] the following rule is not loaded: %s", text));
+        }
+        if (enabled && Op.isGt(activationDegree, 0.0)) {
+            final InferenceListener listener = FuzzyLite.getInferenceListener();
+            if (listener != null) {
+                listener.ruleActivated(this, activationDegree);
+            }
+            consequent.modify(activationDegree, implication, context);
+            return true;
+        }
+        return false;
+    }
+
     /**
      Indicates whether the rule's implication was triggered
 
@@ -286,6 +339,7 @@ public class Rule implements Op.Cloneable {
      Unloads the rule
      */
     public void unload() {
+        FuzzyLite.modified();
         deactivate();
         if (getAntecedent() != null) {
             getAntecedent().unload();
@@ -314,9 +368,10 @@ public class Rule implements Op.Cloneable {
      @param engine is the engine from which the rule is part of
      */
     public void load(String rule, Engine engine) {
+        FuzzyLite.modified();
         deactivate();
-        setEnabled(true);
-        setText(rule);
+        this.enabled = true;
+        this.text = rule;
         StringTokenizer tokenizer = new StringTokenizer(rule);
         String token;
         StringBuilder strAntecedent = new StringBuilder();
@@ -387,7 +442,37 @@ public class Rule implements Op.Cloneable {
             }
             getAntecedent().load(strAntecedent.toString(), engine);
             getConsequent().load(strConsequent.toString(), engine);
-            setWeight(ruleWeight);
+            this.weight = ruleWeight;
+        } catch (RuntimeException ex) {
+            unload();
+            throw ex;
+        }
+    }
+
+    /**
+     Loads the rule as a copy of the given loaded rule, whose variables and
+     terms are replaced by the ones they map to, which avoids parsing the text
+     of the rule again. Like Rule::load(), the rule is enabled and its weight
+     is the one of the given rule.
+
+     @param source is the loaded rule to copy
+     @param variables is the map from the variables of the source to the
+     variables of this rule
+     @param terms is the map from the terms of the source to the terms of this
+     rule
+     @throws RuntimeException if the source is not loaded or refers to
+     variables or terms that are not mapped
+     */
+    public void load(Rule source, Map<Variable, Variable> variables,
+            Map<Term, Term> terms) {
+        FuzzyLite.modified();
+        deactivate();
+        this.enabled = true;
+        this.text = source.getText();
+        try {
+            getAntecedent().load(source.getAntecedent(), variables, terms);
+            getConsequent().load(source.getConsequent(), variables, terms);
+            this.weight = source.getWeight();
         } catch (RuntimeException ex) {
             unload();
             throw ex;
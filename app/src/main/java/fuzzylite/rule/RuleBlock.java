@@ -17,15 +17,24 @@
 package fuzzylite.rule;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
+import fuzzylite.NameIndex;
 import fuzzylite.Op;
 import fuzzylite.activation.Activation;
 import fuzzylite.activation.General;
 import fuzzylite.imex.FllExporter;
 import fuzzylite.norm.SNorm;
 import fuzzylite.norm.TNorm;
+import fuzzylite.term.Term;
+import fuzzylite.variable.OutputVariable;
+import fuzzylite.variable.Variable;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  The RuleBlock class contains a set of Rule%s and fuzzy logic operators required
@@ -40,6 +49,13 @@ import java.util.List;
  */
 public class RuleBlock implements Op.Cloneable {
 
+    /**
+     Minimum number of rules to load in parallel
+     */
+    public static final int PARALLEL_RULES = 1024;
+
+    private static final Activation DEFAULT_ACTIVATION = new General();
+
     private boolean enabled;
     private String name;
     private String description;
@@ -48,6 +64,7 @@ public class RuleBlock implements Op.Cloneable {
     private TNorm implication;
     private Activation activation;
     private List<Rule> rules;
+    private NameIndex.Registry nameIndexes;
 
     public RuleBlock() {
         this("");
@@ -58,6 +75,7 @@ public class RuleBlock implements Op.Cloneable {
         this.name = name;
         this.description = "";
         this.rules = new ArrayList<Rule>();
+        this.nameIndexes = new NameIndex.Registry();
     }
 
     /**
@@ -70,6 +88,17 @@ public class RuleBlock implements Op.Cloneable {
         activation.activate(this);
     }
 
+    /**
+     Activates the rule block utilizing the values stored in the evaluation
+     context, without modifying the state of the rule block or its rules. If the
+     rule block has no activation method, the General activation is utilized.
+
+     @param context is the evaluation context
+     */
+    public void activate(EvaluationContext context) {
+        (activation == null ? DEFAULT_ACTIVATION : activation).activate(this, context);
+    }
+
     /**
      Unloads all the rules in the rule block
      */
@@ -85,20 +114,107 @@ public class RuleBlock implements Op.Cloneable {
      @param engine is the engine where this rule block is registered
      */
     public void loadRules(Engine engine) {
-        List<String> exceptions = new ArrayList<String>();
-        for (Rule rule : this.rules) {
-            if (rule.isLoaded()) {
-                rule.unload();
-            }
-            try {
-                rule.load(engine);
-            } catch (Exception ex) {
-                exceptions.add(String.format("[%s]: %s", rule.getText(), ex.toString()));
+        loadRules(engine, null);
+    }
+
+    /**
+     Loads all the rules into the rule block utilizing the given pool, which
+     loads the rules in parallel if there are at least
+     RuleBlock::PARALLEL_RULES rules. The engine must not be modified while the
+     rules are loaded.
+
+     @param engine is the engine where this rule block is registered
+     @param pool is the pool to load the rules, or `null` to load the rules in
+     the current thread
+     */
+    public void loadRules(Engine engine, ForkJoinPool pool) {
+        Exception[] exceptions = RuleLoader.load(this.rules, null, null, null, engine, pool);
+        reserveActivatedTerms(engine);
+        throwExceptions(exceptions);
+    }
+
+    /**
+     Loads all the rules into the rule block, which is a clone of the given rule
+     block registered in another engine, such that each rule whose counterpart
+     in the given rule block is loaded is loaded as a copy of it utilizing
+     Rule::load(Rule, Map, Map), and any other rule is loaded by parsing its
+     text
+
+     @param engine is the engine where this rule block is registered
+     @param source is the rule block from which this rule block was cloned
+     @param variables is the map from the variables of the engine of the source
+     to the variables of the given engine
+     @param terms is the map from the terms of the engine of the source to the
+     terms of the given engine
+     */
+    public void loadRules(Engine engine, RuleBlock source,
+            Map<Variable, Variable> variables, Map<Term, Term> terms) {
+        List<Rule> sources = source.getRules().size() == this.rules.size()
+                ? source.getRules() : null;
+        Exception[] exceptions = RuleLoader.load(this.rules, sources, variables, terms, engine, null);
+        reserveActivatedTerms(engine);
+        throwExceptions(exceptions);
+    }
+
+    /**
+     Loads the given rules utilizing the given pool, which loads the rules in
+     parallel if there are at least RuleBlock::PARALLEL_RULES rules. The engine
+     must not be modified while the rules are loaded.
+
+     @param rules is the list of rules to load
+     @param engine is the engine from which the rules are part of
+     @param pool is the pool to load the rules, or `null` to load the rules in
+     the current thread
+     @return the exception raised upon loading each rule, or `null` for each
+     rule loaded successfully
+     */
+    public static Exception[] loadRules(List<Rule> rules, Engine engine, ForkJoinPool pool) {
+        return RuleLoader.load(rules, null, null, null, engine, pool);
+    }
+
+    private void throwExceptions(Exception[] exceptions) {
+        List<String> messages = new ArrayList<String>();
+        for (int i = 0; i < exceptions.length; ++i) {
+            if (exceptions[i] != null) {
+                messages.add(String.format("[%s]: %s", rules.get(i).getText(), exceptions[i].toString()));
             }
         }
-        if (!exceptions.isEmpty()) {
+        if (!messages.isEmpty()) {
             throw new RuntimeException("[ruleblock error] the following "
-                    + "rules could not be loaded:\n" + Op.join(exceptions, "\n"));
+                    + "rules could not be loaded:\n" + Op.join(messages, "\n"));
+        }
+    }
+
+    /**
+     Reserves in the fuzzy output of each output variable as many activated
+     terms as conclusions of the loaded rules of the engine refer to the output
+     variable, such that the rules can be triggered without allocating memory
+
+     @param engine is the engine where this rule block is registered
+     @see fuzzylite.term.Aggregated::reserve(int)
+     */
+    private void reserveActivatedTerms(Engine engine) {
+        List<RuleBlock> blocks = new ArrayList<RuleBlock>(engine.getRuleBlocks());
+        if (!blocks.contains(this)) {
+            blocks.add(this);
+        }
+        Map<OutputVariable, Integer> conclusions = new IdentityHashMap<OutputVariable, Integer>();
+        for (RuleBlock ruleBlock : blocks) {
+            for (Rule rule : ruleBlock.getRules()) {
+                if (!rule.isLoaded()) {
+                    continue;
+                }
+                for (Proposition proposition : rule.getConsequent().getConclusions()) {
+                    if (proposition.getVariable() instanceof OutputVariable) {
+                        OutputVariable outputVariable = (OutputVariable) proposition.getVariable();
+                        Integer count = conclusions.get(outputVariable);
+                        conclusions.put(outputVariable, count == null ? 1 : count + 1);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<OutputVariable, Integer> entry : conclusions.entrySet()) {
+            entry.getKey().fuzzyOutput().reserve(entry.getValue());
         }
     }
 
@@ -137,9 +253,21 @@ public class RuleBlock implements Op.Cloneable {
      @param name is the name of the rule block
      */
     public void setName(String name) {
+        FuzzyLite.modified();
+        nameIndexes.renamed();
         this.name = name;
     }
 
+    /**
+     Gets the registry of the indexes by name that contain the rule block, which
+     are invalidated when the rule block is renamed
+
+     @return the registry of the indexes by name that contain the rule block
+     */
+    public NameIndex.Registry nameIndexes() {
+        return nameIndexes;
+    }
+
     /**
      Gets the description of the rule block
 
@@ -173,6 +301,7 @@ public class RuleBlock implements Op.Cloneable {
      @param conjunction is the conjunction operator
      */
     public void setConjunction(TNorm conjunction) {
+        FuzzyLite.modified();
         this.conjunction = conjunction;
     }
 
@@ -191,6 +320,7 @@ public class RuleBlock implements Op.Cloneable {
      @param disjunction is the disjunction operator
      */
     public void setDisjunction(SNorm disjunction) {
+        FuzzyLite.modified();
         this.disjunction = disjunction;
     }
 
@@ -209,6 +339,7 @@ public class RuleBlock implements Op.Cloneable {
      @param implication is the implication operator
      */
     public void setImplication(TNorm implication) {
+        FuzzyLite.modified();
         this.implication = implication;
     }
 
@@ -227,6 +358,7 @@ public class RuleBlock implements Op.Cloneable {
      @param activation is the activation method
      */
     public void setActivation(Activation activation) {
+        FuzzyLite.modified();
         this.activation = activation;
     }
 
@@ -245,6 +377,7 @@ public class RuleBlock implements Op.Cloneable {
      @param enabled whether the rule block is enabled
      */
     public void setEnabled(boolean enabled) {
+        FuzzyLite.modified();
         this.enabled = enabled;
     }
 
@@ -256,6 +389,7 @@ public class RuleBlock implements Op.Cloneable {
     @Override
     public RuleBlock clone() throws CloneNotSupportedException {
         RuleBlock result = (RuleBlock) super.clone();
+        result.nameIndexes = new NameIndex.Registry();
         if (this.conjunction != null) {
             result.conjunction = this.conjunction.clone();
         }
@@ -288,6 +422,7 @@ public class RuleBlock implements Op.Cloneable {
      @param rule is the rule to add
      */
     public void addRule(Rule rule) {
+        FuzzyLite.modified();
         this.rules.add(rule);
     }
 
@@ -298,6 +433,7 @@ public class RuleBlock implements Op.Cloneable {
      @return the rule at the specified index
      */
     public Rule removeRule(int index) {
+        FuzzyLite.modified();
         return this.rules.remove(index);
     }
 
@@ -325,6 +461,7 @@ public class RuleBlock implements Op.Cloneable {
      @param rules is a vector of rules
      */
     public void setRules(List<Rule> rules) {
+        FuzzyLite.modified();
         this.rules = rules;
     }
 
@@ -0,0 +1,147 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.rule;
+
+import fuzzylite.Engine;
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.term.Term;
+import fuzzylite.variable.Variable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ The RuleLoader class loads a range of rules, either by parsing their text or
+ by copying the expression trees of their loaded source rules, splitting the
+ range into halves until it contains at most the threshold number of rules.
+ The rules are loaded utilizing the FactoryManager of the thread that created
+ the loader, which is restored in the worker threads afterwards.
+
+ @see RuleBlock::loadRules(Engine, ForkJoinPool)
+ @see RuleBlock::loadRules(List, Engine, ForkJoinPool)
+ @since 6.0
+ */
+final class RuleLoader extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Rule> rules;
+    private final List<Rule> sources;
+    private final Map<Variable, Variable> variables;
+    private final Map<Term, Term> terms;
+    private final Engine engine;
+    private final FactoryManager factoryManager;
+    private final Exception[] exceptions;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    private RuleLoader(List<Rule> rules, List<Rule> sources,
+            Map<Variable, Variable> variables, Map<Term, Term> terms,
+            Engine engine, FactoryManager factoryManager, Exception[] exceptions,
+            int from, int to, int threshold) {
+        this.rules = rules;
+        this.sources = sources;
+        this.variables = variables;
+        this.terms = terms;
+        this.engine = engine;
+        this.factoryManager = factoryManager;
+        this.exceptions = exceptions;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    /**
+     Loads the given rules utilizing the given engine, where each rule whose
+     source rule is loaded is loaded as a copy of its source rule utilizing
+     Rule::load(Rule, Map, Map), and any other rule is loaded by parsing its
+     text utilizing Rule::load(Engine)
+
+     @param rules is the list of rules to load
+     @param sources is the list of source rules of each rule, or `null` to
+     parse the text of every rule
+     @param variables is the map from the variables of the source rules to the
+     variables of the engine, or `null` if there are no source rules
+     @param terms is the map from the terms of the source rules to the terms of
+     the engine, or `null` if there are no source rules
+     @param engine is the engine from which the rules are part of
+     @param pool is the pool to load the rules, or `null` to load the rules in
+     the current thread
+     @return the exception raised upon loading each rule, or `null` for each
+     rule loaded successfully
+     */
+    static Exception[] load(List<Rule> rules, List<Rule> sources,
+            Map<Variable, Variable> variables, Map<Term, Term> terms,
+            Engine engine, ForkJoinPool pool) {
+        final int size = rules.size();
+        Exception[] result = new Exception[size];
+        if (pool == null || size < RuleBlock.PARALLEL_RULES) {
+            new RuleLoader(rules, sources, variables, terms, engine,
+                    FactoryManager.instance(), result, 0, size, size).load();
+        } else {
+            pool.invoke(new RuleLoader(rules, sources, variables, terms, engine,
+                    FactoryManager.instance(), result, 0, size,
+                    size / (4 * pool.getParallelism()) + 1));
+        }
+        return result;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > threshold) {
+            final int middle = (from + to) >>> 1;
+            invokeAll(new RuleLoader(rules, sources, variables, terms, engine,
+                    factoryManager, exceptions, from, middle, threshold),
+                    new RuleLoader(rules, sources, variables, terms, engine,
+                            factoryManager, exceptions, middle, to, threshold));
+            return;
+        }
+        final FactoryManager previous = FactoryManager.instance();
+        FactoryManager.setInstance(factoryManager);
+        try {
+            load();
+        } finally {
+            FactoryManager.setInstance(previous);
+        }
+    }
+
+    private void load() {
+        for (int i = from; i < to; ++i) {
+            Rule rule = rules.get(i);
+            try {
+                if (rule.isLoaded()) {
+                    rule.unload();
+                }
+                Rule source = sources == null ? null : sources.get(i);
+                if (source != null && source.isLoaded()) {
+                    try {
+                        rule.load(source, variables, terms);
+                        continue;
+                    } catch (RuntimeException ex) {
+                        //the source refers to components outside of the mapping
+                    }
+                }
+                rule.load(engine);
+            } catch (Exception ex) {
+                exceptions[i] = ex;
+            }
+        }
+    }
+}
@@ -16,9 +16,11 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.EvaluationContext;
 import fuzzylite.Op;
 import fuzzylite.imex.FllExporter;
 import fuzzylite.norm.TNorm;
+import fuzzylite.norm.t.TNormFunction;
 
 /**
  The Activated class is a special Term that contains pointers to the necessary
@@ -36,15 +38,21 @@ public class Activated extends Term {
     private Term term;
     private double degree;
     private TNorm implication;
+    private EvaluationContext context;
 
     public Activated() {
         this(null, 1.0, null);
     }
 
     public Activated(Term term, double degree, TNorm implication) {
+        this(term, degree, implication, null);
+    }
+
+    public Activated(Term term, double degree, TNorm implication, EvaluationContext context) {
         this.term = term;
         this.degree = degree;
         this.implication = implication;
+        this.context = context;
     }
 
     /**
@@ -64,7 +72,38 @@ public class Activated extends Term {
                     + "implication operator needed to activate %s",
                     getTerm().toString()));
         }
-        return implication.compute(term.membership(x), degree);
+        return implication.compute(term.membership(x, context), degree);
+    }
+
+    /**
+     Gets the minimum of the support of the activated term, which is the
+     minimum of the support of the term given that every implication operator
+     `\otimes` satisfies `d \otimes 0 = 0`, except possibly the TNormFunction
+
+     @return the minimum of the support of the term, or `-\infty` if the
+     implication operator is a TNormFunction
+     */
+    @Override
+    public double supportMinimum() {
+        if (term == null || implication instanceof TNormFunction) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return term.supportMinimum();
+    }
+
+    /**
+     Gets the maximum of the support of the activated term
+
+     @return the maximum of the support of the term, or `+\infty` if the
+     implication operator is a TNormFunction
+     @see Activated::supportMinimum()
+     */
+    @Override
+    public double supportMaximum() {
+        if (term == null || implication instanceof TNormFunction) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return term.supportMaximum();
     }
 
     /**
@@ -151,6 +190,26 @@ public class Activated extends Term {
         this.implication = implication;
     }
 
+    /**
+     Gets the evaluation context in which the term was activated
+
+     @return the evaluation context in which the term was activated, or `null`
+     if the term was activated in the engine
+     */
+    public EvaluationContext getContext() {
+        return context;
+    }
+
+    /**
+     Sets the evaluation context in which the term was activated
+
+     @param context is the evaluation context in which the term was activated,
+     or `null` if the term was activated in the engine
+     */
+    public void setContext(EvaluationContext context) {
+        this.context = context;
+    }
+
     @Override
     public Activated clone() throws CloneNotSupportedException {
         return (Activated) super.clone();
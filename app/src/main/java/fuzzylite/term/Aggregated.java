@@ -16,11 +16,16 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.imex.FllExporter;
 import fuzzylite.norm.SNorm;
+import fuzzylite.norm.TNorm;
+import fuzzylite.norm.s.SNormFunction;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -42,9 +47,14 @@ import java.util.List;
 public class Aggregated extends Term {
 
     private List<Activated> terms;
+    private List<Activated> pool;
+    private int pooled;
     private double minimum;
     private double maximum;
     private SNorm aggregation;
+    private double[] supportBounds;
+    private double[] supportMinima;
+    private double[] supportMaxima;
 
     public Aggregated() {
         this("");
@@ -60,10 +70,15 @@ public class Aggregated extends Term {
 
     public Aggregated(String name, double minimum, double maximum, SNorm aggregation) {
         this.terms = new ArrayList<Activated>();
+        this.pool = new ArrayList<Activated>();
+        this.pooled = 0;
         this.name = name;
         this.minimum = minimum;
         this.maximum = maximum;
         this.aggregation = aggregation;
+        this.supportBounds = new double[0];
+        this.supportMinima = new double[0];
+        this.supportMaxima = new double[0];
     }
 
     /**
@@ -107,12 +122,127 @@ public class Aggregated extends Term {
             return Double.NaN;
         }
         double mu = 0.0;
-        for (Activated term : this.terms) {
-            mu = this.aggregation.compute(mu, term.membership(x));
+        for (int i = 0; i < terms.size(); ++i) {
+            mu = this.aggregation.compute(mu, terms.get(i).membership(x));
         }
         return mu;
     }
 
+    /**
+     Gets the minimum of the support of the fuzzy set, which is the minimum of
+     the supports of the activated terms given that every aggregation operator
+     `\oplus` satisfies `0 \oplus 0 = 0`, except possibly the SNormFunction.
+
+     @return the minimum of the supports of the activated terms, `-\infty` if
+     the aggregation operator is an SNormFunction, or `+\infty` if there are
+     no activated terms
+     */
+    @Override
+    public double supportMinimum() {
+        if (aggregation instanceof SNormFunction) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double result = Double.POSITIVE_INFINITY;
+        for (Activated term : this.terms) {
+            double minimum = term.supportMinimum();
+            result = Double.isNaN(minimum) ? Double.NEGATIVE_INFINITY : Math.min(result, minimum);
+        }
+        return result;
+    }
+
+    /**
+     Gets the maximum of the support of the fuzzy set
+
+     @return the maximum of the supports of the activated terms, `+\infty` if
+     the aggregation operator is an SNormFunction, or `-\infty` if there are
+     no activated terms
+     @see Aggregated::supportMinimum()
+     */
+    @Override
+    public double supportMaximum() {
+        if (aggregation instanceof SNormFunction) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double result = Double.NEGATIVE_INFINITY;
+        for (Activated term : this.terms) {
+            double maximum = term.supportMaximum();
+            result = Double.isNaN(maximum) ? Double.POSITIVE_INFINITY : Math.max(result, maximum);
+        }
+        return result;
+    }
+
+    /**
+     Computes the union of the supports of the activated terms as a sorted list
+     of disjoint intervals, which are stored in the array returned by
+     Aggregated::getSupportBounds() such that the `k`-th interval is
+     `[bounds[2k], bounds[2k+1]]`. The union is computed without allocating
+     memory once the internal buffers are large enough for the activated terms.
+
+     @return the number of disjoint intervals in the union of the supports
+     */
+    public int unionOfSupports() {
+        final int size = this.terms.size();
+        if (supportMinima.length < size) {
+            supportMinima = new double[size];
+            supportMaxima = new double[size];
+            supportBounds = new double[2 * size];
+        }
+        if (aggregation instanceof SNormFunction) {
+            if (supportBounds.length < 2) {
+                supportBounds = new double[2];
+            }
+            supportBounds[0] = Double.NEGATIVE_INFINITY;
+            supportBounds[1] = Double.POSITIVE_INFINITY;
+            return 1;
+        }
+        int intervals = 0;
+        for (int i = 0; i < size; ++i) {
+            Activated term = this.terms.get(i);
+            double minimum = term.supportMinimum();
+            double maximum = term.supportMaximum();
+            if (minimum > maximum) {
+                continue; //empty support
+            }
+            supportMinima[intervals] = Double.isNaN(minimum) ? Double.NEGATIVE_INFINITY : minimum;
+            supportMaxima[intervals] = Double.isNaN(maximum) ? Double.POSITIVE_INFINITY : maximum;
+            ++intervals;
+        }
+        Arrays.sort(supportMinima, 0, intervals);
+        Arrays.sort(supportMaxima, 0, intervals);
+        //sweeps the sorted bounds counting the number of overlapping supports
+        int result = 0;
+        int overlaps = 0;
+        int j = 0;
+        for (int i = 0; i < intervals; ++i) {
+            while (supportMaxima[j] < supportMinima[i]) {
+                if (--overlaps == 0) {
+                    supportBounds[2 * result + 1] = supportMaxima[j];
+                    ++result;
+                }
+                ++j;
+            }
+            if (overlaps++ == 0) {
+                supportBounds[2 * result] = supportMinima[i];
+            }
+        }
+        if (intervals > 0) {
+            supportBounds[2 * result + 1] = supportMaxima[intervals - 1];
+            ++result;
+        }
+        return result;
+    }
+
+    /**
+     Gets the bounds of the disjoint intervals computed by the last call to
+     Aggregated::unionOfSupports()
+
+     @return the bounds of the disjoint intervals, where the `k`-th interval is
+     `[bounds[2k], bounds[2k+1]]`
+     */
+    public double[] getSupportBounds() {
+        return supportBounds;
+    }
+
     /**
      Computes the aggregated activation degree for the given term. If the same
      term is present multiple times, the aggregation operator is utilized to sum
@@ -125,7 +255,8 @@ public class Aggregated extends Term {
      */
     public double activationDegree(Term forTerm) {
         double result = 0.0;
-        for (Activated activatedTerm : this.terms) {
+        for (int i = 0; i < terms.size(); ++i) {
+            Activated activatedTerm = terms.get(i);
             if (activatedTerm.getTerm() == forTerm) {
                 if (this.aggregation != null) {
                     result = this.aggregation.compute(result, activatedTerm.getDegree());
@@ -164,10 +295,69 @@ public class Aggregated extends Term {
     }
 
     /**
-     Clears the list of activated terms
+     Clears the list of activated terms, whereby the activated terms created by
+     Aggregated::activate() are available to be reused
      */
     public void clear() {
         this.terms.clear();
+        this.pooled = 0;
+    }
+
+    /**
+     Adds an activated term to the list of activated terms, reusing an activated
+     term previously created by this method if any is available since the last
+     call to Aggregated::clear(), or creating a new one otherwise. Hence, the
+     activated terms must not be referenced after clearing the fuzzy set.
+
+     @param term is the term to activate
+     @param degree is the activation degree of the term
+     @param implication is the implication operator
+     @param context is the evaluation context of the term, or `null` if the
+     term is evaluated on the values of the engine
+     @return the activated term added to the list of activated terms
+     */
+    public Activated activate(Term term, double degree, TNorm implication,
+            EvaluationContext context) {
+        Activated result;
+        if (pooled < pool.size()) {
+            result = pool.get(pooled);
+            result.setTerm(term);
+            result.setDegree(degree);
+            result.setImplication(implication);
+            result.setContext(context);
+        } else {
+            result = new Activated(term, degree, implication, context);
+            pool.add(result);
+        }
+        ++pooled;
+        this.terms.add(result);
+        return result;
+    }
+
+    /**
+     Ensures that the given number of activated terms can be added utilizing
+     Aggregated::activate() without allocating memory
+
+     @param capacity is the number of activated terms
+     */
+    public void reserve(int capacity) {
+        while (pool.size() < capacity) {
+            pool.add(new Activated());
+        }
+        if (this.terms instanceof ArrayList) {
+            ((ArrayList<Activated>) this.terms).ensureCapacity(capacity);
+        }
+    }
+
+    /**
+     Gets the number of activated terms that can be added utilizing
+     Aggregated::activate() without allocating memory
+
+     @return the number of activated terms that can be added without
+     allocating memory
+     */
+    public int capacity() {
+        return pool.size();
     }
 
     /**
@@ -203,6 +393,7 @@ public class Aggregated extends Term {
      @param minimum is the minimum of the range of the fuzzy set
      */
     public void setMinimum(double minimum) {
+        FuzzyLite.modified();
         this.minimum = minimum;
     }
 
@@ -221,6 +412,7 @@ public class Aggregated extends Term {
      @param maximum is the maximum of the range of the fuzzy set
      */
     public void setMaximum(double maximum) {
+        FuzzyLite.modified();
         this.maximum = maximum;
     }
 
@@ -231,6 +423,7 @@ public class Aggregated extends Term {
      @param maximum is the maximum of the range of the fuzzy set
      */
     public void setRange(double minimum, double maximum) {
+        FuzzyLite.modified();
         setMinimum(minimum);
         setMaximum(maximum);
     }
@@ -260,6 +453,7 @@ public class Aggregated extends Term {
      @param aggregation is the aggregation operator
      */
     public void setAggregation(SNorm aggregation) {
+        FuzzyLite.modified();
         this.aggregation = aggregation;
     }
 
@@ -269,6 +463,11 @@ public class Aggregated extends Term {
         if (this.aggregation != null) {
             result.aggregation = this.aggregation.clone();
         }
+        result.pool = new ArrayList<Activated>();
+        result.pooled = 0;
+        result.supportBounds = new double[0];
+        result.supportMinima = new double[0];
+        result.supportMaxima = new double[0];
         result.terms = new ArrayList<Activated>(this.terms.size());
         for (Activated term : this.terms) {
             result.terms.add(term.clone());
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -111,6 +112,40 @@ public class Bell extends Term {
         return height * 1.0 / (1.0 + Math.pow(Math.abs((x - center) / width), 2.0 * slope));
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `c - |w| (1 / \epsilon - 1)^{1 / 2b}`
+     */
+    @Override
+    public double supportMinimum() {
+        return center - spread();
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `c + |w| (1 / \epsilon - 1)^{1 / 2b}`
+     */
+    @Override
+    public double supportMaximum() {
+        return center + spread();
+    }
+
+    /**
+     Computes the distance from the center beyond which the membership function
+     value is smaller than Term::getSupportEpsilon() times the height
+
+     @return `|w| (1 / \epsilon - 1)^{1 / 2b}`, or `+\infty` if the support is
+     not cut or the slope is not positive
+     */
+    private double spread() {
+        if (!isSupportCut() || !(slope > 0.0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(width) * Math.pow(1.0 / getSupportEpsilon() - 1.0, 1.0 / (2.0 * slope));
+    }
+
     /**
      Gets the center of the bell curve
 
@@ -126,6 +161,7 @@ public class Bell extends Term {
      @param center is the center of the bell curve
      */
     public void setCenter(double center) {
+        FuzzyLite.modified();
         this.center = center;
     }
 
@@ -144,6 +180,7 @@ public class Bell extends Term {
      @param width is the width of the bell curve
      */
     public void setWidth(double width) {
+        FuzzyLite.modified();
         this.width = width;
     }
 
@@ -162,6 +199,7 @@ public class Bell extends Term {
      @param slope is the slope of the bell curve
      */
     public void setSlope(double slope) {
+        FuzzyLite.modified();
         this.slope = slope;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -135,6 +136,32 @@ public class Binary extends Term {
         return height * 0.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `s` if the direction is positive or `-\infty` if it is negative
+     */
+    @Override
+    public double supportMinimum() {
+        if (direction > start) {
+            return start;
+        }
+        return direction < start ? Double.NEGATIVE_INFINITY : start;
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `+\infty` if the direction is positive or `s` if it is negative
+     */
+    @Override
+    public double supportMaximum() {
+        if (direction < start) {
+            return start;
+        }
+        return direction > start ? Double.POSITIVE_INFINITY : start;
+    }
+
     /**
      Gets the start of the binary edge
 
@@ -150,6 +177,7 @@ public class Binary extends Term {
      @param start is the start of the binary edge
      */
     public void setStart(double start) {
+        FuzzyLite.modified();
         this.start = start;
     }
 
@@ -174,6 +202,7 @@ public class Binary extends Term {
      @param direction is the direction of the binary edge
      */
     public void setDirection(double direction) {
+        FuzzyLite.modified();
         this.direction = direction;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -119,6 +120,38 @@ public class Concave extends Term {
         return height * 1.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `2e - i - (e - i) / \epsilon` if the term is increasing, or
+     `-\infty` otherwise
+     */
+    @Override
+    public double supportMinimum() {
+        if (Op.isLE(inflection, end)) {
+            return isSupportCut()
+                    ? 2.0 * end - inflection - (end - inflection) / getSupportEpsilon()
+                    : Double.NEGATIVE_INFINITY;
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `2e - i + (i - e) / \epsilon` if the term is decreasing, or
+     `+\infty` otherwise
+     */
+    @Override
+    public double supportMaximum() {
+        if (Op.isLE(inflection, end)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return isSupportCut()
+                ? 2.0 * end - inflection + (inflection - end) / getSupportEpsilon()
+                : Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public double tsukamoto(double activationDegree, double minimum, double maximum) {
         double i = getInflection();
@@ -146,6 +179,7 @@ public class Concave extends Term {
      @param inflection is the inflection of the curve
      */
     public void setInflection(double inflection) {
+        FuzzyLite.modified();
         this.inflection = inflection;
     }
 
@@ -164,6 +198,7 @@ public class Concave extends Term {
      @param end is the end of the curve
      */
     public void setEnd(double end) {
+        FuzzyLite.modified();
         this.end = end;
     }
 
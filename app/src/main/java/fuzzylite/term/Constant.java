@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 /**
@@ -94,6 +95,7 @@ public class Constant extends Term {
      @param value is the constant value
      */
     public void setValue(double value) {
+        FuzzyLite.modified();
         this.value = value;
     }
 
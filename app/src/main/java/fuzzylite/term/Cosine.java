@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -114,6 +115,26 @@ public class Cosine extends Term {
         return height * (0.5 * (1.0 + Math.cos(2.0 / width * Math.PI * (x - center))));
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `c - |w| / 2`
+     */
+    @Override
+    public double supportMinimum() {
+        return center - 0.5 * Math.abs(width);
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `c + |w| / 2`
+     */
+    @Override
+    public double supportMaximum() {
+        return center + 0.5 * Math.abs(width);
+    }
+
     /**
      Gets the center of the cosine
 
@@ -129,6 +150,7 @@ public class Cosine extends Term {
      @param center is the center of the cosine
      */
     public void setCenter(double center) {
+        FuzzyLite.modified();
         this.center = center;
     }
 
@@ -147,6 +169,7 @@ public class Cosine extends Term {
      @param width is the width of the cosine
      */
     public void setWidth(double width) {
+        FuzzyLite.modified();
         this.width = width;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.term.Discrete.Pair;
 import fuzzylite.Op;
 import fuzzylite.defuzzifier.IntegralDefuzzifier;
@@ -70,6 +71,7 @@ public class Discrete extends Term implements List<Pair> {
          @param x is the x value
          */
         public void setX(double x) {
+            FuzzyLite.modified();
             this.x = x;
         }
 
@@ -88,6 +90,7 @@ public class Discrete extends Term implements List<Pair> {
          @param y is the y value
          */
         public void setY(double y) {
+            FuzzyLite.modified();
             this.y = y;
         }
 
@@ -273,6 +276,7 @@ public class Discrete extends Term implements List<Pair> {
      `x`-coordinate
      */
     public void sort() {
+        FuzzyLite.modified();
         Collections.sort(this, ASCENDANTLY);
     }
 
@@ -341,6 +345,45 @@ public class Discrete extends Term implements List<Pair> {
                 xy.get(lower).getY(), xy.get(upper).getY());
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return the `x` coordinate of the pair preceding the first pair whose `y`
+     is not zero, or `-\infty` if such a pair is the first one
+     */
+    @Override
+    public double supportMinimum() {
+        if (xy.isEmpty()) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < xy.size(); ++i) {
+            if (xy.get(i).getY() != 0.0) {
+                return i == 0 ? Double.NEGATIVE_INFINITY : xy.get(i - 1).getX();
+            }
+        }
+        return xy.get(0).getX();
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return the `x` coordinate of the pair following the last pair whose `y` is
+     not zero, or `+\infty` if such a pair is the last one
+     */
+    @Override
+    public double supportMaximum() {
+        if (xy.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final int last = xy.size() - 1;
+        for (int i = last; i >= 0; --i) {
+            if (xy.get(i).getY() != 0.0) {
+                return i == last ? Double.POSITIVE_INFINITY : xy.get(i + 1).getX();
+            }
+        }
+        return xy.get(0).getX();
+    }
+
     /**
      Gets the list of pairs defining the discrete membership function
 
@@ -356,6 +399,7 @@ public class Discrete extends Term implements List<Pair> {
      @param pairs is the list of pairs defining the discrete membership function
      */
     public void setXY(List<Pair> pairs) {
+        FuzzyLite.modified();
         this.xy = pairs;
     }
 
@@ -554,11 +598,13 @@ public class Discrete extends Term implements List<Pair> {
 
     @Override
     public boolean add(Pair e) {
+        FuzzyLite.modified();
         return this.xy.add(e);
     }
 
     @Override
     public boolean remove(Object o) {
+        FuzzyLite.modified();
         return this.xy.remove(o);
     }
 
@@ -569,26 +615,31 @@ public class Discrete extends Term implements List<Pair> {
 
     @Override
     public boolean addAll(Collection<? extends Pair> c) {
+        FuzzyLite.modified();
         return this.xy.addAll(c);
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends Pair> c) {
+        FuzzyLite.modified();
         return this.xy.addAll(index, c);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        FuzzyLite.modified();
         return this.xy.removeAll(c);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        FuzzyLite.modified();
         return this.xy.removeAll(c);
     }
 
     @Override
     public void clear() {
+        FuzzyLite.modified();
         this.xy.clear();
     }
 
@@ -599,16 +650,19 @@ public class Discrete extends Term implements List<Pair> {
 
     @Override
     public Pair set(int index, Pair element) {
+        FuzzyLite.modified();
         return this.xy.set(index, element);
     }
 
     @Override
     public void add(int index, Pair element) {
+        FuzzyLite.modified();
         this.xy.add(index, element);
     }
 
     @Override
     public Pair remove(int index) {
+        FuzzyLite.modified();
         return this.xy.remove(index);
     }
 
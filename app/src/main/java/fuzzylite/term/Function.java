@@ -17,6 +17,7 @@
 package fuzzylite.term;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
 import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.factory.FactoryManager;
@@ -36,10 +37,10 @@ import java.util.*;
  the given formula whenever the function
 
  `f` is evaluated. Specifically, when the method Function::membership() is
- called, the name and value of the variable
- `x` are automatically loaded into the map. Furthermore, if an Engine is
+ called, the value of the variable
+ `x` is automatically utilized. Furthermore, if an Engine is
  given, the names of its InputVariable%s and OutputVariable%s will also be
- automatically loaded into the map linking to their respective input values and
+ automatically linked to their respective input values and
  (previously defuzzified) output values. The Function::variables need to be
  manually loaded whenever variables other than `x`, input variables, and
  output variables, are expressed in the given formula, always having in mind
@@ -47,6 +48,12 @@ import java.util.*;
  input variables and output variables of an engine will automatically be
  replaced and will also take precedence over previously loaded variables.
 
+ When the formula is loaded, the tree of Node%s is compiled into a tree of
+ expressions in which the built-in operators and functions are evaluated
+ without reflection and the variables are bound to the variables of the
+ engine, so that evaluating the function neither boxes values nor writes to
+ the map of Function::variables.
+
  Besides the use of Function as a linguistic Term, it is also utilized to
  convert the text of the Antecedent of a Rule, expressed in infix notation, into
  postfix notation.
@@ -364,9 +371,6 @@ public class Function extends Term {
             } else {
                 result = value;
             }
-            if (FuzzyLite.isDebugging()) {
-                FuzzyLite.logger().fine(String.format("%s = %s", toPostfix(), Op.str(result)));
-            }
             return result;
         }
 
@@ -501,6 +505,464 @@ public class Function extends Term {
 
     }
 
+    /*
+     * Modes of evaluation of the compiled expressions
+     */
+    private static final int MODE_ENGINE = 0;
+    private static final int MODE_CONTEXT = 1;
+    private static final int MODE_MAP = 2;
+    private static final int MODE_ARGUMENTS = 3;
+
+    /*
+     * Elements evaluated without reflection
+     */
+    private static final int ELEMENT_INVOKE = 0;
+    private static final int ELEMENT_NOT = 1;
+    private static final int ELEMENT_NEGATE = 2;
+    private static final int ELEMENT_ACOS = 3;
+    private static final int ELEMENT_ASIN = 4;
+    private static final int ELEMENT_ATAN = 5;
+    private static final int ELEMENT_CEIL = 6;
+    private static final int ELEMENT_COS = 7;
+    private static final int ELEMENT_COSH = 8;
+    private static final int ELEMENT_EXP = 9;
+    private static final int ELEMENT_ABS = 10;
+    private static final int ELEMENT_FLOOR = 11;
+    private static final int ELEMENT_LOG = 12;
+    private static final int ELEMENT_LOG10 = 13;
+    private static final int ELEMENT_SIN = 14;
+    private static final int ELEMENT_SINH = 15;
+    private static final int ELEMENT_SQRT = 16;
+    private static final int ELEMENT_TAN = 17;
+    private static final int ELEMENT_TANH = 18;
+    private static final int ELEMENT_LOG1P = 19;
+    private static final int ELEMENT_ADD = 20;
+    private static final int ELEMENT_SUBTRACT = 21;
+    private static final int ELEMENT_MULTIPLY = 22;
+    private static final int ELEMENT_DIVIDE = 23;
+    private static final int ELEMENT_MODULO = 24;
+    private static final int ELEMENT_POW = 25;
+    private static final int ELEMENT_ATAN2 = 26;
+    private static final int ELEMENT_AND = 27;
+    private static final int ELEMENT_OR = 28;
+    private static final int ELEMENT_EQ = 29;
+    private static final int ELEMENT_NEQ = 30;
+    private static final int ELEMENT_LT = 31;
+    private static final int ELEMENT_LE = 32;
+    private static final int ELEMENT_GT = 33;
+    private static final int ELEMENT_GE = 34;
+
+    /**
+     The Expression class is a node of the expression tree of a Function
+     compiled from its tree of Node%s when the formula is loaded. The elements
+     of the built-in operators and functions are evaluated by direct calls to Op
+     and Math rather than via reflection, the values are not boxed, constant
+     subexpressions are folded, and the variables are bound to the variables of
+     the engine. Elements registered by the user in the FunctionFactory are
+     still evaluated via reflection.
+     */
+    abstract static class Expression {
+
+        /**
+         Evaluates the expression
+
+         @param mode is the mode of evaluation, which determines the source of
+         the values of the variables
+         @param x is the value of the variable `x`, or of the variable `a` in
+         Function::evaluate(double, double)
+         @param y is the value of the variable `b` in
+         Function::evaluate(double, double)
+         @param context is the evaluation context, or `null`
+         @param variables is the map of variables
+         @return the value of the expression
+         */
+        abstract double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables);
+
+        boolean isConstant() {
+            return false;
+        }
+    }
+
+    static final class ConstantExpression extends Expression {
+
+        private final double value;
+
+        ConstantExpression(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables) {
+            return value;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    static final class VariableExpression extends Expression {
+
+        private final String name;
+        private final boolean isX;
+        private final boolean isA;
+        private final boolean isB;
+        private InputVariable inputVariable;
+        private OutputVariable outputVariable;
+        private int index;
+
+        VariableExpression(String name) {
+            this.name = name;
+            this.isX = "x".equals(name);
+            this.isA = "a".equals(name);
+            this.isB = "b".equals(name);
+        }
+
+        /**
+         Binds the variable to the last output variable, or else to the last
+         input variable, of the engine with the same name, as the values of the
+         output variables replace those of the input variables with the same
+         name in the map of variables
+
+         @param engine is the engine, or `null` to unbind the variable
+         */
+        void bind(Engine engine) {
+            inputVariable = null;
+            outputVariable = null;
+            index = -1;
+            if (engine == null) {
+                return;
+            }
+            for (int i = engine.numberOfOutputVariables() - 1; i >= 0; --i) {
+                if (name.equals(engine.getOutputVariable(i).getName())) {
+                    outputVariable = engine.getOutputVariable(i);
+                    index = i;
+                    return;
+                }
+            }
+            for (int i = engine.numberOfInputVariables() - 1; i >= 0; --i) {
+                if (name.equals(engine.getInputVariable(i).getName())) {
+                    inputVariable = engine.getInputVariable(i);
+                    index = i;
+                    return;
+                }
+            }
+        }
+
+        boolean isBound(Engine engine) {
+            if (outputVariable != null) {
+                return index < engine.numberOfOutputVariables()
+                        && engine.getOutputVariable(index) == outputVariable
+                        && name.equals(outputVariable.getName());
+            }
+            if (inputVariable != null) {
+                return index < engine.numberOfInputVariables()
+                        && engine.getInputVariable(index) == inputVariable
+                        && name.equals(inputVariable.getName());
+            }
+            return true;
+        }
+
+        @Override
+        double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables) {
+            switch (mode) {
+                case MODE_MAP:
+                    return lookup(variables);
+                case MODE_ARGUMENTS:
+                    if (isA) {
+                        return x;
+                    }
+                    if (isB) {
+                        return y;
+                    }
+                    return lookup(variables);
+                default:
+                    if (isX) {
+                        return x;
+                    }
+                    if (outputVariable != null) {
+                        return mode == MODE_CONTEXT
+                                ? context.getOutputValue(index) : outputVariable.getValue();
+                    }
+                    if (inputVariable != null) {
+                        return mode == MODE_CONTEXT
+                                ? context.getInputValue(index) : inputVariable.getValue();
+                    }
+                    return lookup(variables);
+            }
+        }
+
+        private double lookup(Map<String, Double> variables) {
+            if (variables == null) {
+                throw new RuntimeException("[function error] expected a map of "
+                        + "variables, but none was provided");
+            }
+            Double value = variables.get(name);
+            if (value == null) {
+                throw new RuntimeException("[function error] variable "
+                        + "<" + name + "> not registered in map");
+            }
+            return value;
+        }
+    }
+
+    static final class UnaryExpression extends Expression {
+
+        private final int code;
+        private final Element element;
+        private final Expression operand;
+
+        UnaryExpression(int code, Element element, Expression operand) {
+            this.code = code;
+            this.element = element;
+            this.operand = operand;
+        }
+
+        @Override
+        double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables) {
+            final double a = operand.evaluate(mode, x, y, context, variables);
+            switch (code) {
+                case ELEMENT_NOT:
+                    return Op.logicalNot(a);
+                case ELEMENT_NEGATE:
+                    return Op.negate(a);
+                case ELEMENT_ACOS:
+                    return Math.acos(a);
+                case ELEMENT_ASIN:
+                    return Math.asin(a);
+                case ELEMENT_ATAN:
+                    return Math.atan(a);
+                case ELEMENT_CEIL:
+                    return Math.ceil(a);
+                case ELEMENT_COS:
+                    return Math.cos(a);
+                case ELEMENT_COSH:
+                    return Math.cosh(a);
+                case ELEMENT_EXP:
+                    return Math.exp(a);
+                case ELEMENT_ABS:
+                    return Math.abs(a);
+                case ELEMENT_FLOOR:
+                    return Math.floor(a);
+                case ELEMENT_LOG:
+                    return Math.log(a);
+                case ELEMENT_LOG10:
+                    return Math.log10(a);
+                case ELEMENT_SIN:
+                    return Math.sin(a);
+                case ELEMENT_SINH:
+                    return Math.sinh(a);
+                case ELEMENT_SQRT:
+                    return Math.sqrt(a);
+                case ELEMENT_TAN:
+                    return Math.tan(a);
+                case ELEMENT_TANH:
+                    return Math.tanh(a);
+                case ELEMENT_LOG1P:
+                    return Math.log1p(a);
+                default:
+                    return invoke(element, a);
+            }
+        }
+
+        @Override
+        boolean isConstant() {
+            return code != ELEMENT_INVOKE && operand.isConstant();
+        }
+    }
+
+    static final class BinaryExpression extends Expression {
+
+        private final int code;
+        private final Element element;
+        private final Expression first;
+        private final Expression second;
+
+        BinaryExpression(int code, Element element, Expression first, Expression second) {
+            this.code = code;
+            this.element = element;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables) {
+            final double a = first.evaluate(mode, x, y, context, variables);
+            final double b = second.evaluate(mode, x, y, context, variables);
+            switch (code) {
+                case ELEMENT_ADD:
+                    return Op.add(a, b);
+                case ELEMENT_SUBTRACT:
+                    return Op.subtract(a, b);
+                case ELEMENT_MULTIPLY:
+                    return Op.multiply(a, b);
+                case ELEMENT_DIVIDE:
+                    return Op.divide(a, b);
+                case ELEMENT_MODULO:
+                    return Op.modulo(a, b);
+                case ELEMENT_POW:
+                    return Math.pow(a, b);
+                case ELEMENT_ATAN2:
+                    return Math.atan2(a, b);
+                case ELEMENT_AND:
+                    return Op.logicalAnd(a, b);
+                case ELEMENT_OR:
+                    return Op.logicalOr(a, b);
+                case ELEMENT_EQ:
+                    return Op.eq(a, b);
+                case ELEMENT_NEQ:
+                    return Op.neq(a, b);
+                case ELEMENT_LT:
+                    return Op.lt(a, b);
+                case ELEMENT_LE:
+                    return Op.le(a, b);
+                case ELEMENT_GT:
+                    return Op.gt(a, b);
+                case ELEMENT_GE:
+                    return Op.ge(a, b);
+                default:
+                    return invoke(element, a, b);
+            }
+        }
+
+        @Override
+        boolean isConstant() {
+            return code != ELEMENT_INVOKE && first.isConstant() && second.isConstant();
+        }
+    }
+
+    static final class NullaryExpression extends Expression {
+
+        private final Element element;
+
+        NullaryExpression(Element element) {
+            this.element = element;
+        }
+
+        @Override
+        double evaluate(int mode, double x, double y,
+                EvaluationContext context, Map<String, Double> variables) {
+            return invoke(element);
+        }
+    }
+
+    private static double invoke(Element element, Object... arguments) {
+        try {
+            return (Double) element.getMethod().invoke(null, arguments);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException("[function error] exception thrown "
+                    + "invoking element <" + element.getName() + ">\n\t"
+                    + ex.toString(), ex);
+        }
+    }
+
+    private static int elementCode(Method method) {
+        if (method == null) {
+            return ELEMENT_INVOKE;
+        }
+        final String name = method.getName();
+        final int arity = method.getParameterTypes().length;
+        if (method.getDeclaringClass() == Op.class) {
+            if (arity == 1) {
+                if ("logicalNot".equals(name)) {
+                    return ELEMENT_NOT;
+                }
+                if ("negate".equals(name)) {
+                    return ELEMENT_NEGATE;
+                }
+            } else if (arity == 2) {
+                String[] names = {"add", "subtract", "multiply", "divide", "modulo",
+                    "logicalAnd", "logicalOr", "eq", "neq", "lt", "le", "gt", "ge"};
+                int[] codes = {ELEMENT_ADD, ELEMENT_SUBTRACT, ELEMENT_MULTIPLY,
+                    ELEMENT_DIVIDE, ELEMENT_MODULO, ELEMENT_AND, ELEMENT_OR,
+                    ELEMENT_EQ, ELEMENT_NEQ, ELEMENT_LT, ELEMENT_LE, ELEMENT_GT, ELEMENT_GE};
+                for (int i = 0; i < names.length; ++i) {
+                    if (names[i].equals(name)) {
+                        return codes[i];
+                    }
+                }
+            }
+        } else if (method.getDeclaringClass() == Math.class
+                && method.getReturnType() == double.class) {
+            if (arity == 1 && method.getParameterTypes()[0] == double.class) {
+                String[] names = {"acos", "asin", "atan", "ceil", "cos", "cosh", "exp",
+                    "abs", "floor", "log", "log10", "sin", "sinh", "sqrt", "tan", "tanh",
+                    "log1p"};
+                int[] codes = {ELEMENT_ACOS, ELEMENT_ASIN, ELEMENT_ATAN, ELEMENT_CEIL,
+                    ELEMENT_COS, ELEMENT_COSH, ELEMENT_EXP, ELEMENT_ABS, ELEMENT_FLOOR,
+                    ELEMENT_LOG, ELEMENT_LOG10, ELEMENT_SIN, ELEMENT_SINH, ELEMENT_SQRT,
+                    ELEMENT_TAN, ELEMENT_TANH, ELEMENT_LOG1P};
+                for (int i = 0; i < names.length; ++i) {
+                    if (names[i].equals(name)) {
+                        return codes[i];
+                    }
+                }
+            } else if (arity == 2) {
+                if ("pow".equals(name)) {
+                    return ELEMENT_POW;
+                }
+                if ("atan2".equals(name)) {
+                    return ELEMENT_ATAN2;
+                }
+            }
+        }
+        return ELEMENT_INVOKE;
+    }
+
+    /**
+     Compiles the expression tree under the given node
+
+     @param node is the node to compile
+     @param variables is the list where the variables of the expression tree
+     are added
+     @return the compiled expression tree
+     */
+    private static Expression compile(Node node, List<VariableExpression> variables) {
+        Expression result;
+        if (node.element != null) {
+            final Element element = node.element;
+            final int code = elementCode(element.getMethod());
+            switch (element.getArity()) {
+                case 0:
+                    result = new NullaryExpression(element);
+                    break;
+                case 1:
+                    result = new UnaryExpression(code, element,
+                            compile(node.left, variables));
+                    break;
+                case 2:
+                    //the elements are invoked as f(right, left)
+                    result = new BinaryExpression(code, element,
+                            compile(node.right, variables), compile(node.left, variables));
+                    break;
+                default:
+                    throw new RuntimeException(String.format(
+                            "[function error] <%d>-ary element <%s> is not supported, "
+                            + "only unary and binary elements are",
+                            element.getArity(), element.toString()));
+            }
+            if (result.isConstant()) {
+                result = new ConstantExpression(result.evaluate(
+                        MODE_MAP, Double.NaN, Double.NaN, null, null));
+            }
+        } else if (node.variable != null && !node.variable.isEmpty()) {
+            VariableExpression variable = new VariableExpression(node.variable);
+            variables.add(variable);
+            result = variable;
+        } else {
+            result = new ConstantExpression(node.value);
+        }
+        return result;
+    }
+
     /**
      Function term
      */
@@ -508,6 +970,12 @@ public class Function extends Term {
     private String formula;
     private Engine engine;
     private Map<String, Double> variables;
+    private Expression expression;
+    private List<VariableExpression> expressionVariables;
+    private volatile boolean bound;
+    private Engine boundEngine;
+    private int boundInputVariables;
+    private int boundOutputVariables;
 
     public Function() {
         this("");
@@ -541,8 +1009,10 @@ public class Function extends Term {
     /**
      Computes the membership function value of `x` at the root node. If the
      engine has been set, the current values of the input variables and output
-     variables are added to the map of Function::variables. In addition, the
-     variable `x` will also be added to the map.
+     variables are utilized in place of their names in the formula, and so is
+     the value of `x`, whereas the values of any other variables are taken from
+     the map of Function::variables. The compiled expression tree is evaluated,
+     and hence the map is not modified.
 
      @param x
      @return the membership function value of `x` at the root node
@@ -553,16 +1023,63 @@ public class Function extends Term {
             throw new RuntimeException(String.format(
                     "[function error] function <%s> not loaded.", formula));
         }
+        return compiled().evaluate(MODE_ENGINE, x, Double.NaN, null, this.variables);
+    }
+
+    /**
+     Computes the membership function value of `x` at the root node utilizing
+     the values of the input variables and output variables stored in the
+     evaluation context, the value of `x`, and the values of any other
+     variables in the map of Function::variables, which is not modified.
+
+     @param x
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the variables in the engine
+     @return the membership function value of `x` at the root node
+     */
+    @Override
+    public double membership(double x, EvaluationContext context) {
+        if (context == null) {
+            return membership(x);
+        }
+        if (this.root == null) {
+            throw new RuntimeException(String.format(
+                    "[function error] function <%s> not loaded.", formula));
+        }
+        if (this.engine == null || this.engine == context.getEngine()) {
+            return compiled().evaluate(MODE_CONTEXT, x, Double.NaN, context, this.variables);
+        }
+        Map<String, Double> localVariables = new HashMap<String, Double>(this.variables);
         if (this.engine != null) {
-            for (InputVariable inputVariable : this.engine.getInputVariables()) {
-                this.variables.put(inputVariable.getName(), inputVariable.getValue());
+            Engine contextEngine = context.getEngine();
+            for (int i = 0; i < contextEngine.numberOfInputVariables(); ++i) {
+                localVariables.put(contextEngine.getInputVariable(i).getName(),
+                        context.getInputValue(i));
             }
-            for (OutputVariable outputVariable : this.engine.getOutputVariables()) {
-                this.variables.put(outputVariable.getName(), outputVariable.getValue());
+            for (int i = 0; i < contextEngine.numberOfOutputVariables(); ++i) {
+                localVariables.put(contextEngine.getOutputVariable(i).getName(),
+                        context.getOutputValue(i));
             }
         }
-        this.variables.put("x", x);
-        return evaluate(this.variables);
+        localVariables.put("x", x);
+        return evaluate(localVariables);
+    }
+
+    /**
+     Computes the membership function value of the activation degree utilizing
+     the values of the variables stored in the evaluation context, as the term
+     is not monotonic
+
+     @param activationDegree is the activation degree
+     @param minimum is not utilized
+     @param maximum is not utilized
+     @param context is the evaluation context
+     @return the membership function value of the activation degree
+     */
+    @Override
+    public double tsukamoto(double activationDegree, double minimum, double maximum,
+            EvaluationContext context) {
+        return membership(activationDegree, context);
     }
 
     /**
@@ -589,7 +1106,82 @@ public class Function extends Term {
             throw new RuntimeException("[function error] evaluation failed " +
                     "because function is not loaded");
         }
-        return this.root.evaluate(localVariables);
+        return compiled().evaluate(MODE_MAP, Double.NaN, Double.NaN, null, localVariables);
+    }
+
+    /**
+     Computes the function value of this term utilizing the given values of the
+     variables `a` and `b`, and the values of any other variables in the map of
+     Function::variables, which is not modified. This method is utilized by the
+     SNormFunction and TNormFunction.
+
+     @param a is the value of the variable `a`
+     @param b is the value of the variable `b`
+     @return the function value of this term
+     */
+    public double evaluate(double a, double b) {
+        if (this.root == null) {
+            throw new RuntimeException("[function error] evaluation failed " +
+                    "because function is not loaded");
+        }
+        return compiled().evaluate(MODE_ARGUMENTS, a, b, null, this.variables);
+    }
+
+    /**
+     Gets the compiled expression tree, compiling the tree of Node%s if needed,
+     and binding its variables to the variables of the engine if the engine or
+     its variables have changed
+
+     @return the compiled expression tree
+     */
+    private Expression compiled() {
+        if (this.expression == null) {
+            compile();
+        }
+        if (!isBound()) {
+            bind();
+        }
+        return this.expression;
+    }
+
+    private synchronized void compile() {
+        if (this.expression == null) {
+            List<VariableExpression> expressionVariables = new ArrayList<VariableExpression>();
+            Expression compiled = compile(this.root, expressionVariables);
+            this.bound = false;
+            this.expressionVariables = expressionVariables;
+            this.expression = compiled;
+        }
+    }
+
+    private boolean isBound() {
+        if (!this.bound || this.boundEngine != this.engine) {
+            return false;
+        }
+        if (this.engine == null) {
+            return true;
+        }
+        if (this.boundInputVariables != this.engine.numberOfInputVariables()
+                || this.boundOutputVariables != this.engine.numberOfOutputVariables()) {
+            return false;
+        }
+        for (int i = 0; i < this.expressionVariables.size(); ++i) {
+            if (!this.expressionVariables.get(i).isBound(this.engine)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void bind() {
+        final Engine bindingEngine = this.engine;
+        for (VariableExpression variable : this.expressionVariables) {
+            variable.bind(bindingEngine);
+        }
+        this.boundEngine = bindingEngine;
+        this.boundInputVariables = bindingEngine == null ? 0 : bindingEngine.numberOfInputVariables();
+        this.boundOutputVariables = bindingEngine == null ? 0 : bindingEngine.numberOfOutputVariables();
+        this.bound = true;
     }
 
     /**
@@ -621,6 +1213,10 @@ public class Function extends Term {
             result.root = this.root.clone();
         }
         result.variables = new HashMap<String, Double>(this.variables);
+        result.expression = null;
+        result.expressionVariables = null;
+        result.bound = false;
+        result.boundEngine = null;
         return result;
     }
 
@@ -647,7 +1243,9 @@ public class Function extends Term {
      Unloads the formula and resets the map of substitution variables.
      */
     public void unload() {
+        FuzzyLite.modified();
         this.root = null;
+        this.expression = null;
         this.variables.clear();
     }
 
@@ -680,9 +1278,14 @@ public class Function extends Term {
      @throws RuntimeException if the formula has syntax errors
      */
     public void load(String formula, Engine engine) {
+        FuzzyLite.modified();
         this.root = parse(formula);
+        this.expression = null;
         this.formula = formula;
         this.engine = engine;
+        if (this.root != null) {
+            compile();
+        }
     }
 
     /**
@@ -707,7 +1310,9 @@ public class Function extends Term {
         for (String operator : toSpace) {
             spacedFormula = spacedFormula.replace(operator, " " + operator + " ");
         }
-        FuzzyLite.logger().fine(spacedFormula);
+        if (FuzzyLite.isDebugging()) {
+            FuzzyLite.logger().fine(spacedFormula);
+        }
 
         //Tokenizer
         Deque<String> queue = new ArrayDeque<String>();
@@ -724,11 +1329,15 @@ public class Function extends Term {
                     && !",".equals(token);
 
             if (isOperand) {
-                FuzzyLite.logger().fine(token + " is operand");
+                if (FuzzyLite.isDebugging()) {
+                    FuzzyLite.logger().fine(token + " is operand");
+                }
                 queue.offer(token);
 
             } else if (element != null && element.isFunction()) {
-                FuzzyLite.logger().fine(token + " is function");
+                if (FuzzyLite.isDebugging()) {
+                    FuzzyLite.logger().fine(token + " is function");
+                }
                 stack.push(token);
 
             } else if (",".equals(token)) {
@@ -741,7 +1350,9 @@ public class Function extends Term {
                 }
 
             } else if (element != null && element.isOperator()) {
-                FuzzyLite.logger().fine(token + " is operator");
+                if (FuzzyLite.isDebugging()) {
+                    FuzzyLite.logger().fine(token + " is operator");
+                }
                 Element op1 = element;
                 for (; ; ) {
                     Element op2 = null;
@@ -888,6 +1499,7 @@ public class Function extends Term {
      @param formula is the formula of the function
      */
     public void setFormula(String formula) {
+        FuzzyLite.modified();
         this.formula = formula;
     }
 
@@ -906,6 +1518,7 @@ public class Function extends Term {
      @param engine is the engine to which the formula can refer
      */
     public void setEngine(Engine engine) {
+        FuzzyLite.modified();
         this.engine = engine;
     }
 
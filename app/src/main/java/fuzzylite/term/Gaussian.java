@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -109,6 +110,44 @@ public class Gaussian extends Term {
                 / (2.0 * standardDeviation * standardDeviation));
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\mu - |\sigma| \sqrt{-2 \ln \epsilon}`
+     */
+    @Override
+    public double supportMinimum() {
+        return mean - spread();
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\mu + |\sigma| \sqrt{-2 \ln \epsilon}`
+     */
+    @Override
+    public double supportMaximum() {
+        return mean + spread();
+    }
+
+    /**
+     Computes the distance from the mean beyond which the membership function
+     value is smaller than Term::getSupportEpsilon() times the height
+
+     @return `|\sigma| \sqrt{-2 \ln \epsilon}`, or `+\infty` if the support
+     is not cut
+     */
+    private double spread() {
+        return spread(standardDeviation);
+    }
+
+    static double spread(double standardDeviation) {
+        if (!isSupportCut()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(standardDeviation) * Math.sqrt(-2.0 * Math.log(getSupportEpsilon()));
+    }
+
     /**
      Gets the mean of the Gaussian curve
 
@@ -124,6 +163,7 @@ public class Gaussian extends Term {
      @param mean is the mean of the Gaussian curve
      */
     public void setMean(double mean) {
+        FuzzyLite.modified();
         this.mean = mean;
     }
 
@@ -142,6 +182,7 @@ public class Gaussian extends Term {
      @param standardDeviation is the standard deviation of the Gaussian curve
      */
     public void setStandardDeviation(double standardDeviation) {
+        FuzzyLite.modified();
         this.standardDeviation = standardDeviation;
     }
 
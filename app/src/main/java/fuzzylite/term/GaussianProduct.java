@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -134,6 +135,26 @@ public class GaussianProduct extends Term {
         return height * a * b;
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\mu_a - |\sigma_a| \sqrt{-2 \ln \epsilon}`
+     */
+    @Override
+    public double supportMinimum() {
+        return meanA - Gaussian.spread(standardDeviationA);
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\mu_b + |\sigma_b| \sqrt{-2 \ln \epsilon}`
+     */
+    @Override
+    public double supportMaximum() {
+        return meanB + Gaussian.spread(standardDeviationB);
+    }
+
     /**
      Gets the mean of the first %Gaussian curve
 
@@ -149,6 +170,7 @@ public class GaussianProduct extends Term {
      @param meanA is the mean of the first %Gaussian curve
      */
     public void setMeanA(double meanA) {
+        FuzzyLite.modified();
         this.meanA = meanA;
     }
 
@@ -168,6 +190,7 @@ public class GaussianProduct extends Term {
      curve
      */
     public void setStandardDeviationA(double standardDeviationA) {
+        FuzzyLite.modified();
         this.standardDeviationA = standardDeviationA;
     }
 
@@ -186,6 +209,7 @@ public class GaussianProduct extends Term {
      @param meanB is the mean of the second %Gaussian curve
      */
     public void setMeanB(double meanB) {
+        FuzzyLite.modified();
         this.meanB = meanB;
     }
 
@@ -205,6 +229,7 @@ public class GaussianProduct extends Term {
      curve
      */
     public void setStandardDeviationB(double standardDeviationB) {
+        FuzzyLite.modified();
         this.standardDeviationB = standardDeviationB;
     }
 
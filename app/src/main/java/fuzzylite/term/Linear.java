@@ -17,6 +17,8 @@
 package fuzzylite.term;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.variable.InputVariable;
 
@@ -139,6 +141,51 @@ public class Linear extends Term {
         return result;
     }
 
+    /**
+     Computes the linear function `f(x)=\sum_i c_iv_i +k`, where `v_i`
+     is the value of the input variable `i` stored in the evaluation context
+
+     @param x is not utilized
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the input variables in the Linear::getEngine()
+     @return `\sum_i c_ix_i +k`
+     */
+    @Override
+    public double membership(double x, EvaluationContext context) {
+        if (context == null) {
+            return membership(x);
+        }
+        double result = 0;
+        final int numberOfVariables = context.getEngine().numberOfInputVariables();
+        final int numberOfCoefficients = coefficients.size();
+        for (int i = 0; i < numberOfVariables; ++i) {
+            if (i < numberOfCoefficients) {
+                result += coefficients.get(i) * context.getInputValue(i);
+            }
+        }
+        if (numberOfCoefficients > numberOfVariables) {
+            result += coefficients.get(numberOfCoefficients - 1);
+        }
+        return result;
+    }
+
+    /**
+     Computes the membership function value of the activation degree utilizing
+     the values of the variables stored in the evaluation context, as the term
+     is not monotonic
+
+     @param activationDegree is the activation degree
+     @param minimum is not utilized
+     @param maximum is not utilized
+     @param context is the evaluation context
+     @return the membership function value of the activation degree
+     */
+    @Override
+    public double tsukamoto(double activationDegree, double minimum, double maximum,
+            EvaluationContext context) {
+        return membership(activationDegree, context);
+    }
+
     /**
      Gets the list of coefficients `\mathbf{c}^\star`
 
@@ -154,6 +201,7 @@ public class Linear extends Term {
      @param coefficients is the list `\mathbf{c}^\star`
      */
     public void setCoefficients(List<Double> coefficients) {
+        FuzzyLite.modified();
         this.coefficients = coefficients;
     }
 
@@ -175,6 +223,7 @@ public class Linear extends Term {
      obtained
      */
     public void setEngine(Engine engine) {
+        FuzzyLite.modified();
         this.engine = engine;
     }
 
@@ -187,6 +236,7 @@ public class Linear extends Term {
      when necessary
      */
     public void set(List<Double> coefficients, Engine engine) {
+        FuzzyLite.modified();
         setCoefficients(coefficients);
         setEngine(engine);
     }
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -142,6 +143,26 @@ public class PiShape extends Term {
         return height * sshape * zshape;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `b_l`
+     */
+    @Override
+    public double supportMinimum() {
+        return bottomLeft;
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `b_r`
+     */
+    @Override
+    public double supportMaximum() {
+        return bottomRight;
+    }
+
     /**
      Gets the bottom-left value of the curve
 
@@ -157,6 +178,7 @@ public class PiShape extends Term {
      @param bottomLeft is the bottom-left value of the curve
      */
     public void setBottomLeft(double bottomLeft) {
+        FuzzyLite.modified();
         this.bottomLeft = bottomLeft;
     }
 
@@ -175,6 +197,7 @@ public class PiShape extends Term {
      @param topLeft is the top-left value of the curve
      */
     public void setTopLeft(double topLeft) {
+        FuzzyLite.modified();
         this.topLeft = topLeft;
     }
 
@@ -193,6 +216,7 @@ public class PiShape extends Term {
      @param topRight is the top-right value of the curve
      */
     public void setTopRight(double topRight) {
+        FuzzyLite.modified();
         this.topRight = topRight;
     }
 
@@ -211,6 +235,7 @@ public class PiShape extends Term {
      @param bottomRight is the bottom-right value of the curve
      */
     public void setBottomRight(double bottomRight) {
+        FuzzyLite.modified();
         this.bottomRight = bottomRight;
     }
 
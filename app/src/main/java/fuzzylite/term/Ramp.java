@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -158,6 +159,32 @@ public class Ramp extends Term {
         }
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `s` if the ramp is increasing or `-\infty` if it is decreasing
+     */
+    @Override
+    public double supportMinimum() {
+        if (Op.isEq(start, end)) {
+            return start;
+        }
+        return Op.isLt(start, end) ? start : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `+\infty` if the ramp is increasing or `s` if it is decreasing
+     */
+    @Override
+    public double supportMaximum() {
+        if (Op.isEq(start, end)) {
+            return start;
+        }
+        return Op.isLt(start, end) ? Double.POSITIVE_INFINITY : start;
+    }
+
     @Override
     public double tsukamoto(double activationDegree, double minimum, double maximum) {
         return Op.scale(activationDegree, 0, 1, start, end);
@@ -183,6 +210,7 @@ public class Ramp extends Term {
      @param start is the start of the ramp
      */
     public void setStart(double start) {
+        FuzzyLite.modified();
         this.start = start;
     }
 
@@ -201,6 +229,7 @@ public class Ramp extends Term {
      @param end is the end of the ramp
      */
     public void setEnd(double end) {
+        FuzzyLite.modified();
         this.end = end;
     }
 
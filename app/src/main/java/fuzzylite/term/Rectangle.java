@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -112,6 +113,26 @@ public class Rectangle extends Term {
         return height * 0.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `\min(s, e)`
+     */
+    @Override
+    public double supportMinimum() {
+        return Math.min(start, end);
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `\max(s, e)`
+     */
+    @Override
+    public double supportMaximum() {
+        return Math.max(start, end);
+    }
+
     /**
      Gets the start of the rectangle
 
@@ -127,6 +148,7 @@ public class Rectangle extends Term {
      @param start is the start of the rectangle
      */
     public void setStart(double start) {
+        FuzzyLite.modified();
         this.start = start;
     }
 
@@ -145,6 +167,7 @@ public class Rectangle extends Term {
      @param end is the end of the rectangle
      */
     public void setEnd(double end) {
+        FuzzyLite.modified();
         this.end = end;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -118,6 +119,26 @@ public class SShape extends Term {
         return height * 1.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `s`
+     */
+    @Override
+    public double supportMinimum() {
+        return start;
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `+\infty`
+     */
+    @Override
+    public double supportMaximum() {
+        return Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public double tsukamoto(double activationDegree, double minimum, double maximum) {
         double w = activationDegree;
@@ -154,6 +175,7 @@ public class SShape extends Term {
      @param start is the start of the edge
      */
     public void setStart(double start) {
+        FuzzyLite.modified();
         this.start = start;
     }
 
@@ -172,6 +194,7 @@ public class SShape extends Term {
      @param end is the end of the edge
      */
     public void setEnd(double end) {
+        FuzzyLite.modified();
         this.end = end;
     }
 
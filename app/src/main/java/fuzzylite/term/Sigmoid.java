@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -125,6 +126,52 @@ public class Sigmoid extends Term {
         return height * 1.0 / (1.0 + Math.exp(-slope * (x - inflection)));
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `i - \ln(1 / \epsilon - 1) / s` if the slope is positive, or
+     `-\infty` otherwise
+     */
+    @Override
+    public double supportMinimum() {
+        return supportMinimum(inflection, slope);
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `i + \ln(1 / \epsilon - 1) / |s|` if the slope is negative, or
+     `+\infty` otherwise
+     */
+    @Override
+    public double supportMaximum() {
+        return supportMaximum(inflection, slope);
+    }
+
+    /**
+     Computes the distance from the inflection beyond which the membership
+     function value of a sigmoid with the given slope is smaller than
+     Term::getSupportEpsilon() or greater than `1 - \epsilon` times the height
+
+     @param slope is the slope of the sigmoid
+     @return `\ln(1 / \epsilon - 1) / |s|`, or `+\infty` if the support is not
+     cut or the slope is zero
+     */
+    static double spread(double slope) {
+        if (!isSupportCut() || !(slope != 0.0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.log(1.0 / getSupportEpsilon() - 1.0) / Math.abs(slope);
+    }
+
+    static double supportMinimum(double inflection, double slope) {
+        return slope > 0.0 ? inflection - spread(slope) : Double.NEGATIVE_INFINITY;
+    }
+
+    static double supportMaximum(double inflection, double slope) {
+        return slope < 0.0 ? inflection + spread(slope) : Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public double tsukamoto(double activationDegree, double minimum, double maximum) {
         double w = activationDegree;
@@ -172,6 +219,7 @@ public class Sigmoid extends Term {
      @param inflection is the inflection of the sigmoid
      */
     public void setInflection(double inflection) {
+        FuzzyLite.modified();
         this.inflection = inflection;
     }
 
@@ -190,6 +238,7 @@ public class Sigmoid extends Term {
      @param slope is the slope of the sigmoid
      */
     public void setSlope(double slope) {
+        FuzzyLite.modified();
         this.slope = slope;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -122,6 +123,45 @@ public class SigmoidDifference extends Term {
         return height * Math.abs(a - b);
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\min(l - \ln(1 / \epsilon - 1) / |r|, r - \ln(1 / \epsilon - 1) /
+     |f|)` if the slopes have the same sign, or `-\infty` otherwise
+     */
+    @Override
+    public double supportMinimum() {
+        if (!isSupportBounded()) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Math.min(left - Sigmoid.spread(rising), right - Sigmoid.spread(falling));
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `\max(l + \ln(1 / \epsilon - 1) / |r|, r + \ln(1 / \epsilon - 1) /
+     |f|)` if the slopes have the same sign, or `+\infty` otherwise
+     */
+    @Override
+    public double supportMaximum() {
+        if (!isSupportBounded()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(left + Sigmoid.spread(rising), right + Sigmoid.spread(falling));
+    }
+
+    /**
+     Indicates whether the support of the term is bounded, which is the case
+     when both sigmoids have non-zero slopes of the same sign, given that the
+     difference of the sigmoids approaches zero on both tails
+
+     @return whether the support of the term is bounded
+     */
+    private boolean isSupportBounded() {
+        return (rising > 0.0 && falling > 0.0) || (rising < 0.0 && falling < 0.0);
+    }
+
     /**
      Gets the inflection of the left sigmoidal curve
 
@@ -137,6 +177,7 @@ public class SigmoidDifference extends Term {
      @param leftInflection is the inflection of the left sigmoidal curve
      */
     public void setLeft(double leftInflection) {
+        FuzzyLite.modified();
         this.left = leftInflection;
     }
 
@@ -155,6 +196,7 @@ public class SigmoidDifference extends Term {
      @param risingSlope is the slope of the left sigmoidal curve
      */
     public void setRising(double risingSlope) {
+        FuzzyLite.modified();
         this.rising = risingSlope;
     }
 
@@ -173,6 +215,7 @@ public class SigmoidDifference extends Term {
      @param fallingSlope is the slope of the right sigmoidal curve
      */
     public void setFalling(double fallingSlope) {
+        FuzzyLite.modified();
         this.falling = fallingSlope;
     }
 
@@ -191,6 +234,7 @@ public class SigmoidDifference extends Term {
      @param rightInflection is the inflection of the right sigmoidal curve
      */
     public void setRight(double rightInflection) {
+        FuzzyLite.modified();
         this.right = rightInflection;
     }
 
@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -121,6 +122,28 @@ public class SigmoidProduct extends Term {
         return height * 1.0 / (a * b);
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return the maximum of the minima of the supports of the rising and falling
+     sigmoids
+     */
+    @Override
+    public double supportMinimum() {
+        return Math.max(Sigmoid.supportMinimum(left, rising), Sigmoid.supportMinimum(right, falling));
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return the minimum of the maxima of the supports of the rising and falling
+     sigmoids
+     */
+    @Override
+    public double supportMaximum() {
+        return Math.min(Sigmoid.supportMaximum(left, rising), Sigmoid.supportMaximum(right, falling));
+    }
+
     /**
      Gets the inflection of the left sigmoidal curve
 
@@ -136,6 +159,7 @@ public class SigmoidProduct extends Term {
      @param leftInflection is the inflection of the left sigmoidal curve
      */
     public void setLeft(double leftInflection) {
+        FuzzyLite.modified();
         this.left = leftInflection;
     }
 
@@ -149,6 +173,7 @@ public class SigmoidProduct extends Term {
      @param risingSlope is the slope of the left sigmoidal curve
      */
     public void setRising(double risingSlope) {
+        FuzzyLite.modified();
         this.rising = risingSlope;
     }
 
@@ -167,6 +192,7 @@ public class SigmoidProduct extends Term {
      @param fallingSlope is the slope of the right sigmoidal curve
      */
     public void setFalling(double fallingSlope) {
+        FuzzyLite.modified();
         this.falling = fallingSlope;
     }
 
@@ -185,6 +211,7 @@ public class SigmoidProduct extends Term {
      @param rightInflection is the inflection of the right sigmoidal curve
      */
     public void setRight(double rightInflection) {
+        FuzzyLite.modified();
         this.right = rightInflection;
     }
 
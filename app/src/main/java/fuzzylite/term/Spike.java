@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -108,6 +109,40 @@ public class Spike extends Term {
         return height * Math.exp(-Math.abs(10.0 / width * (x - center)));
     }
 
+    /**
+     Gets the minimum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `c - |w| \ln(1 / \epsilon) / 10`
+     */
+    @Override
+    public double supportMinimum() {
+        return center - spread();
+    }
+
+    /**
+     Gets the maximum of the support of the term (cut at Term::getSupportEpsilon())
+
+     @return `c + |w| \ln(1 / \epsilon) / 10`
+     */
+    @Override
+    public double supportMaximum() {
+        return center + spread();
+    }
+
+    /**
+     Computes the distance from the center beyond which the membership function
+     value is smaller than Term::getSupportEpsilon() times the height
+
+     @return `|w| \ln(1 / \epsilon) / 10`, or `+\infty` if the support is not
+     cut
+     */
+    private double spread() {
+        if (!isSupportCut()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(width) / 10.0 * Math.log(1.0 / getSupportEpsilon());
+    }
+
     /**
      Gets the center of the spike
 
@@ -123,6 +158,7 @@ public class Spike extends Term {
      @param center is the center of the spike
      */
     public void setCenter(double center) {
+        FuzzyLite.modified();
         this.center = center;
     }
 
@@ -141,6 +177,7 @@ public class Spike extends Term {
      @param width is the width of the spike
      */
     public void setWidth(double width) {
+        FuzzyLite.modified();
         this.width = width;
     }
 
@@ -17,6 +17,9 @@
 package fuzzylite.term;
 
 import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
+import fuzzylite.NameIndex;
 import fuzzylite.Op;
 import fuzzylite.imex.FllExporter;
 
@@ -44,8 +47,11 @@ import fuzzylite.imex.FllExporter;
  */
 public abstract class Term implements Op.Cloneable {
 
+    private static volatile double supportEpsilon = 1e-6;
+
     protected String name;
     protected double height;
+    private NameIndex.Registry nameIndexes;
 
     public Term() {
         this("");
@@ -58,6 +64,7 @@ public abstract class Term implements Op.Cloneable {
     public Term(String name, double height) {
         this.name = name;
         this.height = height;
+        this.nameIndexes = new NameIndex.Registry();
     }
 
     /**
@@ -75,9 +82,21 @@ public abstract class Term implements Op.Cloneable {
      @param name is the name of term
      */
     public void setName(String name) {
+        FuzzyLite.modified();
+        nameIndexes.renamed();
         this.name = name;
     }
 
+    /**
+     Gets the registry of the indexes by name that contain the term, which
+     are invalidated when the term is renamed
+
+     @return the registry of the indexes by name that contain the term
+     */
+    public NameIndex.Registry nameIndexes() {
+        return nameIndexes;
+    }
+
     /**
      Gets the height of the term
 
@@ -93,6 +112,7 @@ public abstract class Term implements Op.Cloneable {
      @param height is the height of the term
      */
     public void setHeight(double height) {
+        FuzzyLite.modified();
         this.height = height;
     }
 
@@ -137,6 +157,22 @@ public abstract class Term implements Op.Cloneable {
      */
     public abstract double membership(double x);
 
+    /**
+     Computes the membership function value at `x` utilizing the values of the
+     variables stored in the given evaluation context instead of the values of
+     the variables in the engine. Only the terms whose membership function
+     depends on the variables of the engine (e.g., Linear and Function) need to
+     override this method.
+
+     @param x is a value
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the variables in the engine
+     @return the membership function value `\mu(x)`
+     */
+    public double membership(double x, EvaluationContext context) {
+        return membership(x);
+    }
+
     /**
      Creates a clone of the term
 
@@ -145,7 +181,9 @@ public abstract class Term implements Op.Cloneable {
      */
     @Override
     public Term clone() throws CloneNotSupportedException {
-        return (Term) super.clone();
+        Term result = (Term) super.clone();
+        result.nameIndexes = new NameIndex.Registry();
+        return result;
     }
 
     /**
@@ -176,6 +214,101 @@ public abstract class Term implements Op.Cloneable {
         return membership(activationDegree);
     }
 
+    /**
+     Computes the tsukamoto value of the term for the given activation degree
+     utilizing the values of the variables stored in the given evaluation
+     context. Only the terms whose membership function depends on the variables
+     of the engine need to override this method.
+
+     @param activationDegree is the activationDegree
+     @param minimum is the minimum value of the range of the term
+     @param maximum is the maximum value of the range of the term
+     @param context is the evaluation context, which can be `null` to utilize
+     the values of the variables in the engine
+     @return the tsukamoto value of the term for the given activation degree
+     @see Term::tsukamoto(double, double, double)
+     */
+    public double tsukamoto(double activationDegree, double minimum, double maximum,
+            EvaluationContext context) {
+        return tsukamoto(activationDegree, minimum, maximum);
+    }
+
+    /**
+     Gets the epsilon utilized to cut the support of the terms whose membership
+     functions approach zero asymptotically (e.g., Gaussian, Bell, and Sigmoid),
+     that is, the normalized membership function value below which the term is
+     considered to be zero.
+
+     @return the epsilon utilized to cut the support of the terms
+     @see Term::supportMinimum()
+     */
+    public static double getSupportEpsilon() {
+        return supportEpsilon;
+    }
+
+    /**
+     Sets the epsilon utilized to cut the support of the terms whose membership
+     functions approach zero asymptotically. A non-positive epsilon makes the
+     support of such terms infinite.
+
+     @param supportEpsilon is the epsilon utilized to cut the support of the
+     terms
+     @see Term::supportMinimum()
+     */
+    public static void setSupportEpsilon(double supportEpsilon) {
+        Term.supportEpsilon = supportEpsilon;
+    }
+
+    /**
+     Gets the minimum of the support of the term, that is, the lower bound of
+     the interval out of which the membership function values of the term are
+     zero. The bound is exact for the terms that are zero beyond fixed
+     parameters (e.g., Triangle, Trapezoid, and Rectangle), and it is cut at
+     Term::getSupportEpsilon() for the terms that approach zero asymptotically
+     (e.g., Gaussian, Bell, and Sigmoid). The default implementation returns
+     `-\infty`, which is the case of the terms whose support is unbounded or
+     unknown (e.g., Constant, Linear, and Function).
+
+     @return the minimum of the support of the term
+     */
+    public double supportMinimum() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     Gets the maximum of the support of the term, that is, the upper bound of
+     the interval out of which the membership function values of the term are
+     zero. The default implementation returns `+\infty`.
+
+     @return the maximum of the support of the term
+     @see Term::supportMinimum()
+     */
+    public double supportMaximum() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     Gets the support of the term as the interval
+     `[Term::supportMinimum(), Term::supportMaximum()]`
+
+     @return the support of the term as an array `{minimum, maximum}`
+     */
+    public double[] support() {
+        return new double[]{supportMinimum(), supportMaximum()};
+    }
+
+    /**
+     Indicates whether the support of the terms that approach zero
+     asymptotically is cut, that is, whether `0 < \epsilon < 1`
+
+     @return whether the support of the terms that approach zero asymptotically
+     is cut
+     */
+    static boolean isSupportCut() {
+        final double epsilon = supportEpsilon;
+        return epsilon > 0.0 && epsilon < 1.0;
+    }
+
     /**
      Indicates whether the term is monotonic.
 
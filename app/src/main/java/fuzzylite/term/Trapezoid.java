@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -135,6 +136,26 @@ public class Trapezoid extends Term {
         return height * 0.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `\min(a, d)`
+     */
+    @Override
+    public double supportMinimum() {
+        return Math.min(vertexA, vertexD);
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `\max(a, d)`
+     */
+    @Override
+    public double supportMaximum() {
+        return Math.max(vertexA, vertexD);
+    }
+
     /**
      Gets the first vertex of the trapezoid
 
@@ -150,6 +171,7 @@ public class Trapezoid extends Term {
      @param a is the first vertex of the trapezoid
      */
     public void setVertexA(double a) {
+        FuzzyLite.modified();
         this.vertexA = a;
     }
 
@@ -168,6 +190,7 @@ public class Trapezoid extends Term {
      @param b is the second vertex of the trapezoid
      */
     public void setVertexB(double b) {
+        FuzzyLite.modified();
         this.vertexB = b;
     }
 
@@ -186,6 +209,7 @@ public class Trapezoid extends Term {
      @param c is the third vertex of the trapezoid
      */
     public void setVertexC(double c) {
+        FuzzyLite.modified();
         this.vertexC = c;
     }
 
@@ -204,6 +228,7 @@ public class Trapezoid extends Term {
      @param d is the fourth vertex of the trapezoid
      */
     public void setVertexD(double d) {
+        FuzzyLite.modified();
         this.vertexD = d;
     }
 
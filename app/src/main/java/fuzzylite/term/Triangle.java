@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -125,6 +126,26 @@ public class Triangle extends Term {
         }
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `\min(a, c)`
+     */
+    @Override
+    public double supportMinimum() {
+        return Math.min(vertexA, vertexC);
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `\max(a, c)`
+     */
+    @Override
+    public double supportMaximum() {
+        return Math.max(vertexA, vertexC);
+    }
+
     /**
      Gets the first vertex of the triangle
 
@@ -140,6 +161,7 @@ public class Triangle extends Term {
      @param a is the first vertex of the triangle
      */
     public void setVertexA(double a) {
+        FuzzyLite.modified();
         this.vertexA = a;
     }
 
@@ -158,6 +180,7 @@ public class Triangle extends Term {
      @param b is the second vertex of the triangle
      */
     public void setVertexB(double b) {
+        FuzzyLite.modified();
         this.vertexB = b;
     }
 
@@ -176,6 +199,7 @@ public class Triangle extends Term {
      @param c is the third vertex of the triangle
      */
     public void setVertexC(double c) {
+        FuzzyLite.modified();
         this.vertexC = c;
     }
 
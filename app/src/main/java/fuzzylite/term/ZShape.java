@@ -16,6 +16,7 @@
  */
 package fuzzylite.term;
 
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 
 import java.util.Iterator;
@@ -116,6 +117,26 @@ public class ZShape extends Term {
         return height * 0.0;
     }
 
+    /**
+     Gets the minimum of the support of the term (exact)
+
+     @return `-\infty`
+     */
+    @Override
+    public double supportMinimum() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     Gets the maximum of the support of the term (exact)
+
+     @return `e`
+     */
+    @Override
+    public double supportMaximum() {
+        return end;
+    }
+
     @Override
     public double tsukamoto(double activationDegree, double minimum, double maximum) {
         double w = activationDegree;
@@ -152,6 +173,7 @@ public class ZShape extends Term {
      @param start is the start of the edge
      */
     public void setStart(double start) {
+        FuzzyLite.modified();
         this.start = start;
     }
 
@@ -170,6 +192,7 @@ public class ZShape extends Term {
      @param end is the end of the edge
      */
     public void setEnd(double end) {
+        FuzzyLite.modified();
         this.end = end;
     }
 
@@ -16,6 +16,8 @@
  */
 package fuzzylite.variable;
 
+import fuzzylite.EvaluationContext;
+import fuzzylite.FuzzyLite;
 import fuzzylite.Op;
 import fuzzylite.defuzzifier.Defuzzifier;
 import fuzzylite.imex.FllExporter;
@@ -24,6 +26,7 @@ import fuzzylite.term.Aggregated;
 import fuzzylite.term.Term;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  The OutputVariable class is a Variable that represents an output of the fuzzy
@@ -146,6 +149,7 @@ public class OutputVariable extends Variable {
      @param defuzzifier is the defuzzifier of the output variable
      */
     public void setDefuzzifier(Defuzzifier defuzzifier) {
+        FuzzyLite.modified();
         this.defuzzifier = defuzzifier;
     }
 
@@ -164,6 +168,7 @@ public class OutputVariable extends Variable {
      @param aggregation is the aggregation
      */
     public void setAggregation(SNorm aggregation) {
+        FuzzyLite.modified();
         this.fuzzyOutput.setAggregation(aggregation);
     }
 
@@ -200,6 +205,7 @@ public class OutputVariable extends Variable {
      @param defaultValue is the default value of the output variable
      */
     public void setDefaultValue(double defaultValue) {
+        FuzzyLite.modified();
         this.defaultValue = defaultValue;
     }
 
@@ -219,6 +225,7 @@ public class OutputVariable extends Variable {
      output variable
      */
     public void setLockPreviousValue(boolean lockPreviousValue) {
+        FuzzyLite.modified();
         this.lockPreviousValue = lockPreviousValue;
     }
 
@@ -227,6 +234,19 @@ public class OutputVariable extends Variable {
      previous output value
      */
     public void defuzzify() {
+        defuzzify((AtomicLong) null);
+    }
+
+    /**
+     Defuzzifies the output variable and stores the output value and the
+     previous output value, adding to the given counter the number of
+     evaluations of the membership functions performed by the defuzzifier (see
+     Defuzzifier::defuzzify(Term, double, double, AtomicLong))
+
+     @param evaluations is the counter of evaluations, or `null` to not count
+     them
+     */
+    public void defuzzify(AtomicLong evaluations) {
         if (!isEnabled()) {
             return;
         }
@@ -249,7 +269,7 @@ public class OutputVariable extends Variable {
             if (getDefuzzifier() != null) {
                 try {
                     result = getDefuzzifier().defuzzify(fuzzyOutput(),
-                            getMinimum(), getMaximum());
+                            getMinimum(), getMaximum(), evaluations);
                     isValid = true;
                 } catch (Exception ex) {
                     exception = ex.toString();
@@ -277,6 +297,73 @@ public class OutputVariable extends Variable {
         }
     }
 
+    /**
+     Defuzzifies the fuzzy output value stored in the evaluation context and
+     stores therein the output value and the previous output value, without
+     modifying the state of the output variable
+
+     @param context is the evaluation context
+     */
+    public void defuzzify(EvaluationContext context) {
+        defuzzify(context, null);
+    }
+
+    /**
+     Defuzzifies the fuzzy output value stored in the evaluation context as in
+     OutputVariable::defuzzify(EvaluationContext), adding to the given counter
+     the number of evaluations of the membership functions performed by the
+     defuzzifier
+
+     @param context is the evaluation context
+     @param evaluations is the counter of evaluations, or `null` to not count
+     them
+     */
+    public void defuzzify(EvaluationContext context, AtomicLong evaluations) {
+        if (!isEnabled()) {
+            return;
+        }
+        final int index = context.indexOf(this);
+        final Aggregated fuzzyOutput = context.fuzzyOutput(index);
+        if (Op.isFinite(context.getOutputValue(index))) {
+            context.setPreviousOutputValue(index, context.getOutputValue(index));
+        }
+
+        String exception = null;
+
+        double result = Double.NaN;
+        boolean isValid = !fuzzyOutput.getTerms().isEmpty();
+        if (isValid) {
+            isValid = false;
+            if (getDefuzzifier() != null) {
+                try {
+                    result = getDefuzzifier().defuzzify(fuzzyOutput,
+                            getMinimum(), getMaximum(), evaluations);
+                    isValid = true;
+                } catch (Exception ex) {
+                    exception = ex.toString();
+                }
+            } else {
+                exception = String.format("[defuzzifier error] defuzzifier needed "
+                        + "to defuzzify output variable <%s>", getName());
+            }
+        }
+
+        if (!isValid) {
+            final double previousValue = context.getPreviousOutputValue(index);
+            if (isLockPreviousValue() && !Double.isNaN(previousValue)) {
+                result = previousValue;
+            } else {
+                result = getDefaultValue();
+            }
+        }
+
+        context.setOutputValue(index, result);
+
+        if (exception != null) {
+            throw new RuntimeException(exception);
+        }
+    }
+
     /**
      Gets a string representation of the fuzzy output value `\tilde{y}`
 
@@ -16,6 +16,8 @@
  */
 package fuzzylite.variable;
 
+import fuzzylite.FuzzyLite;
+import fuzzylite.NameIndex;
 import fuzzylite.Op;
 import fuzzylite.defuzzifier.Centroid;
 import fuzzylite.defuzzifier.Defuzzifier;
@@ -46,6 +48,8 @@ public class Variable implements Op.Cloneable {
     private String name;
     private String description;
     private List<Term> terms;
+    private NameIndex<Term> termIndex;
+    private NameIndex.Registry nameIndexes;
     private double value;
     private double minimum, maximum;
     private boolean enabled;
@@ -59,6 +63,8 @@ public class Variable implements Op.Cloneable {
         this.name = name;
         this.description = "";
         this.terms = new ArrayList<>();
+        this.termIndex = NameIndex.ofTerms();
+        this.nameIndexes = new NameIndex.Registry();
         this.value = Double.NaN;
         this.minimum = minimum;
         this.maximum = maximum;
@@ -81,9 +87,21 @@ public class Variable implements Op.Cloneable {
      @param name is the name of the variable
      */
     public void setName(String name) {
+        FuzzyLite.modified();
+        nameIndexes.renamed();
         this.name = name;
     }
 
+    /**
+     Gets the registry of the indexes by name that contain the variable, which
+     are invalidated when the variable is renamed
+
+     @return the registry of the indexes by name that contain the variable
+     */
+    public NameIndex.Registry nameIndexes() {
+        return nameIndexes;
+    }
+
     /**
      Gets the description of the variable
 
@@ -131,6 +149,7 @@ public class Variable implements Op.Cloneable {
      @param maximum is the maximum value in range
      */
     public void setRange(double minimum, double maximum) {
+        FuzzyLite.modified();
         setMinimum(minimum);
         setMaximum(maximum);
     }
@@ -159,6 +178,7 @@ public class Variable implements Op.Cloneable {
      @param minimum is the minimum value of the range
      */
     public void setMinimum(double minimum) {
+        FuzzyLite.modified();
         this.minimum = minimum;
     }
 
@@ -177,6 +197,7 @@ public class Variable implements Op.Cloneable {
      @param maximum is the maximum value of the range
      */
     public void setMaximum(double maximum) {
+        FuzzyLite.modified();
         this.maximum = maximum;
     }
 
@@ -186,6 +207,7 @@ public class Variable implements Op.Cloneable {
      @param enabled determines whether to enable the variable
      */
     public void setEnabled(boolean enabled) {
+        FuzzyLite.modified();
         this.enabled = enabled;
     }
 
@@ -239,6 +261,7 @@ public class Variable implements Op.Cloneable {
      the variable
      */
     public void setLockValueInRange(boolean lockValueInRange) {
+        FuzzyLite.modified();
         this.lockValueInRange = lockValueInRange;
     }
 
@@ -347,6 +370,7 @@ public class Variable implements Op.Cloneable {
      Sorts the terms in ascending order according to their centroids
      */
     public void sort() {
+        FuzzyLite.modified();
         PriorityQueue<Op.Pair<Term, Double>> termCentroids
                 = new PriorityQueue<Op.Pair<Term, Double>>(
                         terms.size(), new Ascending());
@@ -378,7 +402,9 @@ public class Variable implements Op.Cloneable {
      @param term is the term to add
      */
     public void addTerm(Term term) {
+        FuzzyLite.modified();
         this.terms.add(term);
+        this.termIndex.invalidate();
     }
 
     /**
@@ -388,7 +414,9 @@ public class Variable implements Op.Cloneable {
      @param index is the index where the term will be inserted
      */
     public void insert(Term term, int index) {
+        FuzzyLite.modified();
         this.terms.add(index, term);
+        this.termIndex.invalidate();
     }
 
     /**
@@ -402,18 +430,28 @@ public class Variable implements Op.Cloneable {
     }
 
     /**
-     Gets the term of the given name.
+     Gets the index of the term of the given name utilizing an index of the
+     terms by name. The index remains valid until terms are inserted, removed,
+     or sorted.
+
+     @param name is the name of the term
+     @return the index of the term of the given name, or `-1` if there is no
+     term of the given name
+     */
+    public int indexOfTerm(String name) {
+        return termIndex.indexOf(this.terms, name);
+    }
+
+    /**
+     Gets the term of the given name utilizing an index of the terms by name,
+     whose cost is O(1)
 
      @param name is the name of the term to retrieve
      @return the term of the given name
      */
     public Term getTerm(String name) {
-        for (Term term : this.terms) {
-            if (name.equals(term.getName())) {
-                return term;
-            }
-        }
-        return null;
+        int index = indexOfTerm(name);
+        return index < 0 ? null : this.terms.get(index);
     }
 
     /**
@@ -423,7 +461,7 @@ public class Variable implements Op.Cloneable {
      @return whether the term of the given name is found
      */
     public boolean hasTerm(String name) {
-        return this.getTerm(name) != null;
+        return indexOfTerm(name) >= 0;
     }
 
     /**
@@ -433,6 +471,8 @@ public class Variable implements Op.Cloneable {
      @return whether the term existed in the list
      */
     public boolean removeTerm(Term term) {
+        FuzzyLite.modified();
+        this.termIndex.invalidate();
         return this.terms.remove(term);
     }
 
@@ -443,15 +483,13 @@ public class Variable implements Op.Cloneable {
      @return the removed term or null if not found
      */
     public Term removeTerm(String name) {
-        Iterator<Term> it = this.terms.iterator();
-        while (it.hasNext()) {
-            Term term = it.next();
-            if (term.getName().equals(name)) {
-                it.remove();
-                return term;
-            }
+        FuzzyLite.modified();
+        int index = indexOfTerm(name);
+        if (index < 0) {
+            return null;
         }
-        return null;
+        this.termIndex.invalidate();
+        return this.terms.remove(index);
     }
 
     /**
@@ -478,7 +516,9 @@ public class Variable implements Op.Cloneable {
      @param terms is a vector of terms
      */
     public void setTerms(List<Term> terms) {
+        FuzzyLite.modified();
         this.terms = terms;
+        this.termIndex.invalidate();
     }
 
     /**
@@ -490,6 +530,8 @@ public class Variable implements Op.Cloneable {
     @Override
     public Variable clone() throws CloneNotSupportedException {
         Variable result = (Variable) super.clone();
+        result.termIndex = NameIndex.ofTerms();
+        result.nameIndexes = new NameIndex.Registry();
         result.terms = new ArrayList<Term>(this.terms.size());
         for (Term term : this.terms) {
             result.terms.add(term.clone());
@@ -0,0 +1,60 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.imex.FldExporter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ Tests that Engine::process() allocates no memory in steady state on the
+ console example engines. The tests are skipped where the platform does not
+ count the bytes allocated by a thread (see Benchmark::allocatedBytes()).
+ */
+public class AllocationTest {
+
+    private static final int VALUES = 1024;
+    private static final int WARMUPS = 20;
+
+    private static void assertNoAllocation(Engine engine) {
+        Benchmark benchmark = new Benchmark(engine.getName(), engine);
+        benchmark.prepare(VALUES, FldExporter.ScopeOfValues.AllVariables);
+        final double bytes = benchmark.allocatedBytes(WARMUPS);
+        assumeTrue("allocated bytes cannot be measured in this platform",
+                !Double.isNaN(bytes));
+        assertEquals("bytes allocated per evaluation of <" + engine.getName() + ">",
+                0.0, bytes, 0.0);
+    }
+
+    @Test
+    public void processMamdani() {
+        assertNoAllocation(Console.mamdani());
+    }
+
+    @Test
+    public void processTakagiSugeno() {
+        assertNoAllocation(Console.takagiSugeno());
+    }
+
+    @Test
+    public void processHybrid() {
+        assertNoAllocation(Console.hybrid());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite;
+
+import fuzzylite.imex.FldExporter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ Tests that Engine::process(EvaluationContext) evaluated from many threads on
+ a single engine yields exactly the output values of Engine::process()
+ evaluated sequentially.
+ */
+public class EvaluationContextTest {
+
+    private static final int THREADS = 64;
+    private static final int VALUES = 1024;
+
+    private static void assertConcurrentEqualsSequential(Engine engine) {
+        Benchmark benchmark = new Benchmark(engine.getName(), engine);
+        benchmark.prepare(VALUES, FldExporter.ScopeOfValues.AllVariables);
+        assertEquals("output values that differ from the sequential evaluation",
+                0, benchmark.concurrencyErrors(THREADS));
+    }
+
+    @Test
+    public void concurrentMamdani() {
+        assertConcurrentEqualsSequential(Console.mamdani());
+    }
+
+    @Test
+    public void concurrentTakagiSugeno() {
+        assertConcurrentEqualsSequential(Console.takagiSugeno());
+    }
+
+    @Test
+    public void concurrentHybrid() {
+        assertConcurrentEqualsSequential(Console.hybrid());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.activation;
+
+import fuzzylite.Benchmark;
+import fuzzylite.Engine;
+import fuzzylite.EvaluationContext;
+import fuzzylite.imex.FldExporter;
+import fuzzylite.imex.FllImporter;
+import fuzzylite.term.Triangle;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ Tests that the Sparse activation yields the output values of the General
+ activation, also when evaluated concurrently, and that it allocates no memory
+ in steady state.
+ */
+public class SparseTest {
+
+    private static final int THREADS = 64;
+    private static final int VALUES = 1024;
+    private static final int WARMUPS = 20;
+
+    private static final String ENGINE = "Engine: sparse\n"
+            + "InputVariable: x\n"
+            + "  enabled: true\n"
+            + "  range: 0.000 1.000\n"
+            + "  term: low Triangle 0.000 0.250 0.500\n"
+            + "  term: high Triangle 0.500 0.750 1.000\n"
+            + "OutputVariable: y\n"
+            + "  enabled: true\n"
+            + "  range: 0.000 2.000\n"
+            + "  aggregation: Maximum\n"
+            + "  defuzzifier: Centroid 200\n"
+            + "  default: nan\n"
+            + "  term: a Triangle 0.000 0.500 1.000\n"
+            + "  term: b Triangle 1.000 1.500 2.000\n"
+            + "RuleBlock: rules\n"
+            + "  enabled: true\n"
+            + "  conjunction: Minimum\n"
+            + "  implication: Minimum\n"
+            + "  activation: %s\n"
+            + "  rule: if x is low then y is a\n"
+            + "  rule: if x is high then y is b\n";
+
+    /**
+     Processes the engine once with the given activation, moves the support of
+     the term `high` to contain the input value, and processes the engine
+     again
+
+     @return the output values of Engine::process() and
+     Engine::process(EvaluationContext) after moving the term
+     */
+    private static double[] processAfterMovingTerm(String activation) {
+        Engine engine = new FllImporter().fromString(String.format(ENGINE, activation));
+        engine.setInputValue("x", 0.3);
+        engine.process();
+
+        Triangle high = (Triangle) engine.getInputVariable("x").getTerm("high");
+        high.setVertexA(0.2);
+        high.setVertexB(0.4);
+        high.setVertexC(1.0);
+
+        engine.process();
+        EvaluationContext context = new EvaluationContext(engine);
+        context.setInputValue("x", 0.3);
+        engine.process(context);
+        return new double[]{engine.getOutputValue("y"), context.getOutputValue("y")};
+    }
+
+    @Test
+    public void indexFollowsTermModifications() {
+        double[] general = processAfterMovingTerm(General.class.getSimpleName());
+        double[] sparse = processAfterMovingTerm(Sparse.class.getSimpleName());
+        assertEquals("output value of Engine::process()",
+                general[0], sparse[0], 0.0);
+        assertEquals("output value of Engine::process(EvaluationContext)",
+                general[1], sparse[1], 0.0);
+    }
+
+    @Test
+    public void concurrentSparse() {
+        Engine engine = new FllImporter().fromString(String.format(ENGINE,
+                Sparse.class.getSimpleName()));
+        Benchmark benchmark = new Benchmark(engine.getName(), engine);
+        benchmark.prepare(VALUES, FldExporter.ScopeOfValues.AllVariables);
+        assertEquals("output values that differ from the sequential evaluation",
+                0, benchmark.concurrencyErrors(THREADS));
+    }
+
+    @Test
+    public void processSparse() {
+        Engine engine = new FllImporter().fromString(String.format(ENGINE,
+                Sparse.class.getSimpleName()));
+        Benchmark benchmark = new Benchmark(engine.getName(), engine);
+        benchmark.prepare(VALUES, FldExporter.ScopeOfValues.AllVariables);
+        final double bytes = benchmark.allocatedBytes(WARMUPS);
+        assumeTrue("allocated bytes cannot be measured in this platform",
+                !Double.isNaN(bytes));
+        assertEquals("bytes allocated per evaluation", 0.0, bytes, 0.0);
+    }
+}
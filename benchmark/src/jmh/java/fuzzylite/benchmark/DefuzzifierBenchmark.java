@@ -0,0 +1,84 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.defuzzifier.IntegralDefuzzifier;
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.Minimum;
+import fuzzylite.term.Activated;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Trapezoid;
+import fuzzylite.term.Triangle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks IntegralDefuzzifier::defuzzify() of every integral defuzzifier at
+ different resolutions and integration methods on an Aggregated term of
+ Activated triangles and trapezoids.
+
+ @see IntegralDefuzzifier
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefuzzifierBenchmark {
+
+    @Param({"Bisector", "Centroid", "LargestOfMaximum", "MeanOfMaximum",
+        "SmallestOfMaximum"})
+    public String defuzzifier;
+
+    @Param({"100", "1000", "10000", "250000"})
+    public int resolution;
+
+    @Param({"Sampling", "Exact"})
+    public String integration;
+
+    private IntegralDefuzzifier instance;
+    private Aggregated fuzzyOutput;
+
+    @Setup
+    public void setup() {
+        instance = (IntegralDefuzzifier) FactoryManager.instance()
+                .defuzzifier().constructObject(defuzzifier);
+        instance.setResolution(resolution);
+        instance.setIntegration(IntegralDefuzzifier.Integration.valueOf(integration));
+        fuzzyOutput = fuzzyOutput();
+    }
+
+    static Aggregated fuzzyOutput() {
+        Aggregated result = new Aggregated("output", 0.0, 1.0, new Maximum());
+        Minimum implication = new Minimum();
+        result.getTerms().add(new Activated(new Triangle("A", 0.0, 0.15, 0.3), 0.2, implication));
+        result.getTerms().add(new Activated(new Triangle("B", 0.2, 0.4, 0.6), 0.7, implication));
+        result.getTerms().add(new Activated(new Trapezoid("C", 0.45, 0.6, 0.7, 0.85), 0.5, implication));
+        result.getTerms().add(new Activated(new Triangle("D", 0.75, 0.9, 1.0), 0.1, implication));
+        return result;
+    }
+
+    @Benchmark
+    public double defuzzify() {
+        return instance.defuzzify(fuzzyOutput, 0.0, 1.0);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.Console;
+import fuzzylite.Engine;
+import fuzzylite.variable.InputVariable;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks Engine::process() of the example engines of the Console on a
+ sequence of random input values within the ranges of the input variables.
+
+ @see Engine
+ @see Console
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EngineBenchmark {
+
+    static final int VALUES = 256;
+
+    @Param({"mamdani", "takagiSugeno", "hybrid"})
+    public String example;
+
+    private Engine engine;
+    private double[][] inputValues;
+
+    @Setup
+    public void setup() {
+        if ("mamdani".equals(example)) {
+            engine = Console.mamdani();
+        } else if ("takagiSugeno".equals(example)) {
+            engine = Console.takagiSugeno();
+        } else {
+            engine = Console.hybrid();
+        }
+        Random random = new Random(0);
+        inputValues = new double[VALUES][engine.numberOfInputVariables()];
+        for (int i = 0; i < VALUES; ++i) {
+            for (int v = 0; v < engine.numberOfInputVariables(); ++v) {
+                InputVariable inputVariable = engine.getInputVariable(v);
+                inputValues[i][v] = inputVariable.getMinimum()
+                        + random.nextDouble() * inputVariable.range();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double process() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            for (int v = 0; v < inputValues[i].length; ++v) {
+                engine.getInputVariable(v).setValue(inputValues[i][v]);
+            }
+            engine.process();
+            for (int v = 0; v < engine.numberOfOutputVariables(); ++v) {
+                result += engine.getOutputVariable(v).getValue();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.term.Function;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks the parsing and the evaluation of Function terms with formulas of
+ different complexity.
+
+ @see Function
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FunctionBenchmark {
+
+    static final int VALUES = 1024;
+
+    @Param({"x", "2 * x + 1", "sin(x) * cos(x) + x ^ 2 / (1 + abs(x))",
+        "exp(~x) * (1 + log(1 + x)) - sqrt(x) % 0.3 + x ^ 3"})
+    public String formula;
+
+    private Function function;
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        function = new Function("f", formula, null);
+        function.load();
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; ++i) {
+            values[i] = (i + 0.5) / VALUES;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double membership() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            result += function.membership(values[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Function parse() {
+        Function result = new Function("f", formula, null);
+        result.load();
+        return result;
+    }
+}
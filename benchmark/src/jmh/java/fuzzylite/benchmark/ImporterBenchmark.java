@@ -0,0 +1,67 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.Console;
+import fuzzylite.Engine;
+import fuzzylite.imex.FllExporter;
+import fuzzylite.imex.FllImporter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks FllImporter::fromString() on the FuzzyLite Language of the example
+ engines of the Console.
+
+ @see FllImporter
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImporterBenchmark {
+
+    @Param({"mamdani", "takagiSugeno", "hybrid"})
+    public String example;
+
+    private String fll;
+    private FllImporter importer;
+
+    @Setup
+    public void setup() {
+        Engine engine;
+        if ("mamdani".equals(example)) {
+            engine = Console.mamdani();
+        } else if ("takagiSugeno".equals(example)) {
+            engine = Console.takagiSugeno();
+        } else {
+            engine = Console.hybrid();
+        }
+        fll = new FllExporter().toString(engine);
+        importer = new FllImporter();
+    }
+
+    @Benchmark
+    public Engine fromString() {
+        return importer.fromString(fll);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.CompiledEngine;
+import fuzzylite.Engine;
+import fuzzylite.activation.General;
+import fuzzylite.defuzzifier.Centroid;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.Minimum;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Triangle;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks CompiledEngine::processIncremental() against
+ CompiledEngine::process() as a function of the fraction of input variables
+ whose values change between consecutive evaluations. The engine has
+ `2 * outputs` input variables and `outputs` output variables, where each
+ output variable is inferred from its own pair of input variables by nine
+ Mamdani rules, so that the speedup of the incremental evaluation is
+ proportional to the fraction of input variables that remain unchanged.
+
+ @see CompiledEngine
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncrementalBenchmark {
+
+    static final int VALUES = 256;
+    static final String[] TERMS = {"low", "mid", "high"};
+
+    @Param({"8"})
+    public int outputs;
+
+    @Param({"0.0625", "0.125", "0.25", "0.5", "1.0"})
+    public double fraction;
+
+    private Engine engine;
+    private CompiledEngine compiledEngine;
+    private double[][] inputValues;
+
+    @Setup
+    public void setup() {
+        engine = createEngine(outputs);
+        compiledEngine = new CompiledEngine(engine);
+
+        final int inputs = engine.numberOfInputVariables();
+        final int changes = Math.max(1, (int) Math.round(fraction * inputs));
+        Random random = new Random(0);
+        inputValues = new double[VALUES][inputs];
+        for (int v = 0; v < inputs; ++v) {
+            inputValues[VALUES - 1][v] = random.nextDouble();
+        }
+        int next = 0;
+        for (int i = 0; i < VALUES; ++i) {
+            double[] previous = inputValues[(i + VALUES - 1) % VALUES];
+            System.arraycopy(previous, 0, inputValues[i], 0, inputs);
+            for (int c = 0; c < changes; ++c) {
+                inputValues[i][next] = random.nextDouble();
+                next = (next + 1) % inputs;
+            }
+        }
+    }
+
+    static Engine createEngine(int outputs) {
+        Engine engine = new Engine("incremental");
+        for (int o = 0; o < outputs; ++o) {
+            for (int k = 0; k < 2; ++k) {
+                InputVariable inputVariable = new InputVariable("in" + o + "_" + k, 0.0, 1.0);
+                inputVariable.addTerm(new Triangle("low", -0.5, 0.0, 0.5));
+                inputVariable.addTerm(new Triangle("mid", 0.0, 0.5, 1.0));
+                inputVariable.addTerm(new Triangle("high", 0.5, 1.0, 1.5));
+                engine.addInputVariable(inputVariable);
+            }
+            OutputVariable outputVariable = new OutputVariable("out" + o, 0.0, 1.0);
+            outputVariable.setAggregation(new Maximum());
+            outputVariable.setDefuzzifier(new Centroid(100));
+            outputVariable.addTerm(new Triangle("low", -0.5, 0.0, 0.5));
+            outputVariable.addTerm(new Triangle("mid", 0.0, 0.5, 1.0));
+            outputVariable.addTerm(new Triangle("high", 0.5, 1.0, 1.5));
+            engine.addOutputVariable(outputVariable);
+        }
+        RuleBlock ruleBlock = new RuleBlock();
+        ruleBlock.setConjunction(new Minimum());
+        ruleBlock.setImplication(new Minimum());
+        ruleBlock.setActivation(new General());
+        for (int o = 0; o < outputs; ++o) {
+            for (int a = 0; a < TERMS.length; ++a) {
+                for (int b = 0; b < TERMS.length; ++b) {
+                    ruleBlock.addRule(Rule.parse("if in" + o + "_0 is " + TERMS[a]
+                            + " and in" + o + "_1 is " + TERMS[b]
+                            + " then out" + o + " is " + TERMS[(a + b) / 2], engine));
+                }
+            }
+        }
+        engine.addRuleBlock(ruleBlock);
+        return engine;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double process() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            for (int v = 0; v < inputValues[i].length; ++v) {
+                engine.getInputVariable(v).setValue(inputValues[i][v]);
+            }
+            compiledEngine.process();
+            for (int v = 0; v < engine.numberOfOutputVariables(); ++v) {
+                result += engine.getOutputVariable(v).getValue();
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double processIncremental() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            for (int v = 0; v < inputValues[i].length; ++v) {
+                engine.getInputVariable(v).setValue(inputValues[i][v]);
+            }
+            compiledEngine.processIncremental();
+            for (int v = 0; v < engine.numberOfOutputVariables(); ++v) {
+                result += engine.getOutputVariable(v).getValue();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.norm.Norm;
+import fuzzylite.norm.s.SNormFunction;
+import fuzzylite.norm.t.TNormFunction;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks Norm::compute() of every TNorm in fuzzylite.norm.t and every SNorm
+ in fuzzylite.norm.s on a sequence of pairs of values in `[0,1]`.
+
+ @see fuzzylite.norm.TNorm
+ @see fuzzylite.norm.SNorm
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NormBenchmark {
+
+    static final int VALUES = 1024;
+
+    @Param({"AlgebraicProduct", "BoundedDifference", "DrasticProduct",
+        "EinsteinProduct", "HamacherProduct", "Minimum", "NilpotentMinimum",
+        "TNormFunction",
+        "AlgebraicSum", "BoundedSum", "DrasticSum", "EinsteinSum", "HamacherSum",
+        "Maximum", "NilpotentMaximum", "NormalizedSum", "UnboundedSum",
+        "SNormFunction"})
+    public String norm;
+
+    private Norm instance;
+    private double[] a;
+    private double[] b;
+
+    @Setup
+    public void setup() {
+        if ("TNormFunction".equals(norm)) {
+            instance = new TNormFunction("a * b");
+        } else if ("SNormFunction".equals(norm)) {
+            instance = new SNormFunction("a + b - a * b");
+        } else if (FactoryManager.instance().tnorm().hasConstructor(norm)) {
+            instance = FactoryManager.instance().tnorm().constructObject(norm);
+        } else {
+            instance = FactoryManager.instance().snorm().constructObject(norm);
+        }
+        Random random = new Random(0);
+        a = new double[VALUES];
+        b = new double[VALUES];
+        for (int i = 0; i < VALUES; ++i) {
+            a[i] = random.nextDouble();
+            b[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double compute() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            result += instance.compute(a[i], b[i]);
+        }
+        return result;
+    }
+}
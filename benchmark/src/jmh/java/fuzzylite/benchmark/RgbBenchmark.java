@@ -0,0 +1,162 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.Engine;
+import fuzzylite.defuzzifier.Bisector;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.AlgebraicProduct;
+import fuzzylite.rule.Rule;
+import fuzzylite.rule.RuleBlock;
+import fuzzylite.term.Gaussian;
+import fuzzylite.term.Term;
+import fuzzylite.term.Triangle;
+import fuzzylite.variable.InputVariable;
+import fuzzylite.variable.OutputVariable;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks Engine::process() of a copy of the RGB engine of the application
+ (ir.sinapp.fuzzy.Fuzzy), with triangular (0) and gaussian (1) input terms, on
+ the integer positions `[0,15]` of the sliders of the red, green and blue
+ components.
+
+ The copy contains the ledColor output variable and its rules only, because
+ the lum output variable is not part of the engine of the application.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RgbBenchmark {
+
+    @Param({"0", "1"})
+    public int terms;
+
+    private Engine engine;
+    private InputVariable red;
+    private InputVariable green;
+    private InputVariable blue;
+    private OutputVariable ledColor;
+    private int position;
+
+    @Setup
+    public void setup() {
+        engine = new Engine();
+        engine.setName("RGB");
+
+        red = newInputVariable("red", terms);
+        green = newInputVariable("green", terms);
+        blue = newInputVariable("blue", terms);
+        engine.addInputVariable(red);
+        engine.addInputVariable(green);
+        engine.addInputVariable(blue);
+
+        ledColor = new OutputVariable();
+        ledColor.setEnabled(true);
+        ledColor.setName("ledColor");
+        ledColor.setRange(0, 4095);
+        ledColor.fuzzyOutput().setAggregation(new Maximum());
+        ledColor.setDefuzzifier(new Bisector(250000));
+        ledColor.setDefaultValue(Double.NaN);
+        ledColor.setLockValueInRange(false);
+        ledColor.setLockPreviousValue(false);
+        ledColor.addTerm(new Triangle("black", 0, 0, 8));
+        ledColor.addTerm(new Triangle("blue", 7, 15, 119));
+        ledColor.addTerm(new Triangle("ocean", 112, 127, 198));
+        ledColor.addTerm(new Triangle("green", 168, 240, 244));
+        ledColor.addTerm(new Triangle("turquoise", 243, 247, 251));
+        ledColor.addTerm(new Triangle("cyan", 250, 255, 1225));
+        ledColor.addTerm(new Triangle("purple", 837, 1807, 1872));
+        ledColor.addTerm(new Triangle("grey", 1846, 1911, 1987));
+        ledColor.addTerm(new Triangle("lime", 1956, 2032, 3162));
+        ledColor.addTerm(new Triangle("red", 2710, 3840, 3844));
+        ledColor.addTerm(new Triangle("raspberry", 3843, 3847, 3851));
+        ledColor.addTerm(new Triangle("magenta", 3850, 3855, 3916));
+        ledColor.addTerm(new Triangle("orange", 3891, 3952, 4032));
+        ledColor.addTerm(new Triangle("yellow", 4000, 4080, 4089));
+        ledColor.addTerm(new Triangle("white", 4085, 4095, 4095));
+        engine.addOutputVariable(ledColor);
+
+        RuleBlock ruleBlock = new RuleBlock();
+        ruleBlock.setEnabled(true);
+        ruleBlock.setName("");
+        ruleBlock.setImplication(new AlgebraicProduct());
+        ruleBlock.setConjunction(new AlgebraicProduct());
+        ruleBlock.setDisjunction(null);
+        ruleBlock.addRule(Rule.parse("if red is high and green is low and blue is low then ledColor is red", engine));
+        ruleBlock.addRule(Rule.parse("if red is high and green is mid and blue is low then ledColor is orange", engine));
+        ruleBlock.addRule(Rule.parse("if red is high and green is high and blue is low then ledColor is yellow", engine));
+        ruleBlock.addRule(Rule.parse("if red is mid and green is high and blue is low then ledColor is lime", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is high and blue is low then ledColor is green", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is high and blue is mid then ledColor is turquoise", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is high and blue is high then ledColor is cyan", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is mid and blue is high then ledColor is ocean", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is low and blue is high then ledColor is blue", engine));
+        ruleBlock.addRule(Rule.parse("if red is mid and green is low and blue is high then ledColor is purple", engine));
+        ruleBlock.addRule(Rule.parse("if red is high and green is low and blue is high then ledColor is magenta", engine));
+        ruleBlock.addRule(Rule.parse("if red is high and green is low and blue is mid then ledColor is raspberry", engine));
+        ruleBlock.addRule(Rule.parse("if red is high and green is high and blue is high then ledColor is white", engine));
+        ruleBlock.addRule(Rule.parse("if red is mid and green is mid and blue is mid then ledColor is grey", engine));
+        ruleBlock.addRule(Rule.parse("if red is low and green is low and blue is low then ledColor is black", engine));
+        engine.addRuleBlock(ruleBlock);
+
+        StringBuilder status = new StringBuilder();
+        if (!engine.isReady(status)) {
+            throw new RuntimeException("[benchmark error] engine not ready:\n" + status);
+        }
+        position = 0;
+    }
+
+    private static InputVariable newInputVariable(String name, int terms) {
+        InputVariable result = new InputVariable();
+        result.setEnabled(true);
+        result.setName(name);
+        result.setRange(0.000, 15.000);
+        final double standardDeviation = 2.25;
+        Term low, mid, high;
+        if (terms == 0) {
+            low = new Triangle("low", 0.0, 0.0, 5.0);
+            mid = new Triangle("mid", 2.5, 7.5, 12.5);
+            high = new Triangle("high", 10.0, 15.0, 15.0);
+        } else {
+            low = new Gaussian("low", 0.0, standardDeviation);
+            mid = new Gaussian("mid", 7.5, standardDeviation);
+            high = new Gaussian("high", 15.0, standardDeviation);
+        }
+        result.addTerm(low);
+        result.addTerm(mid);
+        result.addTerm(high);
+        return result;
+    }
+
+    @Benchmark
+    public double process() {
+        red.setValue(position & 0xf);
+        green.setValue((position >> 4) & 0xf);
+        blue.setValue((position >> 8) & 0xf);
+        position = (position + 1) & 0xfff;
+        engine.process();
+        return ledColor.getValue();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.Console;
+import fuzzylite.Engine;
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.term.Function;
+import fuzzylite.term.Term;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks Term::membership() of every term registered in the TermFactory on
+ a sequence of values in `[0,1]`.
+
+ @see Term
+ @see fuzzylite.factory.TermFactory
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TermBenchmark {
+
+    static final int VALUES = 1024;
+
+    static final Map<String, String> PARAMETERS = new HashMap<String, String>();
+
+    static {
+        PARAMETERS.put("Bell", "0.5 0.2 2");
+        PARAMETERS.put("Binary", "0.5 inf");
+        PARAMETERS.put("Concave", "0.5 0.8");
+        PARAMETERS.put("Constant", "0.5");
+        PARAMETERS.put("Cosine", "0.5 0.6");
+        PARAMETERS.put("Discrete", "0 0 0.25 1 0.5 0.5 1 0");
+        PARAMETERS.put("Function", "sin(x) * cos(x) + x ^ 2 / (1 + abs(x))");
+        PARAMETERS.put("Gaussian", "0.5 0.2");
+        PARAMETERS.put("GaussianProduct", "0.3 0.1 0.7 0.1");
+        PARAMETERS.put("Linear", "0.5 0.25 0.1");
+        PARAMETERS.put("PiShape", "0 0.3 0.7 1");
+        PARAMETERS.put("Ramp", "0 1");
+        PARAMETERS.put("Rectangle", "0.25 0.75");
+        PARAMETERS.put("SShape", "0 1");
+        PARAMETERS.put("Sigmoid", "0.5 10");
+        PARAMETERS.put("SigmoidDifference", "0.25 20 20 0.75");
+        PARAMETERS.put("SigmoidProduct", "0.25 20 -20 0.75");
+        PARAMETERS.put("Spike", "0.5 1");
+        PARAMETERS.put("Trapezoid", "0 0.25 0.75 1");
+        PARAMETERS.put("Triangle", "0 0.5 1");
+        PARAMETERS.put("ZShape", "0 1");
+    }
+
+    @Param({"Bell", "Binary", "Concave", "Constant", "Cosine", "Discrete",
+        "Function", "Gaussian", "GaussianProduct", "Linear", "PiShape", "Ramp",
+        "Rectangle", "SShape", "Sigmoid", "SigmoidDifference", "SigmoidProduct",
+        "Spike", "Trapezoid", "Triangle", "ZShape"})
+    public String term;
+
+    private Term instance;
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        instance = FactoryManager.instance().term().constructObject(term);
+        instance.configure(PARAMETERS.get(term));
+        //Linear terms are evaluated on the input values of the engine
+        Engine engine = Console.hybrid();
+        engine.setInputValue("service", 7.0);
+        engine.setInputValue("food", 3.0);
+        instance.updateReference(engine);
+        if (instance instanceof Function) {
+            ((Function) instance).load();
+        }
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; ++i) {
+            values[i] = (i + 0.5) / VALUES;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double membership() {
+        double result = 0.0;
+        for (int i = 0; i < VALUES; ++i) {
+            result += instance.membership(values[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ jfuzzylite (TM), a fuzzy logic control library in Java.
+ Copyright (C) 2010-2017 FuzzyLite Limited. All rights reserved.
+ Author: Juan Rada-Vilela, Ph.D. <jcrada@fuzzylite.com>
+
+ This file is part of jfuzzylite.
+
+ jfuzzylite is free software: you can redistribute it and/or modify it under
+ the terms of the FuzzyLite License included with the software.
+
+ You should have received a copy of the FuzzyLite License along with
+ jfuzzylite. If not, see <http://www.fuzzylite.com/license/>.
+
+ jfuzzylite is a trademark of FuzzyLite Limited.
+ fuzzylite (R) is a registered trademark of FuzzyLite Limited.
+ */
+package fuzzylite.benchmark;
+
+import fuzzylite.defuzzifier.WeightedDefuzzifier;
+import fuzzylite.factory.FactoryManager;
+import fuzzylite.norm.s.Maximum;
+import fuzzylite.norm.t.AlgebraicProduct;
+import fuzzylite.term.Activated;
+import fuzzylite.term.Aggregated;
+import fuzzylite.term.Constant;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ Benchmarks WeightedDefuzzifier::defuzzify() of every weighted defuzzifier on
+ an Aggregated term of Activated constants. The weighted defuzzifiers have no
+ resolution.
+
+ @see WeightedDefuzzifier
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeightedDefuzzifierBenchmark {
+
+    @Param({"WeightedAverage", "WeightedSum"})
+    public String defuzzifier;
+
+    @Param({"4", "64"})
+    public int terms;
+
+    private WeightedDefuzzifier instance;
+    private Aggregated fuzzyOutput;
+
+    @Setup
+    public void setup() {
+        instance = (WeightedDefuzzifier) FactoryManager.instance()
+                .defuzzifier().constructObject(defuzzifier);
+        fuzzyOutput = new Aggregated("output", 0.0, 1.0, new Maximum());
+        AlgebraicProduct implication = new AlgebraicProduct();
+        for (int i = 0; i < terms; ++i) {
+            fuzzyOutput.getTerms().add(new Activated(new Constant("c" + i, (i + 0.5) / terms),
+                    (i % 7 + 1) / 7.0, implication));
+        }
+    }
+
+    @Benchmark
+    public double defuzzify() {
+        return instance.defuzzify(fuzzyOutput, 0.0, 1.0);
+    }
+}